@@ -0,0 +1,172 @@
+package aggregate;
+
+import java.util.Arrays;
+
+/**
+ * 成交聚合成 K 线 - 时间、成交量、笔数三种切分
+ * <p>
+ * Trades come in with {@link #onTrade(long, double, long)}, each bar is
+ * handed to the listeners when it is done. Finished bars of another
+ * aggregator come in with {@link #onBar}, so the timeframes cascade without
+ * reading the trades again:
+ * <pre>
+ * BarAggregator minute = BarAggregator.time(60_000);
+ * BarAggregator fiveMinutes = BarAggregator.time(5 * 60_000);
+ * ChartBarCollector bars = new ChartBarCollector();
+ * minute.addListener(fiveMinutes);
+ * fiveMinutes.addListener(bars);
+ * ...
+ * minute.onTrade(time, price, size);
+ * ...
+ * minute.flush();
+ * </pre>
+ * The open bar is a few fields, memory does not grow with the trades. Not
+ * thread safe, feed each aggregator from one thread.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public abstract class BarAggregator implements BarListener {
+    private BarListener[] listeners = new BarListener[0];
+
+    // the open bar, empty when count is 0
+    long start;
+    double open;
+    double high;
+    double low;
+    double close;
+    long volume;
+    // trades or bars in the open bar
+    long count;
+
+    BarAggregator() {
+    }
+
+    // Time bars of interval millis, aligned to multiples of the interval from
+    // 1970-01-01 UTC, so 1d bars start at UTC midnight. A bar starts at the
+    // start of its interval, intervals without trades have no bar.
+    public static BarAggregator time(long intervalMillis) {
+        return new TimeBarAggregator(intervalMillis);
+    }
+
+    // Volume bars, a bar is done when its volume reaches threshold. The trade
+    // reaching it stays whole in the bar, it is not split into the next one.
+    public static BarAggregator volume(long threshold) {
+        return new VolumeBarAggregator(threshold);
+    }
+
+    // Tick bars, a bar is done after count trades, or count bars when fed bars.
+    public static BarAggregator ticks(long count) {
+        return new TickBarAggregator(count);
+    }
+
+    // Adds a listener of the finished bars, another aggregator to cascade.
+    public BarAggregator addListener(BarListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        return this;
+    }
+
+    // A trade of size at price, time in epoch millis.
+    public abstract void onTrade(long time, double price, long size);
+
+    // Trades [offset, offset + length) of the arrays, for replays.
+    public void onTrades(long[] time, double[] price, long[] size, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > time.length - length
+                || offset > price.length - length || offset > size.length - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length);
+        }
+        for (int i = offset; i < offset + length; i++) {
+            onTrade(time[i], price[i], size[i]);
+        }
+    }
+
+    // The clock reached time without trades, closes the open time bar if its
+    // interval is over, and tells the cascaded aggregators.
+    public void advanceTo(long time) {
+        for (BarListener listener : listeners) {
+            if (listener instanceof BarAggregator) {
+                ((BarAggregator) listener).advanceTo(time);
+            }
+        }
+    }
+
+    // Hands out the open bar even if not done, then flushes the cascaded
+    // aggregators. For the end of a replay or a session.
+    public void flush() {
+        if (count != 0) {
+            emit();
+        }
+        for (BarListener listener : listeners) {
+            if (listener instanceof BarAggregator) {
+                ((BarAggregator) listener).flush();
+            }
+        }
+    }
+
+    // Whether there is an open bar.
+    public boolean isOpen() {
+        return count != 0;
+    }
+
+    // Start time of the open bar.
+    public long getStart() {
+        return start;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    // Trades, or bars when fed bars, in the open bar.
+    public long getCount() {
+        return count;
+    }
+
+    // Adds a trade, or a bar, to the open bar, starting one at start if empty.
+    final void add(long start, double open, double high, double low, double close, long volume) {
+        if (count == 0) {
+            this.start = start;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.volume = 0;
+        } else {
+            if (high > this.high) {
+                this.high = high;
+            }
+            if (low < this.low) {
+                this.low = low;
+            }
+        }
+        this.close = close;
+        this.volume += volume;
+        count++;
+    }
+
+    // Hands the open bar to the listeners and empties it.
+    final void emit() {
+        count = 0;
+        for (BarListener listener : listeners) {
+            listener.onBar(start, open, high, low, close, volume);
+        }
+    }
+}
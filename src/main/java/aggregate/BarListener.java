@@ -0,0 +1,33 @@
+package aggregate;
+
+import model.Bar;
+
+import java.util.function.Consumer;
+
+/**
+ * 收到一根完成的 K 线 - 字段直接传，不为每根 K 线分配对象
+ * <p>
+ * {@link BarAggregator} is one, so aggregators cascade (1m into 5m into 1h),
+ * and so is {@code ChartBarStore::append}.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@FunctionalInterface
+public interface BarListener {
+    // time is the epoch millis the bar starts at
+    void onBar(long time, double open, double high, double low, double close, long volume);
+
+    // Hands each bar to the consumer as a new Bar.
+    static BarListener of(Consumer<Bar> consumer) {
+        return (time, open, high, low, close, volume) -> {
+            Bar bar = new Bar();
+            bar.time = time;
+            bar.open = open;
+            bar.high = high;
+            bar.low = low;
+            bar.close = close;
+            bar.volume = volume;
+            consumer.accept(bar);
+        };
+    }
+}
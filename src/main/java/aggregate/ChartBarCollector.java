@@ -0,0 +1,82 @@
+package aggregate;
+
+import model.ChartBar;
+
+import java.util.Arrays;
+
+/**
+ * 把收到的 K 线攒成 ChartBar (时间列)，数组按需翻倍
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class ChartBarCollector implements BarListener {
+    private long[] time;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private long[] volume;
+    private int size;
+
+    public ChartBarCollector() {
+        this(256);
+    }
+
+    public ChartBarCollector(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        time = new long[capacity];
+        open = new double[capacity];
+        high = new double[capacity];
+        low = new double[capacity];
+        close = new double[capacity];
+        volume = new long[capacity];
+    }
+
+    @Override
+    public void onBar(long time, double open, double high, double low, double close, long volume) {
+        if (size == this.time.length) {
+            grow();
+        }
+        this.time[size] = time;
+        this.open[size] = open;
+        this.high[size] = high;
+        this.low[size] = low;
+        this.close[size] = close;
+        this.volume[size] = volume;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = size * 2;
+        time = Arrays.copyOf(time, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+
+    // Number of bars collected.
+    public int size() {
+        return size;
+    }
+
+    // A chart bar with copies of the bars collected so far.
+    public ChartBar toChartBar() {
+        ChartBar chartBar = new ChartBar();
+        chartBar.time = Arrays.copyOf(time, size);
+        chartBar.open = Arrays.copyOf(open, size);
+        chartBar.high = Arrays.copyOf(high, size);
+        chartBar.low = Arrays.copyOf(low, size);
+        chartBar.close = Arrays.copyOf(close, size);
+        chartBar.volume = Arrays.copyOf(volume, size);
+        return chartBar;
+    }
+
+    // Drops the bars collected, keeps the arrays.
+    public void clear() {
+        size = 0;
+    }
+}
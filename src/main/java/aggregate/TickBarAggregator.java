@@ -0,0 +1,33 @@
+package aggregate;
+
+/**
+ * 按成交笔数切分的 K 线，时间是第一笔成交的时间
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class TickBarAggregator extends BarAggregator {
+    private final long ticks;
+
+    TickBarAggregator(long ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + ticks);
+        }
+        this.ticks = ticks;
+    }
+
+    @Override
+    public void onTrade(long time, double price, long size) {
+        add(count == 0 ? time : start, price, price, price, price, size);
+        if (count >= ticks) {
+            emit();
+        }
+    }
+
+    @Override
+    public void onBar(long time, double open, double high, double low, double close, long volume) {
+        add(count == 0 ? time : start, open, high, low, close, volume);
+        if (count >= ticks) {
+            emit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package aggregate;
+
+/**
+ * 按固定时间间隔切分的 K 线
+ * <p>
+ * A trade at or after the end of the open bar closes it. A late trade, one
+ * before the start of the open bar, still goes into the open bar.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class TimeBarAggregator extends BarAggregator {
+    private final long interval;
+    // end of the open bar, exclusive
+    private long end;
+
+    TimeBarAggregator(long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        this.interval = interval;
+    }
+
+    @Override
+    public void onTrade(long time, double price, long size) {
+        if (count != 0 && time >= end) {
+            emit();
+        }
+        if (count == 0) {
+            end = time - Math.floorMod(time, interval) + interval;
+        }
+        add(end - interval, price, price, price, price, size);
+    }
+
+    @Override
+    public void onBar(long time, double open, double high, double low, double close, long volume) {
+        if (count != 0 && time >= end) {
+            emit();
+        }
+        if (count == 0) {
+            end = time - Math.floorMod(time, interval) + interval;
+        }
+        add(end - interval, open, high, low, close, volume);
+    }
+
+    @Override
+    public void advanceTo(long time) {
+        if (count != 0 && time >= end) {
+            emit();
+        }
+        super.advanceTo(time);
+    }
+}
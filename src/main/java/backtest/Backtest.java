@@ -0,0 +1,150 @@
+package backtest;
+
+import lombok.Data;
+import model.Action;
+import model.ChartBar;
+import model.DateAction;
+import model.Timestamps;
+
+import static indicator.Helper.checkRange;
+
+/**
+ * 回测 - 把策略的 Action[] 变成持仓、净值曲线、成交记录和指标，一次遍历
+ * <p>
+ * The position is set at the close of the bar the action appears on: BUY
+ * goes long, SELL goes flat, or short when allowShort, HOLD keeps the
+ * position. The whole equity is always invested, so the return of bar i is
+ * <pre>
+ * r[i] = position[i - 1] * (close[i] / close[i - 1] - 1) - (feeRate + slippage) * |position[i] - position[i - 1]|
+ * equity[i] = equity[i - 1] * (1 + r[i])
+ * </pre>
+ * Fees and slippage are fractions of the traded value, the fill price in
+ * the trades has the slippage in it.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@Data
+public class Backtest {
+    private double initialCapital = 1;
+    // 手续费率，按成交金额
+    private double feeRate = 0;
+    // 滑点，按成交价格的比例
+    private double slippage = 0;
+    private boolean allowShort = false;
+    // Sharpe 年化用，日线 252
+    private int periodsPerYear = 252;
+
+    // Runs the actions over the closing prices of the chart bar.
+    public BacktestResult run(ChartBar chartBar, Action[] actions) {
+        BacktestResult result = new BacktestResult(actions.length);
+        run(chartBar.close, chartBar.datetime, chartBar.time, actions, 0, actions.length, result);
+        return result;
+    }
+
+    // Runs actions[offset, offset + length) over close[offset, offset + length)
+    // and writes the series of result from 0, the ones that are null are
+    // skipped. datetime can be null, the trades have no datetime then.
+    public void run(double[] close, String[] datetime, Action[] actions, int offset, int length, BacktestResult result) {
+        run(close, datetime, null, actions, offset, length, result);
+    }
+
+    // time is the epoch millis of the bars, formatted for the trades when datetime is null.
+    private void run(double[] close, String[] datetime, long[] time, Action[] actions, int offset, int length, BacktestResult result) {
+        checkRange(offset, length, close);
+        checkRange(offset, length, actions);
+        if (datetime != null) {
+            checkRange(offset, length, datetime);
+        } else if (time != null) {
+            checkRange(offset, length, time);
+        }
+        double[] position = result.position;
+        double[] equity = result.equity;
+        double[] drawdown = result.drawdown;
+        if (position != null) {
+            checkRange(0, length, position);
+        }
+        if (equity != null) {
+            checkRange(0, length, equity);
+        }
+        if (drawdown != null) {
+            checkRange(0, length, drawdown);
+        }
+
+        double cost = feeRate + slippage;
+        double value = initialCapital;
+        double peak = value;
+        double maxDrawdown = 0;
+        double turnover = 0;
+        double costs = 0;
+        int tradeCount = 0;
+        double held = 0;
+        // Welford 在线均值、方差
+        double mean = 0, m2 = 0;
+        int n = 0;
+
+        for (int i = 0; i < length; i++) {
+            double price = close[offset + i];
+            double r = 0;
+            if (i > 0) {
+                r = held * (price / close[offset + i - 1] - 1);
+            }
+
+            double target = held;
+            Action action = actions[offset + i];
+            if (action == Action.BUY) {
+                target = 1;
+            } else if (action == Action.SELL) {
+                target = allowShort ? -1 : 0;
+            }
+
+            if (target != held) {
+                double change = Math.abs(target - held);
+                r -= cost * change;
+                costs += cost * change;
+                turnover += change;
+                tradeCount++;
+                if (result.trades != null) {
+                    boolean buy = target > held;
+                    double fill = buy ? price * (1 + slippage) : price * (1 - slippage);
+                    result.trades.add(new DateAction(datetime != null ? datetime[offset + i]
+                            : time != null ? Timestamps.format(time[offset + i]) : null, fill,
+                            buy ? Action.BUY : Action.SELL));
+                }
+                held = target;
+            }
+
+            value *= 1 + r;
+            if (i > 0) {
+                n++;
+                double delta = r - mean;
+                mean += delta / n;
+                m2 += delta * (r - mean);
+            }
+            if (value > peak) {
+                peak = value;
+            }
+            double dd = value / peak - 1;
+            if (dd < maxDrawdown) {
+                maxDrawdown = dd;
+            }
+
+            if (position != null) {
+                position[i] = held;
+            }
+            if (equity != null) {
+                equity[i] = value;
+            }
+            if (drawdown != null) {
+                drawdown[i] = dd;
+            }
+        }
+
+        double std = n > 1 ? Math.sqrt(m2 / (n - 1)) : 0;
+        result.totalReturn = value / initialCapital - 1;
+        result.maxDrawdown = maxDrawdown;
+        result.sharpe = std > 0 ? mean / std * Math.sqrt(periodsPerYear) : 0;
+        result.turnover = turnover;
+        result.tradeCount = tradeCount;
+        result.costs = costs;
+    }
+}
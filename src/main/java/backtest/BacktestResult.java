@@ -0,0 +1,50 @@
+package backtest;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.DateAction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 回测结果 - 序列和指标
+ * <p>
+ * The series and the trades are filled only when they are not null, a
+ * result without them can be reused in a parameter sweep without
+ * allocating anything.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@Data
+@NoArgsConstructor
+public class BacktestResult {
+    // position held after each bar, 1 long, 0 flat, -1 short
+    public double[] position;
+    // equity after each bar
+    public double[] equity;
+    // equity / peak equity - 1 after each bar, 0 or negative
+    public double[] drawdown;
+    // the fills, one for each change of the position
+    public List<DateAction> trades;
+
+    // equity of the last bar / initial capital - 1
+    public double totalReturn;
+    // the lowest drawdown, 0 or negative
+    public double maxDrawdown;
+    // annualized Sharpe ratio of the bar returns, risk free rate 0
+    public double sharpe;
+    // sum of |position change|, 1 is trading the whole equity once
+    public double turnover;
+    // number of position changes
+    public int tradeCount;
+    // fees and slippage paid, as a fraction of the equity at each trade summed up
+    public double costs;
+
+    public BacktestResult(int size) {
+        this.position = new double[size];
+        this.equity = new double[size];
+        this.drawdown = new double[size];
+        this.trades = new ArrayList<>();
+    }
+}
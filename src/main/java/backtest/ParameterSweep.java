@@ -0,0 +1,192 @@
+package backtest;
+
+import indicator.IndicatorCache;
+import model.Action;
+import model.ChartBar;
+import strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 参数扫描 - 枚举参数网格，在executor上并行回测每组参数，只保留目标值最高的K组
+ * <p>
+ * The grid has one row of candidate values for each parameter, the grid
+ * points are enumerated without being stored, and the Action[] of each point
+ * is dropped after its backtest. All points run in one {@link IndicatorCache}
+ * that keeps only the parts shared between points, by default the Max and
+ * Min windows of Kdj, StochasticOscillator and WilliamsR, and the prefix sums
+ * of the strategies averaging with TrendIndicators.smaFromPrefix and
+ * SumFromPrefix, that compute every period from one prefix sum. The indicators
+ * give the same bits as outside of the sweep.
+ * <pre>
+ * List&lt;SweepResult&gt; top = new ParameterSweep(ForkJoinPool.commonPool(), backtest).run(chartBar,
+ *         p -&gt; TrendStrategies.MakeKdjStrategy(p[0], p[1], p[2]), r -&gt; r.sharpe, 10,
+ *         ParameterSweep.range(5, 30, 1), ParameterSweep.range(2, 9, 1), ParameterSweep.range(2, 9, 1));
+ * </pre>
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class ParameterSweep {
+    // 每个任务跑的参数组数
+    private static final int BATCH = 16;
+
+    private final Executor executor;
+    private final Backtest backtest;
+    private String[] shared = {"PrefixSum", "Max", "Min"};
+
+    public ParameterSweep(Executor executor, Backtest backtest) {
+        this.executor = executor;
+        this.backtest = backtest;
+    }
+
+    // The indicator functions kept for all grid points.
+    public void setShared(String... functions) {
+        this.shared = functions;
+    }
+
+    // from, from + step ... up to to, inclusive.
+    public static int[] range(int from, int to, int step) {
+        if (step <= 0 || to < from) {
+            throw new IllegalArgumentException("from: " + from + ", to: " + to + ", step: " + step);
+        }
+        int[] values = new int[(to - from) / step + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from + i * step;
+        }
+        return values;
+    }
+
+    // Number of grid points.
+    public static long size(int[]... grid) {
+        long size = 1;
+        for (int[] values : grid) {
+            size *= values.length;
+        }
+        return size;
+    }
+
+    // Parameters of the grid point at index, the last parameter changes fastest.
+    public static int[] params(long index, int[]... grid) {
+        int[] params = new int[grid.length];
+        for (int i = grid.length - 1; i >= 0; i--) {
+            params[i] = grid[i][(int) (index % grid[i].length)];
+            index /= grid[i].length;
+        }
+        return params;
+    }
+
+    // Backtests the strategy made by factory for each grid point and returns
+    // the k points with the highest objective, best first. Ties go to the
+    // earlier point, NaN scores are dropped.
+    public List<SweepResult> run(ChartBar chartBar, Function<int[], Strategy> factory,
+                                 ToDoubleFunction<BacktestResult> objective, int k, int[]... grid) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k: " + k);
+        }
+        long size = size(grid);
+        IndicatorCache cache = IndicatorCache.create().keepOnly(shared);
+        TopK top = new TopK(k);
+
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+        for (long from = 0; from < size; from += BATCH) {
+            long start = from;
+            long end = Math.min(size, from + BATCH);
+            tasks.add(CompletableFuture.runAsync(() -> {
+                TopK local = new TopK(k);
+                cache.enter();
+                try {
+                    BacktestResult metrics = new BacktestResult();
+                    for (long i = start; i < end; i++) {
+                        int[] params = params(i, grid);
+                        Action[] actions = factory.apply(params).run(chartBar);
+                        backtest.run(chartBar.close, null, actions, 0, actions.length, metrics);
+                        local.offer(i, params, objective.applyAsDouble(metrics), metrics);
+                    }
+                } finally {
+                    cache.close();
+                }
+                top.addAll(local);
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return top.sorted();
+    }
+
+    // 最好的k个，堆顶是最差的
+    private static final class TopK {
+        private static final Comparator<SweepResult> WORST_FIRST = Comparator
+                .comparingDouble(SweepResult::getScore)
+                .thenComparing(Comparator.comparingLong(SweepResult::getIndex).reversed());
+
+        final int k;
+        final PriorityQueue<SweepResult> heap = new PriorityQueue<>(WORST_FIRST);
+
+        TopK(int k) {
+            this.k = k;
+        }
+
+        private boolean accepts(long index, double score) {
+            if (heap.size() < k) {
+                return true;
+            }
+            SweepResult worst = heap.peek();
+            return score > worst.score || (score == worst.score && index < worst.index);
+        }
+
+        // copies metrics only when the point is kept
+        void offer(long index, int[] params, double score, BacktestResult metrics) {
+            if (Double.isNaN(score) || !accepts(index, score)) {
+                return;
+            }
+            SweepResult result = new SweepResult();
+            result.index = index;
+            result.params = params;
+            result.score = score;
+            result.metrics = new BacktestResult();
+            result.metrics.totalReturn = metrics.totalReturn;
+            result.metrics.maxDrawdown = metrics.maxDrawdown;
+            result.metrics.sharpe = metrics.sharpe;
+            result.metrics.turnover = metrics.turnover;
+            result.metrics.tradeCount = metrics.tradeCount;
+            result.metrics.costs = metrics.costs;
+            add(result);
+        }
+
+        private void add(SweepResult result) {
+            heap.add(result);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        synchronized void addAll(TopK other) {
+            for (SweepResult result : other.heap) {
+                if (accepts(result.index, result.score)) {
+                    add(result);
+                }
+            }
+        }
+
+        synchronized List<SweepResult> sorted() {
+            List<SweepResult> results = new ArrayList<>(heap);
+            results.sort(WORST_FIRST.reversed());
+            return results;
+        }
+    }
+}
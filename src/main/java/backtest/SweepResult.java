@@ -0,0 +1,19 @@
+package backtest;
+
+import lombok.Data;
+
+/**
+ * 参数扫描的一组结果
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@Data
+public class SweepResult {
+    // position of the grid point in the enumeration
+    public long index;
+    public int[] params;
+    // value of the objective
+    public double score;
+    // the metrics of the backtest, without series and trades
+    public BacktestResult metrics;
+}
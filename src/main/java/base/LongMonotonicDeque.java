@@ -0,0 +1,108 @@
+package base;
+
+/**
+ * 滑动窗口极值 - long版本(如成交量)，实现同 {@link MonotonicDeque}
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class LongMonotonicDeque {
+    private int period;
+    private boolean max;
+    private long[] values;
+    private long[] indexes;
+    private int head;
+    private int size;
+    private long count;
+
+    public LongMonotonicDeque(int period, boolean max) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.period = period;
+        this.max = max;
+        this.values = new long[period];
+        this.indexes = new long[period];
+    }
+
+    // Moving max deque.
+    public static LongMonotonicDeque max(int period) {
+        return new LongMonotonicDeque(period, true);
+    }
+
+    // Moving min deque.
+    public static LongMonotonicDeque min(int period) {
+        return new LongMonotonicDeque(period, false);
+    }
+
+    // Pushes the next value. Returns the extremum of the window.
+    public long push(long value) {
+        if (size > 0 && indexes[head] <= count - period) {
+            head = next(head);
+            size--;
+        }
+
+        while (size > 0) {
+            long last = values[slot(size - 1)];
+            if (max ? last > value : last < value) {
+                break;
+            }
+            size--;
+        }
+
+        int tail = slot(size);
+        values[tail] = value;
+        indexes[tail] = count;
+        size++;
+        count++;
+
+        return values[head];
+    }
+
+    // Extremum of the window, 0 when empty.
+    public long value() {
+        return size == 0 ? 0 : values[head];
+    }
+
+    // Index of the extremum (0 based, counted from the first push), -1 when empty.
+    public long index() {
+        return size == 0 ? -1 : indexes[head];
+    }
+
+    // Number of values pushed so far.
+    public long count() {
+        return count;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    public void reset() {
+        head = 0;
+        size = 0;
+        count = 0;
+    }
+
+    // Resets for the given period and direction, reuses the buffers when they are large enough.
+    public void reset(int period, boolean max) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        if (period > values.length) {
+            values = new long[period];
+            indexes = new long[period];
+        }
+        this.period = period;
+        this.max = max;
+        reset();
+    }
+
+    private int slot(int offset) {
+        int i = head + offset;
+        return i >= period ? i - period : i;
+    }
+
+    private int next(int i) {
+        return ++i == period ? 0 : i;
+    }
+}
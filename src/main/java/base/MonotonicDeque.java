@@ -0,0 +1,136 @@
+package base;
+
+/**
+ * 滑动窗口极值 - 单调双端队列，每个值均摊O(1)，初始化之后不再分配内存
+ * <p>
+ * Keeps the max (or min) of the last period values. The deque only holds
+ * values that can still become the extremum, in a ring buffer of period slots.
+ * On ties the newest index is kept.
+ * <p>
+ * Values are compared with {@link Double#compare(double, double)} like
+ * {@link Tree}, so the extremum is bit for bit the one of a Tree holding the
+ * window (NaN is the greatest, -0.0 is below 0.0).
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class MonotonicDeque {
+    private int period;
+    private boolean max;
+    private double[] values;
+    private long[] indexes;
+    private int head;
+    private int size;
+    private long count;
+
+    public MonotonicDeque(int period, boolean max) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.period = period;
+        this.max = max;
+        this.values = new double[period];
+        this.indexes = new long[period];
+    }
+
+    // Moving max deque.
+    public static MonotonicDeque max(int period) {
+        return new MonotonicDeque(period, true);
+    }
+
+    // Moving min deque.
+    public static MonotonicDeque min(int period) {
+        return new MonotonicDeque(period, false);
+    }
+
+    // Pushes the next value. Returns the extremum of the window.
+    public double push(double value) {
+        if (size > 0 && indexes[head] <= count - period) {
+            head = next(head);
+            size--;
+        }
+
+        while (size > 0) {
+            if (beats(values[slot(size - 1)], value)) {
+                break;
+            }
+            size--;
+        }
+
+        int tail = slot(size);
+        values[tail] = value;
+        indexes[tail] = count;
+        size++;
+        count++;
+
+        return values[head];
+    }
+
+    // The extremum of the window if value were pushed, without pushing it.
+    public double peek(double value) {
+        int h = head;
+        int n = size;
+        if (n > 0 && indexes[h] <= count - period) {
+            h = next(h);
+            n--;
+        }
+        if (n == 0) {
+            return value;
+        }
+        double front = values[h];
+        return beats(front, value) ? front : value;
+    }
+
+    // Extremum of the window, NaN when empty.
+    public double value() {
+        return size == 0 ? Double.NaN : values[head];
+    }
+
+    // Index of the extremum (0 based, counted from the first push), -1 when empty.
+    public long index() {
+        return size == 0 ? -1 : indexes[head];
+    }
+
+    // Number of values pushed so far.
+    public long count() {
+        return count;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    public void reset() {
+        head = 0;
+        size = 0;
+        count = 0;
+    }
+
+    // Resets for the given period and direction, reuses the buffers when they are large enough.
+    public void reset(int period, boolean max) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        if (period > values.length) {
+            values = new double[period];
+            indexes = new long[period];
+        }
+        this.period = period;
+        this.max = max;
+        reset();
+    }
+
+    // a stays the extremum before b
+    private boolean beats(double a, double b) {
+        int c = Double.compare(a, b);
+        return max ? c > 0 : c < 0;
+    }
+
+    private int slot(int offset) {
+        int i = head + offset;
+        return i >= period ? i - period : i;
+    }
+
+    private int next(int i) {
+        return ++i == period ? 0 : i;
+    }
+}
@@ -1,173 +1,305 @@
 package base;
 
-import lombok.Getter;
-import lombok.Setter;
-
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.Arrays;
 
 /**
+ * 平衡二叉树(AVL) - 基本类型double，节点存放在数组里，相同的值只占一个节点(计数)
+ * <p>
+ * Order statistic tree: insert, remove, rank and select are O(log n).
+ * Values are compared with {@link Double#compare(double, double)}.
+ * Nodes are reused after removal, so a rolling window stops allocating
+ * once the tree has grown to the window size.
+ *
  * @author jinfeng.hu  @Date 2022-10-07
  **/
 public class Tree {
-    @Getter
-    @Setter
-    Node root;
+    private static final int NIL = 0;
+
+    private double[] key;
+    private int[] left;
+    private int[] right;
+    // number of copies of the key in this node
+    private int[] count;
+    // number of values in the subtree
+    private int[] size;
+    private byte[] height;
+
+    private int root = NIL;
+    // next never used slot
+    private int next = 1;
+    // head of the free list, linked through left
+    private int free = NIL;
+    private boolean removed;
+
+    public Tree() {
+        this(16);
+    }
+
+    public Tree(int capacity) {
+        int n = Math.max(capacity, 1) + 1;
+        this.key = new double[n];
+        this.left = new int[n];
+        this.right = new int[n];
+        this.count = new int[n];
+        this.size = new int[n];
+        this.height = new byte[n];
+    }
 
     public static Tree New() {
         return new Tree();
     }
 
     // Inserts the given value.
-    public void insert(Number value) {
-        Node newNode = Node.New(value);
+    public void insert(double value) {
+        root = insert(root, value);
+    }
+
+    // Removes one copy of the given value.
+    public boolean remove(double value) {
+        removed = false;
+        root = remove(root, value);
+        return removed;
+    }
+
+    // Number of values.
+    public int size() {
+        return size[root];
+    }
+
+    public boolean isEmpty() {
+        return root == NIL;
+    }
 
-        if (null == this.root) {
-            this.root = newNode;
-            return;
+    // Min value, NaN when empty.
+    public double min() {
+        if (root == NIL) {
+            return Double.NaN;
         }
+        return key[minNode(root)];
+    }
 
-        Node curNode = this.root;
+    // Max value, NaN when empty.
+    public double max() {
+        if (root == NIL) {
+            return Double.NaN;
+        }
+        int node = root;
+        while (right[node] != NIL) {
+            node = right[node];
+        }
+        return key[node];
+    }
 
-        while (true) {
-            // 比较2个数字
-            if (compare(newNode.value, curNode.value) <= 0) {
-                if (curNode.left == null) {
-                    curNode.left = newNode;
-                    return;
-                } else {
-                    curNode = curNode.left;
-                }
+    // Number of values less than the given value.
+    public int rank(double value) {
+        int rank = 0;
+        int node = root;
+        while (node != NIL) {
+            int c = Double.compare(value, key[node]);
+            if (c < 0) {
+                node = left[node];
+            } else if (c == 0) {
+                return rank + size[left[node]];
             } else {
-                if (curNode.right == null) {
-                    curNode.right = newNode;
-                    return;
-                } else {
-                    curNode = curNode.right;
-                }
+                rank += size[left[node]] + count[node];
+                node = right[node];
             }
         }
+        return rank;
     }
 
-    // 比较时四舍五入保留6位小数 // 使用float类型注意精度损失
-    private int compare(Number v1, Number v2) {
-        if (null == v1) {
-            v1 = 0;
-        }
-        if (null == v2) {
-            v2 = 0;
+    // Number of copies of the given value.
+    public int count(double value) {
+        int node = root;
+        while (node != NIL) {
+            int c = Double.compare(value, key[node]);
+            if (c == 0) {
+                return count[node];
+            }
+            node = c < 0 ? left[node] : right[node];
         }
-        // 为避免转换的精度问题 - 数字类型转换成字符串再转成BigDecimal
-        BigDecimal bd1 = new BigDecimal(v1.toString()).setScale(6, RoundingMode.HALF_UP);
-        BigDecimal bd2 = new BigDecimal(v2.toString()).setScale(6, RoundingMode.HALF_UP);
-        return bd1.compareTo(bd2);
+        return 0;
     }
 
-    // Removes the given value.
-    public boolean remove(Number value) {
-        Node parent = null;
-        Node node = this.root;
-
-        while (node != null) {
-            switch (compare(value, node.value)) {
-                case 0:
-                    this.removeNode(parent, node);
-                    return true;
-                case -1:
-                    parent = node;
-                    node = node.left;
-                    break;
-                case 1:
-                    parent = node;
-                    node = node.right;
-                    break;
+    // The k-th smallest value, k starts from 0.
+    public double select(int k) {
+        if (k < 0 || k >= size[root]) {
+            throw new IndexOutOfBoundsException("k: " + k + ", size: " + size[root]);
+        }
+        int node = root;
+        while (true) {
+            int leftSize = size[left[node]];
+            if (k < leftSize) {
+                node = left[node];
+            } else if (k < leftSize + count[node]) {
+                return key[node];
+            } else {
+                k -= leftSize + count[node];
+                node = right[node];
             }
         }
+    }
 
-        return false;
+    // Nodes allocated, removed ones are reused before the arrays grow.
+    int capacity() {
+        return key.length - 1;
     }
 
-    // Min value.
-    public Number min() {
-        Node node = minNode(this.root).getLeft();
-        if (node == null) {
-            return null;
-        }
+    // Height of the root, 0 when empty.
+    int height() {
+        return height[root];
+    }
 
-        return node.value;
+    // Removes all values, keeps the allocated nodes.
+    public void clear() {
+        root = NIL;
+        next = 1;
+        free = NIL;
     }
 
-    // Max value.
-    public Number max() {
-        Node node = maxNode(this.root).getLeft();
-        if (node == null) {
-            return null;
+    private int insert(int node, double value) {
+        if (node == NIL) {
+            return newNode(value);
         }
 
-        return node.value;
+        int c = Double.compare(value, key[node]);
+        if (c == 0) {
+            count[node]++;
+            size[node]++;
+            return node;
+        }
+        // 先算子节点再赋值 - insert可能扩容替换数组
+        if (c < 0) {
+            int child = insert(left[node], value);
+            left[node] = child;
+        } else {
+            int child = insert(right[node], value);
+            right[node] = child;
+        }
+        return balance(node);
     }
 
-    // Remove node.
-    public void removeNode(Node parent, Node node) {
-        if (node.left != null && node.right != null) {
-            Pair<Node, Node> pair = minNode(node.right);
-            Node min = pair.getLeft();
-            Node minParent = pair.getRight();
-            if (minParent == null) {
-                minParent = node;
-            }
+    private int remove(int node, double value) {
+        if (node == NIL) {
+            return NIL;
+        }
 
-            this.removeNode(minParent, min);
-            node.value = min.value;
+        int c = Double.compare(value, key[node]);
+        if (c < 0) {
+            left[node] = remove(left[node], value);
+        } else if (c > 0) {
+            right[node] = remove(right[node], value);
         } else {
-            Node child;
-            if (node.left != null) {
-                child = node.left;
-            } else {
-                child = node.right;
+            removed = true;
+            if (count[node] > 1) {
+                count[node]--;
+                size[node]--;
+                return node;
             }
-
-            if (node == this.root) {
-                this.root = child;
-            } else if (parent.left == node) {
-                parent.left = child;
-            } else {
-                parent.right = child;
+            if (left[node] == NIL || right[node] == NIL) {
+                int child = left[node] == NIL ? right[node] : left[node];
+                freeNode(node);
+                return child;
             }
+            // 用右子树的最小节点替换
+            int min = minNode(right[node]);
+            key[node] = key[min];
+            count[node] = count[min];
+            right[node] = removeMin(right[node]);
         }
+        return balance(node);
     }
 
-    // Min node. Returns min node and its parent.
-    public Pair<Node, Node> minNode(Node root) {
-        if (root == null) {
-            return Pair.of(null, null);
+    private int removeMin(int node) {
+        if (left[node] == NIL) {
+            int child = right[node];
+            freeNode(node);
+            return child;
         }
+        left[node] = removeMin(left[node]);
+        return balance(node);
+    }
 
-        Node parent = null;
-        Node node = root;
+    private int minNode(int node) {
+        while (left[node] != NIL) {
+            node = left[node];
+        }
+        return node;
+    }
 
-        while (node.left != null) {
-            parent = node;
-            node = node.left;
+    private int balance(int node) {
+        update(node);
+        int factor = height[left[node]] - height[right[node]];
+        if (factor > 1) {
+            if (height[left[left[node]]] < height[right[left[node]]]) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height[right[right[node]]] < height[left[right[node]]]) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
         }
+        return node;
+    }
 
-        return Pair.of(node, parent);
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
     }
 
-    // Max node. Returns max node and its parent.
-    public Pair<Node, Node> maxNode(Node root) {
-        if (root == null) {
-            return Pair.of(null, null);
-        }
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
 
-        Node parent = null;
-        Node node = root;
+    private void update(int node) {
+        height[node] = (byte) (Math.max(height[left[node]], height[right[node]]) + 1);
+        size[node] = size[left[node]] + size[right[node]] + count[node];
+    }
 
-        while (node.right != null) {
-            parent = node;
-            node = node.right;
+    private int newNode(double value) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (next == key.length) {
+                grow();
+            }
+            node = next++;
         }
+        key[node] = value;
+        left[node] = NIL;
+        right[node] = NIL;
+        count[node] = 1;
+        size[node] = 1;
+        height[node] = 1;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        left[node] = free;
+        free = node;
+    }
 
-        return Pair.of(node, parent);
+    private void grow() {
+        int n = key.length * 2;
+        key = Arrays.copyOf(key, n);
+        left = Arrays.copyOf(left, n);
+        right = Arrays.copyOf(right, n);
+        count = Arrays.copyOf(count, n);
+        size = Arrays.copyOf(size, n);
+        height = Arrays.copyOf(height, n);
     }
 }
@@ -0,0 +1,43 @@
+package indicator;
+
+/**
+ * 流式ATR - 与 {@link VolatilityIndicators#Atr(int, double[], double[], double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class AtrState {
+    private final SmaState atr;
+    private double tr;
+
+    public AtrState(int period) {
+        this.atr = new SmaState(period);
+    }
+
+    // Adds the next bar. Returns the atr.
+    public double update(double high, double low, double closing) {
+        tr = Math.max(high - low, Math.max(high - closing, closing - low));
+        return atr.update(tr);
+    }
+
+    // The atr if the bar were the next one, without adding it.
+    public double preview(double high, double low, double closing) {
+        return atr.preview(Math.max(high - low, Math.max(high - closing, closing - low)));
+    }
+
+    public double tr() {
+        return tr;
+    }
+
+    public double atr() {
+        return atr.value();
+    }
+
+    public long count() {
+        return atr.count();
+    }
+
+    public void reset() {
+        atr.reset();
+        tr = 0;
+    }
+}
@@ -0,0 +1,95 @@
+package indicator;
+
+/**
+ * 流式布林带 - 与 {@link VolatilityIndicators#BollingerBands(double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class BollingerState {
+    private final int period;
+    private final SmaState sma;
+    private final double[] buffer;
+    private double sum2;
+    private double std;
+    private double previewMiddle;
+    private double previewStd;
+    private long count;
+
+    public BollingerState() {
+        this(20);
+    }
+
+    public BollingerState(int period) {
+        this.period = period;
+        this.sma = new SmaState(period);
+        this.buffer = new double[period];
+    }
+
+    // Adds the next closing. Returns the middle band.
+    public double update(double closing) {
+        double middle = sma.update(closing);
+        buffer[(int) (count % period)] = closing;
+
+        sum2 += closing * closing;
+        if (count < period - 1) {
+            std = 0.0;
+        } else {
+            std = Math.sqrt(sum2 / period - middle * middle);
+            double w = buffer[(int) ((count + 1) % period)];
+            sum2 -= w * w;
+        }
+        count++;
+
+        return middle;
+    }
+
+    // The middle band if the closing were the next one, without adding it.
+    // The bands of the preview are in previewUpper and previewLower.
+    public double preview(double closing) {
+        double middle = sma.preview(closing);
+        previewMiddle = middle;
+        if (count < period - 1) {
+            previewStd = 0.0;
+        } else {
+            previewStd = Math.sqrt((sum2 + closing * closing) / period - middle * middle);
+        }
+        return middle;
+    }
+
+    // The upper band of the last preview.
+    public double previewUpper() {
+        return previewMiddle + previewStd * 2;
+    }
+
+    // The lower band of the last preview.
+    public double previewLower() {
+        return previewMiddle - previewStd * 2;
+    }
+
+    public double middle() {
+        return sma.value();
+    }
+
+    public double upper() {
+        return sma.value() + std * 2;
+    }
+
+    public double lower() {
+        return sma.value() - std * 2;
+    }
+
+    public double std() {
+        return std;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void reset() {
+        sma.reset();
+        sum2 = 0;
+        std = 0;
+        count = 0;
+    }
+}
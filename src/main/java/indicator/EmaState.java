@@ -0,0 +1,75 @@
+package indicator;
+
+/**
+ * 流式EMA - 每次update返回最新值，与 {@link TrendIndicators#Ema(int, double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class EmaState {
+    private final int period;
+    private final double k;
+    private final double m;
+    private double value;
+    private long count;
+
+    public EmaState(int period) {
+        this.period = period;
+        this.k = 2.00 / (1 + period);
+        this.m = 1 - k;
+    }
+
+    // Adds the next value. Returns the ema.
+    public double update(double v) {
+        if (count > 0) {
+            value = (v * k) + (value * m);
+        } else {
+            value = v;
+        }
+        count++;
+
+        return value;
+    }
+
+    // The ema if v were the next value, without adding it. For a bar not
+    // final yet, update with the final value when the bar closes.
+    public double preview(double v) {
+        return count > 0 ? (v * k) + (value * m) : v;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return 2;
+    }
+
+    // Writes a checkpoint of the state from state[at], doubles as raw bits.
+    // Returns the index after it.
+    int save(long[] state, int at) {
+        state[at++] = Double.doubleToRawLongBits(value);
+        state[at++] = count;
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        value = Double.longBitsToDouble(state[at++]);
+        count = state[at++];
+        return at;
+    }
+
+    public void reset() {
+        value = 0;
+        count = 0;
+    }
+}
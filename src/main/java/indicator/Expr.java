@@ -0,0 +1,344 @@
+package indicator;
+
+/**
+ * 延迟计算的数组表达式 - 把 {@link Helper} 的逐元素运算组合成表达式树，eval时一次遍历只分配一个结果数组
+ * <p>
+ * The tree is evaluated block by block. Inner nodes write each block into a
+ * small scratch buffer, so the temporaries stay in cache and cost O(block)
+ * memory instead of one full length array per operator. Every operator runs
+ * the same kernel as its Helper counterpart, so the results are bit for bit
+ * the same, on the SIMD lanes too.
+ * <p>
+ * <pre>
+ * // ((Closing - R) / Closing) * 100
+ * double[] cfo = Expr.of(closing).subtract(r).divide(closing).multiplyBy(100).eval();
+ * </pre>
+ * An expression holds scratch buffers and is not thread safe.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public abstract class Expr {
+    static final int BLOCK = 1024;
+
+    private static final int ADD = 0;
+    private static final int SUBTRACT = 1;
+    private static final int MULTIPLY = 2;
+    private static final int DIVIDE = 3;
+
+    private static final int ADD_BY = 10;
+    private static final int MULTIPLY_BY = 11;
+    private static final int POW = 12;
+    private static final int ABS = 13;
+    private static final int SQRT = 14;
+    private static final int KEEP_POSITIVES = 15;
+    private static final int KEEP_NEGATIVES = 16;
+    private static final int EXTRACT_SIGN = 17;
+
+    final int length;
+
+    Expr(int length) {
+        this.length = length;
+    }
+
+    // Writes the values [from, from + n) of this expression to out[offset, offset + n).
+    abstract void eval(int from, int n, double[] out, int offset);
+
+    // The backing array when the values can be read directly, otherwise null.
+    double[] array() {
+        return null;
+    }
+
+    public static Expr of(double[] values) {
+        return new Leaf(values);
+    }
+
+    public static Expr of(long[] values) {
+        return new LongLeaf(values);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // Evaluates the expression into a new array.
+    public double[] eval() {
+        return eval(new double[length]);
+    }
+
+    // Evaluates the expression into the given array.
+    public double[] eval(double[] result) {
+        if (result.length < length) {
+            throw new IllegalArgumentException("result length " + result.length + " < " + length);
+        }
+        for (int from = 0; from < length; from += BLOCK) {
+            eval(from, Math.min(BLOCK, length - from), result, from);
+        }
+        return result;
+    }
+
+    // Add values1 and values2.
+    public Expr add(Expr other) {
+        return new Binary(ADD, this, other);
+    }
+
+    public Expr add(double[] other) {
+        return add(of(other));
+    }
+
+    // Add addition to values.
+    public Expr addBy(double addition) {
+        return new Unary(ADD_BY, this, addition);
+    }
+
+    // subtract values2 from values1.
+    public Expr subtract(Expr other) {
+        return new Binary(SUBTRACT, this, other);
+    }
+
+    public Expr subtract(double[] other) {
+        return subtract(of(other));
+    }
+
+    // Multiply values1 and values2.
+    public Expr multiply(Expr other) {
+        return new Binary(MULTIPLY, this, other);
+    }
+
+    public Expr multiply(double[] other) {
+        return multiply(of(other));
+    }
+
+    // Multiply values by multipler.
+    public Expr multiplyBy(double multiplier) {
+        return new Unary(MULTIPLY_BY, this, multiplier);
+    }
+
+    // Divide values1 by values2.
+    public Expr divide(Expr other) {
+        return new Binary(DIVIDE, this, other);
+    }
+
+    public Expr divide(double[] other) {
+        return divide(of(other));
+    }
+
+    // Divide values by divider. Same as Helper.divideBy, multiplies by 1 / divider.
+    public Expr divideBy(double divider) {
+        return multiplyBy(1 / divider);
+    }
+
+    // Calculate power of base with exponent.
+    public Expr pow(double exponent) {
+        return new Unary(POW, this, exponent);
+    }
+
+    // Abs of given values.
+    public Expr abs() {
+        return new Unary(ABS, this, 0);
+    }
+
+    // Sqrt of given values.
+    public Expr sqrt() {
+        return new Unary(SQRT, this, 0);
+    }
+
+    // Keep positives.
+    public Expr keepPositives() {
+        return new Unary(KEEP_POSITIVES, this, 0);
+    }
+
+    // Keep negatives.
+    public Expr keepNegatives() {
+        return new Unary(KEEP_NEGATIVES, this, 0);
+    }
+
+    // Extact sign.
+    public Expr extractSign() {
+        return new Unary(EXTRACT_SIGN, this, 0);
+    }
+
+    // Shift right for period and fills with value.
+    public Expr shiftRightAndFillBy(int period, double fill) {
+        return new Shift(this, period, fill);
+    }
+
+    // Shift right for period.
+    public Expr shiftRight(int period) {
+        return shiftRightAndFillBy(period, 0);
+    }
+
+    // Difference between current and before values.
+    public Expr diff(int before) {
+        return subtract(shiftRight(before));
+    }
+
+    private static final class Leaf extends Expr {
+        private final double[] values;
+
+        Leaf(double[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int n, double[] out, int offset) {
+            System.arraycopy(values, from, out, offset, n);
+        }
+
+        @Override
+        double[] array() {
+            return values;
+        }
+    }
+
+    private static final class LongLeaf extends Expr {
+        private final long[] values;
+
+        LongLeaf(long[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int n, double[] out, int offset) {
+            for (int i = 0; i < n; i++) {
+                out[offset + i] = values[from + i];
+            }
+        }
+    }
+
+    private static final class Unary extends Expr {
+        private final int op;
+        private final Expr child;
+        private final double c;
+
+        Unary(int op, Expr child, double c) {
+            super(child.length);
+            this.op = op;
+            this.child = child;
+            this.c = c;
+        }
+
+        @Override
+        void eval(int from, int n, double[] out, int offset) {
+            double[] a = child.array();
+            int ao = from;
+            if (a == null) {
+                child.eval(from, n, out, offset);
+                a = out;
+                ao = offset;
+            }
+
+            switch (op) {
+                case ADD_BY:
+                    Kernels.addBy(a, ao, c, out, offset, n);
+                    break;
+                case MULTIPLY_BY:
+                    Kernels.multiplyBy(a, ao, c, out, offset, n);
+                    break;
+                case POW:
+                    for (int i = 0; i < n; i++) {
+                        out[offset + i] = Math.pow(a[ao + i], c);
+                    }
+                    break;
+                case ABS:
+                    Kernels.abs(a, ao, out, offset, n);
+                    break;
+                case SQRT:
+                    Kernels.sqrt(a, ao, out, offset, n);
+                    break;
+                case KEEP_POSITIVES:
+                    Kernels.keepPositives(a, ao, out, offset, n);
+                    break;
+                case KEEP_NEGATIVES:
+                    Kernels.keepNegatives(a, ao, out, offset, n);
+                    break;
+                case EXTRACT_SIGN:
+                    Kernels.extractSign(a, ao, out, offset, n);
+                    break;
+                default:
+                    throw new IllegalStateException("unknown op " + op);
+            }
+        }
+    }
+
+    private static final class Binary extends Expr {
+        private final int op;
+        private final Expr left;
+        private final Expr right;
+        private double[] scratch;
+
+        Binary(int op, Expr left, Expr right) {
+            super(left.length);
+            if (left.length != right.length) {
+                throw new RuntimeException("not all same size");
+            }
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int n, double[] out, int offset) {
+            double[] a = left.array();
+            int ao = from;
+            if (a == null) {
+                left.eval(from, n, out, offset);
+                a = out;
+                ao = offset;
+            }
+            double[] b = right.array();
+            int bo = from;
+            if (b == null) {
+                if (scratch == null) {
+                    scratch = new double[Math.min(BLOCK, length)];
+                }
+                right.eval(from, n, scratch, 0);
+                b = scratch;
+                bo = 0;
+            }
+
+            switch (op) {
+                case ADD:
+                    Kernels.add(a, ao, b, bo, out, offset, n);
+                    break;
+                case SUBTRACT:
+                    Kernels.subtract(a, ao, b, bo, out, offset, n);
+                    break;
+                case MULTIPLY:
+                    Kernels.multiply(a, ao, b, bo, out, offset, n);
+                    break;
+                case DIVIDE:
+                    Kernels.divide(a, ao, b, bo, out, offset, n);
+                    break;
+                default:
+                    throw new IllegalStateException("unknown op " + op);
+            }
+        }
+    }
+
+    private static final class Shift extends Expr {
+        private final Expr child;
+        private final int period;
+        private final double fill;
+
+        Shift(Expr child, int period, double fill) {
+            super(child.length);
+            this.child = child;
+            this.period = period;
+            this.fill = fill;
+        }
+
+        @Override
+        void eval(int from, int n, double[] out, int offset) {
+            int i = 0;
+            int fillEnd = Math.min(n, Math.max(0, period - from));
+            for (; i < fillEnd; i++) {
+                out[offset + i] = fill;
+            }
+            if (i < n) {
+                child.eval(from + i - period, n - i, out, offset + i);
+            }
+        }
+    }
+}
@@ -1,10 +1,23 @@
 package indicator;
 
+import base.Pair;
+
 /**
+ * The overloads taking offset and length read values[offset, offset + length)
+ * and write the results to result[outOffset, outOffset + length), so a
+ * caller can reuse its arrays. The output must not overlap the input unless
+ * it is the same range of the same array.
+ *
  * @author jinfeng.hu  @Date 2022-10-07
  **/
 public class Helper {
 
+    // Whether the elementwise helpers run on SIMD lanes, only with the Java 17
+    // classes of the multi-release jar and --add-modules jdk.incubator.vector.
+    public static boolean isVectorized() {
+        return Kernels.isVectorized();
+    }
+
     // Check values same size.
     public static void checkSameSize(double[]... values) {
         if (values.length < 2) {
@@ -18,15 +31,52 @@ public class Helper {
         }
     }
 
+    // Check values[offset, offset + length) is inside of the array.
+    public static void checkRange(int offset, int length, double[] values) {
+        checkRange(offset, length, values.length);
+    }
+
+    public static void checkRange(int offset, int length, double[] values1, double[] values2) {
+        checkRange(offset, length, values1.length);
+        checkRange(offset, length, values2.length);
+    }
+
+    public static void checkRange(int offset, int length, double[] values1, double[] values2, double[] values3) {
+        checkRange(offset, length, values1.length);
+        checkRange(offset, length, values2.length);
+        checkRange(offset, length, values3.length);
+    }
+
+    public static void checkRange(int offset, int length, long[] values) {
+        checkRange(offset, length, values.length);
+    }
+
+    public static void checkRange(int offset, int length, int[] values) {
+        checkRange(offset, length, values.length);
+    }
+
+    public static void checkRange(int offset, int length, Object[] values) {
+        checkRange(offset, length, values.length);
+    }
+
+    private static void checkRange(int offset, int length, int size) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + size);
+        }
+    }
+
     // Multiply values by multipler.
     public static double[] multiplyBy(double[] values, double multiplier) {
         double[] result = new double[values.length];
+        multiplyBy(values, multiplier, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            result[i] = values[i] * multiplier;
-        }
+    public static void multiplyBy(double[] values, double multiplier, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        Kernels.multiplyBy(values, offset, multiplier, result, outOffset, length);
     }
 
     // Multiply values1 and values2.
@@ -34,87 +84,145 @@ public class Helper {
         checkSameSize(values1, values2);
 
         double[] result = new double[values1.length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = values1[i] * values2[i];
-        }
-
+        multiply(values1, values2, 0, result.length, result, 0);
         return result;
     }
 
+    public static void multiply(double[] values1, double[] values2, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values1, values2);
+        checkRange(outOffset, length, result);
+
+        Kernels.multiply(values1, offset, values2, offset, result, outOffset, length);
+    }
+
     // Divide values by divider.
     public static double[] divideBy(double[] values, double divider) {
         return multiplyBy(values, 1 / divider);
     }
 
+    public static void divideBy(double[] values, double divider, int offset, int length, double[] result, int outOffset) {
+        multiplyBy(values, 1 / divider, offset, length, result, outOffset);
+    }
+
     // Divide values1 by values2.
     public static double[] divide(double[] values1, double[] values2) {
         checkSameSize(values1, values2);
 
         double[] result = new double[values1.length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = values1[i] / values2[i];
-        }
-
+        divide(values1, values2, 0, result.length, result, 0);
         return result;
     }
 
+    public static void divide(double[] values1, double[] values2, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values1, values2);
+        checkRange(outOffset, length, result);
+
+        Kernels.divide(values1, offset, values2, offset, result, outOffset, length);
+    }
+
     // Add values1 and values2.
     public static double[] add(double[] values1, double[] values2) {
         checkSameSize(values1, values2);
 
         double[] result = new double[values1.length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = values1[i] + values2[i];
-        }
-
+        add(values1, values2, 0, result.length, result, 0);
         return result;
     }
 
+    public static void add(double[] values1, double[] values2, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values1, values2);
+        checkRange(outOffset, length, result);
+
+        Kernels.add(values1, offset, values2, offset, result, outOffset, length);
+    }
+
     // Add addition to values.
     public static double[] addBy(double[] values, double addition) {
         double[] result = new double[values.length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = values[i] + addition;
-        }
-
+        addBy(values, addition, 0, values.length, result, 0);
         return result;
     }
 
+    public static void addBy(double[] values, double addition, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        Kernels.addBy(values, offset, addition, result, outOffset, length);
+    }
+
     // subtract values2 from values1.
     public static double[] subtract(double[] values1, double[] values2) {
-        double[] subtract = multiplyBy(values2, -1);
-        return add(values1, subtract);
+        checkSameSize(values1, values2);
+
+        double[] result = new double[values1.length];
+        subtract(values1, values2, 0, result.length, result, 0);
+        return result;
+    }
+
+    public static void subtract(double[] values1, double[] values2, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values1, values2);
+        checkRange(outOffset, length, result);
+
+        Kernels.subtract(values1, offset, values2, offset, result, outOffset, length);
     }
 
     // Difference between current and before values.
     public static double[] diff(double[] values, int before) {
-        return subtract(values, shiftRight(before, values));
+        double[] result = new double[values.length];
+        diff(values, before, 0, values.length, result, 0);
+        return result;
+    }
+
+    // The values before the range count as 0, same as shiftRight.
+    public static void diff(double[] values, int before, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        // 从后往前写，result和values是同一段时也成立
+        for (int i = length - 1; i >= 0; i--) {
+            double previous = i < before ? 0 : values[offset + i - before];
+            result[outOffset + i] = values[offset + i] - previous;
+        }
     }
 
     // Percent difference between current and before values.
     public static double[] percentDiff(double[] values, int before) {
         double[] result = new double[values.length];
+        percentDiff(values, before, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = before; i < values.length; i++) {
-            result[i] = (values[i] - values[i - before]) / values[i - before];
-        }
+    public static void percentDiff(double[] values, int before, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        for (int i = length - 1; i >= 0; i--) {
+            if (i < before) {
+                result[outOffset + i] = 0;
+            } else {
+                result[outOffset + i] = (values[offset + i] - values[offset + i - before]) / values[offset + i - before];
+            }
+        }
     }
 
     // Shift right for period and fills with value.
     public static double[] shiftRightAndFillBy(int period, double fill, double[] values) {
         double[] result = new double[values.length];
+        shiftRightAndFillBy(period, fill, values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < result.length; i++) {
+    public static void shiftRightAndFillBy(int period, double fill, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        for (int i = length - 1; i >= 0; i--) {
             if (i < period) {
-                result[i] = fill;
+                result[outOffset + i] = fill;
             } else {
-                result[i] = values[i - period];
+                result[outOffset + i] = values[offset + i - period];
             }
         }
-
-        return result;
     }
 
     // Shift right for period.
@@ -122,6 +230,10 @@ public class Helper {
         return shiftRightAndFillBy(period, 0, values);
     }
 
+    public static void shiftRight(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        shiftRightAndFillBy(period, 0, values, offset, length, result, outOffset);
+    }
+
     // Round value to digits.
     public static double roundDigits(double value, int digits) {
         double n = Math.pow(10, digits);
@@ -132,12 +244,17 @@ public class Helper {
     // Round values to digits.
     public static double[] roundDigitsAll(double[] values, int digits) {
         double[] result = new double[values.length];
+        roundDigitsAll(values, digits, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            result[i] = roundDigits(values[i], digits);
-        }
+    public static void roundDigitsAll(double[] values, int digits, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = roundDigits(values[offset + i], digits);
+        }
     }
 
     // Generate numbers.
@@ -145,101 +262,151 @@ public class Helper {
         int n = (int) Math.round((end - begin) / step);
 
         double[] numbers = new double[n];
+        generateNumbers(begin, step, n, numbers, 0);
+        return numbers;
+    }
+
+    // Generate length numbers from begin into result.
+    public static void generateNumbers(double begin, double step, int length, double[] result, int outOffset) {
+        checkRange(outOffset, length, result);
 
-        for (int i = 0; i < n; i++) {
-            numbers[i] = begin + (step * i);
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = begin + (step * i);
         }
+    }
 
-        return numbers;
+    // Compensated prefix sums, the sum of values[0, i) is high[i] + low[i], both
+    // one longer than values. high is the running sum and low collects what
+    // each addition rounded off, so (high[to] - high[from]) + (low[to] - low[from])
+    // is the sum of values[from, to) within a few ulps of it, however long the
+    // series is. Returns high, low.
+    public static Pair<double[], double[]> prefixSum(double[] values) {
+        double[] high = new double[values.length + 1];
+        double[] low = new double[values.length + 1];
+        prefixSum(values, 0, values.length, high, low, 0);
+        return Pair.of(high, low);
+    }
+
+    // Writes length + 1 sums from outOffset.
+    public static void prefixSum(double[] values, int offset, int length, double[] high, double[] low, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length + 1, high, low);
+
+        double sum = 0, error = 0;
+        high[outOffset] = sum;
+        low[outOffset] = error;
+        for (int i = 0; i < length; i++) {
+            double value = values[offset + i];
+            double next = sum + value;
+            // TwoSum, the exact rounding error of sum + value
+            double back = next - value;
+            error += (sum - back) + (value - (next - back));
+            sum = next;
+            high[outOffset + i + 1] = sum;
+            low[outOffset + i + 1] = error;
+        }
     }
 
     // Convets the []int64 to []float64.
     public static double[] asDouble(long[] values) {
         double[] result = new double[values.length];
+        asDouble(values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < result.length; i++) {
-            result[i] = new Double(values[i]);
-        }
+    public static void asDouble(long[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = values[offset + i];
+        }
     }
 
     // Calculate power of base with exponent.
     public static double[] pow(double[] base, double exponent) {
         double[] result = new double[base.length];
+        pow(base, exponent, 0, base.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < result.length; i++) {
-            result[i] = Math.pow(base[i], exponent);
-        }
+    public static void pow(double[] base, double exponent, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, base);
+        checkRange(outOffset, length, result);
 
-        return result;
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = Math.pow(base[offset + i], exponent);
+        }
     }
 
     // Extact sign.
     public static double[] extractSign(double[] values) {
         double[] result = new double[values.length];
+        extractSign(values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < result.length; i++) {
-            if (values[i] >= 0) {
-                result[i] = 1;
-            } else {
-                result[i] = -1;
-            }
-        }
+    public static void extractSign(double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        Kernels.extractSign(values, offset, result, outOffset, length);
     }
 
     // Keep positives.
     public static double[] keepPositives(double[] values) {
         double[] result = new double[values.length];
+        keepPositives(values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            if (values[i] > 0) {
-                result[i] = values[i];
-            } else {
-                result[i] = 0;
-            }
-        }
+    public static void keepPositives(double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        Kernels.keepPositives(values, offset, result, outOffset, length);
     }
 
     // Keep negatives.
     public static double[] keepNegatives(double[] values) {
         double[] result = new double[values.length];
+        keepNegatives(values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            if (values[i] < 0) {
-                result[i] = values[i];
-            } else {
-                result[i] = 0;
-            }
-        }
+    public static void keepNegatives(double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        Kernels.keepNegatives(values, offset, result, outOffset, length);
     }
 
     // Sqrt of given values.
     public static double[] sqrt(double[] values) {
         double[] result = new double[values.length];
+        sqrt(values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            result[i] = Math.sqrt(values[i]);
-        }
+    public static void sqrt(double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        Kernels.sqrt(values, offset, result, outOffset, length);
     }
 
     // Abs of given values.
     public static double[] abs(double[] values) {
         double[] result = new double[values.length];
+        abs(values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            result[i] = Math.abs(values[i]);
-        }
+    public static void abs(double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
-        return result;
+        Kernels.abs(values, offset, result, outOffset, length);
     }
 
 }
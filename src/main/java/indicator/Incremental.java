@@ -0,0 +1,789 @@
+package indicator;
+
+import model.ChartBar;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * 追加计算 - K线追加之后只算新的部分
+ * <p>
+ * Keeps the state at the end of the last computation. Each
+ * {@link #update(ChartBar)} gets the bars of the last call with new bars
+ * appended (a longer copy, or a new read of a store), and extends the result
+ * by only the new bars:
+ * <pre>
+ * Incremental&lt;double[]&gt; ema = Incremental.Ema(12, ChartBar::getClose);
+ * double[] values = ema.update(chartBar);     // all the bars
+ * ...
+ * values = ema.update(longerChartBar);        // only the new bars
+ * </pre>
+ * The results have the same bits as the indicator run over all the bars.
+ * The recursive ones (Ema, Rma, sma, Sum, Obv ...) go on from their state,
+ * the window ones (Max, Min, {@link #window}) rewind by their lookback. Each
+ * update returns a new array, the ones returned before are not changed.
+ * <p>
+ * Bars corrected after they were computed go through
+ * {@link #recomputeFrom(ChartBar, int, int)}. With
+ * {@link #checkpointEvery(int)} the recursive ones keep their state every N
+ * bars, start again from the last checkpoint before the corrected bar, and
+ * stop at a later checkpoint where the state is the same as before (an Ema
+ * forgets a correction after a while, an Obv only when the correction does
+ * not change the running sum). The checkpoint must come after the bar after
+ * the corrected ones, Obv and VolumePriceTrend read the closing before.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public abstract class Incremental<T> {
+    private T result;
+    private int computed;
+    // checkpoint k is the state before bar k * interval, 0 for no checkpoints
+    private int interval;
+    private long[] checkpoints = new long[0];
+    private long[] scratch = new long[0];
+
+    Incremental() {
+    }
+
+    // Keeps a checkpoint of the state every interval bars from now on, for
+    // recomputeFrom. Forgets what was computed. Nothing to keep for the
+    // window indicators.
+    public Incremental<T> checkpointEvery(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        this.interval = lookback() < 0 ? interval : 0;
+        reset();
+        return this;
+    }
+
+    // Extends the result to all the bars of chartBar.
+    public final T update(ChartBar chartBar) {
+        int size = chartBar.size();
+        if (size < computed) {
+            throw new IllegalArgumentException("bars removed, " + size + " < " + computed + ", reset first");
+        }
+        if (result != null && size == computed) {
+            return result;
+        }
+        if (result == null) {
+            restart();
+        }
+        result = grow(result, size);
+        run(chartBar, computed, size);
+        computed = size;
+        return result;
+    }
+
+    // The bars from index on may have changed, computes them again from the
+    // last checkpoint before index, new bars at the end too.
+    public final T recomputeFrom(ChartBar chartBar, int index) {
+        return recomputeFrom(chartBar, index, Integer.MAX_VALUE);
+    }
+
+    // Only the bars [index, index + count) changed, the others are the same
+    // as before or new at the end. Stops early where the outputs are the
+    // same as before again.
+    public final T recomputeFrom(ChartBar chartBar, int index, int count) {
+        int size = chartBar.size();
+        if (index < 0 || count < 0) {
+            throw new IllegalArgumentException("index: " + index + ", count: " + count);
+        }
+        if (size < computed) {
+            throw new IllegalArgumentException("bars removed, " + size + " < " + computed + ", reset first");
+        }
+        if (result == null || index >= computed) {
+            return update(chartBar);
+        }
+        int previous = computed;
+        int changed = (int) Math.min((long) index + count, size);
+        result = grow(result, size);
+        computed = size;
+
+        int lookback = lookback();
+        if (lookback >= 0) {
+            // 窗口指标只影响到后面 lookback 根
+            int end = (int) Math.min((long) changed + lookback, size);
+            compute(chartBar, index, end, result);
+            if (size > Math.max(end, previous)) {
+                compute(chartBar, Math.max(end, previous), size, result);
+            }
+            return result;
+        }
+
+        // 改动之前的状态保存下来，收敛时接着用
+        int stateSize = stateSize();
+        long[] last = new long[stateSize];
+        save(last, 0);
+        int from = interval == 0 ? 0 : index / interval * interval;
+        if (from == 0) {
+            restart();
+        } else {
+            load(checkpoints, from / interval * stateSize);
+        }
+        for (int i = from; i < size; ) {
+            if (interval != 0 && i % interval == 0) {
+                // 第 changed 根还会读前一根的收盘价 (Obv、VolumePriceTrend)，不在状态里
+                if (i > from && i > changed && i < previous && sameAsCheckpoint(i / interval)) {
+                    load(last, 0);
+                    if (size > previous) {
+                        run(chartBar, previous, size);
+                    }
+                    return result;
+                }
+                checkpoint(i / interval);
+            }
+            int end = interval == 0 ? size : Math.min(size, (i / interval + 1) * interval);
+            compute(chartBar, i, end, result);
+            i = end;
+        }
+        return result;
+    }
+
+    // Number of bars computed.
+    public int computed() {
+        return computed;
+    }
+
+    // Forgets the state, the next update computes all the bars.
+    public void reset() {
+        result = null;
+        computed = 0;
+    }
+
+    // Computes [from, to) with the state at from, keeping the checkpoints on the way.
+    private void run(ChartBar chartBar, int from, int to) {
+        if (interval == 0) {
+            compute(chartBar, from, to, result);
+            return;
+        }
+        for (int i = from; i < to; ) {
+            if (i % interval == 0) {
+                checkpoint(i / interval);
+            }
+            int end = Math.min(to, (i / interval + 1) * interval);
+            compute(chartBar, i, end, result);
+            i = end;
+        }
+    }
+
+    private void checkpoint(int k) {
+        int stateSize = stateSize();
+        if (checkpoints.length < (k + 1) * stateSize) {
+            checkpoints = Arrays.copyOf(checkpoints, Math.max((k + 1) * stateSize, checkpoints.length * 2));
+        }
+        save(checkpoints, k * stateSize);
+    }
+
+    // Whether the state is the same as checkpoint k, bit by bit.
+    private boolean sameAsCheckpoint(int k) {
+        int stateSize = stateSize();
+        if (scratch.length < stateSize) {
+            scratch = new long[stateSize];
+        }
+        save(scratch, 0);
+        for (int i = 0; i < stateSize; i++) {
+            if (scratch[i] != checkpoints[k * stateSize + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A copy of result, null at first, with size elements.
+    abstract T grow(T result, int size);
+
+    // Starts the state over.
+    abstract void restart();
+
+    // Computes the bars [from, to) into result, the state is at from.
+    abstract void compute(ChartBar chartBar, int from, int to, T result);
+
+    // Bars before an output it depends on, for the window indicators without
+    // state. -1 for the ones going on from a state.
+    int lookback() {
+        return -1;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return 0;
+    }
+
+    // Writes the state from state[at]. Returns the index after it.
+    int save(long[] state, int at) {
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        return at;
+    }
+
+    // Exponential Moving Average (EMA) of the input column.
+    public static Incremental<double[]> Ema(int period, Function<ChartBar, double[]> input) {
+        return new OfDouble(input) {
+            private EmaState ema;
+
+            @Override
+            void restart() {
+                ema = new EmaState(period);
+            }
+
+            @Override
+            int stateSize() {
+                return ema.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = ema.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = ema.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                for (int i = from; i < to; i++) {
+                    result[i] = ema.update(values[i]);
+                }
+            }
+        };
+    }
+
+    // Double Exponential Moving Average (DEMA) of the input column.
+    public static Incremental<double[]> Dema(int period, Function<ChartBar, double[]> input) {
+        return new OfDouble(input) {
+            private EmaState ema1;
+            private EmaState ema2;
+
+            @Override
+            void restart() {
+                ema1 = new EmaState(period);
+                ema2 = new EmaState(period);
+            }
+
+            @Override
+            int stateSize() {
+                return ema1.stateSize() + ema2.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = ema1.save(state, at);
+                at = ema2.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = ema1.load(state, at);
+                at = ema2.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                for (int i = from; i < to; i++) {
+                    double e1 = ema1.update(values[i]);
+                    double e2 = ema2.update(e1);
+                    result[i] = (e1 * 2) - e2;
+                }
+            }
+        };
+    }
+
+    // Triple Exponential Moving Average (TEMA) of the input column.
+    public static Incremental<double[]> Tema(int period, Function<ChartBar, double[]> input) {
+        return new OfDouble(input) {
+            private EmaState ema1;
+            private EmaState ema2;
+            private EmaState ema3;
+
+            @Override
+            void restart() {
+                ema1 = new EmaState(period);
+                ema2 = new EmaState(period);
+                ema3 = new EmaState(period);
+            }
+
+            @Override
+            int stateSize() {
+                return ema1.stateSize() + ema2.stateSize() + ema3.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = ema1.save(state, at);
+                at = ema2.save(state, at);
+                at = ema3.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = ema1.load(state, at);
+                at = ema2.load(state, at);
+                at = ema3.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                for (int i = from; i < to; i++) {
+                    double e1 = ema1.update(values[i]);
+                    double e2 = ema2.update(e1);
+                    double e3 = ema3.update(e2);
+                    result[i] = (e1 * 3) - (e2 * 3) + e3;
+                }
+            }
+        };
+    }
+
+    // Rolling Moving Average (RMA) of the input column.
+    public static Incremental<double[]> Rma(int period, Function<ChartBar, double[]> input) {
+        return new OfDouble(input) {
+            private RmaState rma;
+
+            @Override
+            void restart() {
+                rma = new RmaState(period);
+            }
+
+            @Override
+            int stateSize() {
+                return rma.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = rma.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = rma.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                for (int i = from; i < to; i++) {
+                    result[i] = rma.update(values[i]);
+                }
+            }
+        };
+    }
+
+    // Simple Moving Average (SMA) of the input column, the rolling sum of
+    // TrendIndicators.sma, not the prefix sums of a parameter sweep.
+    public static Incremental<double[]> sma(int period, Function<ChartBar, double[]> input) {
+        return new OfDouble(input) {
+            private SmaState sma;
+
+            @Override
+            void restart() {
+                sma = new SmaState(period);
+            }
+
+            @Override
+            int stateSize() {
+                return sma.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = sma.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = sma.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                for (int i = from; i < to; i++) {
+                    result[i] = sma.update(values[i]);
+                }
+            }
+        };
+    }
+
+    // Moving sum of the input column.
+    public static Incremental<double[]> Sum(int period, Function<ChartBar, double[]> input) {
+        return new OfDouble(input) {
+            private SumState sum;
+
+            @Override
+            void restart() {
+                sum = new SumState(period);
+            }
+
+            @Override
+            int stateSize() {
+                return sum.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = sum.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = sum.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                for (int i = from; i < to; i++) {
+                    result[i] = sum.update(values[i]);
+                }
+            }
+        };
+    }
+
+    // Moving max of the input column, rewinds period - 1 bars.
+    public static Incremental<double[]> Max(int period, Function<ChartBar, double[]> input) {
+        return window(period - 1, input, (values, offset, length, result, outOffset) ->
+                TrendIndicators.Max(period, values, offset, length, result, outOffset));
+    }
+
+    // Moving min of the input column, rewinds period - 1 bars.
+    public static Incremental<double[]> Min(int period, Function<ChartBar, double[]> input) {
+        return window(period - 1, input, (values, offset, length, result, outOffset) ->
+                TrendIndicators.Min(period, values, offset, length, result, outOffset));
+    }
+
+    // An indicator whose value at i only depends on the values [i - lookback, i],
+    // computed again from lookback bars before the new ones.
+    public static Incremental<double[]> window(int lookback, Function<ChartBar, double[]> input, Window indicator) {
+        if (lookback < 0) {
+            throw new IllegalArgumentException("lookback must not be negative: " + lookback);
+        }
+        return new OfDouble(input) {
+            private double[] scratch = new double[0];
+
+            @Override
+            void restart() {
+            }
+
+            @Override
+            int lookback() {
+                return lookback;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                int start = Math.max(0, from - lookback);
+                if (start == from) {
+                    indicator.compute(values, from, to - from, result, from);
+                    return;
+                }
+                // 前 lookback 个是不完整的窗口，只取新的部分
+                int length = to - start;
+                if (scratch.length < length) {
+                    scratch = new double[length];
+                }
+                indicator.compute(values, start, length, scratch, 0);
+                System.arraycopy(scratch, from - start, result, from, to - from);
+            }
+        };
+    }
+
+    // Relative Strength Index (RSI) of the input column, the rsi of
+    // MomentumIndicators.RsiPeriod.
+    public static Incremental<double[]> Rsi(int period, Function<ChartBar, double[]> input) {
+        return new OfDouble(input) {
+            private RsiState rsi;
+
+            @Override
+            void restart() {
+                rsi = new RsiState(period);
+            }
+
+            @Override
+            int stateSize() {
+                return rsi.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = rsi.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = rsi.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(double[] values, int from, int to, double[] result) {
+                for (int i = from; i < to; i++) {
+                    result[i] = rsi.update(values[i]);
+                }
+            }
+        };
+    }
+
+    // Parabolic SAR of the chart bar, the psar of TrendIndicators.ParabolicSar.
+    public static Incremental<double[]> ParabolicSar() {
+        return new Incremental<double[]>() {
+            private ParabolicSarState psar;
+
+            @Override
+            double[] grow(double[] result, int size) {
+                return result == null ? new double[size] : Arrays.copyOf(result, size);
+            }
+
+            @Override
+            void restart() {
+                psar = new ParabolicSarState();
+            }
+
+            @Override
+            int stateSize() {
+                return psar.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = psar.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = psar.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(ChartBar chartBar, int from, int to, double[] result) {
+                for (int j = from; j < to; j++) {
+                    result[j] = psar.update(chartBar.high[j], chartBar.low[j], chartBar.close[j]);
+                }
+            }
+        };
+    }
+
+    // Volume Price Trend (VPT) of the chart bar.
+    public static Incremental<double[]> VolumePriceTrend() {
+        return new Incremental<double[]>() {
+            private double previous;
+
+            @Override
+            double[] grow(double[] result, int size) {
+                return result == null ? new double[size] : Arrays.copyOf(result, size);
+            }
+
+            @Override
+            void restart() {
+                previous = 0;
+            }
+
+            @Override
+            int stateSize() {
+                return 1;
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                state[at] = Double.doubleToRawLongBits(previous);
+                return at + 1;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                previous = Double.longBitsToDouble(state[at]);
+                return at + 1;
+            }
+
+            @Override
+            void compute(ChartBar chartBar, int from, int to, double[] vpt) {
+                double[] closing = chartBar.close;
+                long[] volume = chartBar.volume;
+                for (int j = from; j < to; j++) {
+                    double previousClosing = closing[j > 0 ? j - 1 : 0];
+                    previous += volume[j] * ((closing[j] - previousClosing) / previousClosing);
+                    vpt[j] = previous;
+                }
+            }
+        };
+    }
+
+    // Accumulation/Distribution (AD) of the chart bar.
+    public static Incremental<double[]> AccumulationDistribution() {
+        return new Incremental<double[]>() {
+            private double previous;
+
+            @Override
+            double[] grow(double[] result, int size) {
+                return result == null ? new double[size] : Arrays.copyOf(result, size);
+            }
+
+            @Override
+            void restart() {
+                previous = 0;
+            }
+
+            @Override
+            int stateSize() {
+                return 1;
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                state[at] = Double.doubleToRawLongBits(previous);
+                return at + 1;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                previous = Double.longBitsToDouble(state[at]);
+                return at + 1;
+            }
+
+            @Override
+            void compute(ChartBar chartBar, int from, int to, double[] ad) {
+                double[] high = chartBar.high, low = chartBar.low, closing = chartBar.close;
+                long[] volume = chartBar.volume;
+                for (int j = from; j < to; j++) {
+                    previous += volume[j] * (((closing[j] - low[j]) - (high[j] - closing[j])) / (high[j] - low[j]));
+                    ad[j] = previous;
+                }
+            }
+        };
+    }
+
+    // On-Balance Volume (OBV) of the chart bar.
+    public static Incremental<long[]> Obv() {
+        return new Incremental<long[]>() {
+            private long previous;
+
+            @Override
+            long[] grow(long[] result, int size) {
+                return result == null ? new long[size] : Arrays.copyOf(result, size);
+            }
+
+            @Override
+            void restart() {
+                previous = 0;
+            }
+
+            @Override
+            int stateSize() {
+                return 1;
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                state[at] = previous;
+                return at + 1;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                previous = state[at];
+                return at + 1;
+            }
+
+            @Override
+            void compute(ChartBar chartBar, int from, int to, long[] obv) {
+                double[] closing = chartBar.close;
+                long[] volume = chartBar.volume;
+                for (int j = from; j < to; j++) {
+                    if (j > 0) {
+                        if (closing[j] > closing[j - 1]) {
+                            previous += volume[j];
+                        } else if (closing[j] < closing[j - 1]) {
+                            previous -= volume[j];
+                        }
+                    }
+                    obv[j] = previous;
+                }
+            }
+        };
+    }
+
+    // Negative Volume Index (NVI) of the chart bar.
+    public static Incremental<double[]> NegativeVolumeIndex() {
+        return new Incremental<double[]>() {
+            private NegativeVolumeIndexState nvi;
+
+            @Override
+            double[] grow(double[] result, int size) {
+                return result == null ? new double[size] : Arrays.copyOf(result, size);
+            }
+
+            @Override
+            void restart() {
+                nvi = new NegativeVolumeIndexState();
+            }
+
+            @Override
+            int stateSize() {
+                return nvi.stateSize();
+            }
+
+            @Override
+            int save(long[] state, int at) {
+                at = nvi.save(state, at);
+                return at;
+            }
+
+            @Override
+            int load(long[] state, int at) {
+                at = nvi.load(state, at);
+                return at;
+            }
+
+            @Override
+            void compute(ChartBar chartBar, int from, int to, double[] result) {
+                for (int j = from; j < to; j++) {
+                    result[j] = nvi.update(chartBar.close[j], chartBar.volume[j]);
+                }
+            }
+        };
+    }
+
+    // The buffer overload of a window indicator, see TrendIndicators.Max.
+    @FunctionalInterface
+    public interface Window {
+        void compute(double[] values, int offset, int length, double[] result, int outOffset);
+    }
+
+    // An indicator of one double column.
+    private abstract static class OfDouble extends Incremental<double[]> {
+        private final Function<ChartBar, double[]> input;
+
+        OfDouble(Function<ChartBar, double[]> input) {
+            this.input = input;
+        }
+
+        @Override
+        final double[] grow(double[] result, int size) {
+            return result == null ? new double[size] : Arrays.copyOf(result, size);
+        }
+
+        @Override
+        final void compute(ChartBar chartBar, int from, int to, double[] result) {
+            compute(input.apply(chartBar), from, to, result);
+        }
+
+        abstract void compute(double[] values, int from, int to, double[] result);
+    }
+}
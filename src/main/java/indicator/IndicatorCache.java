@@ -0,0 +1,340 @@
+package indicator;
+
+import base.Pair;
+import base.Quintuple;
+import base.Triple;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 指标缓存 - 在一次计算范围内 (比如 AllStrategy 对一个 ChartBar 跑全部子策略)，
+ * 函数、参数、输入数组都相同的指标只算一次
+ * <p>
+ * The indicator functions returning new arrays consult the cache of the
+ * current thread, nothing changes for the callers:
+ * <pre>
+ * IndicatorCache cache = IndicatorCache.open();
+ * try {
+ *     ...
+ * } finally {
+ *     cache.close();
+ * }
+ * </pre>
+ * Opening again on the same thread joins the open cache, it is cleared when
+ * the outermost scope closes, other threads share it through {@link #enter()}.
+ * Inputs are compared by identity, so inside of a scope the input arrays must
+ * not be modified. The callers get their own copy of a cached result and can
+ * modify it, only the indicators computing from other indicators share the
+ * cached arrays. The hit and miss counts stay after closing.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class IndicatorCache {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final Map<Key, FutureTask<Object>> entries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    // 关闭之后还在跑的任务直接计算，不再放进缓存
+    private volatile boolean closed;
+    // 只缓存这些函数，null时全部缓存
+    private volatile Set<String> kept;
+
+    private IndicatorCache() {
+    }
+
+    // Opens a cache scope on the current thread, or joins the open one.
+    public static IndicatorCache open() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            scope = new Scope(new IndicatorCache(), true, null);
+            CURRENT.set(scope);
+        }
+        scope.depth++;
+        return scope.cache;
+    }
+
+    // A new cache, open on no thread. Enter it on each thread that uses it.
+    public static IndicatorCache create() {
+        return new IndicatorCache();
+    }
+
+    // Opens this cache on the current thread, for the tasks a strategy runs
+    // on other threads. Close it on the same thread when the task is done.
+    public IndicatorCache enter() {
+        Scope scope = CURRENT.get();
+        if (scope == null || scope.cache != this) {
+            scope = new Scope(this, false, scope);
+            CURRENT.set(scope);
+        }
+        scope.depth++;
+        return this;
+    }
+
+    // The open cache of the current thread, null if none.
+    public static IndicatorCache current() {
+        Scope scope = CURRENT.get();
+        return scope == null ? null : scope.cache;
+    }
+
+    // Closes the scope, the outermost close of open drops the cached results.
+    public void close() {
+        Scope scope = CURRENT.get();
+        if (scope == null || scope.cache != this) {
+            throw new IllegalStateException("cache is not open on this thread");
+        }
+        if (--scope.depth == 0) {
+            if (scope.previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(scope.previous);
+            }
+            if (scope.owner) {
+                closed = true;
+                entries.clear();
+            }
+        }
+    }
+
+    // Keeps only the results of these functions, the others are computed every
+    // time but can still use the kept ones. For parameter sweeps, where the
+    // result of each grid point is not asked for again but its parts are.
+    public IndicatorCache keepOnly(String... functions) {
+        kept = new HashSet<>(Arrays.asList(functions));
+        return this;
+    }
+
+    // Whether a cache is open on the current thread. The indicators check it
+    // before building the arguments of get.
+    static boolean isOpen() {
+        return CURRENT.get() != null;
+    }
+
+    // Returns the cached result of function with the parameters and inputs
+    // in parts, computes it if missing. Arrays in parts are compared by
+    // identity, other values by equals. A copy of the result is returned,
+    // except to the indicators computing another cached result.
+    @SuppressWarnings("unchecked")
+    static <T> T get(String function, Supplier<T> compute, Object... parts) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return compute.get();
+        }
+        return (T) scope.cache.lookup(scope, function, compute, parts);
+    }
+
+    private Object lookup(Scope scope, String function, Supplier<?> compute, Object[] parts) {
+        Set<String> kept = this.kept;
+        if (closed || (kept != null && !kept.contains(function))) {
+            return scope.compute(compute);
+        }
+        Key key = new Key(function, parts);
+        FutureTask<Object> task = entries.get(key);
+        boolean hit = task != null;
+        if (task == null) {
+            FutureTask<Object> created = new FutureTask<>(() -> scope.compute(compute));
+            task = entries.putIfAbsent(key, created);
+            hit = task != null;
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+        counter(function).count(hit);
+
+        try {
+            Object result = task.get();
+            return scope.computing > 0 ? result : copy(result);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Copies the arrays of a result, in the tuples too. The other values are
+    // immutable.
+    private static Object copy(Object result) {
+        if (result instanceof double[]) {
+            return ((double[]) result).clone();
+        }
+        if (result instanceof long[]) {
+            return ((long[]) result).clone();
+        }
+        if (result instanceof int[]) {
+            return ((int[]) result).clone();
+        }
+        if (result instanceof Object[]) {
+            return ((Object[]) result).clone();
+        }
+        if (result instanceof Pair) {
+            Pair<?, ?> pair = (Pair<?, ?>) result;
+            return Pair.of(copy(pair.left), copy(pair.right));
+        }
+        if (result instanceof Triple) {
+            Triple<?, ?, ?> triple = (Triple<?, ?, ?>) result;
+            return Triple.of(copy(triple.left), copy(triple.middle), copy(triple.right));
+        }
+        if (result instanceof Quintuple) {
+            Quintuple<?, ?, ?, ?, ?> quintuple = (Quintuple<?, ?, ?, ?, ?>) result;
+            return Quintuple.of(copy(quintuple.first), copy(quintuple.second), copy(quintuple.third),
+                    copy(quintuple.forth), copy(quintuple.fifth));
+        }
+        return result;
+    }
+
+    private Counter counter(String function) {
+        Counter counter = counters.get(function);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(function, f -> new Counter());
+        }
+        return counter;
+    }
+
+    // Number of results served from the cache.
+    public long getHits() {
+        long hits = 0;
+        for (Counter counter : counters.values()) {
+            hits += counter.hits.sum();
+        }
+        return hits;
+    }
+
+    // Number of results computed.
+    public long getMisses() {
+        long misses = 0;
+        for (Counter counter : counters.values()) {
+            misses += counter.misses.sum();
+        }
+        return misses;
+    }
+
+    // Number of results of the function served from the cache.
+    public long getHits(String function) {
+        Counter counter = counters.get(function);
+        return counter == null ? 0 : counter.hits.sum();
+    }
+
+    // Number of results of the function computed.
+    public long getMisses(String function) {
+        Counter counter = counters.get(function);
+        return counter == null ? 0 : counter.misses.sum();
+    }
+
+    // hits: 3, misses: 7, Ema: 1/2, Max: 2/1 ... (hits/misses of each function)
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("hits: ").append(getHits()).append(", misses: ").append(getMisses());
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            sb.append(", ").append(entry.getKey()).append(": ")
+                    .append(entry.getValue().hits.sum()).append('/').append(entry.getValue().misses.sum());
+        }
+        return sb.toString();
+    }
+
+    // A cache opened on one thread, entered caches stack over the previous one.
+    private static final class Scope {
+        final IndicatorCache cache;
+        final boolean owner;
+        final Scope previous;
+        int depth;
+        // 正在计算的指标层数，大于0时取到的结果不复制
+        int computing;
+
+        Scope(IndicatorCache cache, boolean owner, Scope previous) {
+            this.cache = cache;
+            this.owner = owner;
+            this.previous = previous;
+        }
+
+        Object compute(Supplier<?> compute) {
+            computing++;
+            try {
+                return compute.get();
+            } finally {
+                computing--;
+            }
+        }
+    }
+
+    private static final class Counter {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        void count(boolean hit) {
+            if (hit) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+        }
+    }
+
+    private static final class Key {
+        final String function;
+        final Object[] parts;
+        final int hash;
+
+        Key(String function, Object[] parts) {
+            this.function = function;
+            this.parts = parts;
+            int h = function.hashCode();
+            for (Object part : parts) {
+                h = h * 31 + (isArray(part) ? System.identityHashCode(part) : part.hashCode());
+            }
+            this.hash = h;
+        }
+
+        private static boolean isArray(Object part) {
+            return part != null && part.getClass().isArray();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            if (hash != other.hash || !function.equals(other.function) || parts.length != other.parts.length) {
+                return false;
+            }
+            for (int i = 0; i < parts.length; i++) {
+                Object a = parts[i], b = other.parts[i];
+                if (isArray(a) || isArray(b) ? a != b : !a.equals(b)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return function + Arrays.toString(parts);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package indicator;
+
+import base.MonotonicDeque;
+
+/**
+ * 流式KDJ - 与 {@link TrendIndicators#Kdj(int, int, int, double[], double[], double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class KdjState {
+    private final MonotonicDeque highest;
+    private final MonotonicDeque lowest;
+    private final SmaState k;
+    private final SmaState d;
+    private double j;
+    private double previewD;
+    private double previewJ;
+
+    public KdjState() {
+        this(9, 3, 3);
+    }
+
+    public KdjState(int rPeriod, int kPeriod, int dPeriod) {
+        this.highest = MonotonicDeque.max(rPeriod);
+        this.lowest = MonotonicDeque.min(rPeriod);
+        this.k = new SmaState(kPeriod);
+        this.d = new SmaState(dPeriod);
+    }
+
+    // Adds the next bar. Returns the k.
+    public double update(double high, double low, double closing) {
+        double h = highest.push(high);
+        double l = lowest.push(low);
+        double rsv = ((closing - l) / (h - l)) * 100;
+
+        double kv = k.update(rsv);
+        double dv = d.update(kv);
+        j = (kv * 3) - (dv * 2);
+
+        return kv;
+    }
+
+    // The k if the bar were the next one, without adding it. The d and j of
+    // the preview are in previewD and previewJ.
+    public double preview(double high, double low, double closing) {
+        double h = highest.peek(high);
+        double l = lowest.peek(low);
+        double rsv = ((closing - l) / (h - l)) * 100;
+
+        double kv = k.preview(rsv);
+        previewD = d.preview(kv);
+        previewJ = (kv * 3) - (previewD * 2);
+
+        return kv;
+    }
+
+    // The d of the last preview.
+    public double previewD() {
+        return previewD;
+    }
+
+    // The j of the last preview.
+    public double previewJ() {
+        return previewJ;
+    }
+
+    public double k() {
+        return k.value();
+    }
+
+    public double d() {
+        return d.value();
+    }
+
+    public double j() {
+        return j;
+    }
+
+    public long count() {
+        return k.count();
+    }
+
+    public void reset() {
+        highest.reset();
+        lowest.reset();
+        k.reset();
+        d.reset();
+        j = 0;
+    }
+}
@@ -0,0 +1,81 @@
+package indicator;
+
+/**
+ * 逐元素运算的入口，这个版本只有标量实现
+ * <p>
+ * Built with JDK 17 or newer, the jar also has a version of this class in
+ * META-INF/versions/17 that uses the incubating Vector API when the JVM runs
+ * with --add-modules jdk.incubator.vector, see VectorKernels.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class Kernels {
+    private Kernels() {
+    }
+
+    // Whether the kernels run on SIMD lanes, a method so that callers do not
+    // inline a constant of this version.
+    static boolean isVectorized() {
+        return false;
+    }
+
+    // a + b
+    static void add(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.add(a, aOffset, b, bOffset, result, outOffset, length);
+    }
+
+    // a - b
+    static void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.subtract(a, aOffset, b, bOffset, result, outOffset, length);
+    }
+
+    // a * b
+    static void multiply(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.multiply(a, aOffset, b, bOffset, result, outOffset, length);
+    }
+
+    // a / b
+    static void divide(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.divide(a, aOffset, b, bOffset, result, outOffset, length);
+    }
+
+    // a + addition
+    static void addBy(double[] a, int aOffset, double addition, double[] result, int outOffset, int length) {
+        ScalarKernels.addBy(a, aOffset, addition, result, outOffset, length);
+    }
+
+    // a * multiplier
+    static void multiplyBy(double[] a, int aOffset, double multiplier, double[] result, int outOffset, int length) {
+        ScalarKernels.multiplyBy(a, aOffset, multiplier, result, outOffset, length);
+    }
+
+    // a / divider, a real division, not a multiplication by 1 / divider.
+    static void divideBy(double[] a, int aOffset, double divider, double[] result, int outOffset, int length) {
+        ScalarKernels.divideBy(a, aOffset, divider, result, outOffset, length);
+    }
+
+    // Math.sqrt(a)
+    static void sqrt(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.sqrt(a, aOffset, result, outOffset, length);
+    }
+
+    // Math.abs(a)
+    static void abs(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.abs(a, aOffset, result, outOffset, length);
+    }
+
+    // a if a > 0, else 0.
+    static void keepPositives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.keepPositives(a, aOffset, result, outOffset, length);
+    }
+
+    // a if a < 0, else 0.
+    static void keepNegatives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.keepNegatives(a, aOffset, result, outOffset, length);
+    }
+
+    // 1 if a >= 0, else -1.
+    static void extractSign(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        ScalarKernels.extractSign(a, aOffset, result, outOffset, length);
+    }
+}
@@ -0,0 +1,66 @@
+package indicator;
+
+/**
+ * 流式最小二乘 - 累计全部值，与 {@link Regression#LeastSquare(double[], double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class LeastSquareState {
+    private double sumX, sumX2, sumY, sumXY;
+    private double m, b;
+    private double previewB;
+    private long count;
+
+    // Adds the next point. Returns the slope m.
+    public double update(double x, double y) {
+        sumX += x;
+        sumX2 += x * x;
+        sumY += y;
+        sumXY += x * y;
+        count++;
+
+        long n = count;
+        m = ((n * sumXY) - (sumX * sumY)) / ((n * sumX2) - (sumX * sumX));
+        b = (sumY - (m * sumX)) / n;
+        return m;
+    }
+
+    // The slope if the point were the next one, without adding it. The
+    // y-intercept of the preview is in previewB.
+    public double preview(double x, double y) {
+        double sx = sumX + x;
+        double sx2 = sumX2 + x * x;
+        double sy = sumY + y;
+        double sxy = sumXY + x * y;
+
+        long n = count + 1;
+        double pm = ((n * sxy) - (sx * sy)) / ((n * sx2) - (sx * sx));
+        previewB = (sy - (pm * sx)) / n;
+        return pm;
+    }
+
+    // The y-intercept of the last preview.
+    public double previewB() {
+        return previewB;
+    }
+
+    // Slope.
+    public double m() {
+        return m;
+    }
+
+    // Y-intercept.
+    public double b() {
+        return b;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void reset() {
+        sumX = sumX2 = sumY = sumXY = 0;
+        m = b = 0;
+        count = 0;
+    }
+}
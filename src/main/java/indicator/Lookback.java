@@ -0,0 +1,472 @@
+package indicator;
+
+/**
+ * 回看长度 - 算第 i 根的结果要往前读多少根
+ * <p>
+ * The output of bar i reads the bars [i - bars, i]. The window indicators
+ * read exactly that many, their outputs from bar i on are the same whatever
+ * bar before i - bars the computation starts at (up to the rounding of the
+ * rolling sums). The recursive ones (Ema, Rma ...) read every bar before,
+ * their bars are the warm-up after which the seed is forgotten to
+ * {@link #TOLERANCE}, they are not {@link #isExact()}. The cumulative and
+ * path dependent ones (Obv, ParabolicSar, Since ...) never forget, they are
+ * {@link #ALL} and are computed from the first bar.
+ * <p>
+ * The static methods take the same parameters as the indicator functions of
+ * the same name, composed indicators add up the lookbacks of their parts:
+ * <pre>
+ * Lookback.Kdj(9, 3, 3);   // 8 + 2 + 2 = 12 bars
+ * Lookback.Macd();         // Ema(26) then Ema(9), a warm-up
+ * </pre>
+ * See {@link Ranged} for computing a range of bars with it.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class Lookback {
+    // Weight left on the seed of a recursive indicator after its warm-up.
+    public static final double TOLERANCE = 1e-10;
+
+    // Only the bar itself.
+    public static final Lookback NONE = new Lookback(0, true);
+
+    // Every bar from the first one.
+    public static final Lookback ALL = new Lookback(Integer.MAX_VALUE, true);
+
+    private final int bars;
+    private final boolean exact;
+
+    private Lookback(int bars, boolean exact) {
+        this.bars = bars;
+        this.exact = exact;
+    }
+
+    // Reads the bars before, exactly.
+    public static Lookback bars(int bars) {
+        if (bars < 0) {
+            throw new IllegalArgumentException("bars must not be negative: " + bars);
+        }
+        return bars == 0 ? NONE : new Lookback(bars, true);
+    }
+
+    // A window of period bars, the bar itself and period - 1 before.
+    public static Lookback window(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be positive: " + period);
+        }
+        return bars(period - 1);
+    }
+
+    // A recursion keeping decay of the previous value each bar, warmed up
+    // when decay ^ bars is below TOLERANCE.
+    public static Lookback decay(double decay) {
+        if (decay < 0 || decay >= 1) {
+            throw new IllegalArgumentException("decay must be in [0, 1): " + decay);
+        }
+        if (decay == 0) {
+            return NONE;
+        }
+        double bars = Math.ceil(Math.log(TOLERANCE) / Math.log(decay));
+        return bars >= Integer.MAX_VALUE ? ALL : new Lookback((int) bars, false);
+    }
+
+    // Bars read before the output, Integer.MAX_VALUE for ALL.
+    public int getBars() {
+        return bars;
+    }
+
+    // Whether the window is exact, rather than a warm-up.
+    public boolean isExact() {
+        return exact;
+    }
+
+    public boolean isAll() {
+        return bars == Integer.MAX_VALUE;
+    }
+
+    // The first bar read for the outputs from bar from.
+    public int start(int from) {
+        return isAll() ? 0 : Math.max(0, from - bars);
+    }
+
+    // This one reading the outputs of next, their lookbacks add up.
+    public Lookback then(Lookback next) {
+        if (isAll() || next.isAll()) {
+            return ALL;
+        }
+        long sum = (long) bars + next.bars;
+        if (sum >= Integer.MAX_VALUE) {
+            return ALL;
+        }
+        return new Lookback((int) sum, exact && next.exact);
+    }
+
+    // Both of them on the same bars, the longer one counts.
+    public Lookback max(Lookback other) {
+        if (isAll() || other.isAll()) {
+            return ALL;
+        }
+        return new Lookback(Math.max(bars, other.bars), exact && other.exact);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Lookback)) {
+            return false;
+        }
+        Lookback other = (Lookback) o;
+        return bars == other.bars && exact == other.exact;
+    }
+
+    @Override
+    public int hashCode() {
+        return bars * 2 + (exact ? 1 : 0);
+    }
+
+    // Lookback(12), Lookback(~138) for a warm-up, Lookback(all)
+    @Override
+    public String toString() {
+        if (isAll()) {
+            return "Lookback(all)";
+        }
+        return "Lookback(" + (exact ? "" : "~") + bars + ")";
+    }
+
+    // ---- trend
+
+    public static Lookback AbsolutePriceOscillator(int fastPeriod, int slowPeriod) {
+        return Ema(fastPeriod).max(Ema(slowPeriod));
+    }
+
+    public static Lookback DefaultAbsolutePriceOscillator() {
+        return AbsolutePriceOscillator(14, 30);
+    }
+
+    // Like Since, counts on while the high of 25 does not change, with
+    // repeated highs that runs past any window.
+    public static Lookback Aroon() {
+        return ALL;
+    }
+
+    public static Lookback BalanceOfPower() {
+        return NONE;
+    }
+
+    // The regression runs over all the bars.
+    public static Lookback ChandeForecastOscillator() {
+        return ALL;
+    }
+
+    // Sma of the typical price, then Sma of the deviation from it.
+    public static Lookback CommunityChannelIndex(int period) {
+        return window(period).then(window(period));
+    }
+
+    public static Lookback DefaultCommunityChannelIndex() {
+        return CommunityChannelIndex(20);
+    }
+
+    public static Lookback Dema(int period) {
+        return Ema(period).then(Ema(period));
+    }
+
+    public static Lookback Ema(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be positive: " + period);
+        }
+        return decay(1 - 2.00 / (1 + period));
+    }
+
+    public static Lookback Kdj(int rPeriod, int kPeriod, int dPeriod) {
+        return window(rPeriod).then(sma(kPeriod)).then(sma(dPeriod));
+    }
+
+    public static Lookback DefaultKdj() {
+        return Kdj(9, 3, 3);
+    }
+
+    public static Lookback Macd() {
+        return Ema(12).max(Ema(26)).then(Ema(9));
+    }
+
+    public static Lookback MassIndex() {
+        return Dema(9).then(Sum(25));
+    }
+
+    public static Lookback Max(int period) {
+        return window(period);
+    }
+
+    // The index is counted from the first bar computed.
+    public static Lookback MaxIndex(int period) {
+        return window(period);
+    }
+
+    public static Lookback Median(int period) {
+        return window(period);
+    }
+
+    public static Lookback Min(int period) {
+        return window(period);
+    }
+
+    // The index is counted from the first bar computed.
+    public static Lookback MinIndex(int period) {
+        return window(period);
+    }
+
+    public static Lookback MovingChandeForecastOscillator(int period) {
+        return MovingLinearRegressionUsingLeastSquare(period);
+    }
+
+    // Each step goes on from the trend of the step before.
+    public static Lookback ParabolicSar() {
+        return ALL;
+    }
+
+    public static Lookback Percentile(int period) {
+        return window(period);
+    }
+
+    public static Lookback PercentRank(int period) {
+        return window(period);
+    }
+
+    public static Lookback Qstick(int period) {
+        return window(period);
+    }
+
+    // Sma of the first period bars, then the recursion.
+    public static Lookback Rma(int period) {
+        return window(period).then(decay((period - 1) / (double) period));
+    }
+
+    // Counts on as long as the value does not change.
+    public static Lookback Since() {
+        return ALL;
+    }
+
+    public static Lookback sma(int period) {
+        return window(period);
+    }
+
+    public static Lookback Sum(int period) {
+        return window(period);
+    }
+
+    public static Lookback Tema(int period) {
+        return Dema(period).then(Ema(period));
+    }
+
+    public static Lookback Trima(int period) {
+        int n1 = period % 2 == 0 ? period / 2 : (period + 1) / 2;
+        int n2 = period % 2 == 0 ? n1 + 1 : n1;
+        return sma(n2).then(sma(n1));
+    }
+
+    // The change of the triple Ema from the bar before.
+    public static Lookback Trix(int period) {
+        return Tema(period).then(bars(1));
+    }
+
+    public static Lookback TypicalPrice() {
+        return sma(20);
+    }
+
+    // Sums of 14 movements, each from the bar before.
+    public static Lookback Vortex() {
+        return bars(1).then(window(14));
+    }
+
+    public static Lookback Vwma(int period) {
+        return window(period);
+    }
+
+    public static Lookback DefaultVwma() {
+        return Vwma(20);
+    }
+
+    // ---- momentum
+
+    public static Lookback AwesomeOscillator() {
+        return sma(5).max(sma(34));
+    }
+
+    // Ema of the accumulation distribution, which adds up from the first bar.
+    public static Lookback ChaikinOscillator(int fastPeriod, int slowPeriod) {
+        return AccumulationDistribution().then(AbsolutePriceOscillator(fastPeriod, slowPeriod));
+    }
+
+    public static Lookback DefaultChaikinOscillator() {
+        return ChaikinOscillator(3, 10);
+    }
+
+    // The lines of 9, 26 and 52 bars, the lagging line shifted by 26.
+    public static Lookback IchimokuCloud() {
+        return window(9).max(window(26)).max(window(52)).max(bars(26));
+    }
+
+    public static Lookback PercentagePriceOscillator(int fastPeriod, int slowPeriod, int signalPeriod) {
+        return AbsolutePriceOscillator(fastPeriod, slowPeriod).then(Ema(signalPeriod));
+    }
+
+    public static Lookback DefaultPercentagePriceOscillator() {
+        return PercentagePriceOscillator(12, 26, 9);
+    }
+
+    public static Lookback PercentageVolumeOscillator(int fastPeriod, int slowPeriod, int signalPeriod) {
+        return PercentagePriceOscillator(fastPeriod, slowPeriod, signalPeriod);
+    }
+
+    public static Lookback DefaultPercentageVolumeOscillator() {
+        return PercentageVolumeOscillator(12, 26, 9);
+    }
+
+    public static Lookback Rsi() {
+        return RsiPeriod(14);
+    }
+
+    public static Lookback Rsi2() {
+        return RsiPeriod(2);
+    }
+
+    // Rma of the gains and losses from the bar before.
+    public static Lookback RsiPeriod(int period) {
+        return bars(1).then(Rma(period));
+    }
+
+    public static Lookback StochasticOscillator() {
+        return window(14).then(sma(3));
+    }
+
+    public static Lookback WilliamsR() {
+        return window(14);
+    }
+
+    // ---- volatility
+
+    public static Lookback AccelerationBands() {
+        return sma(20);
+    }
+
+    public static Lookback Atr(int period) {
+        return sma(period);
+    }
+
+    // Ema of the width, the bands are inputs.
+    public static Lookback BollingerBandWidth() {
+        return Ema(90);
+    }
+
+    public static Lookback BollingerBands() {
+        return Std(20);
+    }
+
+    public static Lookback ChandelierExit() {
+        return Atr(22).max(window(22));
+    }
+
+    public static Lookback DonchianChannel(int period) {
+        return window(period);
+    }
+
+    public static Lookback KeltnerChannel(int period) {
+        return Atr(period).max(Ema(period));
+    }
+
+    public static Lookback DefaultKeltnerChannel() {
+        return KeltnerChannel(20);
+    }
+
+    // The projected highs and lows are weighted by the bar numbers counted
+    // from the first bar, their highest changes with where the count starts.
+    public static Lookback ProjectionOscillator(int period, int smooth) {
+        return ALL;
+    }
+
+    public static Lookback Std(int period) {
+        return window(period);
+    }
+
+    public static Lookback StdFromSma(int period) {
+        return window(period);
+    }
+
+    // Sma of the squared drawdowns from the highest of period.
+    public static Lookback UlcerIndex(int period) {
+        return window(period).then(sma(period));
+    }
+
+    public static Lookback DefaultUlcerIndex() {
+        return UlcerIndex(14);
+    }
+
+    // ---- volume
+
+    public static Lookback AccumulationDistribution() {
+        return ALL;
+    }
+
+    public static Lookback ChaikinMoneyFlow() {
+        return Sum(VolumeIndicators.CMF_DEFAULT_PERIOD);
+    }
+
+    // Sma of the moves from the bar before.
+    public static Lookback EaseOfMovement(int period) {
+        return bars(1).then(sma(period));
+    }
+
+    public static Lookback DefaultEaseOfMovement() {
+        return EaseOfMovement(14);
+    }
+
+    // Ema of the changes from the bar before.
+    public static Lookback ForceIndex(int period) {
+        return bars(1).then(Ema(period));
+    }
+
+    public static Lookback DefaultForceIndex() {
+        return ForceIndex(13);
+    }
+
+    // Sums of the money flows signed by the bar before.
+    public static Lookback MoneyFlowIndex(int period) {
+        return bars(1).then(Sum(period));
+    }
+
+    public static Lookback DefaultMoneyFlowIndex() {
+        return MoneyFlowIndex(14);
+    }
+
+    public static Lookback NegativeVolumeIndex() {
+        return ALL;
+    }
+
+    public static Lookback Obv() {
+        return ALL;
+    }
+
+    public static Lookback VolumePriceTrend() {
+        return ALL;
+    }
+
+    public static Lookback VolumeWeightedAveragePrice(int period) {
+        return window(period);
+    }
+
+    public static Lookback DefaultVolumeWeightedAveragePrice() {
+        return VolumeWeightedAveragePrice(14);
+    }
+
+    // ---- regression
+
+    public static Lookback MovingLeastSquare(int period) {
+        return window(period);
+    }
+
+    public static Lookback MovingLinearRegressionUsingLeastSquare(int period) {
+        return window(period);
+    }
+}
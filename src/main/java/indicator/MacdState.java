@@ -0,0 +1,63 @@
+package indicator;
+
+/**
+ * 流式MACD - 与 {@link TrendIndicators#Macd(double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class MacdState {
+    private final EmaState fast;
+    private final EmaState slow;
+    private final EmaState signal;
+    private double macd;
+    private double previewSignal;
+
+    public MacdState() {
+        this(12, 26, 9);
+    }
+
+    public MacdState(int fastPeriod, int slowPeriod, int signalPeriod) {
+        this.fast = new EmaState(fastPeriod);
+        this.slow = new EmaState(slowPeriod);
+        this.signal = new EmaState(signalPeriod);
+    }
+
+    // Adds the next closing. Returns the macd.
+    public double update(double closing) {
+        macd = fast.update(closing) - slow.update(closing);
+        signal.update(macd);
+        return macd;
+    }
+
+    // The macd if closing were the next one, without adding it. The signal
+    // of the preview is in previewSignal.
+    public double preview(double closing) {
+        double macd = fast.preview(closing) - slow.preview(closing);
+        previewSignal = signal.preview(macd);
+        return macd;
+    }
+
+    // The signal of the last preview.
+    public double previewSignal() {
+        return previewSignal;
+    }
+
+    public double macd() {
+        return macd;
+    }
+
+    public double signal() {
+        return signal.value();
+    }
+
+    public long count() {
+        return signal.count();
+    }
+
+    public void reset() {
+        fast.reset();
+        slow.reset();
+        signal.reset();
+        macd = 0;
+    }
+}
@@ -1,5 +1,6 @@
 package indicator;
 
+import base.MonotonicDeque;
 import base.Quintuple;
 import base.Pair;
 import base.Triple;
@@ -9,6 +10,9 @@ import static indicator.TrendIndicators.*;
 import static indicator.VolumeIndicators.AccumulationDistribution;
 
 /**
+ * The overloads taking offset and length write into caller arrays,
+ * see {@link Helper}.
+ *
  * @author jinfeng.hu  @Date 2022/10/8
  **/
 public class MomentumIndicators {
@@ -20,14 +24,50 @@ public class MomentumIndicators {
     //
     // Returns ao.
     public static double[] AwesomeOscillator(double[] low, double[] high) {
-        double[] medianPrice = divideBy(add(low, high), 2);
-        double[] sma5 = sma(5, medianPrice);
-        double[] sma34 = sma(34, medianPrice);
-        double[] ao = subtract(sma5, sma34);
+        if (!IndicatorCache.isOpen()) {
+            return computeAwesomeOscillator(low, high);
+        }
+        return IndicatorCache.get("AwesomeOscillator", () -> computeAwesomeOscillator(low, high), low, high);
+    }
+
+    private static double[] computeAwesomeOscillator(double[] low, double[] high) {
+        checkSameSize(low, high);
 
+        double[] ao = new double[low.length];
+        AwesomeOscillator(low, high, 0, low.length, ao, 0);
         return ao;
     }
 
+    public static void AwesomeOscillator(double[] low, double[] high, int offset, int length, double[] ao, int outOffset) {
+        checkRange(offset, length, low, high);
+        checkRange(outOffset, length, ao);
+
+        // 两个sma一起算，移出窗口的Median Price重新算一遍
+        double sum5 = 0.00, sum34 = 0.00;
+        for (int i = 0; i < length; i++) {
+            double medianPrice = medianPrice(low, high, offset + i);
+            sum5 += medianPrice;
+            sum34 += medianPrice;
+
+            int count5 = i + 1, count34 = i + 1;
+            if (i >= 5) {
+                sum5 -= medianPrice(low, high, offset + i - 5);
+                count5 = 5;
+            }
+            if (i >= 34) {
+                sum34 -= medianPrice(low, high, offset + i - 34);
+                count34 = 34;
+            }
+
+            ao[outOffset + i] = (sum5 / count5) - (sum34 / count34);
+        }
+    }
+
+    // (Low + High) / 2, same as Helper.divideBy.
+    private static double medianPrice(double[] low, double[] high, int i) {
+        return (low[i] + high[i]) * (1 / 2.0);
+    }
+
     // The ChaikinOscillator function measures the momentum of the
     // Accumulation/Distribution (A/D) using the Moving Average
     // Convergence Divergence (MACD) formula. It takes the
@@ -38,12 +78,30 @@ public class MomentumIndicators {
     //
     // Returns co, ad.
     public static Pair<double[], double[]> ChaikinOscillator(int fastPeriod, int slowPeriod, double[] low, double[] high, double[] closing, long[] volume) {
-        double[] ad = AccumulationDistribution(high, low, closing, volume);
-        double[] co = subtract(Ema(fastPeriod, ad), Ema(slowPeriod, ad));
+        if (!IndicatorCache.isOpen()) {
+            return computeChaikinOscillator(fastPeriod, slowPeriod, low, high, closing, volume);
+        }
+        return IndicatorCache.get("ChaikinOscillator", () -> computeChaikinOscillator(fastPeriod, slowPeriod, low, high, closing, volume),
+                fastPeriod, slowPeriod, low, high, closing, volume);
+    }
+
+    private static Pair<double[], double[]> computeChaikinOscillator(int fastPeriod, int slowPeriod,
+                                                                     double[] low, double[] high, double[] closing, long[] volume) {
+        checkSameSize(high, low, closing);
+
+        double[] co = new double[closing.length];
+        double[] ad = new double[closing.length];
+        ChaikinOscillator(fastPeriod, slowPeriod, low, high, closing, volume, 0, closing.length, co, ad, 0);
 
         return Pair.of(co, ad);
     }
 
+    public static void ChaikinOscillator(int fastPeriod, int slowPeriod, double[] low, double[] high, double[] closing, long[] volume,
+                                         int offset, int length, double[] co, double[] ad, int outOffset) {
+        AccumulationDistribution(high, low, closing, volume, offset, length, ad, outOffset);
+        AbsolutePriceOscillator(fastPeriod, slowPeriod, ad, outOffset, length, co, outOffset);
+    }
+
     // The DefaultChaikinOscillator function calculates Chaikin
     // Oscillator with the most frequently used fast and short
     // periods, 3 and 10.
@@ -53,6 +111,11 @@ public class MomentumIndicators {
         return ChaikinOscillator(3, 10, low, high, closing, volume);
     }
 
+    public static void DefaultChaikinOscillator(double[] low, double[] high, double[] closing, long[] volume,
+                                                int offset, int length, double[] co, double[] ad, int outOffset) {
+        ChaikinOscillator(3, 10, low, high, closing, volume, offset, length, co, ad, outOffset);
+    }
+
     // Ichimoku Cloud. Also known as Ichimoku Kinko Hyo, is a versatile indicator that defines support and
     // resistence, identifies trend direction, gauges momentum, and provides trading signals.
     //
@@ -64,17 +127,62 @@ public class MomentumIndicators {
     //
     // Returns conversionLine, baseLine, leadingSpanA, leadingSpanB, laggingSpan
     public static Quintuple<double[], double[], double[], double[], double[]> IchimokuCloud(double[] high, double[] low, double[] closing) {
+        if (!IndicatorCache.isOpen()) {
+            return computeIchimokuCloud(high, low, closing);
+        }
+        return IndicatorCache.get("IchimokuCloud", () -> computeIchimokuCloud(high, low, closing), high, low, closing);
+    }
+
+    private static Quintuple<double[], double[], double[], double[], double[]> computeIchimokuCloud(double[] high, double[] low, double[] closing) {
         checkSameSize(high, low, closing);
 
-        double[] conversionLine = divideBy(add(Max(9, high), Min(9, low)), 2);
-        double[] baseLine = divideBy(add(Max(26, high), Min(26, low)), 2);
-        double[] leadingSpanA = divideBy(add(conversionLine, baseLine), 2);
-        double[] leadingSpanB = divideBy(add(Max(52, high), Min(52, low)), 2);
-        double[] laggingLine = shiftRight(26, closing);
+        double[] conversionLine = new double[closing.length];
+        double[] baseLine = new double[closing.length];
+        double[] leadingSpanA = new double[closing.length];
+        double[] leadingSpanB = new double[closing.length];
+        double[] laggingLine = new double[closing.length];
+        IchimokuCloud(high, low, closing, 0, closing.length,
+                conversionLine, baseLine, leadingSpanA, leadingSpanB, laggingLine, 0);
 
         return Quintuple.of(conversionLine, baseLine, leadingSpanA, leadingSpanB, laggingLine);
     }
 
+    public static void IchimokuCloud(double[] high, double[] low, double[] closing, int offset, int length,
+                                     double[] conversionLine, double[] baseLine, double[] leadingSpanA,
+                                     double[] leadingSpanB, double[] laggingLine, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, conversionLine, baseLine, leadingSpanA);
+        checkRange(outOffset, length, leadingSpanB, laggingLine);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            MonotonicDeque high9 = workspace.max(9);
+            MonotonicDeque low9 = workspace.min(9);
+            MonotonicDeque high26 = workspace.max(26);
+            MonotonicDeque low26 = workspace.min(26);
+            MonotonicDeque high52 = workspace.max(52);
+            MonotonicDeque low52 = workspace.min(52);
+            double half = 1 / 2.0;
+
+            for (int i = 0; i < length; i++) {
+                double h = high[offset + i];
+                double l = low[offset + i];
+                double conversion = (high9.push(h) + low9.push(l)) * half;
+                double base = (high26.push(h) + low26.push(l)) * half;
+
+                conversionLine[outOffset + i] = conversion;
+                baseLine[outOffset + i] = base;
+                leadingSpanA[outOffset + i] = (conversion + base) * half;
+                leadingSpanB[outOffset + i] = (high52.push(h) + low52.push(l)) * half;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+
+        shiftRight(26, closing, offset, length, laggingLine, outOffset);
+    }
+
     // Percentage Price Oscillator (PPO). It is a momentum oscillator for the price.
     // It is used to indicate the ups and downs based on the price. A breakout is
     // confirmed when PPO is positive.
@@ -85,15 +193,35 @@ public class MomentumIndicators {
     //
     // Returns ppo, signal, histogram
     public static Triple<double[], double[], double[]> PercentagePriceOscillator(int fastPeriod, int slowPeriod, int signalPeriod, double[] price) {
-        double[] fastEma = Ema(fastPeriod, price);
-        double[] slowEma = Ema(slowPeriod, price);
-        double[] ppo = multiplyBy(divide(subtract(fastEma, slowEma), slowEma), 100);
-        double[] signal = Ema(signalPeriod, ppo);
-        double[] histogram = subtract(ppo, signal);
+        if (!IndicatorCache.isOpen()) {
+            return computePercentagePriceOscillator(fastPeriod, slowPeriod, signalPeriod, price);
+        }
+        return IndicatorCache.get("PercentagePriceOscillator", () -> computePercentagePriceOscillator(fastPeriod, slowPeriod, signalPeriod, price),
+                fastPeriod, slowPeriod, signalPeriod, price);
+    }
+
+    private static Triple<double[], double[], double[]> computePercentagePriceOscillator(int fastPeriod, int slowPeriod, int signalPeriod,
+                                                                                         double[] price) {
+        double[] ppo = new double[price.length];
+        double[] signal = new double[price.length];
+        double[] histogram = new double[price.length];
+        PercentagePriceOscillator(fastPeriod, slowPeriod, signalPeriod, price, 0, price.length, ppo, signal, histogram, 0);
 
         return Triple.of(ppo, signal, histogram);
     }
 
+    public static void PercentagePriceOscillator(int fastPeriod, int slowPeriod, int signalPeriod, double[] price,
+                                                 int offset, int length,
+                                                 double[] ppo, double[] signal, double[] histogram, int outOffset) {
+        checkRange(offset, length, price);
+        checkRange(outOffset, length, ppo, signal, histogram);
+
+        // 两条Ema先分别写到ppo和signal里
+        Ema(fastPeriod, price, offset, length, ppo, outOffset);
+        Ema(slowPeriod, price, offset, length, signal, outOffset);
+        percentageOscillator(signalPeriod, length, ppo, signal, histogram, outOffset);
+    }
+
     // Default Percentage Price Oscillator calculates it with the default periods of 12, 26, 9.
     //
     // Returns ppo, signal, histogram
@@ -101,6 +229,23 @@ public class MomentumIndicators {
         return PercentagePriceOscillator(12, 26, 9, price);
     }
 
+    public static void DefaultPercentagePriceOscillator(double[] price, int offset, int length,
+                                                        double[] ppo, double[] signal, double[] histogram, int outOffset) {
+        PercentagePriceOscillator(12, 26, 9, price, offset, length, ppo, signal, histogram, outOffset);
+    }
+
+    // Replaces the fast EMA in po and the slow EMA in signal with
+    // PO = ((Fast - Slow) / Slow) * 100, Signal = EMA(PO), Histogram = PO - Signal.
+    private static void percentageOscillator(int signalPeriod, int length,
+                                             double[] po, double[] signal, double[] histogram, int outOffset) {
+        for (int i = outOffset; i < outOffset + length; i++) {
+            double slow = signal[i];
+            po[i] = ((po[i] - slow) / slow) * 100;
+        }
+        Ema(signalPeriod, po, outOffset, length, signal, outOffset);
+        subtract(po, signal, outOffset, length, histogram, outOffset);
+    }
+
     // Percentage Volume Oscillator (PVO). It is a momentum oscillator for the volume.
     // It is used to indicate the ups and downs based on the volume. A breakout is
     // confirmed when PVO is positive.
@@ -111,16 +256,36 @@ public class MomentumIndicators {
     //
     // Returns pvo, signal, histogram
     public static Triple<double[], double[], double[]> PercentageVolumeOscillator(int fastPeriod, int slowPeriod, int signalPeriod, long[] volume) {
-        double[] volumeAsFloat = asDouble(volume);
-        double[] fastEma = Ema(fastPeriod, volumeAsFloat);
-        double[] slowEma = Ema(slowPeriod, volumeAsFloat);
-        double[] pvo = multiplyBy(divide(subtract(fastEma, slowEma), slowEma), 100);
-        double[] signal = Ema(signalPeriod, pvo);
-        double[] histogram = subtract(pvo, signal);
+        if (!IndicatorCache.isOpen()) {
+            return computePercentageVolumeOscillator(fastPeriod, slowPeriod, signalPeriod, volume);
+        }
+        return IndicatorCache.get("PercentageVolumeOscillator", () -> computePercentageVolumeOscillator(fastPeriod, slowPeriod, signalPeriod, volume),
+                fastPeriod, slowPeriod, signalPeriod, volume);
+    }
+
+    private static Triple<double[], double[], double[]> computePercentageVolumeOscillator(int fastPeriod, int slowPeriod, int signalPeriod,
+                                                                                          long[] volume) {
+        double[] pvo = new double[volume.length];
+        double[] signal = new double[volume.length];
+        double[] histogram = new double[volume.length];
+        PercentageVolumeOscillator(fastPeriod, slowPeriod, signalPeriod, volume, 0, volume.length, pvo, signal, histogram, 0);
 
         return Triple.of(pvo, signal, histogram);
     }
 
+    public static void PercentageVolumeOscillator(int fastPeriod, int slowPeriod, int signalPeriod, long[] volume,
+                                                  int offset, int length,
+                                                  double[] pvo, double[] signal, double[] histogram, int outOffset) {
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, pvo, signal, histogram);
+
+        // volume转成double放在histogram里，Ema可以原地计算
+        asDouble(volume, offset, length, histogram, outOffset);
+        Ema(slowPeriod, histogram, outOffset, length, signal, outOffset);
+        Ema(fastPeriod, histogram, outOffset, length, pvo, outOffset);
+        percentageOscillator(signalPeriod, length, pvo, signal, histogram, outOffset);
+    }
+
     // Default Percentage Volume Oscillator calculates it with the default periods of 12, 26, 9.
     //
     // Returns pvo, signal, histogram
@@ -128,6 +293,11 @@ public class MomentumIndicators {
         return PercentageVolumeOscillator(12, 26, 9, volume);
     }
 
+    public static void DefaultPercentageVolumeOscillator(long[] volume, int offset, int length,
+                                                         double[] pvo, double[] signal, double[] histogram, int outOffset) {
+        PercentageVolumeOscillator(12, 26, 9, volume, offset, length, pvo, signal, histogram, outOffset);
+    }
+
     // Relative Strength Index (RSI). It is a momentum indicator that measures the magnitude
     // of recent price changes to evaluate overbought and oversold conditions.
     //
@@ -139,6 +309,10 @@ public class MomentumIndicators {
         return RsiPeriod(14, closing);
     }
 
+    public static void Rsi(double[] closing, int offset, int length, double[] rs, double[] rsi, int outOffset) {
+        RsiPeriod(14, closing, offset, length, rs, rsi, outOffset);
+    }
+
     // RSI with 2 period, a mean-reversion trading strategy
     // developed by Larry Connors.
     //
@@ -147,35 +321,53 @@ public class MomentumIndicators {
         return RsiPeriod(2, closing);
     }
 
+    public static void Rsi2(double[] closing, int offset, int length, double[] rs, double[] rsi, int outOffset) {
+        RsiPeriod(2, closing, offset, length, rs, rsi, outOffset);
+    }
+
     // RsiPeriod allows to calculate the RSI indicator with a non-standard period.
     public static Pair<double[], double[]> RsiPeriod(int period, double[] closing) {
-        double[] gains = new double[closing.length];
-        double[] losses = new double[closing.length];
-
-        for (int i = 1; i < closing.length; i++) {
-            double difference = closing[i] - closing[i - 1];
-
-            if (difference > 0) {
-                gains[i] = difference;
-                losses[i] = 0;
-            } else {
-                losses[i] = -difference;
-                gains[i] = 0;
-            }
+        if (!IndicatorCache.isOpen()) {
+            return computeRsiPeriod(period, closing);
         }
+        return IndicatorCache.get("RsiPeriod", () -> computeRsiPeriod(period, closing), period, closing);
+    }
 
-        double[] meanGains = Rma(period, gains);
-        double[] meanLosses = Rma(period, losses);
-
+    private static Pair<double[], double[]> computeRsiPeriod(int period, double[] closing) {
         double[] rsi = new double[closing.length];
         double[] rs = new double[closing.length];
+        RsiPeriod(period, closing, 0, closing.length, rs, rsi, 0);
 
-        for (int i = 0; i < rsi.length; i++) {
-            rs[i] = meanGains[i] / meanLosses[i];
-            rsi[i] = 100 - (100 / (1 + rs[i]));
+        return Pair.of(rs, rsi);
+    }
+
+    public static void RsiPeriod(int period, double[] closing, int offset, int length, double[] rs, double[] rsi, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(outOffset, length, rs, rsi);
+
+        // gains放在rs里，losses放在rsi里，Rma原地计算
+        for (int i = 0; i < length; i++) {
+            double gain = 0, loss = 0;
+            if (i > 0) {
+                double difference = closing[offset + i] - closing[offset + i - 1];
+
+                if (difference > 0) {
+                    gain = difference;
+                } else {
+                    loss = -difference;
+                }
+            }
+            rs[outOffset + i] = gain;
+            rsi[outOffset + i] = loss;
         }
 
-        return Pair.of(rs, rsi);
+        Rma(period, rs, outOffset, length, rs, outOffset);
+        Rma(period, rsi, outOffset, length, rsi, outOffset);
+
+        for (int i = outOffset; i < outOffset + length; i++) {
+            rs[i] = rs[i] / rsi[i];
+            rsi[i] = 100 - (100 / (1 + rs[i]));
+        }
     }
 
     // Stochastic Oscillator. It is a momentum indicator that shows the location of the closing
@@ -186,17 +378,57 @@ public class MomentumIndicators {
     //
     // Returns k, d
     public static Pair<double[], double[]> StochasticOscillator(double[] high, double[] low, double[] closing) {
+        if (!IndicatorCache.isOpen()) {
+            return computeStochasticOscillator(high, low, closing);
+        }
+        return IndicatorCache.get("StochasticOscillator", () -> computeStochasticOscillator(high, low, closing),
+                high, low, closing);
+    }
+
+    private static Pair<double[], double[]> computeStochasticOscillator(double[] high, double[] low, double[] closing) {
         checkSameSize(high, low, closing);
 
-        double[] highestHigh14 = Max(14, high);
-        double[] lowestLow14 = Min(14, low);
+        double[] k = new double[closing.length];
+        double[] d = new double[closing.length];
+        if (IndicatorCache.current() == null) {
+            StochasticOscillator(high, low, closing, 0, closing.length, k, d, 0);
+            return Pair.of(k, d);
+        }
 
-        double[] k = multiplyBy(divide(subtract(closing, lowestLow14), subtract(highestHigh14, lowestLow14)), 100);
-        double[] d = sma(3, k);
+        // 缓存打开时和 WilliamsR 共用14周期的最高价、最低价
+        double[] highest = Max(14, high);
+        double[] lowest = Min(14, low);
+        for (int i = 0; i < k.length; i++) {
+            k[i] = ((closing[i] - lowest[i]) / (highest[i] - lowest[i])) * 100;
+        }
+        sma(3, k, 0, k.length, d, 0);
 
         return Pair.of(k, d);
     }
 
+    public static void StochasticOscillator(double[] high, double[] low, double[] closing, int offset, int length,
+                                            double[] k, double[] d, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, k, d);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            MonotonicDeque highestHigh14 = workspace.max(14);
+            MonotonicDeque lowestLow14 = workspace.min(14);
+
+            for (int i = 0; i < length; i++) {
+                double highest = highestHigh14.push(high[offset + i]);
+                double lowest = lowestLow14.push(low[offset + i]);
+                k[outOffset + i] = ((closing[offset + i] - lowest) / (highest - lowest)) * 100;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+
+        sma(3, k, outOffset, length, d, outOffset);
+    }
+
     // Williams R. Determine overbought and oversold.
     //
     // WR = (Highest High - Closing) / (Highest High - Lowest Low) * -100.
@@ -205,18 +437,50 @@ public class MomentumIndicators {
     //
     // Returns wr.
     public static double[] WilliamsR(double[] low, double[] high, double[] closing) {
-        int period = 14;
-
-        double[] highestHigh = Max(period, high);
-        double[] lowestLow = Min(period, low);
+        if (!IndicatorCache.isOpen()) {
+            return computeWilliamsR(low, high, closing);
+        }
+        return IndicatorCache.get("WilliamsR", () -> computeWilliamsR(low, high, closing), low, high, closing);
+    }
 
+    private static double[] computeWilliamsR(double[] low, double[] high, double[] closing) {
         double[] result = new double[closing.length];
-
-        for (int i = 0; i < closing.length; i++) {
-            result[i] = (highestHigh[i] - closing[i]) / (highestHigh[i] - lowestLow[i]) * (-100);
+        if (IndicatorCache.current() == null) {
+            WilliamsR(low, high, closing, 0, closing.length, result, 0);
+            return result;
         }
 
+        // 缓存打开时和 StochasticOscillator 共用14周期的最高价、最低价
+        checkRange(0, closing.length, low, high, closing);
+        double[] highest = Max(14, high);
+        double[] lowest = Min(14, low);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (highest[i] - closing[i]) / (highest[i] - lowest[i]) * (-100);
+        }
         return result;
     }
 
+    public static void WilliamsR(double[] low, double[] high, double[] closing, int offset, int length,
+                                 double[] result, int outOffset) {
+        checkRange(offset, length, low, high, closing);
+        checkRange(outOffset, length, result);
+
+        int period = 14;
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            MonotonicDeque highestHigh = workspace.max(period);
+            MonotonicDeque lowestLow = workspace.min(period);
+
+            for (int i = 0; i < length; i++) {
+                double highest = highestHigh.push(high[offset + i]);
+                double lowest = lowestLow.push(low[offset + i]);
+                result[outOffset + i] = (highest - closing[offset + i]) / (highest - lowest) * (-100);
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
 }
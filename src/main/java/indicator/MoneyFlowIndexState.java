@@ -0,0 +1,67 @@
+package indicator;
+
+/**
+ * 流式MFI - 与 {@link VolumeIndicators#MoneyFlowIndex(int, double[], double[], double[], long[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class MoneyFlowIndexState {
+    private final SumState positive;
+    private final SumState negative;
+    private double lastRawMoneyFlow;
+    private double value;
+
+    public MoneyFlowIndexState() {
+        this(14);
+    }
+
+    public MoneyFlowIndexState(int period) {
+        this.positive = new SumState(period);
+        this.negative = new SumState(period);
+    }
+
+    // Adds the next bar. Returns the money flow index.
+    public double update(double high, double low, double closing, long volume) {
+        double typicalPrice = (high + low + closing) / 3;
+        double rawMoneyFlow = typicalPrice * (double) volume;
+
+        double sign = rawMoneyFlow - lastRawMoneyFlow >= 0 ? 1 : -1;
+        double moneyFlow = sign * rawMoneyFlow;
+        lastRawMoneyFlow = rawMoneyFlow;
+
+        double moneyRatio = positive.update(moneyFlow > 0 ? moneyFlow : 0)
+                / negative.update((moneyFlow < 0 ? moneyFlow : 0) * -1);
+
+        value = (Math.pow(moneyRatio + 1, -1) * -100) + 100;
+        return value;
+    }
+
+    // The money flow index if the bar were the next one, without adding it.
+    public double preview(double high, double low, double closing, long volume) {
+        double typicalPrice = (high + low + closing) / 3;
+        double rawMoneyFlow = typicalPrice * (double) volume;
+
+        double sign = rawMoneyFlow - lastRawMoneyFlow >= 0 ? 1 : -1;
+        double moneyFlow = sign * rawMoneyFlow;
+
+        double moneyRatio = positive.preview(moneyFlow > 0 ? moneyFlow : 0)
+                / negative.preview((moneyFlow < 0 ? moneyFlow : 0) * -1);
+
+        return (Math.pow(moneyRatio + 1, -1) * -100) + 100;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public long count() {
+        return positive.count();
+    }
+
+    public void reset() {
+        positive.reset();
+        negative.reset();
+        lastRawMoneyFlow = 0;
+        value = 0;
+    }
+}
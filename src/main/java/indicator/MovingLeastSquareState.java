@@ -0,0 +1,98 @@
+package indicator;
+
+/**
+ * 流式移动最小二乘 - 与 {@link Regression#MovingLeastSquare(int, double[], double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class MovingLeastSquareState {
+    private final int period;
+    private final double[] xs;
+    private final double[] ys;
+    private double sumX, sumX2, sumY, sumXY;
+    private double m, b;
+    private double previewB;
+    private long count;
+
+    public MovingLeastSquareState(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.period = period;
+        this.xs = new double[period];
+        this.ys = new double[period];
+    }
+
+    // Adds the next point. Returns the slope m.
+    public double update(double x, double y) {
+        int j = (int) (count % period);
+        sumX += x;
+        sumX2 += x * x;
+        sumY += y;
+        sumXY += x * y;
+
+        long n = count + 1;
+        if (count >= period) {
+            sumX -= xs[j];
+            sumX2 -= xs[j] * xs[j];
+            sumY -= ys[j];
+            sumXY -= xs[j] * ys[j];
+            n = period;
+        }
+        xs[j] = x;
+        ys[j] = y;
+        count++;
+
+        m = ((n * sumXY) - (sumX * sumY)) / ((n * sumX2) - (sumX * sumX));
+        b = (sumY - (m * sumX)) / n;
+        return m;
+    }
+
+    // The slope if the point were the next one, without adding it. The
+    // y-intercept of the preview is in previewB.
+    public double preview(double x, double y) {
+        int j = (int) (count % period);
+        double sx = sumX + x;
+        double sx2 = sumX2 + x * x;
+        double sy = sumY + y;
+        double sxy = sumXY + x * y;
+
+        long n = count + 1;
+        if (count >= period) {
+            sx -= xs[j];
+            sx2 -= xs[j] * xs[j];
+            sy -= ys[j];
+            sxy -= xs[j] * ys[j];
+            n = period;
+        }
+
+        double pm = ((n * sxy) - (sx * sy)) / ((n * sx2) - (sx * sx));
+        previewB = (sy - (pm * sx)) / n;
+        return pm;
+    }
+
+    // The y-intercept of the last preview.
+    public double previewB() {
+        return previewB;
+    }
+
+    // Slope.
+    public double m() {
+        return m;
+    }
+
+    // Y-intercept.
+    public double b() {
+        return b;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void reset() {
+        sumX = sumX2 = sumY = sumXY = 0;
+        m = b = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,76 @@
+package indicator;
+
+/**
+ * 流式NVI - 与 {@link VolumeIndicators#NegativeVolumeIndex(double[], long[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class NegativeVolumeIndexState {
+    private double value;
+    private double lastClosing;
+    private long lastVolume;
+    private long count;
+
+    // Adds the next bar. Returns the nvi.
+    public double update(double closing, long volume) {
+        if (count == 0) {
+            value = VolumeIndicators.NVI_STARTING_VALUE;
+        } else if (lastVolume >= volume) {
+            value = value + (((closing - lastClosing) / lastClosing) * value);
+        }
+        lastClosing = closing;
+        lastVolume = volume;
+        count++;
+
+        return value;
+    }
+
+    // The nvi if the bar were the next one, without adding it.
+    public double preview(double closing, long volume) {
+        if (count == 0) {
+            return VolumeIndicators.NVI_STARTING_VALUE;
+        } else if (lastVolume >= volume) {
+            return value + (((closing - lastClosing) / lastClosing) * value);
+        }
+        return value;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return 4;
+    }
+
+    // Writes a checkpoint of the state from state[at], doubles as raw bits.
+    // Returns the index after it.
+    int save(long[] state, int at) {
+        state[at++] = Double.doubleToRawLongBits(value);
+        state[at++] = Double.doubleToRawLongBits(lastClosing);
+        state[at++] = lastVolume;
+        state[at++] = count;
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        value = Double.longBitsToDouble(state[at++]);
+        lastClosing = Double.longBitsToDouble(state[at++]);
+        lastVolume = state[at++];
+        count = state[at++];
+        return at;
+    }
+
+    public void reset() {
+        value = 0;
+        lastClosing = 0;
+        lastVolume = 0;
+        count = 0;
+    }
+}
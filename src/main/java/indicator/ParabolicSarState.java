@@ -0,0 +1,143 @@
+package indicator;
+
+/**
+ * 流式抛物线SAR - 与 {@link TrendIndicators#ParabolicSar(double[], double[], double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class ParabolicSarState {
+    private static final double psarAfStep = 0.02;
+    private static final double psarAfMax = 0.20;
+
+    private double psar;
+    private TrendEnum trend;
+    private double af;
+    private double ep;
+    // previous two highs and lows
+    private double high1, high2, low1, low2;
+    private long count;
+
+    // Adds the next bar. Returns the psar.
+    public double update(double high, double low, double closing) {
+        if (count == 0) {
+            trend = TrendEnum.Falling;
+            psar = high;
+            af = psarAfStep;
+            ep = low;
+        } else {
+            psar = next(high, low);
+
+            double prevEp = ep;
+            TrendEnum prevTrend = trend;
+
+            if (psar > closing) {
+                trend = TrendEnum.Falling;
+                ep = Math.min(ep, low);
+            } else {
+                trend = TrendEnum.Rising;
+                ep = Math.max(ep, high);
+            }
+
+            if (trend != prevTrend) {
+                af = psarAfStep;
+            } else if (prevEp != ep && af < psarAfMax) {
+                af += psarAfStep;
+            }
+        }
+
+        high2 = high1;
+        high1 = high;
+        low2 = low1;
+        low1 = low;
+        count++;
+
+        return psar;
+    }
+
+    // The psar if the bar were the next one, without adding it.
+    public double preview(double high, double low, double closing) {
+        return count == 0 ? high : next(high, low);
+    }
+
+    // The psar moved towards ep, kept beyond the previous two bars.
+    private double next(double high, double low) {
+        double next = psar - ((psar - ep) * af);
+
+        if (trend == TrendEnum.Falling) {
+            next = Math.max(next, high1);
+            if (count > 1) {
+                next = Math.max(next, high2);
+            }
+
+            if (high >= next) {
+                next = ep;
+            }
+        } else {
+            next = Math.min(next, low1);
+            if (count > 1) {
+                next = Math.min(next, low2);
+            }
+
+            if (low <= next) {
+                next = ep;
+            }
+        }
+        return next;
+    }
+
+    public double psar() {
+        return psar;
+    }
+
+    public TrendEnum trend() {
+        return trend;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return 9;
+    }
+
+    // Writes a checkpoint of the state from state[at], doubles as raw bits.
+    // Returns the index after it.
+    int save(long[] state, int at) {
+        state[at++] = Double.doubleToRawLongBits(psar);
+        state[at++] = trend == null ? -1 : trend.ordinal();
+        state[at++] = Double.doubleToRawLongBits(af);
+        state[at++] = Double.doubleToRawLongBits(ep);
+        state[at++] = Double.doubleToRawLongBits(high1);
+        state[at++] = Double.doubleToRawLongBits(high2);
+        state[at++] = Double.doubleToRawLongBits(low1);
+        state[at++] = Double.doubleToRawLongBits(low2);
+        state[at++] = count;
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        psar = Double.longBitsToDouble(state[at++]);
+        long ordinal = state[at++];
+        trend = ordinal < 0 ? null : TrendEnum.values()[(int) ordinal];
+        af = Double.longBitsToDouble(state[at++]);
+        ep = Double.longBitsToDouble(state[at++]);
+        high1 = Double.longBitsToDouble(state[at++]);
+        high2 = Double.longBitsToDouble(state[at++]);
+        low1 = Double.longBitsToDouble(state[at++]);
+        low2 = Double.longBitsToDouble(state[at++]);
+        count = state[at++];
+        return at;
+    }
+
+    public void reset() {
+        psar = 0;
+        trend = null;
+        af = 0;
+        ep = 0;
+        high1 = high2 = low1 = low2 = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,84 @@
+package indicator;
+
+/**
+ * 按范围计算 - 只算 [from, to) 这段的指标，只读它的回看和这段
+ * <p>
+ * Runs the offset and length overload of an indicator over the bars
+ * [from - lookback, to) and keeps the outputs of [from, to), the warm-up
+ * outputs go to the workspace of the thread:
+ * <pre>
+ * // the last 100 bars of the Kdj of 100000
+ * double[][] kdj = Ranged.compute(Lookback.Kdj(9, 3, 3), n - 100, n, 3,
+ *         (offset, length, outs, outOffset) -&gt; TrendIndicators.Kdj(9, 3, 3, high, low, closing,
+ *                 offset, length, outs[0], outs[1], outs[2], outOffset));
+ * </pre>
+ * The outputs of an exact lookback are the ones of the indicator over all the
+ * bars, up to the rounding of the rolling sums, the ones of a warm-up are
+ * within {@link Lookback#TOLERANCE} of them. For the outputs other than
+ * double, such as the long of Obv, read from {@link Lookback#start(int)}.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class Ranged {
+
+    // The offset and length overload of an indicator with double outputs.
+    @FunctionalInterface
+    public interface Kernel {
+        // Reads the bars [offset, offset + length), writes
+        // outs[k][outOffset, outOffset + length).
+        void compute(int offset, int length, double[][] outs, int outOffset);
+    }
+
+    private Ranged() {
+    }
+
+    // The single output of the bars [from, to).
+    public static double[] compute(Lookback lookback, int from, int to, Kernel kernel) {
+        return compute(lookback, from, to, 1, kernel)[0];
+    }
+
+    // The outputs of the bars [from, to), each one to - from long.
+    public static double[][] compute(Lookback lookback, int from, int to, int outputs, Kernel kernel) {
+        checkRange(from, to);
+
+        double[][] outs = new double[outputs][to - from];
+        compute(lookback, from, to, kernel, 0, outs);
+        return outs;
+    }
+
+    // Writes the outputs of the bars [from, to) to outs[k][outOffset, outOffset + to - from).
+    public static void compute(Lookback lookback, int from, int to, Kernel kernel, int outOffset, double[]... outs) {
+        checkRange(from, to);
+        for (double[] out : outs) {
+            Helper.checkRange(outOffset, to - from, out);
+        }
+
+        int start = lookback.start(from);
+        if (start == from) {
+            kernel.compute(from, to - from, outs, outOffset);
+            return;
+        }
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            int length = to - start;
+            double[][] temps = new double[outs.length][];
+            for (int k = 0; k < outs.length; k++) {
+                temps[k] = workspace.take(length);
+            }
+            kernel.compute(start, length, temps, 0);
+            for (int k = 0; k < outs.length; k++) {
+                System.arraycopy(temps[k], from - start, outs[k], outOffset, to - from);
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    private static void checkRange(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package indicator;
 
 import base.Pair;
+import static indicator.Helper.checkRange;
 import static indicator.Helper.checkSameSize;
 
 /**
@@ -17,6 +18,13 @@ public class Regression {
     // m = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX)
     // b = (sumY - m * sumX) / n
     public static Pair<Double, Double> LeastSquare(double[] x, double[] y) {
+        if (!IndicatorCache.isOpen()) {
+            return computeLeastSquare(x, y);
+        }
+        return IndicatorCache.get("LeastSquare", () -> computeLeastSquare(x, y), x, y);
+    }
+
+    private static Pair<Double, Double> computeLeastSquare(double[] x, double[] y) {
         checkSameSize(x, y);
 
         double sumX = 0, sumX2 = 0, sumY = 0, sumXY = 0;
@@ -43,64 +51,145 @@ public class Regression {
     // m = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX)
     // b = (sumY - m * sumX) / n
     public static Pair<double[], double[]> MovingLeastSquare(int period, double[] x, double[] y) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMovingLeastSquare(period, x, y);
+        }
+        return IndicatorCache.get("MovingLeastSquare", () -> computeMovingLeastSquare(period, x, y), period, x, y);
+    }
+
+    private static Pair<double[], double[]> computeMovingLeastSquare(int period, double[] x, double[] y) {
         checkSameSize(x, y);
         double[] m = new double[x.length];
         double[] b = new double[x.length];
+        MovingLeastSquare(period, x, y, 0, x.length, m, b, 0);
 
+        return Pair.of(m, b);
+    }
+
+    public static void MovingLeastSquare(int period, double[] x, double[] y, int offset, int length,
+                                         double[] m, double[] b, int outOffset) {
+        checkRange(offset, length, x, y);
+        checkRange(outOffset, length, m, b);
+
+        movingLeastSquare(period, x, offset, y, offset, length, m, b, null, outOffset);
+    }
+
+    // Writes m, b and r = mx + b from outOffset, each of them can be null.
+    static void movingLeastSquare(int period, double[] x, int xOffset, double[] y, int yOffset, int length,
+                                  double[] m, double[] b, double[] r, int outOffset) {
         double sumX = 0, sumX2 = 0, sumY = 0, sumXY = 0;
-        for (int i = 0; i < x.length; i++) {
-            sumX += x[i];
-            sumX2 += x[i] * x[i];
-            sumY += y[i];
-            sumXY += x[i] * y[i];
+        for (int i = 0; i < length; i++) {
+            double xi = x[xOffset + i];
+            double yi = y[yOffset + i];
+            sumX += xi;
+            sumX2 += xi * xi;
+            sumY += yi;
+            sumXY += xi * yi;
 
             int n = i + 1;
             if (i >= period) {
-                sumX -= x[i - period];
-                sumX2 -= x[i - period] * x[i - period];
-                sumY -= y[i - period];
-                sumXY -= x[i - period] * y[i - period];
+                double xp = x[xOffset + i - period];
+                double yp = y[yOffset + i - period];
+                sumX -= xp;
+                sumX2 -= xp * xp;
+                sumY -= yp;
+                sumXY -= xp * yp;
                 n = period;
             }
 
-            m[i] = ((n * sumXY) - (sumX * sumY)) / ((n * sumX2) - (sumX * sumX));
-            b[i] = (sumY - (m[i] * sumX)) / n;
-        }
+            double mi = ((n * sumXY) - (sumX * sumY)) / ((n * sumX2) - (sumX * sumX));
+            double bi = (sumY - (mi * sumX)) / n;
 
-        return Pair.of(m, b);
+            if (m != null) {
+                m[outOffset + i] = mi;
+            }
+            if (b != null) {
+                b[outOffset + i] = bi;
+            }
+            if (r != null) {
+                r[outOffset + i] = (mi * xi) + bi;
+            }
+        }
     }
 
     // Linear regression using least square method.
     //
     // y = mx + b
     public static double[] LinearRegressionUsingLeastSquare(double[] x, double[] y) {
-        Pair<Double, Double> pair = LeastSquare(x, y);
-        double m = pair.getLeft();
-        double b = pair.getRight();
+        if (!IndicatorCache.isOpen()) {
+            return computeLinearRegressionUsingLeastSquare(x, y);
+        }
+        return IndicatorCache.get("LinearRegressionUsingLeastSquare", () -> computeLinearRegressionUsingLeastSquare(x, y),
+                x, y);
+    }
+
+    private static double[] computeLinearRegressionUsingLeastSquare(double[] x, double[] y) {
+        checkSameSize(x, y);
 
         double[] r = new double[x.length];
-        for (int i = 0; i < r.length; i++) {
-            r[i] = (m * x[i]) + b;
+        LinearRegressionUsingLeastSquare(x, y, 0, x.length, r, 0);
+        return r;
+    }
+
+    public static void LinearRegressionUsingLeastSquare(double[] x, double[] y, int offset, int length, double[] r, int outOffset) {
+        checkRange(offset, length, x, y);
+        checkRange(outOffset, length, r);
+
+        linearRegressionUsingLeastSquare(x, offset, y, offset, length, r, outOffset);
+    }
+
+    static void linearRegressionUsingLeastSquare(double[] x, int xOffset, double[] y, int yOffset, int length,
+                                                 double[] r, int outOffset) {
+        // 同LeastSquare
+        double sumX = 0, sumX2 = 0, sumY = 0, sumXY = 0;
+        for (int i = 0; i < length; i++) {
+            double xi = x[xOffset + i];
+            double yi = y[yOffset + i];
+            sumX += xi;
+            sumX2 += xi * xi;
+            sumY += yi;
+            sumXY += xi * yi;
         }
 
-        return r;
+        int n = length;
+        double m = ((n * sumXY) - (sumX * sumY)) / ((n * sumX2) - (sumX * sumX));
+        double b = (sumY - (m * sumX)) / n;
+
+        for (int i = 0; i < length; i++) {
+            r[outOffset + i] = (m * x[xOffset + i]) + b;
+        }
     }
 
     // Moving linear regression using least square.
     //
     // y = mx + b
     public static double[] MovingLinearRegressionUsingLeastSquare(int period, double[] x, double[] y) {
-        Pair<double[], double[]> pair = MovingLeastSquare(period, x, y);
-        double[] m = pair.getLeft();
-        double[] b = pair.getRight();
+        if (!IndicatorCache.isOpen()) {
+            return computeMovingLinearRegressionUsingLeastSquare(period, x, y);
+        }
+        return IndicatorCache.get("MovingLinearRegressionUsingLeastSquare", () -> computeMovingLinearRegressionUsingLeastSquare(period, x, y),
+                period, x, y);
+    }
+
+    private static double[] computeMovingLinearRegressionUsingLeastSquare(int period, double[] x, double[] y) {
+        checkSameSize(x, y);
 
         double[] r = new double[x.length];
+        MovingLinearRegressionUsingLeastSquare(period, x, y, 0, x.length, r, 0);
+        return r;
+    }
 
-        for (int i = 0; i < r.length; i++) {
-            r[i] = (m[i] * x[i]) + b[i];
-        }
+    public static void MovingLinearRegressionUsingLeastSquare(int period, double[] x, double[] y, int offset, int length,
+                                                              double[] r, int outOffset) {
+        checkRange(offset, length, x, y);
+        checkRange(outOffset, length, r);
 
-        return r;
+        movingLinearRegressionUsingLeastSquare(period, x, offset, y, offset, length, r, outOffset);
+    }
+
+    static void movingLinearRegressionUsingLeastSquare(int period, double[] x, int xOffset, double[] y, int yOffset,
+                                                       int length, double[] r, int outOffset) {
+        movingLeastSquare(period, x, xOffset, y, yOffset, length, null, null, r, outOffset);
     }
 
 }
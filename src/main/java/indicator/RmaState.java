@@ -0,0 +1,80 @@
+package indicator;
+
+/**
+ * 流式RMA - 与 {@link TrendIndicators#Rma(int, double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class RmaState {
+    private final int period;
+    private double sum;
+    private double value;
+    private long count;
+
+    public RmaState(int period) {
+        this.period = period;
+    }
+
+    // Adds the next value. Returns the rma.
+    public double update(double v) {
+        long n = count + 1;
+        if (count < period) {
+            sum += v;
+        } else {
+            sum = value * (period - 1) + v;
+            n = period;
+        }
+        count++;
+
+        value = sum / n;
+        return value;
+    }
+
+    // The rma if v were the next value, without adding it.
+    public double preview(double v) {
+        if (count < period) {
+            return (sum + v) / (count + 1);
+        }
+        return (value * (period - 1) + v) / period;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return 3;
+    }
+
+    // Writes a checkpoint of the state from state[at], doubles as raw bits.
+    // Returns the index after it.
+    int save(long[] state, int at) {
+        state[at++] = Double.doubleToRawLongBits(sum);
+        state[at++] = Double.doubleToRawLongBits(value);
+        state[at++] = count;
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        sum = Double.longBitsToDouble(state[at++]);
+        value = Double.longBitsToDouble(state[at++]);
+        count = state[at++];
+        return at;
+    }
+
+    public void reset() {
+        sum = 0;
+        value = 0;
+        count = 0;
+    }
+}
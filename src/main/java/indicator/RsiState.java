@@ -0,0 +1,107 @@
+package indicator;
+
+/**
+ * 流式RSI - 与 {@link MomentumIndicators#RsiPeriod(int, double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class RsiState {
+    private final RmaState meanGains;
+    private final RmaState meanLosses;
+    private double lastClosing;
+    private double rs;
+    private double rsi;
+    private long count;
+
+    public RsiState() {
+        this(14);
+    }
+
+    public RsiState(int period) {
+        this.meanGains = new RmaState(period);
+        this.meanLosses = new RmaState(period);
+    }
+
+    // Adds the next closing. Returns the rsi.
+    public double update(double closing) {
+        double gain = 0, loss = 0;
+        if (count > 0) {
+            double difference = closing - lastClosing;
+            if (difference > 0) {
+                gain = difference;
+            } else {
+                loss = -difference;
+            }
+        }
+        lastClosing = closing;
+        count++;
+
+        rs = meanGains.update(gain) / meanLosses.update(loss);
+        rsi = 100 - (100 / (1 + rs));
+        return rsi;
+    }
+
+    // The rsi if closing were the next one, without adding it.
+    public double preview(double closing) {
+        double gain = 0, loss = 0;
+        if (count > 0) {
+            double difference = closing - lastClosing;
+            if (difference > 0) {
+                gain = difference;
+            } else {
+                loss = -difference;
+            }
+        }
+        double rs = meanGains.preview(gain) / meanLosses.preview(loss);
+        return 100 - (100 / (1 + rs));
+    }
+
+    public double rs() {
+        return rs;
+    }
+
+    public double rsi() {
+        return rsi;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return meanGains.stateSize() + meanLosses.stateSize() + 4;
+    }
+
+    // Writes a checkpoint of the state from state[at], doubles as raw bits.
+    // Returns the index after it.
+    int save(long[] state, int at) {
+        at = meanGains.save(state, at);
+        at = meanLosses.save(state, at);
+        state[at++] = Double.doubleToRawLongBits(lastClosing);
+        state[at++] = Double.doubleToRawLongBits(rs);
+        state[at++] = Double.doubleToRawLongBits(rsi);
+        state[at++] = count;
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        at = meanGains.load(state, at);
+        at = meanLosses.load(state, at);
+        lastClosing = Double.longBitsToDouble(state[at++]);
+        rs = Double.longBitsToDouble(state[at++]);
+        rsi = Double.longBitsToDouble(state[at++]);
+        count = state[at++];
+        return at;
+    }
+
+    public void reset() {
+        meanGains.reset();
+        meanLosses.reset();
+        lastClosing = 0;
+        rs = 0;
+        rsi = 0;
+        count = 0;
+    }
+}
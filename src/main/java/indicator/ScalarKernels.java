@@ -0,0 +1,113 @@
+package indicator;
+
+/**
+ * 逐元素运算的标量实现，Helper 的循环都在这里
+ * <p>
+ * Reads a[aOffset, aOffset + length) (and b[bOffset, bOffset + length)),
+ * writes result[outOffset, outOffset + length). The ranges are checked by
+ * the callers. {@link Kernels} picks between these and the SIMD versions,
+ * which give the same bits.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class ScalarKernels {
+
+    private ScalarKernels() {
+    }
+
+    // a + b
+    static void add(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    // a - b
+    static void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = a[aOffset + i] - b[bOffset + i];
+        }
+    }
+
+    // a * b
+    static void multiply(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = a[aOffset + i] * b[bOffset + i];
+        }
+    }
+
+    // a / b
+    static void divide(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = a[aOffset + i] / b[bOffset + i];
+        }
+    }
+
+    // a + addition
+    static void addBy(double[] a, int aOffset, double addition, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = a[aOffset + i] + addition;
+        }
+    }
+
+    // a * multiplier
+    static void multiplyBy(double[] a, int aOffset, double multiplier, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = a[aOffset + i] * multiplier;
+        }
+    }
+
+    // a / divider, a real division, not a multiplication by 1 / divider.
+    static void divideBy(double[] a, int aOffset, double divider, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = a[aOffset + i] / divider;
+        }
+    }
+
+    // Math.sqrt(a)
+    static void sqrt(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = Math.sqrt(a[aOffset + i]);
+        }
+    }
+
+    // Math.abs(a)
+    static void abs(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] = Math.abs(a[aOffset + i]);
+        }
+    }
+
+    // a if a > 0, else 0.
+    static void keepPositives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] > 0) {
+                result[outOffset + i] = a[aOffset + i];
+            } else {
+                result[outOffset + i] = 0;
+            }
+        }
+    }
+
+    // a if a < 0, else 0.
+    static void keepNegatives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] < 0) {
+                result[outOffset + i] = a[aOffset + i];
+            } else {
+                result[outOffset + i] = 0;
+            }
+        }
+    }
+
+    // 1 if a >= 0, else -1.
+    static void extractSign(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] >= 0) {
+                result[outOffset + i] = 1;
+            } else {
+                result[outOffset + i] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package indicator;
+
+/**
+ * 流式SMA - 窗口值保存在环形数组里，与 {@link TrendIndicators#sma(int, double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class SmaState {
+    private final int period;
+    private final double[] buffer;
+    private double sum;
+    private double value;
+    private long count;
+
+    public SmaState(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.period = period;
+        this.buffer = new double[period];
+    }
+
+    // Adds the next value. Returns the sma.
+    public double update(double v) {
+        int j = (int) (count % period);
+        sum += v;
+        long n = count + 1;
+        if (count >= period) {
+            sum -= buffer[j];
+            n = period;
+        }
+        buffer[j] = v;
+        count++;
+
+        value = sum / n;
+        return value;
+    }
+
+    // The sma if v were the next value, without adding it.
+    public double preview(double v) {
+        double s = sum + v;
+        long n = count + 1;
+        if (count >= period) {
+            s -= buffer[(int) (count % period)];
+            n = period;
+        }
+        return s / n;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return buffer.length + 3;
+    }
+
+    // Writes a checkpoint of the state from state[at], doubles as raw bits.
+    // Returns the index after it.
+    int save(long[] state, int at) {
+        for (double v : buffer) {
+            state[at++] = Double.doubleToRawLongBits(v);
+        }
+        state[at++] = Double.doubleToRawLongBits(sum);
+        state[at++] = Double.doubleToRawLongBits(value);
+        state[at++] = count;
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = Double.longBitsToDouble(state[at++]);
+        }
+        sum = Double.longBitsToDouble(state[at++]);
+        value = Double.longBitsToDouble(state[at++]);
+        count = state[at++];
+        return at;
+    }
+
+    public void reset() {
+        sum = 0;
+        value = 0;
+        count = 0;
+    }
+}
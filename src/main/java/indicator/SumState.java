@@ -0,0 +1,86 @@
+package indicator;
+
+/**
+ * 流式移动求和 - 与 {@link TrendIndicators#Sum(int, double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class SumState {
+    private final int period;
+    private final double[] buffer;
+    private double sum;
+    private long count;
+
+    public SumState(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.period = period;
+        this.buffer = new double[period];
+    }
+
+    // Adds the next value. Returns the moving sum.
+    public double update(double v) {
+        int j = (int) (count % period);
+        sum += v;
+        if (count >= period) {
+            sum -= buffer[j];
+        }
+        buffer[j] = v;
+        count++;
+
+        return sum;
+    }
+
+    // The moving sum if v were the next value, without adding it.
+    public double preview(double v) {
+        double s = sum + v;
+        if (count >= period) {
+            s -= buffer[(int) (count % period)];
+        }
+        return s;
+    }
+
+    public double value() {
+        return sum;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    // Longs written by save.
+    int stateSize() {
+        return buffer.length + 2;
+    }
+
+    // Writes a checkpoint of the state from state[at], doubles as raw bits.
+    // Returns the index after it.
+    int save(long[] state, int at) {
+        for (double v : buffer) {
+            state[at++] = Double.doubleToRawLongBits(v);
+        }
+        state[at++] = Double.doubleToRawLongBits(sum);
+        state[at++] = count;
+        return at;
+    }
+
+    // Reads the state written by save. Returns the index after it.
+    int load(long[] state, int at) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = Double.longBitsToDouble(state[at++]);
+        }
+        sum = Double.longBitsToDouble(state[at++]);
+        count = state[at++];
+        return at;
+    }
+
+    public void reset() {
+        sum = 0;
+        count = 0;
+    }
+}
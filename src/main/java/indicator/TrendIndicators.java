@@ -1,12 +1,20 @@
 package indicator;
 
-import base.Tree;
+import base.LongMonotonicDeque;
+import base.MonotonicDeque;
 import base.Pair;
+import base.Tree;
 import base.Triple;
 
+import java.util.Arrays;
+
 import static indicator.Helper.*;
 
 /**
+ * The overloads taking offset and length write into caller arrays,
+ * see {@link Helper}. Temporaries come from a per thread {@link Workspace},
+ * so repeated calls do not allocate.
+ *
  * @author jinfeng.hu  @Date 2022-10-07
  **/
 public class TrendIndicators {
@@ -24,13 +32,41 @@ public class TrendIndicators {
     //
     // Returns apo.
     public static double[] AbsolutePriceOscillator(int fastPeriod, int slowPeriod, double[] values) {
-        double[] fast = Ema(fastPeriod, values);
-        double[] slow = Ema(slowPeriod, values);
-        double[] apo = subtract(fast, slow);
+        if (!IndicatorCache.isOpen()) {
+            return computeAbsolutePriceOscillator(fastPeriod, slowPeriod, values);
+        }
+        return IndicatorCache.get("AbsolutePriceOscillator", () -> computeAbsolutePriceOscillator(fastPeriod, slowPeriod, values),
+                fastPeriod, slowPeriod, values);
+    }
 
+    private static double[] computeAbsolutePriceOscillator(int fastPeriod, int slowPeriod, double[] values) {
+        double[] apo = new double[values.length];
+        AbsolutePriceOscillator(fastPeriod, slowPeriod, values, 0, values.length, apo, 0);
         return apo;
     }
 
+    public static void AbsolutePriceOscillator(int fastPeriod, int slowPeriod, double[] values, int offset, int length,
+                                               double[] apo, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, apo);
+
+        double fastK = 2.00 / (1 + fastPeriod);
+        double slowK = 2.00 / (1 + slowPeriod);
+        double fast = 0, slow = 0;
+
+        for (int i = 0; i < length; i++) {
+            double value = values[offset + i];
+            if (i > 0) {
+                fast = ema(fastK, fast, value);
+                slow = ema(slowK, slow, value);
+            } else {
+                fast = value;
+                slow = value;
+            }
+            apo[outOffset + i] = fast - slow;
+        }
+    }
+
     // The DefaultAbsolutePriceOscillator function calculates APO with the most
     // frequently used fast and short periods are 14 and 30.
     //
@@ -39,6 +75,10 @@ public class TrendIndicators {
         return AbsolutePriceOscillator(14, 30, values);
     }
 
+    public static void DefaultAbsolutePriceOscillator(double[] values, int offset, int length, double[] apo, int outOffset) {
+        AbsolutePriceOscillator(14, 30, values, offset, length, apo, outOffset);
+    }
+
     // Aroon Indicator. It is a technical indicator that is used to identify trend changes
     // in the price of a stock, as well as the strength of that trend. It consists of two
     // lines, Arron Up, and Aroon Down. The Aroon Up line measures the strength of the
@@ -51,21 +91,62 @@ public class TrendIndicators {
     //
     // Returns aroonUp, aroonDown
     public static Pair<double[], double[]> Aroon(double[] high, double[] low) {
+        if (!IndicatorCache.isOpen()) {
+            return computeAroon(high, low);
+        }
+        return IndicatorCache.get("Aroon", () -> computeAroon(high, low), high, low);
+    }
+
+    private static Pair<double[], double[]> computeAroon(double[] high, double[] low) {
         checkSameSize(high, low);
 
-        int[] sinceLastHigh25 = Since(Max(25, high));
-        int[] sinceLastLow25 = Since(Min(25, low));
         double[] aroonUp = new double[high.length];
         double[] aroonDown = new double[high.length];
-
-        for (int i = 0; i < aroonUp.length; i++) {
-            aroonUp[i] = ((25 - sinceLastHigh25[i]) / 25.000) * 100;
-            aroonDown[i] = ((25 - sinceLastLow25[i]) / 25.000) * 100;
-        }
+        Aroon(high, low, 0, high.length, aroonUp, aroonDown, 0);
 
         return Pair.of(aroonUp, aroonDown);
     }
 
+    public static void Aroon(double[] high, double[] low, int offset, int length,
+                             double[] aroonUp, double[] aroonDown, int outOffset) {
+        checkRange(offset, length, high, low);
+        checkRange(outOffset, length, aroonUp, aroonDown);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            MonotonicDeque highest = workspace.max(25);
+            MonotonicDeque lowest = workspace.min(25);
+
+            // 同Since，从0开始比较
+            double lastHigh = 0.000, lastLow = 0.000;
+            int sinceLastHigh25 = 0, sinceLastLow25 = 0;
+
+            for (int i = 0; i < length; i++) {
+                double maxHigh = highest.push(high[offset + i]);
+                if (maxHigh != lastHigh) {
+                    lastHigh = maxHigh;
+                    sinceLastHigh25 = 0;
+                } else {
+                    sinceLastHigh25++;
+                }
+
+                double minLow = lowest.push(low[offset + i]);
+                if (minLow != lastLow) {
+                    lastLow = minLow;
+                    sinceLastLow25 = 0;
+                } else {
+                    sinceLastLow25++;
+                }
+
+                aroonUp[outOffset + i] = ((25 - sinceLastHigh25) / 25.000) * 100;
+                aroonDown[outOffset + i] = ((25 - sinceLastLow25) / 25.000) * 100;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // The BalanceOfPower function calculates the strength of buying and selling
     // pressure. Positive value indicates an upward trend, and negative value
     // indicates a downward trend. Zero indicates a balance between the two.
@@ -74,10 +155,33 @@ public class TrendIndicators {
     //
     // Returns bop.
     public static double[] BalanceOfPower(double[] opening, double[] high, double[] low, double[] closing) {
-        double[] bop = divide(subtract(closing, opening), subtract(high, low));
+        if (!IndicatorCache.isOpen()) {
+            return computeBalanceOfPower(opening, high, low, closing);
+        }
+        return IndicatorCache.get("BalanceOfPower", () -> computeBalanceOfPower(opening, high, low, closing),
+                opening, high, low, closing);
+    }
+
+    private static double[] computeBalanceOfPower(double[] opening, double[] high, double[] low, double[] closing) {
+        checkSameSize(opening, high, low, closing);
+
+        double[] bop = new double[closing.length];
+        BalanceOfPower(opening, high, low, closing, 0, closing.length, bop, 0);
         return bop;
     }
 
+    public static void BalanceOfPower(double[] opening, double[] high, double[] low, double[] closing,
+                                      int offset, int length, double[] bop, int outOffset) {
+        checkRange(offset, length, opening, high);
+        checkRange(offset, length, low, closing);
+        checkRange(outOffset, length, bop);
+
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            bop[outOffset + i] = (closing[j] - opening[j]) / (high[j] - low[j]);
+        }
+    }
+
     // The Chande Forecast Oscillator developed by Tushar Chande The Forecast
     // Oscillator plots the percentage difference between the closing price and
     // the n-period linear regression forecasted price. The oscillator is above
@@ -89,13 +193,44 @@ public class TrendIndicators {
     //
     // Returns cfo.
     public static double[] ChandeForecastOscillator(double[] closing) {
-        double[] x = generateNumbers(0, closing.length, 1);
-        double[] r = Regression.LinearRegressionUsingLeastSquare(x, closing);
-        double[] cfo = multiplyBy(divide(subtract(closing, r), closing), 100);
+        if (!IndicatorCache.isOpen()) {
+            return computeChandeForecastOscillator(closing);
+        }
+        return IndicatorCache.get("ChandeForecastOscillator", () -> computeChandeForecastOscillator(closing), closing);
+    }
 
+    private static double[] computeChandeForecastOscillator(double[] closing) {
+        double[] cfo = new double[closing.length];
+        ChandeForecastOscillator(closing, 0, closing.length, cfo, 0);
         return cfo;
     }
 
+    public static void ChandeForecastOscillator(double[] closing, int offset, int length, double[] cfo, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(outOffset, length, cfo);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] x = workspace.take(length);
+            generateNumbers(0, 1, length, x, 0);
+
+            // R先写到cfo里
+            Regression.linearRegressionUsingLeastSquare(x, 0, closing, offset, length, cfo, outOffset);
+            forecastOscillator(closing, offset, length, cfo, outOffset);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    // CFO = ((Closing - R) / Closing) * 100, R is read from and replaced in cfo.
+    private static void forecastOscillator(double[] closing, int offset, int length, double[] cfo, int outOffset) {
+        for (int i = 0; i < length; i++) {
+            double c = closing[offset + i];
+            cfo[outOffset + i] = ((c - cfo[outOffset + i]) / c) * 100;
+        }
+    }
+
     // The Community Channel Index (CMI) is a momentum-based oscillator
     // used to help determine when an investment vehicle is reaching a
     // condition of being overbought or oversold.
@@ -106,47 +241,136 @@ public class TrendIndicators {
     //
     // Returns cmi.
     public static double[] CommunityChannelIndex(int period, double[] high, double[] low, double[] closing) {
-        double[] tp = TypicalPrice(low, high, closing).getLeft();
-        double[] ma = sma(period, tp);
-        double[] md = sma(period, abs(subtract(tp, ma)));
-        double[] cci = divide(subtract(tp, ma), multiplyBy(md, 0.015));
-        cci[0] = 0;
+        if (!IndicatorCache.isOpen()) {
+            return computeCommunityChannelIndex(period, high, low, closing);
+        }
+        return IndicatorCache.get("CommunityChannelIndex", () -> computeCommunityChannelIndex(period, high, low, closing),
+                period, high, low, closing);
+    }
+
+    private static double[] computeCommunityChannelIndex(int period, double[] high, double[] low, double[] closing) {
+        checkSameSize(high, low, closing);
 
+        double[] cci = new double[closing.length];
+        CommunityChannelIndex(period, high, low, closing, 0, closing.length, cci, 0);
         return cci;
     }
 
+    public static void CommunityChannelIndex(int period, double[] high, double[] low, double[] closing,
+                                             int offset, int length, double[] cci, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, cci);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] tp = workspace.take(length);
+            double[] ma = workspace.take(length);
+            double[] deviation = workspace.take(length);
+
+            for (int i = 0; i < length; i++) {
+                tp[i] = (high[offset + i] + low[offset + i] + closing[offset + i]) / 3;
+            }
+            sma(period, tp, 0, length, ma, 0);
+            for (int i = 0; i < length; i++) {
+                deviation[i] = Math.abs(tp[i] - ma[i]);
+            }
+
+            // Mean Deviation先写到cci里
+            sma(period, deviation, 0, length, cci, outOffset);
+            for (int i = 0; i < length; i++) {
+                cci[outOffset + i] = (tp[i] - ma[i]) / (cci[outOffset + i] * 0.015);
+            }
+            if (length > 0) {
+                cci[outOffset] = 0;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // The default community channel index with the period of 20.
     public static double[] DefaultCommunityChannelIndex(double[] high, double[] low, double[] closing) {
         return CommunityChannelIndex(20, high, low, closing);
     }
 
+    public static void DefaultCommunityChannelIndex(double[] high, double[] low, double[] closing,
+                                                    int offset, int length, double[] cci, int outOffset) {
+        CommunityChannelIndex(20, high, low, closing, offset, length, cci, outOffset);
+    }
+
     // Dema calculates the Double Exponential Moving Average (DEMA).
     //
     // DEMA = (2 * EMA(values)) - EMA(EMA(values))
     //
     // Returns dema.
     public static double[] Dema(int period, double[] values) {
-        double[] ema1 = Ema(period, values);
-        double[] ema2 = Ema(period, ema1);
-        double[] dema = subtract(multiplyBy(ema1, 2), ema2);
+        if (!IndicatorCache.isOpen()) {
+            return computeDema(period, values);
+        }
+        return IndicatorCache.get("Dema", () -> computeDema(period, values), period, values);
+    }
 
+    private static double[] computeDema(int period, double[] values) {
+        double[] dema = new double[values.length];
+        Dema(period, values, 0, values.length, dema, 0);
         return dema;
     }
 
+    public static void Dema(int period, double[] values, int offset, int length, double[] dema, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, dema);
+
+        double k = 2.00 / (1 + period);
+        double ema1 = 0, ema2 = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                ema1 = ema(k, ema1, values[offset + i]);
+                ema2 = ema(k, ema2, ema1);
+            } else {
+                ema1 = values[offset];
+                ema2 = ema1;
+            }
+            dema[outOffset + i] = (ema1 * 2) - ema2;
+        }
+    }
+
     // Exponential Moving Average (EMA).
     public static double[] Ema(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeEma(period, values);
+        }
+        return IndicatorCache.get("Ema", () -> computeEma(period, values), period, values);
+    }
+
+    private static double[] computeEma(int period, double[] values) {
         double[] result = new double[values.length];
+        Ema(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    // The result can be the same range of the same array as the values.
+    public static void Ema(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
         double k = 2.00 / (1 + period);
-        for (int i = 0; i < values.length; i++) {
+        double ema = 0;
+
+        for (int i = 0; i < length; i++) {
             if (i > 0) {
-                result[i] = (values[i] * k) + (result[i - 1] * (1 - k));
+                ema = ema(k, ema, values[offset + i]);
             } else {
-                result[i] = values[i];
+                ema = values[offset];
             }
+            result[outOffset + i] = ema;
         }
+    }
 
-        return result;
+    // Next EMA value.
+    private static double ema(double k, double previous, double value) {
+        return (value * k) + (previous * (1 - k));
     }
 
     // Moving Average Convergence Divergence (MACD).
@@ -156,14 +380,45 @@ public class TrendIndicators {
     //
     // Returns MACD, signal.
     public static Pair<double[], double[]> Macd(double[] close) {
-        double[] ema12 = Ema(12, close);
-        double[] ema26 = Ema(26, close);
-        double[] macd = subtract(ema12, ema26);
-        double[] signal = Ema(9, macd);
+        if (!IndicatorCache.isOpen()) {
+            return computeMacd(close);
+        }
+        return IndicatorCache.get("Macd", () -> computeMacd(close), close);
+    }
+
+    private static Pair<double[], double[]> computeMacd(double[] close) {
+        double[] macd = new double[close.length];
+        double[] signal = new double[close.length];
+        Macd(close, 0, close.length, macd, signal, 0);
 
         return Pair.of(macd, signal);
     }
 
+    public static void Macd(double[] close, int offset, int length, double[] macd, double[] signal, int outOffset) {
+        checkRange(offset, length, close);
+        checkRange(outOffset, length, macd, signal);
+
+        double k12 = 2.00 / (1 + 12);
+        double k26 = 2.00 / (1 + 26);
+        double k9 = 2.00 / (1 + 9);
+        double ema12 = 0, ema26 = 0, ema9 = 0;
+
+        for (int i = 0; i < length; i++) {
+            double value = close[offset + i];
+            if (i > 0) {
+                ema12 = ema(k12, ema12, value);
+                ema26 = ema(k26, ema26, value);
+                ema9 = ema(k9, ema9, ema12 - ema26);
+            } else {
+                ema12 = value;
+                ema26 = value;
+                ema9 = ema12 - ema26;
+            }
+            macd[outOffset + i] = ema12 - ema26;
+            signal[outOffset + i] = ema9;
+        }
+    }
+
     // The Mass Index (MI) uses the high-low range to identify trend reversals
     // based on range expansions.
     //
@@ -174,14 +429,49 @@ public class TrendIndicators {
     //
     // Returns mi.
     public static double[] MassIndex(double[] high, double[] low) {
-        double[] ema1 = Ema(9, subtract(high, low));
-        double[] ema2 = Ema(9, ema1);
-        double[] ratio = divide(ema1, ema2);
-        double[] mi = Sum(25, ratio);
+        if (!IndicatorCache.isOpen()) {
+            return computeMassIndex(high, low);
+        }
+        return IndicatorCache.get("MassIndex", () -> computeMassIndex(high, low), high, low);
+    }
+
+    private static double[] computeMassIndex(double[] high, double[] low) {
+        checkSameSize(high, low);
 
+        double[] mi = new double[high.length];
+        MassIndex(high, low, 0, high.length, mi, 0);
         return mi;
     }
 
+    public static void MassIndex(double[] high, double[] low, int offset, int length, double[] mi, int outOffset) {
+        checkRange(offset, length, high, low);
+        checkRange(outOffset, length, mi);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] ratio = workspace.take(length);
+
+            double k = 2.00 / (1 + 9);
+            double ema1 = 0, ema2 = 0;
+            for (int i = 0; i < length; i++) {
+                double range = high[offset + i] - low[offset + i];
+                if (i > 0) {
+                    ema1 = ema(k, ema1, range);
+                    ema2 = ema(k, ema2, ema1);
+                } else {
+                    ema1 = range;
+                    ema2 = ema1;
+                }
+                ratio[i] = ema1 / ema2;
+            }
+
+            Sum(25, ratio, 0, length, mi, outOffset);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // Moving Chande Forecast Oscillator calculates based on
     // the given period.
     //
@@ -196,53 +486,343 @@ public class TrendIndicators {
     //
     // Returns cfo.
     public static double[] MovingChandeForecastOscillator(int period, double[] closing) {
-        double[] x = generateNumbers(0, closing.length, 1);
-        double[] r = Regression.MovingLinearRegressionUsingLeastSquare(period, x, closing);
-
-        double[] cfo = multiplyBy(divide(subtract(closing, r), closing), 100);
+        if (!IndicatorCache.isOpen()) {
+            return computeMovingChandeForecastOscillator(period, closing);
+        }
+        return IndicatorCache.get("MovingChandeForecastOscillator", () -> computeMovingChandeForecastOscillator(period, closing),
+                period, closing);
+    }
 
+    private static double[] computeMovingChandeForecastOscillator(int period, double[] closing) {
+        double[] cfo = new double[closing.length];
+        MovingChandeForecastOscillator(period, closing, 0, closing.length, cfo, 0);
         return cfo;
     }
 
+    public static void MovingChandeForecastOscillator(int period, double[] closing, int offset, int length,
+                                                      double[] cfo, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(outOffset, length, cfo);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] x = workspace.take(length);
+            generateNumbers(0, 1, length, x, 0);
+
+            Regression.movingLinearRegressionUsingLeastSquare(period, x, 0, closing, offset, length, cfo, outOffset);
+            forecastOscillator(closing, offset, length, cfo, outOffset);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // Moving max for the given period.
     public static double[] Max(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMax(period, values);
+        }
+        return IndicatorCache.get("Max", () -> computeMax(period, values), period, values);
+    }
+
+    private static double[] computeMax(int period, double[] values) {
         double[] result = new double[values.length];
-        double[] buffer = new double[period];
-        Tree bst = Tree.New();
-        for (int i = 0; i < values.length; i++) {
-            bst.insert(values[i]);
+        Max(period, values, 0, values.length, result, 0);
+        return result;
+    }
 
-            if (i >= period) {
-                bst.remove(buffer[i % period]);
-            }
+    public static void Max(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        moving(period, true, values, offset, length, result, outOffset);
+    }
+
+    // Moving max for the given period.
+    public static long[] Max(int period, long[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMax(period, values);
+        }
+        return IndicatorCache.get("Max", () -> computeMax(period, values), period, values);
+    }
 
-            buffer[i % period] = values[i];
-            result[i] = bst.max().doubleValue();
+    private static long[] computeMax(int period, long[] values) {
+        long[] result = new long[values.length];
+        Max(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void Max(int period, long[] values, int offset, int length, long[] result, int outOffset) {
+        moving(period, true, values, offset, length, result, outOffset);
+    }
+
+    // Index of the moving max for the given period. The latest index wins on ties.
+    public static int[] MaxIndex(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMaxIndex(period, values);
         }
+        return IndicatorCache.get("MaxIndex", () -> computeMaxIndex(period, values), period, values);
+    }
 
+    private static int[] computeMaxIndex(int period, double[] values) {
+        int[] result = new int[values.length];
+        MaxIndex(period, values, 0, values.length, result, 0);
         return result;
     }
 
+    // The indexes count from offset.
+    public static void MaxIndex(int period, double[] values, int offset, int length, int[] result, int outOffset) {
+        movingIndex(period, true, values, offset, length, result, outOffset);
+    }
+
     // Moving min for the given period.
     public static double[] Min(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMin(period, values);
+        }
+        return IndicatorCache.get("Min", () -> computeMin(period, values), period, values);
+    }
+
+    private static double[] computeMin(int period, double[] values) {
         double[] result = new double[values.length];
-        double[] buffer = new double[period];
-        Tree bst = Tree.New();
+        Min(period, values, 0, values.length, result, 0);
+        return result;
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            bst.insert(values[i]);
+    public static void Min(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        moving(period, false, values, offset, length, result, outOffset);
+    }
 
-            if (i >= period) {
-                bst.remove(buffer[i % period]);
+    // Moving min for the given period.
+    public static long[] Min(int period, long[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMin(period, values);
+        }
+        return IndicatorCache.get("Min", () -> computeMin(period, values), period, values);
+    }
+
+    private static long[] computeMin(int period, long[] values) {
+        long[] result = new long[values.length];
+        Min(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void Min(int period, long[] values, int offset, int length, long[] result, int outOffset) {
+        moving(period, false, values, offset, length, result, outOffset);
+    }
+
+    // Index of the moving min for the given period. The latest index wins on ties.
+    public static int[] MinIndex(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMinIndex(period, values);
+        }
+        return IndicatorCache.get("MinIndex", () -> computeMinIndex(period, values), period, values);
+    }
+
+    private static int[] computeMinIndex(int period, double[] values) {
+        int[] result = new int[values.length];
+        MinIndex(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    // The indexes count from offset.
+    public static void MinIndex(int period, double[] values, int offset, int length, int[] result, int outOffset) {
+        movingIndex(period, false, values, offset, length, result, outOffset);
+    }
+
+    private static void moving(int period, boolean max, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            MonotonicDeque deque = max ? workspace.max(period) : workspace.min(period);
+            for (int i = 0; i < length; i++) {
+                result[outOffset + i] = deque.push(values[offset + i]);
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    private static void moving(int period, boolean max, long[] values, int offset, int length, long[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            LongMonotonicDeque deque = workspace.longDeque(period, max);
+            for (int i = 0; i < length; i++) {
+                result[outOffset + i] = deque.push(values[offset + i]);
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    private static void movingIndex(int period, boolean max, double[] values, int offset, int length, int[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            MonotonicDeque deque = max ? workspace.max(period) : workspace.min(period);
+            for (int i = 0; i < length; i++) {
+                deque.push(values[offset + i]);
+                result[outOffset + i] = (int) deque.index();
             }
+        } finally {
+            workspace.release(mark);
+        }
+    }
 
-            buffer[i % period] = values[i];
-            result[i] = bst.min().doubleValue();
+    // Moving median for the given period. The median of an even count is
+    // the mean of the two middle values.
+    public static double[] Median(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeMedian(period, values);
         }
+        return IndicatorCache.get("Median", () -> computeMedian(period, values), period, values);
+    }
 
+    private static double[] computeMedian(int period, double[] values) {
+        double[] result = new double[values.length];
+        Median(period, values, 0, values.length, result, 0);
         return result;
     }
 
+    public static void Median(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] buffer = workspace.take(period);
+            Tree tree = workspace.tree(period);
+
+            for (int i = 0; i < length; i++) {
+                double value = values[offset + i];
+                if (i >= period) {
+                    tree.remove(buffer[i % period]);
+                }
+                tree.insert(value);
+                buffer[i % period] = value;
+
+                int n = tree.size();
+                if (n % 2 == 1) {
+                    result[outOffset + i] = tree.select(n / 2);
+                } else {
+                    result[outOffset + i] = (tree.select(n / 2 - 1) + tree.select(n / 2)) / 2;
+                }
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    // Moving percentile for the given period, linear interpolation between
+    // the closest ranks.
+    //
+    // Position = (Percentile / 100) * (Count - 1)
+    // Percentile Value = Value[Floor(Position)] + (Value[Floor(Position) + 1] - Value[Floor(Position)]) * Fraction(Position)
+    //
+    // Returns percentile values.
+    public static double[] Percentile(int period, double percentile, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computePercentile(period, percentile, values);
+        }
+        return IndicatorCache.get("Percentile", () -> computePercentile(period, percentile, values),
+                period, percentile, values);
+    }
+
+    private static double[] computePercentile(int period, double percentile, double[] values) {
+        double[] result = new double[values.length];
+        Percentile(period, percentile, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void Percentile(int period, double percentile, double[] values, int offset, int length,
+                                  double[] result, int outOffset) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]");
+        }
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] buffer = workspace.take(period);
+            Tree tree = workspace.tree(period);
+
+            for (int i = 0; i < length; i++) {
+                double value = values[offset + i];
+                if (i >= period) {
+                    tree.remove(buffer[i % period]);
+                }
+                tree.insert(value);
+                buffer[i % period] = value;
+
+                double position = percentile / 100 * (tree.size() - 1);
+                int lower = (int) position;
+                double fraction = position - lower;
+                double p = tree.select(lower);
+                if (fraction > 0) {
+                    p += (tree.select(lower + 1) - p) * fraction;
+                }
+                result[outOffset + i] = p;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    // Moving percent rank for the given period. The percentage of the
+    // other values in the window that are less than the current value.
+    //
+    // Percent Rank = Count(Window < Value) / (Count(Window) - 1) * 100
+    //
+    // Returns percent rank values, 0 for the first value.
+    public static double[] PercentRank(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computePercentRank(period, values);
+        }
+        return IndicatorCache.get("PercentRank", () -> computePercentRank(period, values), period, values);
+    }
+
+    private static double[] computePercentRank(int period, double[] values) {
+        double[] result = new double[values.length];
+        PercentRank(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void PercentRank(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] buffer = workspace.take(period);
+            Tree tree = workspace.tree(period);
+
+            for (int i = 0; i < length; i++) {
+                double value = values[offset + i];
+                if (i >= period) {
+                    tree.remove(buffer[i % period]);
+                }
+                tree.insert(value);
+                buffer[i % period] = value;
+
+                int n = tree.size();
+                result[outOffset + i] = n > 1 ? tree.rank(value) * 100.0 / (n - 1) : 0;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // Parabolic SAR. It is a popular technical indicator for identifying the trend
     // and as a trailing stop.
     //
@@ -269,61 +849,81 @@ public class TrendIndicators {
     //
     // Returns psar, trend
     public static Pair<double[], TrendEnum[]> ParabolicSar(double[] high, double[] low, double[] closing) {
+        if (!IndicatorCache.isOpen()) {
+            return computeParabolicSar(high, low, closing);
+        }
+        return IndicatorCache.get("ParabolicSar", () -> computeParabolicSar(high, low, closing), high, low, closing);
+    }
+
+    private static Pair<double[], TrendEnum[]> computeParabolicSar(double[] high, double[] low, double[] closing) {
         checkSameSize(high, low);
 
         TrendEnum[] trendEnum = new TrendEnum[high.length];
         double[] psar = new double[high.length];
+        ParabolicSar(high, low, closing, 0, high.length, psar, trendEnum, 0);
+
+        return Pair.of(psar, trendEnum);
+    }
+
+    public static void ParabolicSar(double[] high, double[] low, double[] closing, int offset, int length,
+                                    double[] psar, TrendEnum[] trendEnum, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, psar);
+        checkRange(outOffset, length, trendEnum);
+        if (length == 0) {
+            return;
+        }
 
         double af, ep;
 
-        trendEnum[0] = TrendEnum.Falling;
-        psar[0] = high[0];
+        trendEnum[outOffset] = TrendEnum.Falling;
+        psar[outOffset] = high[offset];
         af = psarAfStep;
-        ep = low[0];
+        ep = low[offset];
 
         for (int i = 1;
-             i < psar.length;
+             i < length;
              i++) {
-            psar[i] = psar[i - 1] - ((psar[i - 1] - ep) * af);
+            int j = offset + i;
+            int k = outOffset + i;
+            psar[k] = psar[k - 1] - ((psar[k - 1] - ep) * af);
 
-            if (trendEnum[i - 1] == TrendEnum.Falling) {
-                psar[i] = Math.max(psar[i], high[i - 1]);
+            if (trendEnum[k - 1] == TrendEnum.Falling) {
+                psar[k] = Math.max(psar[k], high[j - 1]);
                 if (i > 1) {
-                    psar[i] = Math.max(psar[i], high[i - 2]);
+                    psar[k] = Math.max(psar[k], high[j - 2]);
                 }
 
-                if (high[i] >= psar[i]) {
-                    psar[i] = ep;
+                if (high[j] >= psar[k]) {
+                    psar[k] = ep;
                 }
             } else {
-                psar[i] = Math.min(psar[i], low[i - 1]);
+                psar[k] = Math.min(psar[k], low[j - 1]);
                 if (i > 1) {
-                    psar[i] = Math.min(psar[i], low[i - 2]);
+                    psar[k] = Math.min(psar[k], low[j - 2]);
                 }
 
-                if (low[i] <= psar[i]) {
-                    psar[i] = ep;
+                if (low[j] <= psar[k]) {
+                    psar[k] = ep;
                 }
             }
 
             double prevEp = ep;
 
-            if (psar[i] > closing[i]) {
-                trendEnum[i] = TrendEnum.Falling;
-                ep = Math.min(ep, low[i]);
+            if (psar[k] > closing[j]) {
+                trendEnum[k] = TrendEnum.Falling;
+                ep = Math.min(ep, low[j]);
             } else {
-                trendEnum[i] = TrendEnum.Rising;
-                ep = Math.max(ep, high[i]);
+                trendEnum[k] = TrendEnum.Rising;
+                ep = Math.max(ep, high[j]);
             }
 
-            if (trendEnum[i] != trendEnum[i - 1]) {
+            if (trendEnum[k] != trendEnum[k - 1]) {
                 af = psarAfStep;
             } else if (prevEp != ep && af < psarAfMax) {
                 af += psarAfStep;
             }
         }
-
-        return Pair.of(psar, trendEnum);
     }
 
     // The Qstick function calculates the ratio of recent up and down bars.
@@ -332,10 +932,40 @@ public class TrendIndicators {
     //
     // Returns qs.
     public static double[] Qstick(int period, double[] opening, double[] closing) {
-        double[] qs = sma(period, subtract(closing, opening));
+        if (!IndicatorCache.isOpen()) {
+            return computeQstick(period, opening, closing);
+        }
+        return IndicatorCache.get("Qstick", () -> computeQstick(period, opening, closing), period, opening, closing);
+    }
+
+    private static double[] computeQstick(int period, double[] opening, double[] closing) {
+        checkSameSize(opening, closing);
+
+        double[] qs = new double[closing.length];
+        Qstick(period, opening, closing, 0, closing.length, qs, 0);
         return qs;
     }
 
+    public static void Qstick(int period, double[] opening, double[] closing, int offset, int length,
+                              double[] qs, int outOffset) {
+        checkRange(offset, length, opening, closing);
+        checkRange(outOffset, length, qs);
+
+        // 同sma，移出窗口的差值重新算一遍，结果不变
+        double sum = 0.00;
+        for (int i = 0; i < length; i++) {
+            int count = i + 1;
+            sum += closing[offset + i] - opening[offset + i];
+
+            if (i >= period) {
+                sum -= closing[offset + i - period] - opening[offset + i - period];
+                count = period;
+            }
+
+            qs[outOffset + i] = sum / count;
+        }
+    }
+
     // The Kdj function calculates the KDJ  indicator, also known as
     // the Random Index. KDJ is calculated similar to the Stochastic
     // Oscillator with the difference of having the J line. It is
@@ -355,18 +985,72 @@ public class TrendIndicators {
     // Returns k, d, j.
     public static Triple<double[], double[], double[]> Kdj(int rPeriod, int kPeriod, int dPeriod,
                                                            double[] high, double[] low, double[] closing) {
-        double[] highest = Max(rPeriod, high);
-        double[] lowest = Min(rPeriod, low);
+        if (!IndicatorCache.isOpen()) {
+            return computeKdj(rPeriod, kPeriod, dPeriod, high, low, closing);
+        }
+        return IndicatorCache.get("Kdj", () -> computeKdj(rPeriod, kPeriod, dPeriod, high, low, closing),
+                rPeriod, kPeriod, dPeriod, high, low, closing);
+    }
 
-        double[] rsv = multiplyBy(divide(subtract(closing, lowest), subtract(highest, lowest)), 100);
+    private static Triple<double[], double[], double[]> computeKdj(int rPeriod, int kPeriod, int dPeriod,
+                                                                   double[] high, double[] low, double[] closing) {
+        checkSameSize(high, low, closing);
 
-        double[] k = sma(kPeriod, rsv);
-        double[] d = sma(dPeriod, k);
-        double[] j = subtract(multiplyBy(k, 3), multiplyBy(d, 2));
+        double[] k = new double[closing.length];
+        double[] d = new double[closing.length];
+        double[] j = new double[closing.length];
+        if (IndicatorCache.current() == null) {
+            Kdj(rPeriod, kPeriod, dPeriod, high, low, closing, 0, closing.length, k, d, j, 0);
+            return Triple.of(k, d, j);
+        }
+
+        // 缓存打开时和其它指标共用 rPeriod 的最高价、最低价
+        double[] maxHigh = Max(rPeriod, high);
+        double[] minLow = Min(rPeriod, low);
+        double[] rsv = new double[closing.length];
+        for (int i = 0; i < rsv.length; i++) {
+            rsv[i] = ((closing[i] - minLow[i]) / (maxHigh[i] - minLow[i])) * 100;
+        }
+        kdj(kPeriod, dPeriod, rsv, rsv.length, k, d, j, 0);
 
         return Triple.of(k, d, j);
     }
 
+    public static void Kdj(int rPeriod, int kPeriod, int dPeriod, double[] high, double[] low, double[] closing,
+                           int offset, int length, double[] k, double[] d, double[] j, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, k, d, j);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] rsv = workspace.take(length);
+            MonotonicDeque highest = workspace.max(rPeriod);
+            MonotonicDeque lowest = workspace.min(rPeriod);
+
+            for (int i = 0; i < length; i++) {
+                double maxHigh = highest.push(high[offset + i]);
+                double minLow = lowest.push(low[offset + i]);
+                rsv[i] = ((closing[offset + i] - minLow) / (maxHigh - minLow)) * 100;
+            }
+
+            kdj(kPeriod, dPeriod, rsv, length, k, d, j, outOffset);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    // K, D and J from rsv[0, length).
+    private static void kdj(int kPeriod, int dPeriod, double[] rsv, int length,
+                            double[] k, double[] d, double[] j, int outOffset) {
+        sma(kPeriod, rsv, 0, length, k, outOffset);
+        sma(dPeriod, k, outOffset, length, d, outOffset);
+
+        for (int i = outOffset; i < outOffset + length; i++) {
+            j[i] = (k[i] * 3) - (d[i] * 2);
+        }
+    }
+
     // The DefaultKdj function calculates KDJ based on default periods
     // consisting of rPeriod of 9, kPeriod of 3, and dPeriod of 3.
     //
@@ -375,6 +1059,11 @@ public class TrendIndicators {
         return Kdj(9, 3, 3, high, low, closing);
     }
 
+    public static void DefaultKdj(double[] high, double[] low, double[] closing, int offset, int length,
+                                  double[] k, double[] d, double[] j, int outOffset) {
+        Kdj(9, 3, 3, high, low, closing, offset, length, k, d, j, outOffset);
+    }
+
     // Rolling Moving Average (RMA).
     //
     // R[0] to R[p-1] is SMA(values)
@@ -382,54 +1071,97 @@ public class TrendIndicators {
     //
     // Returns r.
     public static double[] Rma(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeRma(period, values);
+        }
+        return IndicatorCache.get("Rma", () -> computeRma(period, values), period, values);
+    }
+
+    private static double[] computeRma(int period, double[] values) {
         double[] result = new double[values.length];
+        Rma(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    // The result can be the same range of the same array as the values.
+    public static void Rma(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
         double sum = 0.00;
+        double rma = 0.00;
 
-        for (int i = 0; i < values.length; i++) {
+        for (int i = 0; i < length; i++) {
             int count = i + 1;
 
             if (i < period) {
-                sum += values[i];
+                sum += values[offset + i];
             } else {
-                sum = result[i - 1] * (period - 1) + values[i];
+                sum = rma * (period - 1) + values[offset + i];
                 count = period;
             }
 
-            result[i] = sum / count;
+            rma = sum / count;
+            result[outOffset + i] = rma;
         }
-
-        return result;
     }
 
     // Simple Moving Average (SMA).
     public static double[] sma(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeSma(period, values);
+        }
+        return IndicatorCache.get("sma", () -> computeSma(period, values), period, values);
+    }
+
+    private static double[] computeSma(int period, double[] values) {
         double[] result = new double[values.length];
+        sma(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void sma(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
         double sum = 0.00;
 
-        for (int i = 0; i < values.length; i++) {
+        for (int i = 0; i < length; i++) {
             int count = i + 1;
-            sum += values[i];
+            sum += values[offset + i];
 
             if (i >= period) {
-                sum -= values[i - period];
+                sum -= values[offset + i - period];
                 count = period;
             }
 
-            result[i] = sum / count;
+            result[outOffset + i] = sum / count;
         }
-
-        return result;
     }
 
     // Since last values change.
     public static int[] Since(double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeSince(values);
+        }
+        return IndicatorCache.get("Since", () -> computeSince(values), values);
+    }
+
+    private static int[] computeSince(double[] values) {
         int[] result = new int[values.length];
+        Since(values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void Since(double[] values, int offset, int length, int[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
 
         double lastValue = 0.000; // TODO
         int sinceLast = 0;
 
-        for (int i = 0; i < values.length; i++) {
-            double value = values[i];
+        for (int i = 0; i < length; i++) {
+            double value = values[offset + i];
 
             if (value != lastValue) {
                 lastValue = value;
@@ -438,28 +1170,103 @@ public class TrendIndicators {
                 sinceLast++;
             }
 
-            result[i] = sinceLast;
+            result[outOffset + i] = sinceLast;
         }
-
-        return result;
     }
 
     // Moving sum for the given period.
     public static double[] Sum(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeSum(period, values);
+        }
+        return IndicatorCache.get("Sum", () -> computeSum(period, values), period, values);
+    }
+
+    private static double[] computeSum(int period, double[] values) {
         double[] result = new double[values.length];
+        Sum(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void Sum(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
         double sum = 0.0;
 
-        for (int i = 0; i < values.length; i++) {
-            sum += values[i];
+        for (int i = 0; i < length; i++) {
+            sum += values[offset + i];
             if (i >= period) {
-                sum -= values[i - period];
+                sum -= values[offset + i - period];
             }
-            result[i] = sum;
+            result[outOffset + i] = sum;
         }
+    }
 
+    // Simple Moving Average from the compensated prefix sum of the values, see
+    // Helper.prefixSum. Inside of an IndicatorCache keeping "PrefixSum", like
+    // the one of ParameterSweep, every period reads the same prefix sum. The
+    // results are not the bits of sma, they are within a few ulps of the
+    // exact average however long the series is.
+    public static double[] smaFromPrefix(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeSmaFromPrefix(period, values);
+        }
+        return IndicatorCache.get("smaFromPrefix", () -> computeSmaFromPrefix(period, values), period, values);
+    }
+
+    private static double[] computeSmaFromPrefix(int period, double[] values) {
+        Pair<double[], double[]> prefix = cachedPrefixSum(values);
+        double[] result = new double[values.length];
+        smaFromPrefix(period, prefix.getLeft(), prefix.getRight(), 0, values.length, result, 0);
+        return result;
+    }
+
+    // Reads the prefix sums high and low [offset, offset + length], the window
+    // starts at offset like the other overloads.
+    public static void smaFromPrefix(int period, double[] high, double[] low, int offset, int length,
+                                     double[] result, int outOffset) {
+        SumFromPrefix(period, high, low, offset, length, result, outOffset);
+        for (int i = 0; i < length; i++) {
+            result[outOffset + i] /= Math.min(i + 1, period);
+        }
+    }
+
+    // Moving sum from the compensated prefix sum of the values, see smaFromPrefix.
+    public static double[] SumFromPrefix(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeSumFromPrefix(period, values);
+        }
+        return IndicatorCache.get("SumFromPrefix", () -> computeSumFromPrefix(period, values), period, values);
+    }
+
+    private static double[] computeSumFromPrefix(int period, double[] values) {
+        Pair<double[], double[]> prefix = cachedPrefixSum(values);
+        double[] result = new double[values.length];
+        SumFromPrefix(period, prefix.getLeft(), prefix.getRight(), 0, values.length, result, 0);
         return result;
     }
 
+    public static void SumFromPrefix(int period, double[] high, double[] low, int offset, int length,
+                                     double[] result, int outOffset) {
+        checkRange(offset, length + 1, high, low);
+        checkRange(outOffset, length, result);
+
+        for (int i = 0; i < length; i++) {
+            int to = offset + i + 1;
+            int from = Math.max(offset, to - period);
+            result[outOffset + i] = (high[to] - high[from]) + (low[to] - low[from]);
+        }
+    }
+
+    // 参数扫描里所有周期共用一个前缀和
+    private static Pair<double[], double[]> cachedPrefixSum(double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return prefixSum(values);
+        }
+        return IndicatorCache.get("PrefixSum", () -> prefixSum(values), values);
+    }
+
     // Tema calculates the Triple Exponential Moving Average (TEMA).
     //
     // TEMA = (3 * EMA1) - (3 * EMA2) + EMA3
@@ -469,15 +1276,39 @@ public class TrendIndicators {
     //
     // Returns tema.
     public static double[] Tema(int period, double[] values) {
-        double[] ema1 = Ema(period, values);
-        double[] ema2 = Ema(period, ema1);
-        double[] ema3 = Ema(period, ema2);
-
-        double[] tema = add(subtract(multiplyBy(ema1, 3), multiplyBy(ema2, 3)), ema3);
+        if (!IndicatorCache.isOpen()) {
+            return computeTema(period, values);
+        }
+        return IndicatorCache.get("Tema", () -> computeTema(period, values), period, values);
+    }
 
+    private static double[] computeTema(int period, double[] values) {
+        double[] tema = new double[values.length];
+        Tema(period, values, 0, values.length, tema, 0);
         return tema;
     }
 
+    public static void Tema(int period, double[] values, int offset, int length, double[] tema, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, tema);
+
+        double k = 2.00 / (1 + period);
+        double ema1 = 0, ema2 = 0, ema3 = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                ema1 = ema(k, ema1, values[offset + i]);
+                ema2 = ema(k, ema2, ema1);
+                ema3 = ema(k, ema3, ema2);
+            } else {
+                ema1 = values[offset];
+                ema2 = ema1;
+                ema3 = ema1;
+            }
+            tema[outOffset + i] = (ema1 * 3) - (ema2 * 3) + ema3;
+        }
+    }
+
     // Trima function calculates the Triangular Moving Average (TRIMA).
     //
     // If period is even:
@@ -487,6 +1318,22 @@ public class TrendIndicators {
     //
     // Returns trima.
     public static double[] Trima(int period, double[] values) {
+        if (!IndicatorCache.isOpen()) {
+            return computeTrima(period, values);
+        }
+        return IndicatorCache.get("Trima", () -> computeTrima(period, values), period, values);
+    }
+
+    private static double[] computeTrima(int period, double[] values) {
+        double[] trima = new double[values.length];
+        Trima(period, values, 0, values.length, trima, 0);
+        return trima;
+    }
+
+    public static void Trima(int period, double[] values, int offset, int length, double[] trima, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, trima);
+
         int n1, n2;
 
         if (period % 2 == 0) {
@@ -497,8 +1344,15 @@ public class TrendIndicators {
             n2 = n1;
         }
 
-        double[] trima = sma(n1, sma(n2, values));
-        return trima;
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] sma2 = workspace.take(length);
+            sma(n2, values, offset, length, sma2, 0);
+            sma(n1, sma2, 0, length, trima, outOffset);
+        } finally {
+            workspace.release(mark);
+        }
     }
 
     // Triple Exponential Average (TRIX) indicator is an oscillator used to
@@ -513,15 +1367,42 @@ public class TrendIndicators {
     //
     // Returns trix.
     public static double[] Trix(int period, double[] values) {
-        double[] ema1 = Ema(period, values);
-        double[] ema2 = Ema(period, ema1);
-        double[] ema3 = Ema(period, ema2);
-        double[] previous = shiftRightAndFillBy(1, ema3[0], ema3);
-        double[] trix = divide(subtract(ema3, previous), previous);
+        if (!IndicatorCache.isOpen()) {
+            return computeTrix(period, values);
+        }
+        return IndicatorCache.get("Trix", () -> computeTrix(period, values), period, values);
+    }
 
+    private static double[] computeTrix(int period, double[] values) {
+        double[] trix = new double[values.length];
+        Trix(period, values, 0, values.length, trix, 0);
         return trix;
     }
 
+    public static void Trix(int period, double[] values, int offset, int length, double[] trix, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, trix);
+
+        double k = 2.00 / (1 + period);
+        double ema1 = 0, ema2 = 0, ema3 = 0;
+
+        for (int i = 0; i < length; i++) {
+            // 第一个的前值是它自己
+            double previous = ema3;
+            if (i > 0) {
+                ema1 = ema(k, ema1, values[offset + i]);
+                ema2 = ema(k, ema2, ema1);
+                ema3 = ema(k, ema3, ema2);
+            } else {
+                ema1 = values[offset];
+                ema2 = ema1;
+                ema3 = ema1;
+                previous = ema3;
+            }
+            trix[outOffset + i] = (ema3 - previous) / previous;
+        }
+    }
+
     // Typical Price. It is another approximation of average price for each
     // period and can be used as a filter for moving average systems.
     //
@@ -529,17 +1410,33 @@ public class TrendIndicators {
     //
     // Returns typical price, 20-Period SMA.
     public static Pair<double[], double[]> TypicalPrice(double[] low, double[] high, double[] closing) {
+        if (!IndicatorCache.isOpen()) {
+            return computeTypicalPrice(low, high, closing);
+        }
+        return IndicatorCache.get("TypicalPrice", () -> computeTypicalPrice(low, high, closing), low, high, closing);
+    }
+
+    private static Pair<double[], double[]> computeTypicalPrice(double[] low, double[] high, double[] closing) {
         checkSameSize(high, low, closing);
-        double[] sma20 = sma(20, closing);
+        double[] sma20 = new double[closing.length];
         double[] ta = new double[closing.length];
-
-        for (int i = 0; i < ta.length; i++) {
-            ta[i] = (high[i] + low[i] + closing[i]) / 3;
-        }
+        TypicalPrice(low, high, closing, 0, closing.length, ta, sma20, 0);
 
         return Pair.of(ta, sma20);
     }
 
+    public static void TypicalPrice(double[] low, double[] high, double[] closing, int offset, int length,
+                                    double[] ta, double[] sma20, int outOffset) {
+        checkRange(offset, length, low, high, closing);
+        checkRange(outOffset, length, ta, sma20);
+
+        sma(20, closing, offset, length, sma20, outOffset);
+
+        for (int i = 0; i < length; i++) {
+            ta[outOffset + i] = (high[offset + i] + low[offset + i] + closing[offset + i]) / 3;
+        }
+    }
+
     // Vortex Indicator. It provides two oscillators that capture positive and
     // negative trend movement. A bullish signal triggers when the positive
     // trend indicator crosses above the negative trend indicator or a key
@@ -562,42 +1459,74 @@ public class TrendIndicators {
     //
     // Returns plusVi, minusVi
     public static Pair<double[], double[]> Vortex(double[] high, double[] low, double[] closing) {
-        checkSameSize(high, low, closing);
+        if (!IndicatorCache.isOpen()) {
+            return computeVortex(high, low, closing);
+        }
+        return IndicatorCache.get("Vortex", () -> computeVortex(high, low, closing), high, low, closing);
+    }
 
-        int period = 14;
+    private static Pair<double[], double[]> computeVortex(double[] high, double[] low, double[] closing) {
+        checkSameSize(high, low, closing);
 
         double[] plusVi = new double[high.length];
         double[] minusVi = new double[high.length];
-        double[] plusVm = new double[period];
-        double[] minusVm = new double[period];
-        double[] tr = new double[period];
+        Vortex(high, low, closing, 0, high.length, plusVi, minusVi, 0);
 
-        double plusVmSum = 0, minusVmSum = 0, trSum = 0;
+        return Pair.of(plusVi, minusVi);
+    }
 
-        for (int i = 0; i < high.length; i++) {
-            int j = i % period;
+    public static void Vortex(double[] high, double[] low, double[] closing, int offset, int length,
+                              double[] plusVi, double[] minusVi, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, plusVi, minusVi);
+        if (length == 0) {
+            return;
+        }
 
-            plusVmSum -= plusVm[j];
-            plusVm[j] = Math.abs(high[i] - low[i - 1]);
-            plusVmSum += plusVm[j];
+        int period = 14;
 
-            minusVmSum -= minusVm[j];
-            minusVm[j] = Math.abs(low[i] - high[i - 1]);
-            minusVmSum += minusVm[j];
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] plusVm = workspace.take(period);
+            double[] minusVm = workspace.take(period);
+            double[] tr = workspace.take(period);
+            Arrays.fill(plusVm, 0, period, 0);
+            Arrays.fill(minusVm, 0, period, 0);
+            Arrays.fill(tr, 0, period, 0);
 
-            double highLow = high[i] - low[i];
-            double highPrevClosing = Math.abs(high[i] - closing[i - 1]);
-            double lowPrevClosing = Math.abs(low[i] - closing[i - 1]);
+            double plusVmSum = 0, minusVmSum = 0, trSum = 0;
 
-            trSum -= tr[j];
-            tr[j] = Math.max(highLow, Math.max(highPrevClosing, lowPrevClosing));
-            trSum += tr[j];
+            plusVi[outOffset] = 0;
+            minusVi[outOffset] = 0;
 
-            plusVi[i] = plusVmSum / trSum;
-            minusVi[i] = minusVmSum / trSum;
-        }
+            // 第一根没有前值，从1开始
+            for (int i = 1; i < length; i++) {
+                int j = i % period;
+                int k = offset + i;
 
-        return Pair.of(plusVi, minusVi);
+                plusVmSum -= plusVm[j];
+                plusVm[j] = Math.abs(high[k] - low[k - 1]);
+                plusVmSum += plusVm[j];
+
+                minusVmSum -= minusVm[j];
+                minusVm[j] = Math.abs(low[k] - high[k - 1]);
+                minusVmSum += minusVm[j];
+
+                double highLow = high[k] - low[k];
+                double highPrevClosing = Math.abs(high[k] - closing[k - 1]);
+                double lowPrevClosing = Math.abs(low[k] - closing[k - 1]);
+
+                trSum -= tr[j];
+                tr[j] = Math.max(highLow, Math.max(highPrevClosing, lowPrevClosing));
+                trSum += tr[j];
+
+                plusVi[outOffset + i] = plusVmSum / trSum;
+                minusVi[outOffset + i] = minusVmSum / trSum;
+            }
+        } finally {
+            workspace.release(mark);
+        }
     }
 
     // The Vwma function calculates the Volume Weighted Moving Average (VWMA)
@@ -608,15 +1537,55 @@ public class TrendIndicators {
     //
     // Returns vwma
     public static double[] Vwma(int period, double[] closing, long[] volume) {
-        double[] floatVolume = asDouble(volume);
-        double[] vwma = divide(Sum(period, multiply(closing, floatVolume)), Sum(period, floatVolume));
+        if (!IndicatorCache.isOpen()) {
+            return computeVwma(period, closing, volume);
+        }
+        return IndicatorCache.get("Vwma", () -> computeVwma(period, closing, volume), period, closing, volume);
+    }
+
+    private static double[] computeVwma(int period, double[] closing, long[] volume) {
+        if (closing.length != volume.length) {
+            throw new RuntimeException("not all same size");
+        }
 
+        double[] vwma = new double[closing.length];
+        Vwma(period, closing, volume, 0, closing.length, vwma, 0);
         return vwma;
     }
 
+    public static void Vwma(int period, double[] closing, long[] volume, int offset, int length, double[] vwma, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, vwma);
+
+        movingWeightedAverage(period, closing, volume, offset, length, vwma, outOffset);
+    }
+
+    // Sum(period, values * weights) / Sum(period, weights)
+    static void movingWeightedAverage(int period, double[] values, long[] weights, int offset, int length,
+                                      double[] result, int outOffset) {
+        double weightedSum = 0.0, weightSum = 0.0;
+
+        for (int i = 0; i < length; i++) {
+            double weight = weights[offset + i];
+            weightedSum += values[offset + i] * weight;
+            weightSum += weight;
+            if (i >= period) {
+                double previous = weights[offset + i - period];
+                weightedSum -= values[offset + i - period] * previous;
+                weightSum -= previous;
+            }
+            result[outOffset + i] = weightedSum / weightSum;
+        }
+    }
+
     // The DefaultVwma function calculates VWMA with a period of 20.
     public static double[] DefaultVwma(double[] closing, long[] volume) {
         return Vwma(20, closing, volume);
     }
 
+    public static void DefaultVwma(double[] closing, long[] volume, int offset, int length, double[] vwma, int outOffset) {
+        Vwma(20, closing, volume, offset, length, vwma, outOffset);
+    }
+
 }
@@ -1,5 +1,6 @@
 package indicator;
 
+import base.MonotonicDeque;
 import base.Pair;
 import base.Triple;
 
@@ -8,6 +9,9 @@ import static indicator.TrendIndicators.Ema;
 import static indicator.TrendIndicators.sma;
 
 /**
+ * The overloads taking offset and length write into caller arrays,
+ * see {@link Helper}.
+ *
  * @author jinfeng.hu  @Date 2022-10-07
  **/
 public class VolatilityIndicators {
@@ -21,17 +25,65 @@ public class VolatilityIndicators {
     //
     // Returns upper band, middle band, lower band.
     public static Triple<double[], double[], double[]> AccelerationBands(double[] high, double[] low, double[] closing) {
-        checkSameSize(high, low, closing);
+        if (!IndicatorCache.isOpen()) {
+            return computeAccelerationBands(high, low, closing);
+        }
+        return IndicatorCache.get("AccelerationBands", () -> computeAccelerationBands(high, low, closing),
+                high, low, closing);
+    }
 
-        double[] k = divide(subtract(high, low), add(high, low));
+    private static Triple<double[], double[], double[]> computeAccelerationBands(double[] high, double[] low, double[] closing) {
+        checkSameSize(high, low, closing);
 
-        double[] upperBand = sma(20, multiply(high, addBy(multiplyBy(k, 4), 1)));
-        double[] middleBand = sma(20, closing);
-        double[] lowerBand = sma(20, multiply(low, addBy(multiplyBy(k, -4), 1)));
+        double[] upperBand = new double[closing.length];
+        double[] middleBand = new double[closing.length];
+        double[] lowerBand = new double[closing.length];
+        AccelerationBands(high, low, closing, 0, closing.length, upperBand, middleBand, lowerBand, 0);
 
         return Triple.of(upperBand, middleBand, lowerBand);
     }
 
+    public static void AccelerationBands(double[] high, double[] low, double[] closing, int offset, int length,
+                                         double[] upperBand, double[] middleBand, double[] lowerBand, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, upperBand, middleBand, lowerBand);
+
+        int period = 20;
+
+        // 三个sma一起算，移出窗口的值重新算一遍
+        double upperSum = 0.00, middleSum = 0.00, lowerSum = 0.00;
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            int count = i + 1;
+            upperSum += upperBand(high, low, j);
+            middleSum += closing[j];
+            lowerSum += lowerBand(high, low, j);
+
+            if (i >= period) {
+                upperSum -= upperBand(high, low, j - period);
+                middleSum -= closing[j - period];
+                lowerSum -= lowerBand(high, low, j - period);
+                count = period;
+            }
+
+            upperBand[outOffset + i] = upperSum / count;
+            middleBand[outOffset + i] = middleSum / count;
+            lowerBand[outOffset + i] = lowerSum / count;
+        }
+    }
+
+    // High * (1 + 4 * (High - Low) / (High + Low))
+    private static double upperBand(double[] high, double[] low, int i) {
+        double k = (high[i] - low[i]) / (high[i] + low[i]);
+        return high[i] * ((k * 4) + 1);
+    }
+
+    // Low * (1 - 4 * (High - Low) / (High + Low))
+    private static double lowerBand(double[] high, double[] low, int i) {
+        double k = (high[i] - low[i]) / (high[i] + low[i]);
+        return low[i] * ((k * -4) + 1);
+    }
+
     // Average True Range (ATR). It is a technical analysis indicator that measures market
     // volatility by decomposing the entire range of stock prices for that period.
     //
@@ -40,15 +92,32 @@ public class VolatilityIndicators {
     //
     // Returns tr, atr
     public static Pair<double[], double[]> Atr(int period, double[] high, double[] low, double[] closing) {
+        if (!IndicatorCache.isOpen()) {
+            return computeAtr(period, high, low, closing);
+        }
+        return IndicatorCache.get("Atr", () -> computeAtr(period, high, low, closing), period, high, low, closing);
+    }
+
+    private static Pair<double[], double[]> computeAtr(int period, double[] high, double[] low, double[] closing) {
         checkSameSize(high, low, closing);
 
         double[] tr = new double[closing.length];
-        for (int i = 0; i < tr.length; i++) {
-            tr[i] = Math.max(high[i] - low[i], Math.max(high[i] - closing[i], closing[i] - low[i]));
+        double[] atr = new double[closing.length];
+        Atr(period, high, low, closing, 0, closing.length, tr, atr, 0);
+        return Pair.of(tr, atr);
+    }
+
+    public static void Atr(int period, double[] high, double[] low, double[] closing, int offset, int length,
+                           double[] tr, double[] atr, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, tr, atr);
+
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            tr[outOffset + i] = Math.max(high[j] - low[j], Math.max(high[j] - closing[j], closing[j] - low[j]));
         }
 
-        double[] atr = sma(period, tr);
-        return Pair.of(tr, atr);
+        sma(period, tr, outOffset, length, atr, outOffset);
     }
 
     // Bollinger Band Width. It measures the percentage difference between the
@@ -62,17 +131,35 @@ public class VolatilityIndicators {
     //
     // Returns bandWidth, bandWidthEma90
     public static Pair<double[], double[]> BollingerBandWidth(double[] middleBand, double[] upperBand, double[] lowerBand) {
-        checkSameSize(middleBand, upperBand, lowerBand);
-        double[] bandWidth = new double[middleBand.length];
-        for (int i = 0; i < bandWidth.length; i++) {
-            bandWidth[i] = (upperBand[i] - lowerBand[i]) / middleBand[i];
+        if (!IndicatorCache.isOpen()) {
+            return computeBollingerBandWidth(middleBand, upperBand, lowerBand);
         }
+        return IndicatorCache.get("BollingerBandWidth", () -> computeBollingerBandWidth(middleBand, upperBand, lowerBand),
+                middleBand, upperBand, lowerBand);
+    }
 
-        double[] bandWidthEma90 = Ema(90, bandWidth);
+    private static Pair<double[], double[]> computeBollingerBandWidth(double[] middleBand, double[] upperBand, double[] lowerBand) {
+        checkSameSize(middleBand, upperBand, lowerBand);
+        double[] bandWidth = new double[middleBand.length];
+        double[] bandWidthEma90 = new double[middleBand.length];
+        BollingerBandWidth(middleBand, upperBand, lowerBand, 0, middleBand.length, bandWidth, bandWidthEma90, 0);
 
         return Pair.of(bandWidth, bandWidthEma90);
     }
 
+    public static void BollingerBandWidth(double[] middleBand, double[] upperBand, double[] lowerBand, int offset, int length,
+                                          double[] bandWidth, double[] bandWidthEma90, int outOffset) {
+        checkRange(offset, length, middleBand, upperBand, lowerBand);
+        checkRange(outOffset, length, bandWidth, bandWidthEma90);
+
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            bandWidth[outOffset + i] = (upperBand[j] - lowerBand[j]) / middleBand[j];
+        }
+
+        Ema(90, bandWidth, outOffset, length, bandWidthEma90, outOffset);
+    }
+
     // Bollinger Bands.
     //
     // Middle Band = 20-Period SMA.
@@ -81,17 +168,43 @@ public class VolatilityIndicators {
     //
     // Returns middle band, upper band, lower band.
     public static Triple<double[], double[], double[]> BollingerBands(double[] closing) {
-        double[] middleBand = sma(20, closing);
-
-        double[] std = StdFromSma(20, closing, middleBand);
-        double[] std2 = multiplyBy(std, 2);
+        if (!IndicatorCache.isOpen()) {
+            return computeBollingerBands(closing);
+        }
+        return IndicatorCache.get("BollingerBands", () -> computeBollingerBands(closing), closing);
+    }
 
-        double[] upperBand = add(middleBand, std2);
-        double[] lowerBand = subtract(middleBand, std2);
+    private static Triple<double[], double[], double[]> computeBollingerBands(double[] closing) {
+        double[] middleBand = new double[closing.length];
+        double[] upperBand = new double[closing.length];
+        double[] lowerBand = new double[closing.length];
+        BollingerBands(closing, 0, closing.length, middleBand, upperBand, lowerBand, 0);
 
         return Triple.of(middleBand, upperBand, lowerBand);
     }
 
+    public static void BollingerBands(double[] closing, int offset, int length,
+                                      double[] middleBand, double[] upperBand, double[] lowerBand, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(outOffset, length, middleBand, upperBand, lowerBand);
+
+        sma(20, closing, offset, length, middleBand, outOffset);
+
+        // std先写到upperBand里
+        stdFromSma(20, closing, offset, middleBand, length, upperBand, outOffset);
+        bands(middleBand, upperBand, lowerBand, length, outOffset);
+    }
+
+    // Replaces the deviation in upperBand with Middle + 2 * Deviation, and
+    // writes Middle - 2 * Deviation to lowerBand.
+    private static void bands(double[] middle, double[] upperBand, double[] lowerBand, int length, int outOffset) {
+        for (int i = outOffset; i < outOffset + length; i++) {
+            double deviation2 = upperBand[i] * 2;
+            upperBand[i] = middle[i] + deviation2;
+            lowerBand[i] = middle[i] - deviation2;
+        }
+    }
+
     // Chandelier Exit. It sets a trailing stop-loss based on the Average True Value (ATR).
     //
     // Chandelier Exit Long = 22-Period SMA High - ATR(22) * 3
@@ -99,43 +212,108 @@ public class VolatilityIndicators {
     //
     // Returns chandelierExitLong, chandelierExitShort
     public static Pair<double[], double[]> ChandelierExit(double[] high, double[] low, double[] closing) {
-        double[] atr22 = Atr(22, high, low, closing).getRight();
-        double[] highestHigh22 = TrendIndicators.Max(22, high);
-        double[] lowestLow22 = TrendIndicators.Min(22, low);
+        if (!IndicatorCache.isOpen()) {
+            return computeChandelierExit(high, low, closing);
+        }
+        return IndicatorCache.get("ChandelierExit", () -> computeChandelierExit(high, low, closing),
+                high, low, closing);
+    }
+
+    private static Pair<double[], double[]> computeChandelierExit(double[] high, double[] low, double[] closing) {
+        checkSameSize(high, low, closing);
 
         double[] chandelierExitLong = new double[closing.length];
         double[] chandelierExitShort = new double[closing.length];
-
-        for (int i = 0; i < chandelierExitLong.length; i++) {
-            chandelierExitLong[i] = highestHigh22[i] - (atr22[i] * 3);
-            chandelierExitShort[i] = lowestLow22[i] + (atr22[i] * 3);
-        }
+        ChandelierExit(high, low, closing, 0, closing.length, chandelierExitLong, chandelierExitShort, 0);
 
         return Pair.of(chandelierExitLong, chandelierExitShort);
     }
 
+    public static void ChandelierExit(double[] high, double[] low, double[] closing, int offset, int length,
+                                      double[] chandelierExitLong, double[] chandelierExitShort, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, chandelierExitLong, chandelierExitShort);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            // tr放在chandelierExitShort里，atr放在chandelierExitLong里
+            Atr(22, high, low, closing, offset, length, chandelierExitShort, chandelierExitLong, outOffset);
+            MonotonicDeque highestHigh22 = workspace.max(22);
+            MonotonicDeque lowestLow22 = workspace.min(22);
+
+            for (int i = 0; i < length; i++) {
+                double atr22 = chandelierExitLong[outOffset + i];
+                chandelierExitLong[outOffset + i] = highestHigh22.push(high[offset + i]) - (atr22 * 3);
+                chandelierExitShort[outOffset + i] = lowestLow22.push(low[offset + i]) + (atr22 * 3);
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // Standard deviation.
     public static double[] Std(int period, double[] values) {
-        return StdFromSma(period, values, sma(period, values));
+        if (!IndicatorCache.isOpen()) {
+            return computeStd(period, values);
+        }
+        return IndicatorCache.get("Std", () -> computeStd(period, values), period, values);
+    }
+
+    private static double[] computeStd(int period, double[] values) {
+        double[] result = new double[values.length];
+        Std(period, values, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void Std(int period, double[] values, int offset, int length, double[] result, int outOffset) {
+        checkRange(offset, length, values);
+        checkRange(outOffset, length, result);
+
+        // sma先写到result里，stdFromSma可以原地计算
+        sma(period, values, offset, length, result, outOffset);
+        stdFromSma(period, values, offset, result, length, result, outOffset);
     }
 
     // Standard deviation from the given SMA.
     public static double[] StdFromSma(int period, double[] values, double[] sma) {
+        if (!IndicatorCache.isOpen()) {
+            return computeStdFromSma(period, values, sma);
+        }
+        return IndicatorCache.get("StdFromSma", () -> computeStdFromSma(period, values, sma), period, values, sma);
+    }
+
+    private static double[] computeStdFromSma(int period, double[] values, double[] sma) {
         double[] result = new double[values.length];
+        StdFromSma(period, values, sma, 0, values.length, result, 0);
+        return result;
+    }
+
+    public static void StdFromSma(int period, double[] values, double[] sma, int offset, int length,
+                                  double[] result, int outOffset) {
+        checkRange(offset, length, values, sma);
+        checkRange(outOffset, length, result);
 
+        System.arraycopy(sma, offset, result, outOffset, length);
+        stdFromSma(period, values, offset, result, length, result, outOffset);
+    }
+
+    // The sma starts at outOffset, result can be the same array as sma.
+    private static void stdFromSma(int period, double[] values, int offset, double[] sma, int length,
+                                   double[] result, int outOffset) {
         double sum2 = 0.0;
-        for (int i = 0; i < values.length; i++) {
-            sum2 += values[i] * values[i];
+        for (int i = 0; i < length; i++) {
+            double value = values[offset + i];
+            sum2 += value * value;
             if (i < period - 1) {
-                result[i] = 0.0;
+                result[outOffset + i] = 0.0;
             } else {
-                result[i] = Math.sqrt(sum2 / period - sma[i] * sma[i]);
-                double w = values[i - (period - 1)];
+                double mean = sma[outOffset + i];
+                result[outOffset + i] = Math.sqrt(sum2 / period - mean * mean);
+                double w = values[offset + i - (period - 1)];
                 sum2 -= w * w;
             }
         }
-
-        return result;
     }
 
     // ProjectionOscillator calculates the Projection Oscillator (PO). The PO
@@ -151,22 +329,58 @@ public class VolatilityIndicators {
     //
     // Returns po, spo.
     public static Pair<double[], double[]> ProjectionOscillator(int period, int smooth, double[] high, double[] low, double[] closing) {
-        double[] x = generateNumbers(0, closing.length, 1);
-        double[] mHigh = Regression.MovingLeastSquare(period, x, high).getLeft();
-        double[] mLow = Regression.MovingLeastSquare(period, x, low).getLeft();
-
-        double[] vHigh = add(high, multiply(mHigh, x));
-        double[] vLow = add(low, multiply(mLow, x));
+        if (!IndicatorCache.isOpen()) {
+            return computeProjectionOscillator(period, smooth, high, low, closing);
+        }
+        return IndicatorCache.get("ProjectionOscillator", () -> computeProjectionOscillator(period, smooth, high, low, closing),
+                period, smooth, high, low, closing);
+    }
 
-        double[] pu = TrendIndicators.Max(period, vHigh);
-        double[] pl = TrendIndicators.Min(period, vLow);
+    private static Pair<double[], double[]> computeProjectionOscillator(int period, int smooth,
+                                                                        double[] high, double[] low, double[] closing) {
+        checkSameSize(high, low, closing);
 
-        double[] po = divide(multiplyBy(subtract(closing, pl), 100), subtract(pu, pl));
-        double[] spo = Ema(smooth, po);
+        double[] po = new double[closing.length];
+        double[] spo = new double[closing.length];
+        ProjectionOscillator(period, smooth, high, low, closing, 0, closing.length, po, spo, 0);
 
         return Pair.of(po, spo);
     }
 
+    public static void ProjectionOscillator(int period, int smooth, double[] high, double[] low, double[] closing,
+                                            int offset, int length, double[] po, double[] spo, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, po, spo);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] x = workspace.take(length);
+            generateNumbers(0, 1, length, x, 0);
+
+            // mHigh放在po里，mLow放在spo里
+            Regression.movingLeastSquare(period, x, 0, high, offset, length, po, null, null, outOffset);
+            Regression.movingLeastSquare(period, x, 0, low, offset, length, spo, null, null, outOffset);
+
+            MonotonicDeque pu = workspace.max(period);
+            MonotonicDeque pl = workspace.min(period);
+
+            for (int i = 0; i < length; i++) {
+                int j = offset + i;
+                double vHigh = high[j] + (po[outOffset + i] * x[i]);
+                double vLow = low[j] + (spo[outOffset + i] * x[i]);
+                double upper = pu.push(vHigh);
+                double lower = pl.push(vLow);
+
+                po[outOffset + i] = ((closing[j] - lower) * 100) / (upper - lower);
+            }
+        } finally {
+            workspace.release(mark);
+        }
+
+        Ema(smooth, po, outOffset, length, spo, outOffset);
+    }
+
     // The Ulcer Index (UI) measures downside risk. The index increases in value
     // as the price moves farther away from a recent high and falls as the price
     // rises to new highs.
@@ -178,19 +392,51 @@ public class VolatilityIndicators {
     //
     // Returns ui.
     public static double[] UlcerIndex(int period, double[] closing) {
-        double[] highClosing = TrendIndicators.Max(period, closing);
-        double[] percentageDrawdown = multiplyBy(divide(subtract(closing, highClosing), highClosing), 100);
-        double[] squaredAverage = sma(period, multiply(percentageDrawdown, percentageDrawdown));
-        double[] ui = sqrt(squaredAverage);
+        if (!IndicatorCache.isOpen()) {
+            return computeUlcerIndex(period, closing);
+        }
+        return IndicatorCache.get("UlcerIndex", () -> computeUlcerIndex(period, closing), period, closing);
+    }
 
+    private static double[] computeUlcerIndex(int period, double[] closing) {
+        double[] ui = new double[closing.length];
+        UlcerIndex(period, closing, 0, closing.length, ui, 0);
         return ui;
     }
 
+    public static void UlcerIndex(int period, double[] closing, int offset, int length, double[] ui, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(outOffset, length, ui);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] squared = workspace.take(length);
+            MonotonicDeque highClosing = workspace.max(period);
+
+            for (int i = 0; i < length; i++) {
+                double c = closing[offset + i];
+                double high = highClosing.push(c);
+                double percentageDrawdown = ((c - high) / high) * 100;
+                squared[i] = percentageDrawdown * percentageDrawdown;
+            }
+
+            sma(period, squared, 0, length, ui, outOffset);
+            sqrt(ui, outOffset, length, ui, outOffset);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // The default ulcer index with the default period of 14.
     public static double[] DefaultUlcerIndex(double[] closing) {
         return UlcerIndex(14, closing);
     }
 
+    public static void DefaultUlcerIndex(double[] closing, int offset, int length, double[] ui, int outOffset) {
+        UlcerIndex(14, closing, offset, length, ui, outOffset);
+    }
+
     // The Donchian Channel (DC) calculates three lines generated by moving average
     // calculations that comprise an indicator formed by upper and lower bands
     // around a midrange or median band. The upper band marks the highest
@@ -204,13 +450,46 @@ public class VolatilityIndicators {
     //
     // Returns upperChannel, middleChannel, lowerChannel.
     public static Triple<double[], double[], double[]> DonchianChannel(int period, double[] closing) {
-        double[] upperChannel = TrendIndicators.Max(period, closing);
-        double[] lowerChannel = TrendIndicators.Min(period, closing);
-        double[] middleChannel = divideBy(add(upperChannel, lowerChannel), 2);
+        if (!IndicatorCache.isOpen()) {
+            return computeDonchianChannel(period, closing);
+        }
+        return IndicatorCache.get("DonchianChannel", () -> computeDonchianChannel(period, closing), period, closing);
+    }
+
+    private static Triple<double[], double[], double[]> computeDonchianChannel(int period, double[] closing) {
+        double[] upperChannel = new double[closing.length];
+        double[] middleChannel = new double[closing.length];
+        double[] lowerChannel = new double[closing.length];
+        DonchianChannel(period, closing, 0, closing.length, upperChannel, middleChannel, lowerChannel, 0);
 
         return Triple.of(upperChannel, middleChannel, lowerChannel);
     }
 
+    public static void DonchianChannel(int period, double[] closing, int offset, int length,
+                                       double[] upperChannel, double[] middleChannel, double[] lowerChannel, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(outOffset, length, upperChannel, middleChannel, lowerChannel);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            MonotonicDeque max = workspace.max(period);
+            MonotonicDeque min = workspace.min(period);
+
+            for (int i = 0; i < length; i++) {
+                double c = closing[offset + i];
+                double upper = max.push(c);
+                double lower = min.push(c);
+
+                upperChannel[outOffset + i] = upper;
+                middleChannel[outOffset + i] = (upper + lower) * (1 / 2.0);
+                lowerChannel[outOffset + i] = lower;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // The Keltner Channel (KC) provides volatility-based bands that are placed
     // on either side of an asset's price and can aid in determining the
     // direction of a trend.
@@ -221,19 +500,44 @@ public class VolatilityIndicators {
     //
     // Returns upperBand, middleLine, lowerBand.
     public static Triple<double[], double[], double[]> KeltnerChannel(int period, double[] high, double[] low, double[] closing) {
-        double[] atr = Atr(period, high, low, closing).getRight();
-        double[] atr2 = multiplyBy(atr, 2);
+        if (!IndicatorCache.isOpen()) {
+            return computeKeltnerChannel(period, high, low, closing);
+        }
+        return IndicatorCache.get("KeltnerChannel", () -> computeKeltnerChannel(period, high, low, closing),
+                period, high, low, closing);
+    }
 
-        double[] middleLine = Ema(period, closing);
-        double[] upperBand = add(middleLine, atr2);
-        double[] lowerBand = subtract(middleLine, atr2);
+    private static Triple<double[], double[], double[]> computeKeltnerChannel(int period,
+                                                                              double[] high, double[] low, double[] closing) {
+        checkSameSize(high, low, closing);
+
+        double[] upperBand = new double[closing.length];
+        double[] middleLine = new double[closing.length];
+        double[] lowerBand = new double[closing.length];
+        KeltnerChannel(period, high, low, closing, 0, closing.length, upperBand, middleLine, lowerBand, 0);
 
         return Triple.of(upperBand, middleLine, lowerBand);
     }
 
+    public static void KeltnerChannel(int period, double[] high, double[] low, double[] closing, int offset, int length,
+                                      double[] upperBand, double[] middleLine, double[] lowerBand, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(outOffset, length, upperBand, middleLine, lowerBand);
+
+        // tr放在lowerBand里，atr放在upperBand里
+        Atr(period, high, low, closing, offset, length, lowerBand, upperBand, outOffset);
+        Ema(period, closing, offset, length, middleLine, outOffset);
+        bands(middleLine, upperBand, lowerBand, length, outOffset);
+    }
+
     // The default keltner channel with the default period of 20.
     public static Triple<double[], double[], double[]> DefaultKeltnerChannel(double[] high, double[] low, double[] closing) {
         return KeltnerChannel(20, high, low, closing);
     }
 
+    public static void DefaultKeltnerChannel(double[] high, double[] low, double[] closing, int offset, int length,
+                                             double[] upperBand, double[] middleLine, double[] lowerBand, int outOffset) {
+        KeltnerChannel(20, high, low, closing, offset, length, upperBand, middleLine, lowerBand, outOffset);
+    }
+
 }
@@ -4,11 +4,14 @@ import static indicator.Helper.*;
 import static indicator.TrendIndicators.*;
 
 /**
+ * The overloads taking offset and length write into caller arrays,
+ * see {@link Helper}.
+ *
  * @author jinfeng.hu  @Date 2022/10/8
  **/
 public class VolumeIndicators {
-    private static int NVI_STARTING_VALUE = 1000;
-    private static int CMF_DEFAULT_PERIOD = 20;
+    static final int NVI_STARTING_VALUE = 1000;
+    static final int CMF_DEFAULT_PERIOD = 20;
 
     // Accumulation/Distribution Indicator (A/D). Cumulative indicator
     // that uses volume and price to assess whether a stock is
@@ -20,19 +23,35 @@ public class VolumeIndicators {
     //
     // Returns ad.
     public static double[] AccumulationDistribution(double[] high, double[] low, double[] closing, long[] volume) {
+        if (!IndicatorCache.isOpen()) {
+            return computeAccumulationDistribution(high, low, closing, volume);
+        }
+        return IndicatorCache.get("AccumulationDistribution", () -> computeAccumulationDistribution(high, low, closing, volume),
+                high, low, closing, volume);
+    }
+
+    private static double[] computeAccumulationDistribution(double[] high, double[] low, double[] closing, long[] volume) {
         checkSameSize(high, low, closing);
 
         double[] ad = new double[closing.length];
-        for (int i = 0; i < ad.length; i++) {
-            if (i > 0) {
-                ad[i] = ad[i - 1];
-            }
-            ad[i] += volume[i] * (((closing[i] - low[i]) - (high[i] - closing[i])) / (high[i] - low[i]));
-        }
-
+        AccumulationDistribution(high, low, closing, volume, 0, closing.length, ad, 0);
         return ad;
     }
 
+    public static void AccumulationDistribution(double[] high, double[] low, double[] closing, long[] volume,
+                                                int offset, int length, double[] ad, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, ad);
+
+        double previous = 0;
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            previous += volume[j] * (((closing[j] - low[j]) - (high[j] - closing[j])) / (high[j] - low[j]));
+            ad[outOffset + i] = previous;
+        }
+    }
+
     // On-Balance Volume (OBV). It is a technical trading momentum indicator that
     // uses volume flow to predict changes in stock price.
     //
@@ -42,23 +61,39 @@ public class VolumeIndicators {
     //
     // Returns obv
     public static long[] Obv(double[] closing, long[] volume) {
+        if (!IndicatorCache.isOpen()) {
+            return computeObv(closing, volume);
+        }
+        return IndicatorCache.get("Obv", () -> computeObv(closing, volume), closing, volume);
+    }
+
+    private static long[] computeObv(double[] closing, long[] volume) {
         if (closing.length != volume.length) {
             throw new RuntimeException("not all same size");
         }
 
         long[] obv = new long[volume.length];
+        Obv(closing, volume, 0, volume.length, obv, 0);
+        return obv;
+    }
 
-        for (int i = 1; i < obv.length; i++) {
-            obv[i] = obv[i - 1];
+    public static void Obv(double[] closing, long[] volume, int offset, int length, long[] obv, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, obv);
 
-            if (closing[i] > closing[i - 1]) {
-                obv[i] += volume[i];
-            } else if (closing[i] < closing[i - 1]) {
-                obv[i] -= volume[i];
+        long previous = 0;
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            if (i > 0) {
+                if (closing[j] > closing[j - 1]) {
+                    previous += volume[j];
+                } else if (closing[j] < closing[j - 1]) {
+                    previous -= volume[j];
+                }
             }
+            obv[outOffset + i] = previous;
         }
-
-        return obv;
     }
 
     // The Money Flow Index (MFI) analyzes both the closing price and the volume
@@ -71,22 +106,71 @@ public class VolumeIndicators {
     //
     // Retruns money flow index values.
     public static double[] MoneyFlowIndex(int period, double[] high, double[] low, double[] closing, long[] volume) {
-        double[] typicalPrice = TypicalPrice(low, high, closing).getLeft();
-        double[] rawMoneyFlow = multiply(typicalPrice, asDouble(volume));
+        if (!IndicatorCache.isOpen()) {
+            return computeMoneyFlowIndex(period, high, low, closing, volume);
+        }
+        return IndicatorCache.get("MoneyFlowIndex", () -> computeMoneyFlowIndex(period, high, low, closing, volume),
+                period, high, low, closing, volume);
+    }
 
-        double[] signs = extractSign(diff(rawMoneyFlow, 1));
-        double[] moneyFlow = multiply(signs, rawMoneyFlow);
+    private static double[] computeMoneyFlowIndex(int period,
+                                                  double[] high, double[] low, double[] closing, long[] volume) {
+        checkSameSize(high, low, closing);
+        if (closing.length != volume.length) {
+            throw new RuntimeException("not all same size");
+        }
 
-        double[] positiveMoneyFlow = keepPositives(moneyFlow);
-        double[] negativeMoneyFlow = keepNegatives(moneyFlow);
+        double[] moneyFlowIndex = new double[closing.length];
+        MoneyFlowIndex(period, high, low, closing, volume, 0, closing.length, moneyFlowIndex, 0);
+        return moneyFlowIndex;
+    }
 
-        double[] moneyRatio = divide(
-                Sum(period, positiveMoneyFlow),
-                Sum(period, multiplyBy(negativeMoneyFlow, -1)));
+    public static void MoneyFlowIndex(int period, double[] high, double[] low, double[] closing, long[] volume,
+                                      int offset, int length, double[] moneyFlowIndex, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, moneyFlowIndex);
+
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] moneyFlow = workspace.take(length);
+
+            double previous = 0;
+            for (int i = 0; i < length; i++) {
+                int j = offset + i;
+                double typicalPrice = (high[j] + low[j] + closing[j]) / 3;
+                double rawMoneyFlow = typicalPrice * volume[j];
+                double sign = rawMoneyFlow - previous >= 0 ? 1 : -1;
+                moneyFlow[i] = sign * rawMoneyFlow;
+                previous = rawMoneyFlow;
+            }
 
-        double[] moneyFlowIndex = addBy(multiplyBy(pow(addBy(moneyRatio, 1), -1), -100), 100);
+            double positiveSum = 0.0, negativeSum = 0.0;
+            for (int i = 0; i < length; i++) {
+                positiveSum += positive(moneyFlow[i]);
+                negativeSum += negative(moneyFlow[i]);
+                if (i >= period) {
+                    positiveSum -= positive(moneyFlow[i - period]);
+                    negativeSum -= negative(moneyFlow[i - period]);
+                }
+
+                double moneyRatio = positiveSum / negativeSum;
+                moneyFlowIndex[outOffset + i] = (Math.pow(moneyRatio + 1, -1) * -100) + 100;
+            }
+        } finally {
+            workspace.release(mark);
+        }
+    }
 
-        return moneyFlowIndex;
+    // Same as Helper.keepPositives.
+    private static double positive(double moneyFlow) {
+        return moneyFlow > 0 ? moneyFlow : 0;
+    }
+
+    // Same as Helper.keepNegatives then multiplyBy -1.
+    private static double negative(double moneyFlow) {
+        return (moneyFlow < 0 ? moneyFlow : 0) * -1;
     }
 
     // Default money flow index with period 14.
@@ -94,6 +178,11 @@ public class VolumeIndicators {
         return MoneyFlowIndex(14, high, low, closing, volume);
     }
 
+    public static void DefaultMoneyFlowIndex(double[] high, double[] low, double[] closing, long[] volume,
+                                             int offset, int length, double[] moneyFlowIndex, int outOffset) {
+        MoneyFlowIndex(14, high, low, closing, volume, offset, length, moneyFlowIndex, outOffset);
+    }
+
     // The Force Index (FI) uses the closing price and the volume to assess
     // the power behind a move and identify turning points.
     //
@@ -101,7 +190,35 @@ public class VolumeIndicators {
     //
     // Returns force index.
     public static double[] ForceIndex(int period, double[] closing, long[] volume) {
-        return Ema(period, multiply(diff(closing, 1), asDouble(volume)));
+        if (!IndicatorCache.isOpen()) {
+            return computeForceIndex(period, closing, volume);
+        }
+        return IndicatorCache.get("ForceIndex", () -> computeForceIndex(period, closing, volume),
+                period, closing, volume);
+    }
+
+    private static double[] computeForceIndex(int period, double[] closing, long[] volume) {
+        if (closing.length != volume.length) {
+            throw new RuntimeException("not all same size");
+        }
+
+        double[] fi = new double[closing.length];
+        ForceIndex(period, closing, volume, 0, closing.length, fi, 0);
+        return fi;
+    }
+
+    public static void ForceIndex(int period, double[] closing, long[] volume, int offset, int length, double[] fi, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, fi);
+
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            double previous = i > 0 ? closing[j - 1] : 0;
+            fi[outOffset + i] = (closing[j] - previous) * volume[j];
+        }
+
+        Ema(period, fi, outOffset, length, fi, outOffset);
     }
 
     // The default Force Index (FI) with window size of 13.
@@ -109,6 +226,10 @@ public class VolumeIndicators {
         return ForceIndex(13, closing, volume);
     }
 
+    public static void DefaultForceIndex(double[] closing, long[] volume, int offset, int length, double[] fi, int outOffset) {
+        ForceIndex(13, closing, volume, offset, length, fi, outOffset);
+    }
+
     // The Ease of Movement (EMV) is a volume based oscillator measuring
     // the ease of price movement.
     //
@@ -119,17 +240,62 @@ public class VolumeIndicators {
     //
     // Returns ease of movement values.
     public static double[] EaseOfMovement(int period, double[] high, double[] low, long[] volume) {
-        double[] distanceMoved = diff(divideBy(add(high, low), 2), 1);
-        double[] boxRatio = divide(divideBy(asDouble(volume), 100000000), subtract(high, low));
-        double[] emv = sma(period, divide(distanceMoved, boxRatio));
+        if (!IndicatorCache.isOpen()) {
+            return computeEaseOfMovement(period, high, low, volume);
+        }
+        return IndicatorCache.get("EaseOfMovement", () -> computeEaseOfMovement(period, high, low, volume),
+                period, high, low, volume);
+    }
+
+    private static double[] computeEaseOfMovement(int period, double[] high, double[] low, long[] volume) {
+        checkSameSize(high, low);
+        if (high.length != volume.length) {
+            throw new RuntimeException("not all same size");
+        }
+
+        double[] emv = new double[high.length];
+        EaseOfMovement(period, high, low, volume, 0, high.length, emv, 0);
         return emv;
     }
 
+    public static void EaseOfMovement(int period, double[] high, double[] low, long[] volume, int offset, int length,
+                                      double[] emv, int outOffset) {
+        checkRange(offset, length, high, low);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, emv);
+
+        // EMV(1)先写到emv里，sma需要移出窗口的值，不能原地计算
+        Workspace workspace = Workspace.get();
+        int mark = workspace.mark();
+        try {
+            double[] emv1 = workspace.take(length);
+
+            double previous = 0;
+            for (int i = 0; i < length; i++) {
+                int j = offset + i;
+                double middle = (high[j] + low[j]) * (1 / 2.0);
+                double distanceMoved = middle - previous;
+                double boxRatio = (volume[j] * (1 / 100000000.0)) / (high[j] - low[j]);
+                emv1[i] = distanceMoved / boxRatio;
+                previous = middle;
+            }
+
+            sma(period, emv1, 0, length, emv, outOffset);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
     // The default Ease of Movement with the default period of 14.
     public static double[] DefaultEaseOfMovement(double[] high, double[] low, long[] volume) {
         return EaseOfMovement(14, high, low, volume);
     }
 
+    public static void DefaultEaseOfMovement(double[] high, double[] low, long[] volume, int offset, int length,
+                                             double[] emv, int outOffset) {
+        EaseOfMovement(14, high, low, volume, offset, length, emv, outOffset);
+    }
+
     // The Volume Price Trend (VPT) provides a correlation between the
     // volume and the price.
     //
@@ -137,9 +303,34 @@ public class VolumeIndicators {
     //
     // Returns volume price trend values.
     public static double[] VolumePriceTrend(double[] closing, long[] volume) {
-        double[] previousClosing = shiftRightAndFillBy(1, closing[0], closing);
-        double[] vpt = multiply(asDouble(volume), divide(subtract(closing, previousClosing), previousClosing));
-        return Sum(vpt.length, vpt);
+        if (!IndicatorCache.isOpen()) {
+            return computeVolumePriceTrend(closing, volume);
+        }
+        return IndicatorCache.get("VolumePriceTrend", () -> computeVolumePriceTrend(closing, volume), closing, volume);
+    }
+
+    private static double[] computeVolumePriceTrend(double[] closing, long[] volume) {
+        if (closing.length != volume.length) {
+            throw new RuntimeException("not all same size");
+        }
+
+        double[] vpt = new double[closing.length];
+        VolumePriceTrend(closing, volume, 0, closing.length, vpt, 0);
+        return vpt;
+    }
+
+    public static void VolumePriceTrend(double[] closing, long[] volume, int offset, int length, double[] vpt, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, vpt);
+
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            double previousClosing = closing[i > 0 ? j - 1 : offset];
+            sum += volume[j] * ((closing[j] - previousClosing) / previousClosing);
+            vpt[outOffset + i] = sum;
+        }
     }
 
     // The Volume Weighted Average Price (VWAP) provides the average price
@@ -149,8 +340,30 @@ public class VolumeIndicators {
     //
     // Returns vwap values.
     public static double[] VolumeWeightedAveragePrice(int period, double[] closing, long[] volume) {
-        double[] v = asDouble(volume);
-        return divide(Sum(period, multiply(closing, v)), Sum(period, v));
+        if (!IndicatorCache.isOpen()) {
+            return computeVolumeWeightedAveragePrice(period, closing, volume);
+        }
+        return IndicatorCache.get("VolumeWeightedAveragePrice", () -> computeVolumeWeightedAveragePrice(period, closing, volume),
+                period, closing, volume);
+    }
+
+    private static double[] computeVolumeWeightedAveragePrice(int period, double[] closing, long[] volume) {
+        if (closing.length != volume.length) {
+            throw new RuntimeException("not all same size");
+        }
+
+        double[] vwap = new double[closing.length];
+        VolumeWeightedAveragePrice(period, closing, volume, 0, closing.length, vwap, 0);
+        return vwap;
+    }
+
+    public static void VolumeWeightedAveragePrice(int period, double[] closing, long[] volume, int offset, int length,
+                                                  double[] vwap, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, vwap);
+
+        movingWeightedAverage(period, closing, volume, offset, length, vwap, outOffset);
     }
 
     // Default volume weighted average price with period of 14.
@@ -158,6 +371,11 @@ public class VolumeIndicators {
         return VolumeWeightedAveragePrice(14, closing, volume);
     }
 
+    public static void DefaultVolumeWeightedAveragePrice(double[] closing, long[] volume, int offset, int length,
+                                                         double[] vwap, int outOffset) {
+        VolumeWeightedAveragePrice(14, closing, volume, offset, length, vwap, outOffset);
+    }
+
     // The Negative Volume Index (NVI) is a cumulative indicator using
     // the change in volume to decide when the smart money is active.
     //
@@ -171,23 +389,39 @@ public class VolumeIndicators {
     //
     // Returns nvi values.
     public static double[] NegativeVolumeIndex(double[] closing, long[] volume) {
+        if (!IndicatorCache.isOpen()) {
+            return computeNegativeVolumeIndex(closing, volume);
+        }
+        return IndicatorCache.get("NegativeVolumeIndex", () -> computeNegativeVolumeIndex(closing, volume),
+                closing, volume);
+    }
+
+    private static double[] computeNegativeVolumeIndex(double[] closing, long[] volume) {
         if (closing.length != volume.length) {
             throw new RuntimeException("not all same size");
         }
 
         double[] nvi = new double[closing.length];
+        NegativeVolumeIndex(closing, volume, 0, closing.length, nvi, 0);
+        return nvi;
+    }
 
-        for (int i = 0; i < nvi.length; i++) {
+    public static void NegativeVolumeIndex(double[] closing, long[] volume, int offset, int length, double[] nvi, int outOffset) {
+        checkRange(offset, length, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, nvi);
+
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            int k = outOffset + i;
             if (i == 0) {
-                nvi[i] = NVI_STARTING_VALUE;
-            } else if (volume[i - 1] < volume[i]) {
-                nvi[i] = nvi[i - 1];
+                nvi[k] = NVI_STARTING_VALUE;
+            } else if (volume[j - 1] < volume[j]) {
+                nvi[k] = nvi[k - 1];
             } else {
-                nvi[i] = nvi[i - 1] + (((closing[i] - closing[i - 1]) / closing[i - 1]) * nvi[i - 1]);
+                nvi[k] = nvi[k - 1] + (((closing[j] - closing[j - 1]) / closing[j - 1]) * nvi[k - 1]);
             }
         }
-
-        return nvi;
     }
 
     // The Chaikin Money Flow (CMF) measures the amount of money flow volume
@@ -198,17 +432,50 @@ public class VolumeIndicators {
     // Chaikin Money Flow = Sum(20, Money Flow Volume) / Sum(20, Volume)
     //
     public static double[] ChaikinMoneyFlow(double[] high, double[] low, double[] closing, long[] volume) {
-        double[] moneyFlowMultiplier = divide(
-                subtract(subtract(closing, low), subtract(high, closing)),
-                subtract(high, low));
-
-        double[] moneyFlowVolume = Helper.multiply(moneyFlowMultiplier, asDouble(volume));
+        if (!IndicatorCache.isOpen()) {
+            return computeChaikinMoneyFlow(high, low, closing, volume);
+        }
+        return IndicatorCache.get("ChaikinMoneyFlow", () -> computeChaikinMoneyFlow(high, low, closing, volume),
+                high, low, closing, volume);
+    }
 
-        double[] cmf = divide(
-                Sum(CMF_DEFAULT_PERIOD, moneyFlowVolume),
-                Sum(CMF_DEFAULT_PERIOD, asDouble(volume)));
+    private static double[] computeChaikinMoneyFlow(double[] high, double[] low, double[] closing, long[] volume) {
+        checkSameSize(high, low, closing);
+        if (closing.length != volume.length) {
+            throw new RuntimeException("not all same size");
+        }
 
+        double[] cmf = new double[closing.length];
+        ChaikinMoneyFlow(high, low, closing, volume, 0, closing.length, cmf, 0);
         return cmf;
     }
 
+    public static void ChaikinMoneyFlow(double[] high, double[] low, double[] closing, long[] volume,
+                                        int offset, int length, double[] cmf, int outOffset) {
+        checkRange(offset, length, high, low, closing);
+        checkRange(offset, length, volume);
+        checkRange(outOffset, length, cmf);
+
+        int period = CMF_DEFAULT_PERIOD;
+
+        // 两个Sum一起算，移出窗口的Money Flow Volume重新算一遍
+        double moneyFlowVolumeSum = 0.0, volumeSum = 0.0;
+        for (int i = 0; i < length; i++) {
+            int j = offset + i;
+            moneyFlowVolumeSum += moneyFlowVolume(high, low, closing, volume, j);
+            volumeSum += volume[j];
+            if (i >= period) {
+                moneyFlowVolumeSum -= moneyFlowVolume(high, low, closing, volume, j - period);
+                volumeSum -= volume[j - period];
+            }
+            cmf[outOffset + i] = moneyFlowVolumeSum / volumeSum;
+        }
+    }
+
+    // Money Flow Multiplier * Volume
+    private static double moneyFlowVolume(double[] high, double[] low, double[] closing, long[] volume, int i) {
+        double moneyFlowMultiplier = ((closing[i] - low[i]) - (high[i] - closing[i])) / (high[i] - low[i]);
+        return moneyFlowMultiplier * volume[i];
+    }
+
 }
@@ -0,0 +1,112 @@
+package indicator;
+
+import java.util.Arrays;
+
+/**
+ * 流式Vortex - 与 {@link TrendIndicators#Vortex(double[], double[], double[])} 逐位一致
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class VortexState {
+    private final int period;
+    private final double[] plusVm;
+    private final double[] minusVm;
+    private final double[] tr;
+    private double plusVmSum, minusVmSum, trSum;
+    private double plusVi, minusVi;
+    private double previewMinusVi;
+    private double prevHigh, prevLow, prevClosing;
+    private long count;
+
+    public VortexState() {
+        this(14);
+    }
+
+    public VortexState(int period) {
+        this.period = period;
+        this.plusVm = new double[period];
+        this.minusVm = new double[period];
+        this.tr = new double[period];
+    }
+
+    // Adds the next bar. Returns the plusVi.
+    public double update(double high, double low, double closing) {
+        if (count > 0) {
+            int j = (int) (count % period);
+
+            plusVmSum -= plusVm[j];
+            plusVm[j] = Math.abs(high - prevLow);
+            plusVmSum += plusVm[j];
+
+            minusVmSum -= minusVm[j];
+            minusVm[j] = Math.abs(low - prevHigh);
+            minusVmSum += minusVm[j];
+
+            double highLow = high - low;
+            double highPrevClosing = Math.abs(high - prevClosing);
+            double lowPrevClosing = Math.abs(low - prevClosing);
+
+            trSum -= tr[j];
+            tr[j] = Math.max(highLow, Math.max(highPrevClosing, lowPrevClosing));
+            trSum += tr[j];
+
+            plusVi = plusVmSum / trSum;
+            minusVi = minusVmSum / trSum;
+        }
+
+        prevHigh = high;
+        prevLow = low;
+        prevClosing = closing;
+        count++;
+
+        return plusVi;
+    }
+
+    // The plusVi if the bar were the next one, without adding it. The
+    // minusVi of the preview is in previewMinusVi.
+    public double preview(double high, double low, double closing) {
+        if (count == 0) {
+            previewMinusVi = minusVi;
+            return plusVi;
+        }
+        int j = (int) (count % period);
+
+        double plusVmSum = (this.plusVmSum - plusVm[j]) + Math.abs(high - prevLow);
+        double minusVmSum = (this.minusVmSum - minusVm[j]) + Math.abs(low - prevHigh);
+
+        double highLow = high - low;
+        double highPrevClosing = Math.abs(high - prevClosing);
+        double lowPrevClosing = Math.abs(low - prevClosing);
+        double trSum = (this.trSum - tr[j]) + Math.max(highLow, Math.max(highPrevClosing, lowPrevClosing));
+
+        previewMinusVi = minusVmSum / trSum;
+        return plusVmSum / trSum;
+    }
+
+    // The minusVi of the last preview.
+    public double previewMinusVi() {
+        return previewMinusVi;
+    }
+
+    public double plusVi() {
+        return plusVi;
+    }
+
+    public double minusVi() {
+        return minusVi;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void reset() {
+        Arrays.fill(plusVm, 0);
+        Arrays.fill(minusVm, 0);
+        Arrays.fill(tr, 0);
+        plusVmSum = minusVmSum = trSum = 0;
+        plusVi = minusVi = 0;
+        prevHigh = prevLow = prevClosing = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,144 @@
+package indicator;
+
+import base.LongMonotonicDeque;
+import base.MonotonicDeque;
+import base.Tree;
+
+import java.util.Arrays;
+
+/**
+ * 临时缓冲区 - 每个线程一份，供写入调用方数组的指标重载存放中间结果，稳定之后不再分配内存
+ * <p>
+ * Buffers are taken and given back in stack order:
+ * <pre>
+ * Workspace workspace = Workspace.get();
+ * int mark = workspace.mark();
+ * try {
+ *     double[] temp = workspace.take(length);
+ *     ...
+ * } finally {
+ *     workspace.release(mark);
+ * }
+ * </pre>
+ * A taken buffer can be longer than requested and holds stale values.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class Workspace {
+    private static final ThreadLocal<Workspace> LOCAL = ThreadLocal.withInitial(Workspace::new);
+
+    private double[][] buffers = new double[8][];
+    private int bufferTop;
+    private MonotonicDeque[] deques = new MonotonicDeque[8];
+    private int dequeTop;
+    private LongMonotonicDeque[] longDeques = new LongMonotonicDeque[2];
+    private int longDequeTop;
+    private Tree[] trees = new Tree[2];
+    private int treeTop;
+
+    // saved tops, four per mark
+    private int[] marks = new int[32];
+    private int markTop;
+
+    private Workspace() {
+    }
+
+    // The workspace of the current thread.
+    static Workspace get() {
+        return LOCAL.get();
+    }
+
+    // Remembers the current state, pass it to release.
+    int mark() {
+        if (markTop * 4 == marks.length) {
+            marks = Arrays.copyOf(marks, marks.length * 2);
+        }
+        int i = markTop * 4;
+        marks[i] = bufferTop;
+        marks[i + 1] = dequeTop;
+        marks[i + 2] = longDequeTop;
+        marks[i + 3] = treeTop;
+        return markTop++;
+    }
+
+    // Gives back everything taken since the mark.
+    void release(int mark) {
+        int i = mark * 4;
+        bufferTop = marks[i];
+        dequeTop = marks[i + 1];
+        longDequeTop = marks[i + 2];
+        treeTop = marks[i + 3];
+        markTop = mark;
+    }
+
+    // A buffer of at least the given length.
+    double[] take(int length) {
+        if (bufferTop == buffers.length) {
+            buffers = Arrays.copyOf(buffers, buffers.length * 2);
+        }
+        double[] buffer = buffers[bufferTop];
+        if (buffer == null || buffer.length < length) {
+            buffer = new double[Math.max(length, buffer == null ? 0 : buffer.length * 2)];
+            buffers[bufferTop] = buffer;
+        }
+        bufferTop++;
+        return buffer;
+    }
+
+    // An empty moving max deque.
+    MonotonicDeque max(int period) {
+        return deque(period, true);
+    }
+
+    // An empty moving min deque.
+    MonotonicDeque min(int period) {
+        return deque(period, false);
+    }
+
+    private MonotonicDeque deque(int period, boolean max) {
+        if (dequeTop == deques.length) {
+            deques = Arrays.copyOf(deques, deques.length * 2);
+        }
+        MonotonicDeque deque = deques[dequeTop];
+        if (deque == null) {
+            deque = new MonotonicDeque(period, max);
+            deques[dequeTop] = deque;
+        } else {
+            deque.reset(period, max);
+        }
+        dequeTop++;
+        return deque;
+    }
+
+    // An empty moving max or min deque of long values.
+    LongMonotonicDeque longDeque(int period, boolean max) {
+        if (longDequeTop == longDeques.length) {
+            longDeques = Arrays.copyOf(longDeques, longDeques.length * 2);
+        }
+        LongMonotonicDeque deque = longDeques[longDequeTop];
+        if (deque == null) {
+            deque = new LongMonotonicDeque(period, max);
+            longDeques[longDequeTop] = deque;
+        } else {
+            deque.reset(period, max);
+        }
+        longDequeTop++;
+        return deque;
+    }
+
+    // An empty tree.
+    Tree tree(int capacity) {
+        if (treeTop == trees.length) {
+            trees = Arrays.copyOf(trees, trees.length * 2);
+        }
+        Tree tree = trees[treeTop];
+        if (tree == null) {
+            tree = new Tree(capacity);
+            trees[treeTop] = tree;
+        } else {
+            tree.clear();
+        }
+        treeTop++;
+        return tree;
+    }
+}
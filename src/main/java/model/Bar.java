@@ -8,12 +8,19 @@ import lombok.Data;
 @Data
 public class Bar {
     public String datetime;
+    // epoch millis, when the bar comes from a chart bar with the time column
+    public long time;
     public double open;
     public double close;
     public double high;
     public double low;
     public long volume;
 
+    // The datetime string, formatted from time if not set.
+    public String datetime() {
+        return datetime != null ? datetime : Timestamps.format(time);
+    }
+
     public String title() {
         return "datetime,open,high,low,close,volume";
     }
@@ -3,8 +3,14 @@ package model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Arrays;
+
 /**
  * Description: chart bar
+ * <p>
+ * The time of the bars is either the datetime strings or the epoch millis
+ * in time (see {@link Timestamps}), or both. Use {@link #datetime(int)} and
+ * {@link #time(int)} to read whichever is there.
  *
  * @author jinfeng.hu  @Date 2022-10-06
  **/
@@ -12,6 +18,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class ChartBar {
     public String[] datetime;
+    // epoch millis, null when only datetime is set
+    public long[] time;
     public double[] open;
     public double[] high;
     public double[] low;
@@ -27,6 +35,62 @@ public class ChartBar {
         this.volume = new long[size];
     }
 
+    // A chart bar with the time column instead of the datetime strings,
+    // which are formatted from time only when asked for.
+    public static ChartBar withTime(int size) {
+        ChartBar chartBar = new ChartBar();
+        chartBar.time = new long[size];
+        chartBar.open = new double[size];
+        chartBar.high = new double[size];
+        chartBar.low = new double[size];
+        chartBar.close = new double[size];
+        chartBar.volume = new long[size];
+        return chartBar;
+    }
+
+    // Number of bars.
+    public int size() {
+        return close.length;
+    }
+
+    // The datetime string of bar i, formatted from time if there are no strings.
+    public String datetime(int i) {
+        return datetime != null ? datetime[i] : Timestamps.format(time[i]);
+    }
+
+    // The epoch millis of bar i, parsed from datetime if there is no time column.
+    public long time(int i) {
+        return time != null ? time[i] : Timestamps.parse(datetime[i]);
+    }
+
+    // The time column, parsed from datetime and kept the first time.
+    public long[] times() {
+        if (time == null) {
+            long[] parsed = new long[size()];
+            for (int i = 0; i < parsed.length; i++) {
+                parsed[i] = Timestamps.parse(datetime[i]);
+            }
+            time = parsed;
+        }
+        return time;
+    }
+
+    // A new chart bar with copies of the bars [offset, offset + length).
+    public ChartBar copy(int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size() - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + size());
+        }
+        ChartBar copy = new ChartBar();
+        copy.datetime = datetime == null ? null : Arrays.copyOfRange(datetime, offset, offset + length);
+        copy.time = time == null ? null : Arrays.copyOfRange(time, offset, offset + length);
+        copy.open = Arrays.copyOfRange(open, offset, offset + length);
+        copy.high = Arrays.copyOfRange(high, offset, offset + length);
+        copy.low = Arrays.copyOfRange(low, offset, offset + length);
+        copy.close = Arrays.copyOfRange(close, offset, offset + length);
+        copy.volume = Arrays.copyOfRange(volume, offset, offset + length);
+        return copy;
+    }
+
     //
     public String title() {
         return "datetime,open,high,low,close,volume";
@@ -34,15 +98,15 @@ public class ChartBar {
     
     public String row(int i) {
         return String.format("%s,%.3f,%.3f,%.3f,%.3f,%d",
-                datetime[i], open[i], high[i], low[i], close[i], volume[i]);
+                datetime(i), open[i], high[i], low[i], close[i], volume[i]);
     }
 
     // date,ohlcv
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < this.getDatetime().length; i++) {
-            sb.append(this.getDatetime()[i]).append(",")
+        for (int i = 0; i < this.size(); i++) {
+            sb.append(this.datetime(i)).append(",")
                     .append(this.getOpen()[i]).append(",")
                     .append(this.getHigh()[i]).append(",")
                     .append(this.getLow()[i]).append(",")
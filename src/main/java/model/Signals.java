@@ -0,0 +1,219 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * 信号 - Action[] 的紧凑表示，两个位图：买入位和卖出位，都不置位时是 HOLD
+ * <p>
+ * Bar i is bit i % 64 of word i / 64. The bits after length are always 0 and
+ * no bar has both bits, so the combinators of the strategies are word wise
+ * AND / AND NOT over 64 bars at a time:
+ * <ul>
+ * <li>{@link #all}: BUY where all are BUY, SELL where all are SELL, as AllStrategy.</li>
+ * <li>{@link #separate}: BUY where buy is BUY and sell is HOLD, SELL the other
+ * way around, as SeparateStrategy.</li>
+ * </ul>
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class Signals {
+    private final int length;
+    private final long[] buy;
+    private final long[] sell;
+
+    // length bars of HOLD
+    public Signals(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length: " + length);
+        }
+        this.length = length;
+        this.buy = new long[words(length)];
+        this.sell = new long[words(length)];
+    }
+
+    private static int words(int length) {
+        return (length + 63) >>> 6;
+    }
+
+    // Signals of the actions, null is HOLD.
+    public static Signals of(Action[] actions) {
+        Signals signals = new Signals(actions.length);
+        for (int w = 0; w < signals.buy.length; w++) {
+            long buy = 0, sell = 0;
+            int from = w << 6;
+            int to = Math.min(actions.length, from + 64);
+            for (int i = from; i < to; i++) {
+                Action action = actions[i];
+                if (action == Action.BUY) {
+                    buy |= 1L << i;
+                } else if (action == Action.SELL) {
+                    sell |= 1L << i;
+                }
+            }
+            signals.buy[w] = buy;
+            signals.sell[w] = sell;
+        }
+        return signals;
+    }
+
+    // Signals of Action.value()s, 1 BUY, -1 SELL, 0 HOLD.
+    public static Signals of(byte[] values) {
+        Signals signals = new Signals(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == 1) {
+                signals.buy[i >>> 6] |= 1L << i;
+            } else if (values[i] == -1) {
+                signals.sell[i >>> 6] |= 1L << i;
+            } else if (values[i] != 0) {
+                throw new IllegalArgumentException("value: " + values[i] + " at index " + i);
+            }
+        }
+        return signals;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public Action get(int i) {
+        checkIndex(i);
+        long bit = 1L << i;
+        if ((buy[i >>> 6] & bit) != 0) {
+            return Action.BUY;
+        }
+        return (sell[i >>> 6] & bit) != 0 ? Action.SELL : Action.HOLD;
+    }
+
+    public void set(int i, Action action) {
+        checkIndex(i);
+        long bit = 1L << i;
+        buy[i >>> 6] &= ~bit;
+        sell[i >>> 6] &= ~bit;
+        if (action == Action.BUY) {
+            buy[i >>> 6] |= bit;
+        } else if (action == Action.SELL) {
+            sell[i >>> 6] |= bit;
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("index: " + i + ", length: " + length);
+        }
+    }
+
+    public Action[] toActions() {
+        Action[] actions = new Action[length];
+        for (int w = 0; w < buy.length; w++) {
+            long b = buy[w], s = sell[w];
+            int from = w << 6;
+            int to = Math.min(length, from + 64);
+            for (int i = from; i < to; i++) {
+                actions[i] = (b & 1) != 0 ? Action.BUY : (s & 1) != 0 ? Action.SELL : Action.HOLD;
+                b >>>= 1;
+                s >>>= 1;
+            }
+        }
+        return actions;
+    }
+
+    // Action.value() of each bar.
+    public byte[] toValues() {
+        byte[] values = new byte[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (byte) ((buy[i >>> 6] >>> i & 1) - (sell[i >>> 6] >>> i & 1));
+        }
+        return values;
+    }
+
+    // The BUY bits, 64 bars a word. Shared, not a copy.
+    public long[] buyMask() {
+        return buy;
+    }
+
+    // The SELL bits, 64 bars a word. Shared, not a copy.
+    public long[] sellMask() {
+        return sell;
+    }
+
+    public boolean isAllHold() {
+        long any = 0;
+        for (int w = 0; w < buy.length; w++) {
+            any |= buy[w] | sell[w];
+        }
+        return any == 0;
+    }
+
+    public int countBuy() {
+        return count(buy);
+    }
+
+    public int countSell() {
+        return count(sell);
+    }
+
+    private static int count(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // BUY where all are BUY, SELL where all are SELL, HOLD otherwise.
+    public static Signals all(Signals... all) {
+        Signals result = new Signals(all[0].length);
+        System.arraycopy(all[0].buy, 0, result.buy, 0, result.buy.length);
+        System.arraycopy(all[0].sell, 0, result.sell, 0, result.sell.length);
+        for (int k = 1; k < all.length; k++) {
+            result.checkLength(all[k]);
+            for (int w = 0; w < result.buy.length; w++) {
+                result.buy[w] &= all[k].buy[w];
+                result.sell[w] &= all[k].sell[w];
+            }
+        }
+        return result;
+    }
+
+    // BUY where buy is BUY and sell is HOLD, SELL where sell is SELL and buy
+    // is HOLD, HOLD otherwise.
+    public static Signals separate(Signals buy, Signals sell) {
+        buy.checkLength(sell);
+        Signals result = new Signals(buy.length);
+        for (int w = 0; w < result.buy.length; w++) {
+            long buyHold = ~(buy.buy[w] | buy.sell[w]);
+            long sellHold = ~(sell.buy[w] | sell.sell[w]);
+            result.buy[w] = buy.buy[w] & sellHold;
+            result.sell[w] = sell.sell[w] & buyHold;
+        }
+        return result;
+    }
+
+    private void checkLength(Signals other) {
+        if (other.length != length) {
+            throw new RuntimeException("not all same size");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Signals)) {
+            return false;
+        }
+        Signals other = (Signals) o;
+        return length == other.length && Arrays.equals(buy, other.buy) && Arrays.equals(sell, other.sell);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * length + Arrays.hashCode(buy)) + Arrays.hashCode(sell);
+    }
+
+    @Override
+    public String toString() {
+        return "Signals(length=" + length + ", buy=" + countBuy() + ", sell=" + countSell() + ")";
+    }
+}
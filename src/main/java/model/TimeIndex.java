@@ -0,0 +1,72 @@
+package model;
+
+/**
+ * 时间索引 - 按时间二分查找K线的下标
+ * <p>
+ * The bars must be in time order, equal times are allowed. The returned
+ * offset and length go straight into the buffer overloads of the indicators
+ * (see Helper.checkRange), the window is neither scanned nor copied:
+ * <pre>
+ * TimeIndex index = new TimeIndex(chartBar);
+ * int[] range = index.range("2022-01-01", "2023-01-01");
+ * TrendIndicators.Ema(12, chartBar.close, range[0], range[1] - range[0], ema, 0);
+ * </pre>
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class TimeIndex {
+    private final long[] time;
+
+    // Indexes the time column of the chart bar, parsing datetime if there is none.
+    public TimeIndex(ChartBar chartBar) {
+        this(chartBar.times());
+    }
+
+    public TimeIndex(long[] time) {
+        for (int i = 1; i < time.length; i++) {
+            if (time[i] < time[i - 1]) {
+                throw new IllegalArgumentException("time is not in order at index " + i);
+            }
+        }
+        this.time = time;
+    }
+
+    public int size() {
+        return time.length;
+    }
+
+    // Index of the first bar at time, -1 if there is none.
+    public int indexOf(long time) {
+        int i = lowerBound(time);
+        return i < this.time.length && this.time[i] == time ? i : -1;
+    }
+
+    public int indexOf(String datetime) {
+        return indexOf(Timestamps.parse(datetime));
+    }
+
+    // Index of the first bar at or after time, size() if there is none.
+    public int lowerBound(long time) {
+        int low = 0;
+        int high = this.time.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.time[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // {from index, to index} of the bars in [from, to), to index exclusive.
+    public int[] range(long from, long to) {
+        int start = lowerBound(from);
+        return new int[]{start, Math.max(start, lowerBound(to))};
+    }
+
+    public int[] range(String from, String to) {
+        return range(Timestamps.parse(from), Timestamps.parse(to));
+    }
+}
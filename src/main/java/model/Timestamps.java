@@ -0,0 +1,129 @@
+package model;
+
+/**
+ * 时间戳 - ChartBar 的日期字符串与 epoch 毫秒 (UTC) 互转
+ * <p>
+ * Accepts yyyy-MM-dd, optionally followed by ' ' or 'T' and HH:mm, HH:mm:ss
+ * or HH:mm:ss.SSS, fields out of range (month 13, Feb 30, hour 24 ...) are
+ * rejected. Formats back to yyyy-MM-dd when the time is midnight,
+ * otherwise to yyyy-MM-dd HH:mm:ss, with .SSS only when there are millis.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class Timestamps {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private Timestamps() {
+    }
+
+    // Epoch millis of the datetime string.
+    public static long parse(CharSequence datetime) {
+        int length = datetime.length();
+        if (length < 10 || datetime.charAt(4) != '-' || datetime.charAt(7) != '-') {
+            throw new IllegalArgumentException("datetime: " + datetime);
+        }
+        int year = digits(datetime, 0, 4);
+        int month = field(datetime, 5, 1, 12);
+        int day = field(datetime, 8, 1, daysInMonth(year, month));
+        long millis = days(year, month, day) * MILLIS_PER_DAY;
+        if (length == 10) {
+            return millis;
+        }
+        char separator = datetime.charAt(10);
+        if ((separator != ' ' && separator != 'T') || length < 16 || datetime.charAt(13) != ':') {
+            throw new IllegalArgumentException("datetime: " + datetime);
+        }
+        millis += field(datetime, 11, 0, 23) * 3_600_000L + field(datetime, 14, 0, 59) * 60_000L;
+        if (length == 16) {
+            return millis;
+        }
+        if (length < 19 || datetime.charAt(16) != ':') {
+            throw new IllegalArgumentException("datetime: " + datetime);
+        }
+        millis += field(datetime, 17, 0, 59) * 1000L;
+        if (length == 19) {
+            return millis;
+        }
+        if (length != 23 || datetime.charAt(19) != '.') {
+            throw new IllegalArgumentException("datetime: " + datetime);
+        }
+        return millis + digits(datetime, 20, 3);
+    }
+
+    // The two digits at from, in [min, max].
+    private static int field(CharSequence s, int from, int min, int max) {
+        int value = digits(s, from, 2);
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("datetime: " + s);
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int digits(CharSequence s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("datetime: " + s);
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    // Days since 1970-01-01 of the proleptic Gregorian date.
+    public static long days(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    // The datetime string of epoch millis.
+    public static String format(long millis) {
+        long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+        long time = millis - days * MILLIS_PER_DAY;
+
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+
+        StringBuilder sb = new StringBuilder(23);
+        pad(sb, year, 4).append('-');
+        pad(sb, month, 2).append('-');
+        pad(sb, day, 2);
+        if (time != 0) {
+            sb.append(' ');
+            pad(sb, time / 3_600_000L, 2).append(':');
+            pad(sb, time / 60_000L % 60, 2).append(':');
+            pad(sb, time / 1000 % 60, 2);
+            if (time % 1000 != 0) {
+                pad(sb.append('.'), time % 1000, 3);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static StringBuilder pad(StringBuilder sb, long value, int width) {
+        String s = Long.toString(value);
+        for (int i = s.length(); i < width; i++) {
+            sb.append('0');
+        }
+        return sb.append(s);
+    }
+}
@@ -0,0 +1,221 @@
+package pipeline;
+
+import java.util.Arrays;
+
+/**
+ * 流水线表达式 - 一列K线，或者一个运算作用在别的表达式上
+ * <p>
+ * Immutable, built from the columns of the chart bar:
+ * <pre>
+ * Expr close = Expr.CLOSE;
+ * Expr macd = close.ema(12).subtract(close.ema(26));
+ * Expr signal = macd.ema(9);
+ * </pre>
+ * Two expressions are equal when they have the same op, params and inputs,
+ * {@link Plan} computes each one only once however many times it appears.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class Expr {
+    public static final Expr OPEN = column("open");
+    public static final Expr HIGH = column("high");
+    public static final Expr LOW = column("low");
+    public static final Expr CLOSE = column("close");
+    public static final Expr VOLUME = column("volume");
+
+    // null for a column
+    private final Op op;
+    private final String column;
+    private final double[] params;
+    private final Expr[] inputs;
+    private final int hash;
+
+    private Expr(Op op, String column, double[] params, Expr[] inputs) {
+        this.op = op;
+        this.column = column;
+        this.params = params;
+        this.inputs = inputs;
+        int h = op == null ? column.hashCode() : op.hashCode();
+        h = h * 31 + Arrays.hashCode(params);
+        this.hash = h * 31 + Arrays.hashCode(inputs);
+    }
+
+    // The column of the chart bar: open, high, low, close or volume.
+    public static Expr column(String name) {
+        switch (name) {
+            case "open":
+            case "high":
+            case "low":
+            case "close":
+            case "volume":
+                return new Expr(null, name, new double[0], new Expr[0]);
+            default:
+                throw new IllegalArgumentException("unknown column: " + name);
+        }
+    }
+
+    // The op over the inputs.
+    public static Expr of(Op op, double[] params, Expr... inputs) {
+        if (inputs.length != op.arity()) {
+            throw new IllegalArgumentException(op.function() + " takes " + op.arity() + " inputs: " + inputs.length);
+        }
+        if (params.length != op.params()) {
+            throw new IllegalArgumentException(op.function() + " takes " + op.params() + " params: " + params.length);
+        }
+        for (Expr input : inputs) {
+            if (input == null) {
+                throw new IllegalArgumentException(op.function() + " input is null");
+            }
+        }
+        return new Expr(op, null, params.clone(), inputs.clone());
+    }
+
+    private Expr apply(Op op, double param) {
+        return of(op, new double[]{param}, this);
+    }
+
+    private Expr apply(Op op, Expr other) {
+        return of(op, new double[0], this, other);
+    }
+
+    public Expr ema(int period) {
+        return apply(Op.EMA, period);
+    }
+
+    public Expr sma(int period) {
+        return apply(Op.SMA, period);
+    }
+
+    public Expr sum(int period) {
+        return apply(Op.SUM, period);
+    }
+
+    public Expr rma(int period) {
+        return apply(Op.RMA, period);
+    }
+
+    public Expr max(int period) {
+        return apply(Op.MAX, period);
+    }
+
+    public Expr min(int period) {
+        return apply(Op.MIN, period);
+    }
+
+    public Expr std(int period) {
+        return apply(Op.STD, period);
+    }
+
+    public Expr add(Expr other) {
+        return apply(Op.ADD, other);
+    }
+
+    public Expr subtract(Expr other) {
+        return apply(Op.SUBTRACT, other);
+    }
+
+    public Expr multiply(Expr other) {
+        return apply(Op.MULTIPLY, other);
+    }
+
+    public Expr divide(Expr other) {
+        return apply(Op.DIVIDE, other);
+    }
+
+    public Expr addBy(double addition) {
+        return apply(Op.ADD_BY, addition);
+    }
+
+    public Expr multiplyBy(double multiplier) {
+        return apply(Op.MULTIPLY_BY, multiplier);
+    }
+
+    public Expr diff(int before) {
+        return apply(Op.DIFF, before);
+    }
+
+    public Expr percentDiff(int before) {
+        return apply(Op.PERCENT_DIFF, before);
+    }
+
+    public Expr shiftRight(int period) {
+        return apply(Op.SHIFT_RIGHT, period);
+    }
+
+    public Expr abs() {
+        return of(Op.ABS, new double[0], this);
+    }
+
+    public Expr sqrt() {
+        return of(Op.SQRT, new double[0], this);
+    }
+
+    // 1 above other, -1 below, 0 otherwise, see Plan.strategy.
+    public Expr compare(Expr other) {
+        return apply(Op.COMPARE, other);
+    }
+
+    // null for a column.
+    public Op getOp() {
+        return op;
+    }
+
+    // null unless a column.
+    public String getColumn() {
+        return column;
+    }
+
+    public double[] getParams() {
+        return params.clone();
+    }
+
+    public Expr[] getInputs() {
+        return inputs.clone();
+    }
+
+    double[] params() {
+        return params;
+    }
+
+    Expr[] inputs() {
+        return inputs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Expr)) {
+            return false;
+        }
+        Expr other = (Expr) o;
+        return hash == other.hash && op == other.op
+                && (op != null || column.equals(other.column))
+                && Arrays.equals(params, other.params) && Arrays.equals(inputs, other.inputs);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    // Ema(12, close)
+    @Override
+    public String toString() {
+        if (op == null) {
+            return column;
+        }
+        StringBuilder sb = new StringBuilder(op.function()).append('(');
+        String separator = "";
+        for (double param : params) {
+            sb.append(separator).append(param == (long) param ? String.valueOf((long) param) : String.valueOf(param));
+            separator = ", ";
+        }
+        for (Expr input : inputs) {
+            sb.append(separator).append(input);
+            separator = ", ";
+        }
+        return sb.append(')').toString();
+    }
+}
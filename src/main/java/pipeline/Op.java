@@ -0,0 +1,220 @@
+package pipeline;
+
+import indicator.Helper;
+import indicator.TrendIndicators;
+import indicator.VolatilityIndicators;
+
+/**
+ * 流水线的基本运算 - 每个运算是一个写入调用方数组的指标重载，组合指标由它们拼出来
+ * <p>
+ * Each op reads its inputs over [0, length) and writes out[0, length), with
+ * the same bits as the indicator function of the same name.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public enum Op {
+    EMA("Ema", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            TrendIndicators.Ema(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    SMA("sma", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            TrendIndicators.sma(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    SUM("Sum", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            TrendIndicators.Sum(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    RMA("Rma", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            TrendIndicators.Rma(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    MAX("Max", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            TrendIndicators.Max(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    MIN("Min", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            TrendIndicators.Min(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    STD("Std", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            VolatilityIndicators.Std(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    ADD("add", 2, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.add(inputs[0], inputs[1], 0, length, out, 0);
+        }
+    },
+    SUBTRACT("subtract", 2, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.subtract(inputs[0], inputs[1], 0, length, out, 0);
+        }
+    },
+    MULTIPLY("multiply", 2, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.multiply(inputs[0], inputs[1], 0, length, out, 0);
+        }
+    },
+    DIVIDE("divide", 2, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.divide(inputs[0], inputs[1], 0, length, out, 0);
+        }
+    },
+    ADD_BY("addBy", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.addBy(inputs[0], params[0], 0, length, out, 0);
+        }
+    },
+    MULTIPLY_BY("multiplyBy", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.multiplyBy(inputs[0], params[0], 0, length, out, 0);
+        }
+    },
+    DIFF("diff", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.diff(inputs[0], period(params), 0, length, out, 0);
+        }
+    },
+    PERCENT_DIFF("percentDiff", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.percentDiff(inputs[0], period(params), 0, length, out, 0);
+        }
+    },
+    SHIFT_RIGHT("shiftRight", 1, 1) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.shiftRight(period(params), inputs[0], 0, length, out, 0);
+        }
+    },
+    ABS("abs", 1, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.abs(inputs[0], 0, length, out, 0);
+        }
+    },
+    SQRT("sqrt", 1, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            Helper.sqrt(inputs[0], 0, length, out, 0);
+        }
+    },
+    // (a + b) / 2, the lines of the Ichimoku Cloud
+    MIDPOINT("midpoint", 2, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            double[] a = inputs[0], b = inputs[1];
+            double half = 1 / 2.0;
+            for (int i = 0; i < length; i++) {
+                out[i] = (a[i] + b[i]) * half;
+            }
+        }
+    },
+    // (a - b) / b * 100, the PPO of the fast and the slow Ema
+    PERCENT("percent", 2, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            double[] a = inputs[0], b = inputs[1];
+            for (int i = 0; i < length; i++) {
+                out[i] = ((a[i] - b[i]) / b[i]) * 100;
+            }
+        }
+    },
+    // (closing - lowest) / (highest - lowest) * 100 of closing, highest, lowest
+    STOCHASTIC("stochastic", 3, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            double[] closing = inputs[0], highest = inputs[1], lowest = inputs[2];
+            for (int i = 0; i < length; i++) {
+                out[i] = ((closing[i] - lowest[i]) / (highest[i] - lowest[i])) * 100;
+            }
+        }
+    },
+    // (highest - closing) / (highest - lowest) * -100 of closing, highest, lowest
+    WILLIAMS_R("williamsR", 3, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            double[] closing = inputs[0], highest = inputs[1], lowest = inputs[2];
+            for (int i = 0; i < length; i++) {
+                out[i] = (highest[i] - closing[i]) / (highest[i] - lowest[i]) * (-100);
+            }
+        }
+    },
+    // 1 when a is above b, -1 when below, 0 otherwise, the actions of a strategy
+    COMPARE("compare", 2, 0) {
+        @Override
+        void compute(double[] params, double[][] inputs, int length, double[] out) {
+            double[] a = inputs[0], b = inputs[1];
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] > b[i] ? 1 : a[i] < b[i] ? -1 : 0;
+            }
+        }
+    };
+
+    private final String function;
+    private final int arity;
+    private final int params;
+
+    Op(String function, int arity, int params) {
+        this.function = function;
+        this.arity = arity;
+        this.params = params;
+    }
+
+    // Computes the op over [0, length).
+    abstract void compute(double[] params, double[][] inputs, int length, double[] out);
+
+    // The name in the JSON spec, the indicator function or Helper method of the op.
+    public String function() {
+        return function;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    public int params() {
+        return params;
+    }
+
+    // Whether the inputs can be swapped, a + b has the same bits as b + a.
+    boolean isCommutative() {
+        return this == ADD || this == MULTIPLY || this == MIDPOINT;
+    }
+
+    // The op named function, null if none.
+    public static Op of(String function) {
+        for (Op op : values()) {
+            if (op.function.equals(function)) {
+                return op;
+            }
+        }
+        return null;
+    }
+
+    private static int period(double[] params) {
+        return (int) params[0];
+    }
+}
@@ -0,0 +1,287 @@
+package pipeline;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * 批量指标流水线 - 声明要算的指标，编译成去掉重复子表达式的运算图再执行
+ * <p>
+ * The composed indicators are spelled out in {@link Expr}, so the ones that
+ * share a part compute it once: Macd, AbsolutePriceOscillator,
+ * PercentagePriceOscillator, Dema, Tema and Trix of the same closing share
+ * their Ema, StochasticOscillator, WilliamsR, Kdj and IchimokuCloud share
+ * their Max and Min windows. The outputs have the same bits as the indicator
+ * functions.
+ * <pre>
+ * Pipeline pipeline = new Pipeline();
+ * Expr[] macd = Pipeline.Macd(Expr.CLOSE);
+ * pipeline.output("macd", macd[0]).output("signal", macd[1])
+ *         .output("apo", Pipeline.AbsolutePriceOscillator(12, 26, Expr.CLOSE))
+ *         .output("dema", Pipeline.Dema(12, Expr.CLOSE));
+ * Map&lt;String, double[]&gt; results = pipeline.compile().run(chartBar, ForkJoinPool.commonPool());
+ * </pre>
+ * Or from a JSON spec, where an input is a column, the name of another
+ * output, or an op of its own, "output" picks one of several outputs and the
+ * inputs left out are the columns the indicator function takes:
+ * <pre>
+ * {"outputs": {
+ *     "signal": {"op": "Macd", "output": 1},
+ *     "k":      {"op": "Kdj", "params": [9, 3, 3]},
+ *     "ema12":  {"op": "Ema", "params": [12], "inputs": ["close"]},
+ *     "spread": {"op": "subtract", "inputs": ["ema12", {"op": "Ema", "params": [26]}]}
+ * }}
+ * </pre>
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class Pipeline {
+    private static final Map<String, Definition> DEFINITIONS = new HashMap<>();
+
+    static {
+        for (Op op : Op.values()) {
+            define(op.function(), op.params(), op.arity() == 1 ? new String[]{"close"} : null, 1,
+                    (p, in) -> new Expr[]{Expr.of(op, p, in)});
+        }
+        define("Macd", 0, new String[]{"close"}, 2, (p, in) -> Macd(in[0]));
+        define("AbsolutePriceOscillator", 2, new String[]{"close"}, 1,
+                (p, in) -> new Expr[]{AbsolutePriceOscillator(period(p[0]), period(p[1]), in[0])});
+        define("PercentagePriceOscillator", 3, new String[]{"close"}, 3,
+                (p, in) -> PercentagePriceOscillator(period(p[0]), period(p[1]), period(p[2]), in[0]));
+        define("Dema", 1, new String[]{"close"}, 1, (p, in) -> new Expr[]{Dema(period(p[0]), in[0])});
+        define("Tema", 1, new String[]{"close"}, 1, (p, in) -> new Expr[]{Tema(period(p[0]), in[0])});
+        define("Trix", 1, new String[]{"close"}, 1, (p, in) -> new Expr[]{Trix(period(p[0]), in[0])});
+        define("StochasticOscillator", 0, new String[]{"high", "low", "close"}, 2,
+                (p, in) -> StochasticOscillator(in[0], in[1], in[2]));
+        define("WilliamsR", 0, new String[]{"low", "high", "close"}, 1,
+                (p, in) -> new Expr[]{WilliamsR(in[0], in[1], in[2])});
+        define("Kdj", 3, new String[]{"high", "low", "close"}, 3,
+                (p, in) -> Kdj(period(p[0]), period(p[1]), period(p[2]), in[0], in[1], in[2]));
+        define("IchimokuCloud", 0, new String[]{"high", "low", "close"}, 5,
+                (p, in) -> IchimokuCloud(in[0], in[1], in[2]));
+    }
+
+    private final Map<String, Expr> outputs = new LinkedHashMap<>();
+
+    // Adds an output, the name must be new.
+    public Pipeline output(String name, Expr expr) {
+        if (expr == null) {
+            throw new IllegalArgumentException("output " + name + " is null");
+        }
+        if (outputs.putIfAbsent(name, expr) != null) {
+            throw new IllegalArgumentException("duplicate output: " + name);
+        }
+        return this;
+    }
+
+    public Map<String, Expr> getOutputs() {
+        return Collections.unmodifiableMap(outputs);
+    }
+
+    // Compiles the outputs into a plan, see Plan.
+    public Plan compile() {
+        return Plan.compile(outputs);
+    }
+
+    // ---- JSON
+
+    // The pipeline of the JSON spec.
+    @SuppressWarnings("unchecked")
+    public static Pipeline fromJson(String json) {
+        Object root = Json.parse(json);
+        if (!(root instanceof Map) || !(((Map<String, Object>) root).get("outputs") instanceof Map)) {
+            throw new IllegalArgumentException("expected {\"outputs\": {...}}");
+        }
+        Map<String, Object> specs = (Map<String, Object>) ((Map<String, Object>) root).get("outputs");
+        Map<String, Expr> resolved = new HashMap<>();
+        Set<String> resolving = new HashSet<>();
+        Pipeline pipeline = new Pipeline();
+        for (String name : specs.keySet()) {
+            pipeline.output(name, resolve(name, specs, resolved, resolving));
+        }
+        return pipeline;
+    }
+
+    // The output name, resolving the outputs it uses first.
+    private static Expr resolve(String name, Map<String, Object> specs, Map<String, Expr> resolved, Set<String> resolving) {
+        Expr expr = resolved.get(name);
+        if (expr != null) {
+            return expr;
+        }
+        if (!resolving.add(name)) {
+            throw new IllegalArgumentException("output " + name + " uses itself");
+        }
+        expr = parse(specs.get(name), specs, resolved, resolving);
+        resolving.remove(name);
+        resolved.put(name, expr);
+        return expr;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expr parse(Object spec, Map<String, Object> specs, Map<String, Expr> resolved, Set<String> resolving) {
+        if (spec instanceof String) {
+            String name = (String) spec;
+            if (isColumn(name)) {
+                return Expr.column(name);
+            }
+            if (!specs.containsKey(name)) {
+                throw new IllegalArgumentException("unknown input: " + name);
+            }
+            return resolve(name, specs, resolved, resolving);
+        }
+        if (!(spec instanceof Map)) {
+            throw new IllegalArgumentException("expected a name or an op: " + spec);
+        }
+        Map<String, Object> map = (Map<String, Object>) spec;
+        Object op = map.get("op");
+        Definition definition = op instanceof String ? DEFINITIONS.get(op) : null;
+        if (definition == null) {
+            throw new IllegalArgumentException("unknown op: " + op);
+        }
+
+        double[] params = new double[0];
+        if (map.get("params") instanceof List) {
+            List<Object> list = (List<Object>) map.get("params");
+            params = new double[list.size()];
+            for (int i = 0; i < params.length; i++) {
+                if (!(list.get(i) instanceof Double)) {
+                    throw new IllegalArgumentException(op + " params must be numbers: " + list);
+                }
+                params[i] = (Double) list.get(i);
+            }
+        }
+        if (params.length != definition.params) {
+            throw new IllegalArgumentException(op + " takes " + definition.params + " params: " + params.length);
+        }
+
+        Expr[] inputs;
+        if (map.get("inputs") instanceof List) {
+            List<Object> list = (List<Object>) map.get("inputs");
+            inputs = new Expr[list.size()];
+            for (int i = 0; i < inputs.length; i++) {
+                inputs[i] = parse(list.get(i), specs, resolved, resolving);
+            }
+        } else if (definition.columns != null) {
+            inputs = new Expr[definition.columns.length];
+            for (int i = 0; i < inputs.length; i++) {
+                inputs[i] = Expr.column(definition.columns[i]);
+            }
+        } else {
+            throw new IllegalArgumentException(op + " needs inputs");
+        }
+        if (definition.columns != null && inputs.length != definition.columns.length) {
+            throw new IllegalArgumentException(op + " takes " + definition.columns.length + " inputs: " + inputs.length);
+        }
+
+        int output = 0;
+        if (map.get("output") instanceof Double) {
+            output = (int) (double) (Double) map.get("output");
+        }
+        if (output < 0 || output >= definition.outputs) {
+            throw new IllegalArgumentException(op + " has " + definition.outputs + " outputs: " + output);
+        }
+        return definition.build.apply(params, inputs)[output];
+    }
+
+    private static boolean isColumn(String name) {
+        return name.equals("open") || name.equals("high") || name.equals("low")
+                || name.equals("close") || name.equals("volume");
+    }
+
+    private static int period(double param) {
+        if (param != (int) param || param < 1) {
+            throw new IllegalArgumentException("period must be a positive integer: " + param);
+        }
+        return (int) param;
+    }
+
+    private static void define(String name, int params, String[] columns, int outputs,
+                               BiFunction<double[], Expr[], Expr[]> build) {
+        DEFINITIONS.put(name, new Definition(params, columns, outputs, build));
+    }
+
+    // An op or a composed indicator of the JSON spec.
+    private static final class Definition {
+        final int params;
+        // the default inputs, null when they must be given
+        final String[] columns;
+        final int outputs;
+        final BiFunction<double[], Expr[], Expr[]> build;
+
+        Definition(int params, String[] columns, int outputs, BiFunction<double[], Expr[], Expr[]> build) {
+            this.params = params;
+            this.columns = columns;
+            this.outputs = outputs;
+            this.build = build;
+        }
+    }
+
+    // ---- composed indicators, the parameters of the indicator functions
+
+    // Returns macd, signal.
+    public static Expr[] Macd(Expr closing) {
+        Expr macd = closing.ema(12).subtract(closing.ema(26));
+        return new Expr[]{macd, macd.ema(9)};
+    }
+
+    public static Expr AbsolutePriceOscillator(int fastPeriod, int slowPeriod, Expr values) {
+        return values.ema(fastPeriod).subtract(values.ema(slowPeriod));
+    }
+
+    // Returns ppo, signal, histogram.
+    public static Expr[] PercentagePriceOscillator(int fastPeriod, int slowPeriod, int signalPeriod, Expr price) {
+        Expr ppo = Expr.of(Op.PERCENT, new double[0], price.ema(fastPeriod), price.ema(slowPeriod));
+        Expr signal = ppo.ema(signalPeriod);
+        return new Expr[]{ppo, signal, ppo.subtract(signal)};
+    }
+
+    public static Expr Dema(int period, Expr values) {
+        Expr ema1 = values.ema(period);
+        return ema1.multiplyBy(2).subtract(ema1.ema(period));
+    }
+
+    public static Expr Tema(int period, Expr values) {
+        Expr ema1 = values.ema(period);
+        Expr ema2 = ema1.ema(period);
+        return ema1.multiplyBy(3).subtract(ema2.multiplyBy(3)).add(ema2.ema(period));
+    }
+
+    public static Expr Trix(int period, Expr values) {
+        return values.ema(period).ema(period).ema(period).percentDiff(1);
+    }
+
+    // Returns k, d.
+    public static Expr[] StochasticOscillator(Expr high, Expr low, Expr closing) {
+        Expr k = Expr.of(Op.STOCHASTIC, new double[0], closing, high.max(14), low.min(14));
+        return new Expr[]{k, k.sma(3)};
+    }
+
+    public static Expr WilliamsR(Expr low, Expr high, Expr closing) {
+        return Expr.of(Op.WILLIAMS_R, new double[0], closing, high.max(14), low.min(14));
+    }
+
+    // Returns k, d, j.
+    public static Expr[] Kdj(int rPeriod, int kPeriod, int dPeriod, Expr high, Expr low, Expr closing) {
+        Expr rsv = Expr.of(Op.STOCHASTIC, new double[0], closing, high.max(rPeriod), low.min(rPeriod));
+        Expr k = rsv.sma(kPeriod);
+        Expr d = k.sma(dPeriod);
+        return new Expr[]{k, d, k.multiplyBy(3).subtract(d.multiplyBy(2))};
+    }
+
+    // Returns conversionLine, baseLine, leadingSpanA, leadingSpanB, laggingLine.
+    public static Expr[] IchimokuCloud(Expr high, Expr low, Expr closing) {
+        Expr conversion = midpoint(high.max(9), low.min(9));
+        Expr base = midpoint(high.max(26), low.min(26));
+        return new Expr[]{conversion, base, midpoint(conversion, base),
+                midpoint(high.max(52), low.min(52)), closing.shiftRight(26)};
+    }
+
+    private static Expr midpoint(Expr a, Expr b) {
+        return Expr.of(Op.MIDPOINT, new double[0], a, b);
+    }
+}
@@ -0,0 +1,336 @@
+package pipeline;
+
+import indicator.Helper;
+import model.Action;
+import model.ChartBar;
+import strategy.Strategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 编译后的流水线 - 去重后的运算按层排好，按存活区间复用缓冲区，同一层的运算互不依赖可以并行
+ * <p>
+ * Compiling interns the expressions, equal ones (with the inputs of a + b
+ * in either order) become one node. A node is on the level after the
+ * deepest of its inputs, the levels run in order and the nodes of a level
+ * on the executor if there is one. The buffer of a node is given back after
+ * the level of its last reader, a later level writes another node to it, so
+ * a plan of hundreds of nodes needs a few dozen buffers. The outputs have
+ * buffers of their own, each run returns new arrays, outputs of equal
+ * expressions are the same array.
+ * <p>
+ * A plan is immutable and can run on several threads at once.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class Plan {
+    // 按层排好的节点，列的 op 是 null
+    private final Op[] ops;
+    private final String[] columns;
+    private final double[][] params;
+    private final int[][] inputs;
+    // 每个节点的缓冲区，-1 是直接读 ChartBar 的列
+    private final int[] slots;
+    // 第 l 层是 [levels[l], levels[l + 1])
+    private final int[] levels;
+    private final int bufferCount;
+    private final String[] outputNames;
+    private final int[] outputNodes;
+
+    private Plan(Op[] ops, String[] columns, double[][] params, int[][] inputs, int[] slots, int[] levels,
+                 int bufferCount, String[] outputNames, int[] outputNodes) {
+        this.ops = ops;
+        this.columns = columns;
+        this.params = params;
+        this.inputs = inputs;
+        this.slots = slots;
+        this.levels = levels;
+        this.bufferCount = bufferCount;
+        this.outputNames = outputNames;
+        this.outputNodes = outputNodes;
+    }
+
+    static Plan compile(Map<String, Expr> outputs) {
+        Interner interner = new Interner();
+        int[] roots = new int[outputs.size()];
+        String[] names = outputs.keySet().toArray(new String[0]);
+        for (int i = 0; i < names.length; i++) {
+            roots[i] = interner.intern(outputs.get(names[i]));
+        }
+        int size = interner.ops.size();
+
+        // 按层排序，同层保持后序，输入总在前面
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> interner.depths.get(a) != (int) interner.depths.get(b)
+                ? Integer.compare(interner.depths.get(a), interner.depths.get(b)) : Integer.compare(a, b));
+        int[] position = new int[size];
+        for (int i = 0; i < size; i++) {
+            position[order[i]] = i;
+        }
+
+        Op[] ops = new Op[size];
+        String[] columns = new String[size];
+        double[][] params = new double[size][];
+        int[][] inputs = new int[size][];
+        int[] depths = new int[size];
+        for (int i = 0; i < size; i++) {
+            int node = order[i];
+            ops[i] = interner.ops.get(node);
+            columns[i] = interner.columns.get(node);
+            params[i] = interner.params.get(node);
+            int[] in = interner.inputs.get(node);
+            inputs[i] = new int[in.length];
+            for (int k = 0; k < in.length; k++) {
+                inputs[i][k] = position[in[k]];
+            }
+            depths[i] = interner.depths.get(node);
+        }
+        int levelCount = size == 0 ? 0 : depths[size - 1] + 1;
+        int[] levels = new int[levelCount + 1];
+        for (int i = 0, l = 0; l <= levelCount; l++) {
+            while (i < size && depths[i] < l) {
+                i++;
+            }
+            levels[l] = i;
+        }
+
+        boolean[] isOutput = new boolean[size];
+        int[] outputNodes = new int[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            outputNodes[i] = position[roots[i]];
+            isOutput[outputNodes[i]] = true;
+        }
+        // 最后一次被读的层
+        int[] lastUse = new int[size];
+        for (int i = 0; i < size; i++) {
+            for (int input : inputs[i]) {
+                lastUse[input] = Math.max(lastUse[input], depths[i]);
+            }
+        }
+
+        int[] slots = new int[size];
+        int bufferCount = 0;
+        Deque<Integer> free = new ArrayDeque<>();
+        for (int l = 0; l < levelCount; l++) {
+            for (int i = levels[l]; i < levels[l + 1]; i++) {
+                if (ops[i] == null && !columns[i].equals("volume")) {
+                    slots[i] = -1;
+                } else if (isOutput[i] || free.isEmpty()) {
+                    slots[i] = bufferCount++;
+                } else {
+                    slots[i] = free.pop();
+                }
+            }
+            // 这一层之后不再读的缓冲区，下一层起可以复用
+            for (int i = 0; i < levels[l + 1]; i++) {
+                if (slots[i] >= 0 && !isOutput[i] && lastUse[i] == l) {
+                    free.push(slots[i]);
+                }
+            }
+        }
+        return new Plan(ops, columns, params, inputs, slots, levels, bufferCount, names, outputNodes);
+    }
+
+    // Runs the plan on the current thread, returns the outputs by name.
+    public Map<String, double[]> run(ChartBar chartBar) {
+        return run(chartBar, null);
+    }
+
+    // Runs the nodes of each level on the executor, sequentially without one.
+    public Map<String, double[]> run(ChartBar chartBar, Executor executor) {
+        int length = chartBar.size();
+        double[][] buffers = new double[bufferCount][];
+        for (int i = 0; i < bufferCount; i++) {
+            buffers[i] = new double[length];
+        }
+
+        for (int l = 0; l + 1 < levels.length; l++) {
+            int from = levels[l], to = levels[l + 1];
+            if (executor == null || to - from == 1) {
+                for (int i = from; i < to; i++) {
+                    compute(i, chartBar, buffers);
+                }
+                continue;
+            }
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[to - from - 1];
+            for (int i = from + 1; i < to; i++) {
+                int node = i;
+                futures[i - from - 1] = CompletableFuture.runAsync(() -> compute(node, chartBar, buffers), executor);
+            }
+            // 第一个在当前线程算
+            try {
+                compute(from, chartBar, buffers);
+            } finally {
+                join(futures);
+            }
+        }
+
+        Map<String, double[]> results = new LinkedHashMap<>();
+        for (int i = 0; i < outputNames.length; i++) {
+            int node = outputNodes[i];
+            double[] values = slots[node] >= 0 ? buffers[slots[node]] : column(chartBar, columns[node]).clone();
+            results.put(outputNames[i], values);
+        }
+        return results;
+    }
+
+    // A strategy of the output, which is compared to 0 for the actions, see Expr.compare.
+    public Strategy strategy(String output) {
+        if (!Arrays.asList(outputNames).contains(output)) {
+            throw new IllegalArgumentException("unknown output: " + output);
+        }
+        return chartBar -> toActions(run(chartBar).get(output));
+    }
+
+    // BUY above 0, SELL below 0, HOLD otherwise.
+    public static Action[] toActions(double[] values) {
+        Action[] actions = new Action[values.length];
+        for (int i = 0; i < values.length; i++) {
+            actions[i] = values[i] > 0 ? Action.BUY : values[i] < 0 ? Action.SELL : Action.HOLD;
+        }
+        return actions;
+    }
+
+    private void compute(int node, ChartBar chartBar, double[][] buffers) {
+        int length = chartBar.size();
+        if (ops[node] == null) {
+            if (slots[node] >= 0) {
+                Helper.asDouble(chartBar.volume, 0, length, buffers[slots[node]], 0);
+            }
+            return;
+        }
+        double[][] in = new double[inputs[node].length][];
+        for (int k = 0; k < in.length; k++) {
+            int input = inputs[node][k];
+            in[k] = slots[input] >= 0 ? buffers[slots[input]] : column(chartBar, columns[input]);
+        }
+        ops[node].compute(params[node], in, length, buffers[slots[node]]);
+    }
+
+    private static double[] column(ChartBar chartBar, String column) {
+        switch (column) {
+            case "open":
+                return chartBar.open;
+            case "high":
+                return chartBar.high;
+            case "low":
+                return chartBar.low;
+            default:
+                return chartBar.close;
+        }
+    }
+
+    private static void join(CompletableFuture<?>[] futures) {
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    // Number of distinct expressions, the columns included.
+    public int getNodeCount() {
+        return ops.length;
+    }
+
+    // Number of arrays a run allocates, the outputs included.
+    public int getBufferCount() {
+        return bufferCount;
+    }
+
+    // Number of levels, the ones after the columns wait for the one before.
+    public int getLevelCount() {
+        return levels.length - 1;
+    }
+
+    // One node a line: 5 Ema(12) <- 2, level 1, buffer 3
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int l = 0; l + 1 < levels.length; l++) {
+            for (int i = levels[l]; i < levels[l + 1]; i++) {
+                sb.append(i).append(' ');
+                if (ops[i] == null) {
+                    sb.append(columns[i]);
+                } else {
+                    sb.append(ops[i].function()).append(Arrays.toString(params[i]))
+                            .append(" <- ").append(Arrays.toString(inputs[i]));
+                }
+                sb.append(", level ").append(l);
+                if (slots[i] >= 0) {
+                    sb.append(", buffer ").append(slots[i]);
+                }
+                sb.append('\n');
+            }
+        }
+        for (int i = 0; i < outputNames.length; i++) {
+            sb.append(outputNames[i]).append(" = ").append(outputNodes[i]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // 表达式去重，相同的 op、参数、输入只留一个节点，节点按后序编号
+    private static final class Interner {
+        final List<Op> ops = new ArrayList<>();
+        final List<String> columns = new ArrayList<>();
+        final List<double[]> params = new ArrayList<>();
+        final List<int[]> inputs = new ArrayList<>();
+        final List<Integer> depths = new ArrayList<>();
+        final Map<Expr, Integer> seen = new IdentityHashMap<>();
+        final Map<String, Integer> nodes = new HashMap<>();
+
+        int intern(Expr expr) {
+            Integer node = seen.get(expr);
+            if (node != null) {
+                return node;
+            }
+            Expr[] in = expr.inputs();
+            int[] ids = new int[in.length];
+            int depth = 0;
+            for (int k = 0; k < in.length; k++) {
+                ids[k] = intern(in[k]);
+                depth = Math.max(depth, depths.get(ids[k]) + 1);
+            }
+            Op op = expr.getOp();
+            if (op != null && op.isCommutative()) {
+                Arrays.sort(ids);
+            }
+            // Double.toString 能区分每个 double
+            String key = op == null ? expr.getColumn()
+                    : op.name() + Arrays.toString(expr.params()) + Arrays.toString(ids);
+            node = nodes.get(key);
+            if (node == null) {
+                node = ops.size();
+                ops.add(op);
+                columns.add(expr.getColumn());
+                params.add(expr.params());
+                inputs.add(ids);
+                depths.add(depth);
+                nodes.put(key, node);
+            }
+            seen.put(expr, node);
+            return node;
+        }
+    }
+}
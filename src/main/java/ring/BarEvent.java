@@ -0,0 +1,57 @@
+package ring;
+
+import lombok.Data;
+import model.Bar;
+
+/**
+ * 环形缓冲区的槽位 - 预先分配，生产者覆盖写入，不为每个事件分配对象
+ * <p>
+ * A bar, or a trade with open, high, low and close all at the price and
+ * volume the size. Valid only inside of the handler call, the slot is
+ * written again once the consumer moves past it.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@Data
+public class BarEvent {
+    // instrument id, for feeds of several symbols
+    public int symbol;
+    // epoch millis
+    public long time;
+    public double open;
+    public double high;
+    public double low;
+    public double close;
+    public long volume;
+    // System.nanoTime() at publish, 0 without latency counting
+    public long publishNanos;
+
+    // Sets the fields of a bar.
+    public BarEvent setBar(int symbol, long time, double open, double high, double low, double close, long volume) {
+        this.symbol = symbol;
+        this.time = time;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        return this;
+    }
+
+    // Sets the fields of a trade of size at price.
+    public BarEvent setTrade(int symbol, long time, double price, long size) {
+        return setBar(symbol, time, price, price, price, price, size);
+    }
+
+    // Copies the fields into bar, for the streaming strategies.
+    public Bar copyTo(Bar bar) {
+        bar.datetime = null;
+        bar.time = time;
+        bar.open = open;
+        bar.high = high;
+        bar.low = low;
+        bar.close = close;
+        bar.volume = volume;
+        return bar;
+    }
+}
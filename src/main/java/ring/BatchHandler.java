@@ -0,0 +1,12 @@
+package ring;
+
+/**
+ * 消费者一次取出一批事件逐个处理
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@FunctionalInterface
+public interface BatchHandler {
+    // endOfBatch is true for the last event of the batch, to flush or signal once per batch
+    void onEvent(BarEvent event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,109 @@
+package ring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图 - 从发布到消费者处理完 (出信号) 的纳秒数
+ * <p>
+ * Buckets by powers of two with 8 steps each, so a percentile is within
+ * 12.5% of the real value. Written by one thread, the consumer, read by any
+ * thread: the counts are stored ordered, a reader may see a count without
+ * the ones recorded at the same moment.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class LatencyRecorder {
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = (64 - 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    // count, sum, max
+    private final AtomicLongArray totals = new AtomicLongArray(3);
+
+    // Records a latency, negative ones count as 0.
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int bucket = bucket(nanos);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        totals.lazySet(1, totals.get(1) + nanos);
+        if (nanos > totals.get(2)) {
+            totals.lazySet(2, nanos);
+        }
+        totals.lazySet(0, totals.get(0) + 1);
+    }
+
+    // Values below 8 have a bucket each, above that 8 buckets per power of two.
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return (exponent - 2) * SUB_BUCKETS + sub;
+    }
+
+    // The largest value of the bucket.
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 2;
+        long sub = bucket % SUB_BUCKETS;
+        long next = (SUB_BUCKETS + sub + 1) << (exponent - 3);
+        return next < 0 ? Long.MAX_VALUE : next - 1;
+    }
+
+    // Number of latencies recorded.
+    public long count() {
+        return totals.get(0);
+    }
+
+    public double mean() {
+        long count = count();
+        return count == 0 ? 0 : (double) totals.get(1) / count;
+    }
+
+    public long max() {
+        return totals.get(2);
+    }
+
+    // The latency below which p (0 ~ 1) of the recorded ones are, rounded up
+    // to the end of its bucket.
+    public long percentile(double p) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("p must be in [0, 1]: " + p);
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return 0;
+    }
+
+    // Forgets the recorded latencies, call on the recording thread.
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.lazySet(i, 0);
+        }
+        for (int i = 0; i < 3; i++) {
+            totals.lazySet(i, 0);
+        }
+    }
+
+    // count: 1000, mean: 812.4ns, p50: 767ns, p99: 2047ns, p99.9: 6143ns, max: 10320ns
+    @Override
+    public String toString() {
+        return String.format("count: %d, mean: %.1fns, p50: %dns, p99: %dns, p99.9: %dns, max: %dns",
+                count(), mean(), percentile(0.5), percentile(0.99), percentile(0.999), max());
+    }
+}
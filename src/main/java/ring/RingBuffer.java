@@ -0,0 +1,224 @@
+package ring;
+
+import aggregate.BarListener;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 无锁环形缓冲区 - 行情线程发布 K 线或成交，指标线程成批取出
+ * <p>
+ * The slots are allocated once, a producer claims a sequence, writes the
+ * slot and publishes it:
+ * <pre>
+ * RingBuffer ring = RingBuffer.singleProducer(4096, WaitStrategy.yielding());
+ * // feed thread
+ * long sequence = ring.next();
+ * ring.get(sequence).setTrade(symbol, time, price, size);
+ * ring.publish(sequence);
+ * // indicator thread
+ * while (running) {
+ *     ring.take(handler, 256);
+ * }
+ * </pre>
+ * With {@link #singleProducer} only one thread may publish, with
+ * {@link #multiProducer} any number. There is one consumer thread. A full
+ * buffer makes the producers wait for the consumer, with the same wait
+ * strategy. Nothing is allocated per event and no lock is taken.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class RingBuffer implements BarListener {
+    private final BarEvent[] slots;
+    private final int mask;
+    private final int shift;
+    private final boolean multiProducer;
+    private final WaitStrategy waitStrategy;
+
+    // single producer: the last published; multi producer: the last claimed
+    private final Sequence cursor = new Sequence(-1);
+    // the last sequence the consumer is done with
+    private final Sequence consumed = new Sequence(-1);
+    // multi producer: the round (sequence / capacity) last published in each slot
+    private final AtomicIntegerArray published;
+    // single producer: the last claimed, and consumed as last seen, only the producer uses them
+    private long claimed = -1;
+    private long cachedConsumed = -1;
+
+    private volatile LatencyRecorder latency;
+
+    private RingBuffer(int capacity, boolean multiProducer, WaitStrategy waitStrategy) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2: " + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("waitStrategy is null");
+        }
+        this.slots = new BarEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new BarEvent();
+        }
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        this.multiProducer = multiProducer;
+        this.waitStrategy = waitStrategy;
+        if (multiProducer) {
+            published = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                published.set(i, -1);
+            }
+        } else {
+            published = null;
+        }
+    }
+
+    // For one publishing thread.
+    public static RingBuffer singleProducer(int capacity, WaitStrategy waitStrategy) {
+        return new RingBuffer(capacity, false, waitStrategy);
+    }
+
+    // For any number of publishing threads.
+    public static RingBuffer multiProducer(int capacity, WaitStrategy waitStrategy) {
+        return new RingBuffer(capacity, true, waitStrategy);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    // Counts the latency from publish to the end of the handler call of each
+    // event, null to stop. Costs a System.nanoTime() on both sides.
+    public RingBuffer setLatency(LatencyRecorder latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public LatencyRecorder getLatency() {
+        return latency;
+    }
+
+    // The slot of a claimed sequence.
+    public BarEvent get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    // Claims the next sequence, waits while the buffer is full.
+    public long next() {
+        if (multiProducer) {
+            long sequence = cursor.incrementAndGet();
+            long wrap = sequence - slots.length;
+            for (int attempt = 0; wrap > consumed.get(); attempt++) {
+                waitStrategy.idle(attempt);
+            }
+            return sequence;
+        }
+        long sequence = ++claimed;
+        long wrap = sequence - slots.length;
+        if (wrap > cachedConsumed) {
+            for (int attempt = 0; wrap > (cachedConsumed = consumed.get()); attempt++) {
+                waitStrategy.idle(attempt);
+            }
+        }
+        return sequence;
+    }
+
+    // Claims the next sequence, -1 if the buffer is full. Single producer only,
+    // with several producers a claim cannot be given back.
+    public long tryNext() {
+        if (multiProducer) {
+            throw new UnsupportedOperationException("tryNext of a multi producer ring buffer");
+        }
+        long sequence = claimed + 1;
+        long wrap = sequence - slots.length;
+        if (wrap > cachedConsumed && wrap > (cachedConsumed = consumed.get())) {
+            return -1;
+        }
+        claimed = sequence;
+        return sequence;
+    }
+
+    // Makes the slot of a claimed sequence visible to the consumer.
+    public void publish(long sequence) {
+        get(sequence).publishNanos = latency != null ? System.nanoTime() : 0;
+        if (multiProducer) {
+            published.lazySet((int) sequence & mask, (int) (sequence >>> shift));
+        } else {
+            cursor.lazySet(sequence);
+        }
+    }
+
+    // Publishes a bar, the BarListener of aggregators.
+    @Override
+    public void onBar(long time, double open, double high, double low, double close, long volume) {
+        publishBar(0, time, open, high, low, close, volume);
+    }
+
+    // Claims, writes and publishes a bar.
+    public void publishBar(int symbol, long time, double open, double high, double low, double close, long volume) {
+        long sequence = next();
+        get(sequence).setBar(symbol, time, open, high, low, close, volume);
+        publish(sequence);
+    }
+
+    // Claims, writes and publishes a trade.
+    public void publishTrade(int symbol, long time, double price, long size) {
+        long sequence = next();
+        get(sequence).setTrade(symbol, time, price, size);
+        publish(sequence);
+    }
+
+    // The last sequence published without gaps from first, first - 1 if none.
+    private long published(long first) {
+        if (!multiProducer) {
+            return cursor.get();
+        }
+        long last = Math.min(cursor.get(), first + slots.length - 1);
+        long sequence = first;
+        while (sequence <= last && published.get((int) sequence & mask) == (int) (sequence >>> shift)) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    // Hands the published events, at most limit, to the handler without
+    // waiting. Returns how many. An exception of the handler skips its event
+    // and goes to the caller.
+    public int poll(BatchHandler handler, int limit) {
+        long first = consumed.get() + 1;
+        long last = Math.min(published(first), first + limit - 1);
+        if (last < first) {
+            return 0;
+        }
+        LatencyRecorder latency = this.latency;
+        long sequence = first;
+        try {
+            for (; sequence <= last; sequence++) {
+                BarEvent event = slots[(int) sequence & mask];
+                handler.onEvent(event, sequence, sequence == last);
+                if (latency != null && event.publishNanos != 0) {
+                    latency.record(System.nanoTime() - event.publishNanos);
+                }
+            }
+        } finally {
+            consumed.lazySet(Math.min(sequence, last));
+        }
+        return (int) (last - first + 1);
+    }
+
+    // Like poll, but waits with the wait strategy until there are events.
+    // Returns 0 only when the thread is interrupted, the flag stays set.
+    public int take(BatchHandler handler, int limit) {
+        for (int attempt = 0; ; attempt++) {
+            int count = poll(handler, limit);
+            if (count > 0 || Thread.currentThread().isInterrupted()) {
+                return count;
+            }
+            waitStrategy.idle(attempt);
+        }
+    }
+
+    // Events published and not yet consumed.
+    public long backlog() {
+        long first = consumed.get() + 1;
+        return published(first) - first + 1;
+    }
+}
@@ -0,0 +1,48 @@
+package ring;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 填充到独占缓存行的序号，生产者和消费者的序号不会互相伪共享
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class Sequence extends SequenceValue {
+    private static final AtomicLongFieldUpdater<SequenceValue> VALUE =
+            AtomicLongFieldUpdater.newUpdater(SequenceValue.class, "value");
+
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    Sequence(long initial) {
+        value = initial;
+    }
+
+    long get() {
+        return value;
+    }
+
+    // Ordered store, visible to the other threads without a full fence.
+    void lazySet(long value) {
+        VALUE.lazySet(this, value);
+    }
+
+    long incrementAndGet() {
+        return VALUE.incrementAndGet(this);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
+
+// Padding before the value, the fields of a superclass come first.
+abstract class SequencePadding {
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequencePadding {
+    volatile long value;
+}
@@ -0,0 +1,42 @@
+package ring;
+
+import model.Action;
+import model.Bar;
+import strategy.StreamingStrategy;
+
+/**
+ * 把缓冲区里的 K 线交给每个品种的流式策略，信号交给 listener
+ * <p>
+ * The strategy of an event is the one at its symbol. One Bar is reused for
+ * all the events, the strategies must not keep it.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class StrategyHandler implements BatchHandler {
+    private final StreamingStrategy[] bySymbol;
+    private final Listener listener;
+    private final Bar bar = new Bar();
+
+    public StrategyHandler(Listener listener, StreamingStrategy... bySymbol) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+        this.listener = listener;
+        this.bySymbol = bySymbol;
+    }
+
+    @Override
+    public void onEvent(BarEvent event, long sequence, boolean endOfBatch) {
+        if (event.symbol < 0 || event.symbol >= bySymbol.length) {
+            throw new IndexOutOfBoundsException("no strategy of symbol " + event.symbol);
+        }
+        Action action = bySymbol[event.symbol].onBar(event.copyTo(bar));
+        listener.onAction(event, action, endOfBatch);
+    }
+
+    // Receives the action of each event, on the consumer thread.
+    @FunctionalInterface
+    public interface Listener {
+        void onAction(BarEvent event, Action action, boolean endOfBatch);
+    }
+}
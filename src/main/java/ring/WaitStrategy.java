@@ -0,0 +1,46 @@
+package ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 没有事件 (或者缓冲区满) 时怎么等
+ * <p>
+ * {@link #idle(int)} is called again and again while there is nothing to
+ * do, attempt counts the calls since the last progress, from 0.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public interface WaitStrategy {
+    // wait a little, attempt is the number of calls since the last progress
+    void idle(int attempt);
+
+    // Spins on the core, the lowest latency, burns a core per waiting thread.
+    static WaitStrategy busySpin() {
+        return attempt -> {
+        };
+    }
+
+    // Spins a while, then gives the core to other threads.
+    static WaitStrategy yielding() {
+        return attempt -> {
+            if (attempt >= 100) {
+                Thread.yield();
+            }
+        };
+    }
+
+    // Spins, yields, then parks for parkNanos at a time. Nothing to wake up,
+    // the parked thread looks again after parkNanos.
+    static WaitStrategy parking(long parkNanos) {
+        if (parkNanos <= 0) {
+            throw new IllegalArgumentException("parkNanos must be positive: " + parkNanos);
+        }
+        return attempt -> {
+            if (attempt >= 200) {
+                LockSupport.parkNanos(parkNanos);
+            } else if (attempt >= 100) {
+                Thread.yield();
+            }
+        };
+    }
+}
@@ -0,0 +1,334 @@
+package storage;
+
+import model.Bar;
+import model.ChartBar;
+import model.Timestamps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 列式K线存储 - 一个目录，每个字段一个内存映射的列文件
+ * <p>
+ * The directory holds a 64 byte header file and one file per {@link Column},
+ * each a little endian array of 8 byte values starting at offset 0, so the
+ * columns are page aligned and value i of every column is at byte 8 * i.
+ * Opening maps the files and reads the header, no bar is read, and
+ * {@link #doubles(Column)} / {@link #longs(Column)} are views of the mapped
+ * pages. The column files are mapped with spare capacity, an append writes
+ * one value per column and then the size in the header, when the capacity
+ * is used up the files are mapped again with twice the capacity.
+ * <p>
+ * One writer at a time; readers, also in other processes, see the appended
+ * bars once the size is written.
+ * <pre>
+ * try (ChartBarStore store = ChartBarStore.write(dir, chartBar)) {
+ *     store.append(bar);
+ * }
+ * try (ChartBarStore store = ChartBarStore.openReadOnly(dir)) {
+ *     ChartBar last = store.read(store.size() - 500, store.size());
+ * }
+ * </pre>
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class ChartBarStore implements Closeable {
+    private static final String HEADER = "chartbar.hdr";
+    private static final int HEADER_SIZE = 64;
+    // "CHARTBAR"
+    private static final long MAGIC = 0x5241425452414843L;
+    private static final int VERSION = 1;
+    private static final int SIZE_OFFSET = 16;
+    // 单个映射最多 2G
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / 8;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final Path dir;
+    private final boolean writable;
+    private final MappedByteBuffer header;
+    private final ByteBuffer[] columns = new ByteBuffer[Column.values().length];
+    private int capacity;
+
+    private ChartBarStore(Path dir, boolean writable, MappedByteBuffer header) {
+        this.dir = dir;
+        this.writable = writable;
+        this.header = header;
+    }
+
+    // A new empty store in dir, with room for capacity bars before remapping.
+    public static ChartBarStore create(Path dir, int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        try {
+            Files.createDirectories(dir);
+            MappedByteBuffer header = map(dir.resolve(HEADER), true, HEADER_SIZE);
+            header.putLong(0, MAGIC);
+            header.putInt(8, VERSION);
+            header.putLong(SIZE_OFFSET, 0);
+            ChartBarStore store = new ChartBarStore(dir, true, header);
+            store.remap(Math.max(MIN_CAPACITY, capacity));
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A new store in dir holding the bars of chartBar.
+    public static ChartBarStore write(Path dir, ChartBar chartBar) {
+        ChartBarStore store = create(dir, chartBar.size());
+        store.append(chartBar, 0, chartBar.size());
+        return store;
+    }
+
+    // Opens the store in dir for appending.
+    public static ChartBarStore open(Path dir) {
+        return open(dir, true);
+    }
+
+    // Opens the store in dir for reading.
+    public static ChartBarStore openReadOnly(Path dir) {
+        return open(dir, false);
+    }
+
+    private static ChartBarStore open(Path dir, boolean writable) {
+        try {
+            MappedByteBuffer header = map(dir.resolve(HEADER), writable, HEADER_SIZE);
+            if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+                throw new IllegalArgumentException("not a chart bar store: " + dir);
+            }
+            ChartBarStore store = new ChartBarStore(dir, writable, header);
+            store.remap(writable ? Math.max(MIN_CAPACITY, store.size()) : store.size());
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, boolean writable, long bytes) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (!writable) {
+                bytes = Math.min(bytes, channel.size());
+            }
+            MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } finally {
+            // 映射在通道关闭后仍然有效
+            channel.close();
+        }
+    }
+
+    // Maps the column files with room for at least capacity bars, the files
+    // that are longer stay as they are.
+    private void remap(int capacity) {
+        try {
+            int mapped = Integer.MAX_VALUE;
+            for (Column column : Column.values()) {
+                Path file = dir.resolve(column.file());
+                long bytes = Math.max((long) capacity * 8, Files.exists(file) ? Files.size(file) : 0);
+                bytes = Math.min(bytes, (long) MAX_CAPACITY * 8);
+                ByteBuffer buffer = map(file, writable, bytes);
+                columns[column.ordinal()] = buffer;
+                mapped = Math.min(mapped, buffer.capacity() / 8);
+            }
+            this.capacity = mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Readers remap when the writer grew the files.
+    private void ensureMapped(int size) {
+        if (size > capacity) {
+            remap(size);
+            if (size > capacity) {
+                throw new IllegalStateException("column files are shorter than the size: " + size);
+            }
+        }
+    }
+
+    // Number of bars.
+    public int size() {
+        return (int) header.getLong(SIZE_OFFSET);
+    }
+
+    // Bars that fit before the files are mapped again.
+    public int capacity() {
+        return capacity;
+    }
+
+    private int checkIndex(int i) {
+        int size = size();
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index: " + i + ", size: " + size);
+        }
+        ensureMapped(i + 1);
+        return i << 3;
+    }
+
+    public long getTime(int i) {
+        return columns[Column.TIME.ordinal()].getLong(checkIndex(i));
+    }
+
+    public double getOpen(int i) {
+        return columns[Column.OPEN.ordinal()].getDouble(checkIndex(i));
+    }
+
+    public double getHigh(int i) {
+        return columns[Column.HIGH.ordinal()].getDouble(checkIndex(i));
+    }
+
+    public double getLow(int i) {
+        return columns[Column.LOW.ordinal()].getDouble(checkIndex(i));
+    }
+
+    public double getClose(int i) {
+        return columns[Column.CLOSE.ordinal()].getDouble(checkIndex(i));
+    }
+
+    public long getVolume(int i) {
+        return columns[Column.VOLUME.ordinal()].getLong(checkIndex(i));
+    }
+
+    private ByteBuffer view(Column column, int size) {
+        ensureMapped(size);
+        ByteBuffer buffer = columns[column.ordinal()].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(size << 3);
+        return buffer;
+    }
+
+    // The first size() values of a double column, without copying.
+    public DoubleBuffer doubles(Column column) {
+        if (!column.isFloating()) {
+            throw new IllegalArgumentException("not a double column: " + column);
+        }
+        return view(column, size()).asDoubleBuffer();
+    }
+
+    // The first size() values of a long column, without copying.
+    public LongBuffer longs(Column column) {
+        if (column.isFloating()) {
+            throw new IllegalArgumentException("not a long column: " + column);
+        }
+        return view(column, size()).asLongBuffer();
+    }
+
+    // Copies the bars [from, to) into a new ChartBar with the time column,
+    // see ChartBar.withTime.
+    public ChartBar read(int from, int to) {
+        int size = size();
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + size);
+        }
+        int length = to - from;
+        ChartBar chartBar = ChartBar.withTime(length);
+        read(Column.TIME, size, from, chartBar.time);
+        read(Column.OPEN, size, from, chartBar.open);
+        read(Column.HIGH, size, from, chartBar.high);
+        read(Column.LOW, size, from, chartBar.low);
+        read(Column.CLOSE, size, from, chartBar.close);
+        read(Column.VOLUME, size, from, chartBar.volume);
+        return chartBar;
+    }
+
+    private void read(Column column, int size, int from, double[] values) {
+        DoubleBuffer buffer = view(column, size).asDoubleBuffer();
+        buffer.position(from);
+        buffer.get(values);
+    }
+
+    private void read(Column column, int size, int from, long[] values) {
+        LongBuffer buffer = view(column, size).asLongBuffer();
+        buffer.position(from);
+        buffer.get(values);
+    }
+
+    // Appends one bar, time in epoch millis.
+    public void append(long time, double open, double high, double low, double close, long volume) {
+        int size = reserve(1);
+        int at = size << 3;
+        columns[Column.TIME.ordinal()].putLong(at, time);
+        columns[Column.OPEN.ordinal()].putDouble(at, open);
+        columns[Column.HIGH.ordinal()].putDouble(at, high);
+        columns[Column.LOW.ordinal()].putDouble(at, low);
+        columns[Column.CLOSE.ordinal()].putDouble(at, close);
+        columns[Column.VOLUME.ordinal()].putLong(at, volume);
+        header.putLong(SIZE_OFFSET, size + 1);
+    }
+
+    public void append(Bar bar) {
+        append(bar.datetime != null ? Timestamps.parse(bar.datetime) : bar.time, bar.open, bar.high, bar.low, bar.close, bar.volume);
+    }
+
+    // Appends the bars [offset, offset + length) of chartBar.
+    public void append(ChartBar chartBar, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > chartBar.size()) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + chartBar.size());
+        }
+        int size = reserve(length);
+        LongBuffer time = at(Column.TIME, size).asLongBuffer();
+        if (chartBar.time != null) {
+            time.put(chartBar.time, offset, length);
+        } else {
+            for (int i = offset; i < offset + length; i++) {
+                time.put(Timestamps.parse(chartBar.datetime[i]));
+            }
+        }
+        at(Column.OPEN, size).asDoubleBuffer().put(chartBar.open, offset, length);
+        at(Column.HIGH, size).asDoubleBuffer().put(chartBar.high, offset, length);
+        at(Column.LOW, size).asDoubleBuffer().put(chartBar.low, offset, length);
+        at(Column.CLOSE, size).asDoubleBuffer().put(chartBar.close, offset, length);
+        at(Column.VOLUME, size).asLongBuffer().put(chartBar.volume, offset, length);
+        header.putLong(SIZE_OFFSET, size + length);
+    }
+
+    private ByteBuffer at(Column column, int size) {
+        ByteBuffer buffer = columns[column.ordinal()].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(size << 3);
+        return buffer;
+    }
+
+    // Makes room for count more bars, returns the size.
+    private int reserve(int count) {
+        if (!writable) {
+            throw new IllegalStateException("store is read only: " + dir);
+        }
+        int size = size();
+        if ((long) size + count > MAX_CAPACITY) {
+            throw new IllegalStateException("store is full: " + dir);
+        }
+        if (size + count > capacity) {
+            remap((int) Math.min(MAX_CAPACITY, Math.max((long) capacity * 2, size + count)));
+        }
+        return size;
+    }
+
+    // Writes the mapped pages to the files.
+    public void flush() {
+        if (writable) {
+            for (ByteBuffer column : columns) {
+                ((MappedByteBuffer) column).force();
+            }
+            header.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,33 @@
+package storage;
+
+/**
+ * ChartBarStore 的列，每列一个文件，8 字节一个值
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public enum Column {
+    // epoch millis, see model.Timestamps
+    TIME("time.col", false),
+    OPEN("open.col", true),
+    HIGH("high.col", true),
+    LOW("low.col", true),
+    CLOSE("close.col", true),
+    VOLUME("volume.col", false);
+
+    private final String file;
+    private final boolean floating;
+
+    Column(String file, boolean floating) {
+        this.file = file;
+        this.floating = floating;
+    }
+
+    public String file() {
+        return file;
+    }
+
+    // double column, long otherwise
+    public boolean isFloating() {
+        return floating;
+    }
+}
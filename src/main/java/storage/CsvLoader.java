@@ -0,0 +1,534 @@
+package storage;
+
+import model.ChartBar;
+import model.Timestamps;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * CSV 读取 - 把 ChartBar.title() / row(i) 格式的文本直接解析到 ChartBar 的列
+ * <p>
+ * The input is read in blocks of whole lines into a reused byte[], numbers
+ * are parsed by hand to the same double as Double.parseDouble: a decimal
+ * with at most 19 significant digits is one exact multiply or divide when
+ * small enough, otherwise one 64 x 128 bit multiply by a power of five
+ * (Eisel-Lemire), the rare ambiguous ones fall back to Double.parseDouble.
+ * The ChartBar is sized by counting the '\n' 8 bytes at a time, with an
+ * executor the rows are parsed in chunks split at line ends. A first line
+ * that does not start with a digit is taken as the title, empty lines are
+ * skipped. The datetime field is parsed in place by {@link Timestamps#parse}
+ * into the time column, no strings are made.
+ * <pre>
+ * ChartBar chartBar = CsvLoader.load(Paths.get("AAPL.csv"));
+ * ChartBar big = CsvLoader.load(Paths.get("minutes.csv"), ForkJoinPool.commonPool(), 8);
+ * </pre>
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public final class CsvLoader {
+    private static final int BLOCK = 1 << 20;
+    private static final double[] POWERS_OF_TEN = new double[23];
+    // 5^q 的128位近似，q 从 MIN_POWER 到 MAX_POWER，负指数向上取整
+    private static final int MIN_POWER = -342;
+    private static final int MAX_POWER = 308;
+    private static final long[] POWERS_OF_FIVE_HIGH = new long[MAX_POWER - MIN_POWER + 1];
+    private static final long[] POWERS_OF_FIVE_LOW = new long[MAX_POWER - MIN_POWER + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger power = BigInteger.valueOf(5).pow(Math.abs(q));
+            if (q < 0) {
+                power = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power).add(BigInteger.ONE);
+            }
+            int shift = power.bitLength() - 128;
+            power = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            POWERS_OF_FIVE_HIGH[q - MIN_POWER] = power.shiftRight(64).longValue();
+            POWERS_OF_FIVE_LOW[q - MIN_POWER] = power.longValue();
+        }
+    }
+
+    private CsvLoader() {
+    }
+
+    // Maps the file and parses it on the current thread.
+    public static ChartBar load(Path file) {
+        return parse(map(file));
+    }
+
+    // Maps the file and parses it in chunks on the executor.
+    public static ChartBar load(Path file, Executor executor, int chunks) {
+        return parse(map(file), executor, chunks);
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 映射在通道关闭后仍然有效
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Parses the remaining bytes of buffer, the position is not changed.
+    public static ChartBar parse(ByteBuffer buffer) {
+        Chunk chunk = new Chunk(buffer, skipTitle(buffer), buffer.limit());
+        ChartBar chartBar = ChartBar.withTime(chunk.count());
+        chunk.parse(chartBar, 0);
+        return compact(chartBar, new Chunk[]{chunk});
+    }
+
+    // Parses the remaining bytes of buffer in chunks on the executor.
+    public static ChartBar parse(ByteBuffer buffer, Executor executor, int chunks) {
+        if (chunks <= 0) {
+            throw new IllegalArgumentException("chunks: " + chunks);
+        }
+        int from = skipTitle(buffer);
+        int to = buffer.limit();
+        Chunk[] parts = new Chunk[chunks];
+        int start = from;
+        for (int i = 0; i < chunks; i++) {
+            int end = i == chunks - 1 ? to : lineEnd(buffer, Math.max(start, from + (int) ((long) (to - from) * (i + 1) / chunks)), to);
+            parts[i] = new Chunk(buffer, start, end);
+            start = end;
+        }
+
+        int size = 0;
+        for (Chunk part : parts) {
+            size += part.count();
+        }
+        ChartBar chartBar = ChartBar.withTime(size);
+        CompletableFuture<?>[] parses = new CompletableFuture<?>[chunks];
+        int row = 0;
+        for (int i = 0; i < chunks; i++) {
+            Chunk part = parts[i];
+            int first = row;
+            parses[i] = CompletableFuture.runAsync(() -> part.parse(chartBar, first), executor);
+            row += part.rows;
+        }
+        join(CompletableFuture.allOf(parses));
+        return compact(chartBar, parts);
+    }
+
+    // The rows were sized by counting lines, moves the rows of each chunk
+    // together when there were empty lines.
+    private static ChartBar compact(ChartBar chartBar, Chunk[] parts) {
+        int size = 0;
+        for (Chunk part : parts) {
+            size += part.parsed;
+        }
+        if (size == chartBar.close.length) {
+            return chartBar;
+        }
+        ChartBar compact = ChartBar.withTime(size);
+        int from = 0;
+        int to = 0;
+        for (Chunk part : parts) {
+            System.arraycopy(chartBar.time, from, compact.time, to, part.parsed);
+            System.arraycopy(chartBar.open, from, compact.open, to, part.parsed);
+            System.arraycopy(chartBar.high, from, compact.high, to, part.parsed);
+            System.arraycopy(chartBar.low, from, compact.low, to, part.parsed);
+            System.arraycopy(chartBar.close, from, compact.close, to, part.parsed);
+            System.arraycopy(chartBar.volume, from, compact.volume, to, part.parsed);
+            from += part.rows;
+            to += part.parsed;
+        }
+        return compact;
+    }
+
+    private static void join(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Position after the title line, if there is one.
+    private static int skipTitle(ByteBuffer buffer) {
+        int from = buffer.position();
+        int to = buffer.limit();
+        if (from < to && (buffer.get(from) < '0' || buffer.get(from) > '9')) {
+            return lineEnd(buffer, from, to);
+        }
+        return from;
+    }
+
+    // Position after the first '\n' at or after from, or to.
+    private static int lineEnd(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return to;
+    }
+
+    // Reads numbers from bytes at pos.
+    private static class Cursor {
+        byte[] bytes;
+        int pos;
+
+        // End of the field at from, a ',' '\r' '\n' or limit.
+        private int fieldEnd(int from, int limit) {
+            int i = from;
+            while (i < limit && bytes[i] != ',' && bytes[i] != '\n' && bytes[i] != '\r') {
+                i++;
+            }
+            return i;
+        }
+
+        // The double at pos, as Double.parseDouble, pos is moved to the end of the field.
+        double nextDouble(int limit) {
+            int from = pos;
+            int i = from;
+            boolean negative = false;
+            if (i < limit && (bytes[i] == '-' || bytes[i] == '+')) {
+                negative = bytes[i++] == '-';
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean exact = true;
+            boolean any = false;
+            for (; i < limit && bytes[i] >= '0' && bytes[i] <= '9'; i++, any = true) {
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                } else {
+                    exact = false;
+                }
+            }
+            if (i < limit && bytes[i] == '.') {
+                for (i++; i < limit && bytes[i] >= '0' && bytes[i] <= '9'; i++, any = true) {
+                    if (digits < 19) {
+                        mantissa = mantissa * 10 + (bytes[i] - '0');
+                        exponent--;
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                    } else if (bytes[i] != '0') {
+                        exact = false;
+                    }
+                }
+            }
+            if (any && i < limit && (bytes[i] == 'e' || bytes[i] == 'E')) {
+                i++;
+                boolean negativeExponent = false;
+                if (i < limit && (bytes[i] == '-' || bytes[i] == '+')) {
+                    negativeExponent = bytes[i++] == '-';
+                }
+                int e = 0;
+                boolean anyExponent = false;
+                for (; i < limit && bytes[i] >= '0' && bytes[i] <= '9'; i++, anyExponent = true) {
+                    if (e < 100000) {
+                        e = e * 10 + (bytes[i] - '0');
+                    }
+                }
+                exact &= anyExponent;
+                exponent += negativeExponent ? -e : e;
+            }
+            int end = fieldEnd(i, limit);
+            pos = end;
+            if (!any || i != end || !exact) {
+                return slowParseDouble(bytes, from, end);
+            }
+            if (mantissa >>> 53 == 0 && exponent >= -22 && exponent <= 22) {
+                double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+            if (mantissa == 0) {
+                return negative ? -0.0 : 0.0;
+            }
+            long bits = eiselLemire(mantissa, exponent);
+            if (bits < 0) {
+                return slowParseDouble(bytes, from, end);
+            }
+            return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+        }
+
+        // The long at pos, pos is moved to the end of the field.
+        long nextLong(int limit) {
+            int from = pos;
+            int i = from;
+            boolean negative = false;
+            if (i < limit && (bytes[i] == '-' || bytes[i] == '+')) {
+                negative = bytes[i++] == '-';
+            }
+            long value = 0;
+            int digits = 0;
+            for (; i < limit && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                value = value * 10 + (bytes[i] - '0');
+                digits++;
+            }
+            int end = fieldEnd(i, limit);
+            pos = end;
+            if (digits == 0 || digits > 18 || i != end) {
+                return slowParseLong(bytes, from, end);
+            }
+            return negative ? -value : value;
+        }
+    }
+
+    // Bytes [from, to) of the input, starting at a line start and ending at a line end.
+    private static final class Chunk extends Cursor {
+        final ByteBuffer buffer;
+        final int from;
+        final int to;
+        // 按行数估计的行数，和实际解析出的行数
+        int rows;
+        int parsed;
+        // 日期字段，直接读 bytes
+        private final Text text = new Text();
+
+        Chunk(ByteBuffer buffer, int from, int to) {
+            this.buffer = buffer.duplicate();
+            this.from = from;
+            this.to = to;
+            this.bytes = new byte[Math.min(BLOCK, to - from)];
+        }
+
+        // Copies the next whole lines from position into bytes, returns the byte count.
+        private int fill(int position) {
+            int length = Math.min(bytes.length, to - position);
+            buffer.limit(position + length);
+            buffer.position(position);
+            buffer.get(bytes, 0, length);
+            buffer.limit(buffer.capacity());
+            if (position + length == to) {
+                return length;
+            }
+            int end = length;
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+            if (end == 0) {
+                throw new IllegalArgumentException("line longer than " + BLOCK + " bytes at " + position);
+            }
+            return end;
+        }
+
+        // Number of lines, counting the '\n' of 8 bytes at a time.
+        int count() {
+            long count = 0;
+            int i = from;
+            for (; i + 8 <= to; i += 8) {
+                long v = buffer.getLong(i) ^ 0x0A0A0A0A0A0A0A0AL;
+                // 高位置1的字节是 '\n'
+                long zeros = ~(((v & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL) | v | 0x7F7F7F7F7F7F7F7FL);
+                count += Long.bitCount(zeros);
+            }
+            for (; i < to; i++) {
+                if (buffer.get(i) == '\n') {
+                    count++;
+                }
+            }
+            if (to > from && buffer.get(to - 1) != '\n') {
+                count++;
+            }
+            rows = (int) count;
+            return rows;
+        }
+
+        void parse(ChartBar chartBar, int first) {
+            int row = first;
+            for (int position = from; position < to; ) {
+                int length = fill(position);
+                pos = 0;
+                while (pos < length) {
+                    int start = pos;
+                    if (bytes[pos] == '\r' && pos + 1 < length && bytes[pos + 1] == '\n') {
+                        pos++;
+                    }
+                    if (bytes[pos] == '\n') {
+                        pos++;
+                        continue;
+                    }
+                    int comma = start;
+                    while (comma < length && bytes[comma] != ',' && bytes[comma] != '\n') {
+                        comma++;
+                    }
+                    if (comma == length || bytes[comma] != ',') {
+                        throw bad(start, length);
+                    }
+                    text.set(bytes, start, comma);
+                    try {
+                        chartBar.time[row] = Timestamps.parse(text);
+                    } catch (IllegalArgumentException e) {
+                        throw bad(start, length);
+                    }
+                    pos = comma + 1;
+                    chartBar.open[row] = nextDouble(length);
+                    expect(',', start, length);
+                    chartBar.high[row] = nextDouble(length);
+                    expect(',', start, length);
+                    chartBar.low[row] = nextDouble(length);
+                    expect(',', start, length);
+                    chartBar.close[row] = nextDouble(length);
+                    expect(',', start, length);
+                    chartBar.volume[row] = nextLong(length);
+                    if (pos < length && bytes[pos] == '\r') {
+                        pos++;
+                    }
+                    if (pos < length) {
+                        expect('\n', start, length);
+                    }
+                    row++;
+                }
+                position += length;
+            }
+            parsed = row - first;
+        }
+
+        private void expect(char c, int start, int length) {
+            if (pos >= length || bytes[pos] != c) {
+                throw bad(start, length);
+            }
+            pos++;
+        }
+
+        private IllegalArgumentException bad(int start, int length) {
+            int end = start;
+            while (end < length && bytes[end] != '\n' && bytes[end] != '\r') {
+                end++;
+            }
+            return new IllegalArgumentException("bad row: " + new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    // The bytes [from, to) as ISO-8859-1 characters, without copying.
+    private static final class Text implements CharSequence {
+        private byte[] bytes;
+        private int from;
+        private int to;
+
+        void set(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int length() {
+            return to - from;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("index: " + index + ", length: " + (to - from));
+            }
+            return (char) (bytes[from + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    // The double of the text [from, to) of bytes, as Double.parseDouble.
+    static double parseDouble(byte[] bytes, int from, int to) {
+        Cursor cursor = new Cursor();
+        cursor.bytes = bytes;
+        cursor.pos = from;
+        double value = cursor.nextDouble(to);
+        if (cursor.pos != to) {
+            throw new IllegalArgumentException("bad number: " + new String(bytes, from, to - from, StandardCharsets.ISO_8859_1));
+        }
+        return value;
+    }
+
+    // The bits of the double nearest to mantissa * 10^exponent, mantissa is
+    // unsigned and not 0, -1 when it can not be decided.
+    private static long eiselLemire(long mantissa, int exponent) {
+        if (exponent < MIN_POWER || exponent > MAX_POWER) {
+            return -1;
+        }
+        int zeros = Long.numberOfLeadingZeros(mantissa);
+        long w = mantissa << zeros;
+        long factorHigh = POWERS_OF_FIVE_HIGH[exponent - MIN_POWER];
+        long upper = multiplyHigh(w, factorHigh);
+        long lower = w * factorHigh;
+        if ((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + w, lower) < 0) {
+            long factorLow = POWERS_OF_FIVE_LOW[exponent - MIN_POWER];
+            long productLow = w * factorLow;
+            long middle = lower + multiplyHigh(w, factorLow);
+            if (Long.compareUnsigned(middle, lower) < 0) {
+                upper++;
+            }
+            if (middle + 1 == 0 && (upper & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + w, productLow) < 0) {
+                return -1;
+            }
+            lower = middle;
+        }
+        long upperBit = upper >>> 63;
+        long bits = upper >>> (upperBit + 9);
+        zeros += (int) (1 ^ upperBit);
+        if (lower == 0 && (upper & 0x1FF) == 0 && (bits & 3) == 1) {
+            return -1;
+        }
+        bits += bits & 1;
+        bits >>>= 1;
+        if (bits >= 1L << 53) {
+            bits = 1L << 52;
+            zeros--;
+        }
+        bits &= ~(1L << 52);
+        long biased = (((152170L + 65536) * exponent) >> 16) + 1024 + 63 - zeros;
+        if (biased < 1 || biased > 2046) {
+            return -1;
+        }
+        return bits | biased << 52;
+    }
+
+    // High 64 bits of the unsigned 128 bit product.
+    private static long multiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+        long t = x1 * y0 + ((x0 * y0) >>> 32);
+        long w1 = x0 * y1 + (t & 0xFFFFFFFFL);
+        return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+    }
+
+    private static double slowParseDouble(byte[] bytes, int from, int to) {
+        String text = new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad number: " + text, e);
+        }
+    }
+
+    private static long slowParseLong(byte[] bytes, int from, int to) {
+        String text = new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad number: " + text, e);
+        }
+    }
+}
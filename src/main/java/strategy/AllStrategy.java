@@ -1,10 +1,14 @@
 package strategy;
 
+import indicator.IndicatorCache;
 import model.Action;
 import model.ChartBar;
+import model.Signals;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Description: 复合策略,多个策略的组合
@@ -12,6 +16,13 @@ import java.util.List;
  * // provides a Strategy that will return a BUY or SELL action
  * // if all strategies are returning the same action, otherwise it
  * // will return a HOLD action.
+ * <p>
+ * 子策略在同一个 {@link IndicatorCache} 里运行，相同的指标只算一次
+ * <p>
+ * The strategies made by {@link #parallel} run the children on the executor
+ * at the same time. As soon as one returns all HOLD the children not started
+ * yet are cancelled and the running ones are not waited for. Use a
+ * ForkJoinPool when parallel strategies are nested in each other.
  *
  * @author jinfeng.hu  @Date 2022-10-06
  **/
@@ -21,20 +32,80 @@ public class AllStrategy implements Strategy {
         return new AllStrategy(all);
     }
 
+    // 子策略在executor上并行运行
+    public static Strategy parallel(Executor executor, Strategy... all) {
+        return new AllStrategy(executor, all);
+    }
+
     private Strategy[] all;
+    // null时子策略逐个运行
+    private final Executor executor;
+    // 最近一次运行的指标缓存，看命中率
+    private volatile IndicatorCache lastCache;
 
     public AllStrategy(Strategy... all) {
+        this(null, all);
+    }
+
+    private AllStrategy(Executor executor, Strategy[] all) {
+        this.executor = executor;
         this.all = all;
     }
 
+    // The indicator cache of the last run, for its hit and miss counts.
+    public IndicatorCache getLastCache() {
+        return lastCache;
+    }
+
     @Override
     public Action[] run(final ChartBar chartBar) {
+        return run(chartBar, 0, chartBar.size());
+    }
+
+    // The children run over the window as well.
+    @Override
+    public Action[] run(final ChartBar chartBar, int offset, int length) {
         if (null == all || all.length == 0) {
             return null;
         }
+        IndicatorCache cache = IndicatorCache.open();
+        try {
+            return executor == null ? runAll(chartBar, offset, length) : runParallel(chartBar, offset, length, cache);
+        } finally {
+            cache.close();
+            lastCache = cache;
+        }
+    }
+
+    // Sequentially, the signals of the children are ANDed.
+    @Override
+    public Signals signals(final ChartBar chartBar, int offset, int length) {
+        if (null == all || all.length == 0) {
+            return null;
+        }
+        if (executor != null) {
+            return Signals.of(run(chartBar, offset, length));
+        }
+        Signals[] signals = new Signals[all.length];
+        IndicatorCache cache = IndicatorCache.open();
+        try {
+            for (int i = 0; i < all.length; i++) {
+                signals[i] = all[i].signals(chartBar, offset, length);
+                if (signals[i].isAllHold()) {
+                    return signals[i];
+                }
+            }
+        } finally {
+            cache.close();
+            lastCache = cache;
+        }
+        return Signals.all(signals);
+    }
+
+    private Action[] runAll(final ChartBar chartBar, int offset, int length) {
         List<Action[]> actions = new ArrayList<>(all.length);
         for (Strategy is : all) {
-            Action[] ac = is.run(chartBar);
+            Action[] ac = is.run(chartBar, offset, length);
             // 优化计算 - 如果全部是HOLD就返回，不跑后面的Strategy
             if (isAllHold(ac)) {
                 return ac;
@@ -52,6 +123,57 @@ public class AllStrategy implements Strategy {
         return actions.get(0);
     }
 
+    private Action[] runParallel(final ChartBar chartBar, int offset, int length, final IndicatorCache cache) {
+        Action[][] actions = new Action[all.length][];
+        // 有一个子策略全部是HOLD或者出错时完成
+        CompletableFuture<Action[]> stop = new CompletableFuture<>();
+        CompletableFuture<?>[] children = new CompletableFuture<?>[all.length];
+        CompletableFuture<?>[] done = new CompletableFuture<?>[all.length];
+        for (int i = 0; i < all.length; i++) {
+            Strategy strategy = all[i];
+            int index = i;
+            CompletableFuture<Action[]> child = CompletableFuture.supplyAsync(
+                    () -> StrategyHelper.runIn(cache, strategy, chartBar, offset, length), executor);
+            children[i] = child;
+            done[i] = child.handle((ac, e) -> {
+                if (e != null) {
+                    stop.completeExceptionally(e);
+                } else {
+                    actions[index] = ac;
+                    if (isAllHold(ac)) {
+                        stop.complete(ac);
+                    }
+                }
+                return null;
+            });
+        }
+
+        try {
+            StrategyHelper.join(CompletableFuture.anyOf(CompletableFuture.allOf(done), stop));
+            if (stop.isDone()) {
+                return StrategyHelper.join(stop);
+            }
+        } finally {
+            for (CompletableFuture<?> child : children) {
+                child.cancel(false);
+            }
+        }
+
+        Action[] result = actions[0];
+        StrategyHelper.forEachChunk(executor, result.length, (from, to) -> {
+            for (int j = from; j < to; j++) {
+                for (int i = 1; i < actions.length; i++) {
+                    if (actions[i][j] != result[j]) {
+                        result[j] = Action.HOLD;
+                        break;
+                    }
+                }
+            }
+        });
+
+        return result;
+    }
+
     private boolean isAllHold(final Action[] actions) {
         for (Action ac : actions) {
             if (ac != Action.HOLD) {
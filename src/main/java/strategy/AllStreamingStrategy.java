@@ -0,0 +1,53 @@
+package strategy;
+
+import model.Action;
+import model.Bar;
+
+/**
+ * Description: 流式复合策略，所有策略返回同一个Action时返回该Action，否则返回HOLD
+ * <p>
+ * 每根K线都会调用全部子策略，保证每个子策略的状态都是最新的。
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ * @see AllStrategy
+ **/
+public class AllStreamingStrategy implements StreamingStrategy {
+    // 一组流式策略
+    public static StreamingStrategy create(StreamingStrategy... all) {
+        return new AllStreamingStrategy(all);
+    }
+
+    private StreamingStrategy[] all;
+
+    public AllStreamingStrategy(StreamingStrategy... all) {
+        this.all = all;
+    }
+
+    @Override
+    public Action onBar(final Bar bar) {
+        if (null == all || all.length == 0) {
+            return null;
+        }
+        Action action = all[0].onBar(bar);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i].onBar(bar) != action) {
+                action = Action.HOLD;
+            }
+        }
+        return action;
+    }
+
+    @Override
+    public Action preview(final Bar bar) {
+        if (null == all || all.length == 0) {
+            return null;
+        }
+        Action action = all[0].preview(bar);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i].preview(bar) != action) {
+                action = Action.HOLD;
+            }
+        }
+        return action;
+    }
+}
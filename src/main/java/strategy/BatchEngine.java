@@ -0,0 +1,195 @@
+package strategy;
+
+import base.Pair;
+import lombok.Data;
+import model.Action;
+import model.ChartBar;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 批量引擎 - 同一组策略跑很多品种，每个品种一个任务，在 ForkJoinPool 上按工作窃取并行
+ * <p>
+ * At most maxInFlight symbols are loaded or running at the same time, the
+ * inputs are pulled only when there is room, so a lazy stream keeps the
+ * memory bounded. A symbol failing with an exception is passed to
+ * {@link ResultSink#onFailure} and the others go on. An Error, or an
+ * exception thrown by the sink, stops the run and is thrown by run after
+ * the running symbols are done.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class BatchEngine {
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    // 默认用公共池，同时在跑的品种不超过 4 倍并行度
+    public BatchEngine() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism() * 4);
+    }
+
+    public BatchEngine(ForkJoinPool pool, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight: " + maxInFlight);
+        }
+        this.pool = pool;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // Runs the strategies over each (symbol, chart bar).
+    public Summary run(Iterable<Pair<String, ChartBar>> inputs, ResultSink sink, Strategy... strategies) {
+        return run(inputs.iterator(), sink, strategies);
+    }
+
+    public Summary run(Stream<Pair<String, ChartBar>> inputs, ResultSink sink, Strategy... strategies) {
+        return run(inputs.iterator(), sink, strategies);
+    }
+
+    private Summary run(Iterator<Pair<String, ChartBar>> inputs, ResultSink sink, Strategy... strategies) {
+        Run run = new Run(sink, strategies);
+        try {
+            while (run.fatal.get() == null && inputs.hasNext()) {
+                run.acquire();
+                Pair<String, ChartBar> input;
+                try {
+                    input = inputs.next();
+                } catch (RuntimeException | Error e) {
+                    run.permits.release();
+                    throw e;
+                }
+                run.submit(input.getLeft(), input::getRight);
+            }
+        } finally {
+            run.await();
+        }
+        return run.finish();
+    }
+
+    // Runs the strategies over each symbol, the chart bar is loaded by the
+    // loader on the worker, so loading is parallel and its failure is
+    // isolated too.
+    public Summary run(Iterable<String> symbols, Function<String, ChartBar> loader, ResultSink sink, Strategy... strategies) {
+        Run run = new Run(sink, strategies);
+        try {
+            Iterator<String> iterator = symbols.iterator();
+            while (run.fatal.get() == null && iterator.hasNext()) {
+                run.acquire();
+                String symbol = iterator.next();
+                run.submit(symbol, () -> loader.apply(symbol));
+            }
+        } finally {
+            run.await();
+        }
+        return run.finish();
+    }
+
+    // 一次运行的状态
+    private class Run {
+        final Semaphore permits = new Semaphore(maxInFlight);
+        final AtomicLong succeeded = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicReference<Throwable> fatal = new AtomicReference<>();
+        final ResultSink sink;
+        final Strategy[] strategies;
+        final long start = System.nanoTime();
+
+        Run(ResultSink sink, Strategy[] strategies) {
+            this.sink = sink;
+            this.strategies = strategies;
+        }
+
+        void acquire() {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+
+        // the permit is released when the symbol is done
+        void submit(String symbol, Supplier<ChartBar> chartBar) {
+            try {
+                pool.execute(() -> {
+                    try {
+                        evaluate(symbol, chartBar);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        void evaluate(String symbol, Supplier<ChartBar> chartBar) {
+            List<Action[]> actions;
+            try {
+                actions = StrategyHelper.run(chartBar.get(), strategies);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                deliver(() -> sink.onFailure(symbol, e));
+                return;
+            } catch (Throwable e) {
+                fatal.compareAndSet(null, e);
+                return;
+            }
+            succeeded.incrementAndGet();
+            deliver(() -> sink.onResult(symbol, actions));
+        }
+
+        void deliver(Runnable call) {
+            if (fatal.get() != null) {
+                return;
+            }
+            try {
+                synchronized (sink) {
+                    call.run();
+                }
+            } catch (Throwable e) {
+                fatal.compareAndSet(null, e);
+            }
+        }
+
+        // waits for the running symbols
+        void await() {
+            permits.acquireUninterruptibly(maxInFlight);
+            permits.release(maxInFlight);
+        }
+
+        Summary finish() {
+            Throwable e = fatal.get();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            if (e != null) {
+                throw new RuntimeException(e);
+            }
+            Summary summary = new Summary();
+            summary.succeeded = succeeded.get();
+            summary.failed = failed.get();
+            summary.elapsedMillis = (System.nanoTime() - start) / 1000000;
+            return summary;
+        }
+    }
+
+    // 一次运行的统计
+    @Data
+    public static class Summary {
+        public long succeeded;
+        public long failed;
+        public long elapsedMillis;
+    }
+}
@@ -1,5 +1,8 @@
 package strategy;
 
+import base.MonotonicDeque;
+import indicator.RsiState;
+import indicator.SmaState;
 import model.Action;
 import model.ChartBar;
 
@@ -12,9 +15,19 @@ public class MomentumStrategies {
 
     // Awesome oscillator strategy function.
     public static Action[] AwesomeOscillatorStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] ao = AwesomeOscillator(asset.low, asset.high);
+        return aoActions(ao, asset.size());
+    }
+
+    // Awesome oscillator strategy over the bars [offset, offset + length).
+    public static Action[] AwesomeOscillatorStrategy(final ChartBar asset, int offset, int length) {
+        double[] ao = new double[length];
+        AwesomeOscillator(asset.low, asset.high, offset, length, ao, 0);
+        return aoActions(ao, length);
+    }
+
+    private static Action[] aoActions(double[] ao, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (ao[i] > 0) {
@@ -31,9 +44,20 @@ public class MomentumStrategies {
 
     // RSI strategy. Sells above sell at, buys below buy at.
     public static Action[] RsiStrategy(final ChartBar asset, double sellAt, double buyAt) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] rsi = Rsi(asset.close).getRight();
+        return rsiActions(rsi, sellAt, buyAt, asset.size());
+    }
+
+    // RSI strategy over the bars [offset, offset + length).
+    public static Action[] RsiStrategy(final ChartBar asset, double sellAt, double buyAt, int offset, int length) {
+        double[] rs = new double[length], rsi = new double[length];
+        Rsi(asset.close, offset, length, rs, rsi, 0);
+        return rsiActions(rsi, sellAt, buyAt, length);
+    }
+
+    private static Action[] rsiActions(double[] rsi, double sellAt, double buyAt, int length) {
+        Action[] actions = new Action[length];
+
         for (int i = 0; i < actions.length; i++) {
             if (rsi[i] <= buyAt) {
                 actions[i] = Action.BUY;
@@ -53,17 +77,33 @@ public class MomentumStrategies {
         return RsiStrategy(asset, 70, 30);
     }
 
+    // Default RSI strategy over the bars [offset, offset + length).
+    public static Action[] DefaultRsiStrategy(final ChartBar asset, int offset, int length) {
+        return RsiStrategy(asset, 70, 30, offset, length);
+    }
+
     // Make RSI strategy function.
     public static Strategy MakeRsiStrategy(double sellAt, double buyAt) {
-        return asset -> RsiStrategy(asset, sellAt, buyAt);
+        return Strategy.of(asset -> RsiStrategy(asset, sellAt, buyAt),
+                (asset, offset, length) -> RsiStrategy(asset, sellAt, buyAt, offset, length));
     }
 
     // RSI 2 strategy. When 2-period RSI moves below 10, it is considered deeply oversold,
     // and the other way around when moves above 90.
     public static Action[] Rsi2Strategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] rsi = Rsi2(asset.close).getRight();
+        return rsi2Actions(rsi, asset.size());
+    }
+
+    // RSI 2 strategy over the bars [offset, offset + length).
+    public static Action[] Rsi2Strategy(final ChartBar asset, int offset, int length) {
+        double[] rs = new double[length], rsi = new double[length];
+        Rsi2(asset.close, offset, length, rs, rsi, 0);
+        return rsi2Actions(rsi, length);
+    }
+
+    private static Action[] rsi2Actions(double[] rsi, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (rsi[i] < 10) {
@@ -80,9 +120,19 @@ public class MomentumStrategies {
 
     // Williams R strategy function.
     public static Action[] WilliamsRStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] wr = WilliamsR(asset.low, asset.high, asset.close);
+        return williamsRActions(wr, asset.size());
+    }
+
+    // Williams R strategy over the bars [offset, offset + length).
+    public static Action[] WilliamsRStrategy(final ChartBar asset, int offset, int length) {
+        double[] wr = new double[length];
+        WilliamsR(asset.low, asset.high, asset.close, offset, length, wr, 0);
+        return williamsRActions(wr, length);
+    }
+
+    private static Action[] williamsRActions(double[] wr, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (wr[i] < -20) {
@@ -96,4 +146,87 @@ public class MomentumStrategies {
 
         return actions;
     }
+
+    // Streaming awesome oscillator strategy.
+    public static StreamingStrategy MakeAwesomeOscillatorStreamingStrategy() {
+        SmaState sma5 = new SmaState(5);
+        SmaState sma34 = new SmaState(34);
+        return StreamingStrategy.of(
+                bar -> {
+                    double medianPrice = (bar.low + bar.high) * (1 / 2.0);
+                    return awesomeOscillatorAction(sma5.update(medianPrice) - sma34.update(medianPrice));
+                },
+                bar -> {
+                    double medianPrice = (bar.low + bar.high) * (1 / 2.0);
+                    return awesomeOscillatorAction(sma5.preview(medianPrice) - sma34.preview(medianPrice));
+                });
+    }
+
+    private static Action awesomeOscillatorAction(double ao) {
+        if (ao > 0) {
+            return Action.BUY;
+        } else if (ao < 0) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming RSI strategy. Sells above sell at, buys below buy at.
+    public static StreamingStrategy MakeRsiStreamingStrategy(double sellAt, double buyAt) {
+        RsiState state = new RsiState(14);
+        return StreamingStrategy.of(
+                bar -> rsiAction(state.update(bar.close), sellAt, buyAt),
+                bar -> rsiAction(state.preview(bar.close), sellAt, buyAt));
+    }
+
+    private static Action rsiAction(double rsi, double sellAt, double buyAt) {
+        if (rsi <= buyAt) {
+            return Action.BUY;
+        } else if (rsi >= sellAt) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Default streaming RSI strategy. It buys below 30 and sells above 70.
+    public static StreamingStrategy DefaultRsiStreamingStrategy() {
+        return MakeRsiStreamingStrategy(70, 30);
+    }
+
+    // Streaming RSI 2 strategy.
+    public static StreamingStrategy MakeRsi2StreamingStrategy() {
+        RsiState state = new RsiState(2);
+        return StreamingStrategy.of(
+                bar -> rsi2Action(state.update(bar.close)),
+                bar -> rsi2Action(state.preview(bar.close)));
+    }
+
+    private static Action rsi2Action(double rsi) {
+        if (rsi < 10) {
+            return Action.BUY;
+        } else if (rsi > 90) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming Williams R strategy.
+    public static StreamingStrategy MakeWilliamsRStreamingStrategy() {
+        MonotonicDeque highest = MonotonicDeque.max(14);
+        MonotonicDeque lowest = MonotonicDeque.min(14);
+        return StreamingStrategy.of(
+                bar -> williamsRAction(highest.push(bar.high), lowest.push(bar.low), bar.close),
+                bar -> williamsRAction(highest.peek(bar.high), lowest.peek(bar.low), bar.close));
+    }
+
+    private static Action williamsRAction(double highestHigh, double lowestLow, double closing) {
+        double wr = (highestHigh - closing) / (highestHigh - lowestLow) * (-100);
+
+        if (wr < -20) {
+            return Action.SELL;
+        } else if (wr > -80) {
+            return Action.BUY;
+        }
+        return Action.HOLD;
+    }
 }
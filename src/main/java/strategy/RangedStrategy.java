@@ -0,0 +1,18 @@
+package strategy;
+
+import model.Action;
+import model.ChartBar;
+
+/**
+ * 区间策略 - 只对 ChartBar 的一段运行，数组原地读取，不复制
+ * <p>
+ * Combine it with the strategy over the whole chart bar by
+ * {@link Strategy#of(Strategy, RangedStrategy)}, for example
+ * {@code Strategy.of(TrendStrategies::MacdStrategy, TrendStrategies::MacdStrategy)}.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public interface RangedStrategy {
+    // Returns length actions for the bars [offset, offset + length).
+    Action[] run(final ChartBar chartBar, int offset, int length);
+}
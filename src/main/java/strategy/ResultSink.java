@@ -0,0 +1,20 @@
+package strategy;
+
+import model.Action;
+
+import java.util.List;
+
+/**
+ * 批量运行的结果接收 - {@link BatchEngine} 每算完一个品种调用一次
+ * <p>
+ * 调用来自工作线程，但同一时刻只有一个，按完成的顺序，不是输入的顺序。
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public interface ResultSink {
+    // the actions of each strategy for the symbol
+    void onResult(String symbol, List<Action[]> actions);
+
+    // loading or running the strategies for the symbol failed, the others go on
+    void onFailure(String symbol, Exception e);
+}
@@ -1,7 +1,12 @@
 package strategy;
 
+import indicator.IndicatorCache;
 import model.Action;
 import model.ChartBar;
+import model.Signals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The SeparateStrategies function takes a buy strategy and a sell strategy.
@@ -13,12 +18,24 @@ import model.ChartBar;
  * and the buy strategy returns a HOLD action.
  * <p>
  * It returns HOLD otherwise.
+ * <p>
+ * The strategies made by {@link #parallel} run the sell strategy on the
+ * executor while the buy strategy runs on the calling thread.
  *
  * @author jinfeng.hu  @Date 2022/10/14
  **/
 public class SeparateStrategy implements Strategy {
+    // 买卖策略并行运行
+    public static Strategy parallel(Executor executor, Strategy buyStrategy, Strategy sellStrategy) {
+        SeparateStrategy strategy = new SeparateStrategy(buyStrategy, sellStrategy);
+        strategy.executor = executor;
+        return strategy;
+    }
+
     Strategy buyStrategy;
     Strategy sellStrategy;
+    // null时买卖策略逐个运行
+    Executor executor;
 
     public SeparateStrategy(Strategy buyStrategy, Strategy sellStrategy) {
         this.buyStrategy = buyStrategy;
@@ -27,14 +44,67 @@ public class SeparateStrategy implements Strategy {
 
     @Override
     public Action[] run(ChartBar asset) {
+        return run(asset, 0, asset.size());
+    }
+
+    // The buy and sell strategies run over the window as well.
+    @Override
+    public Action[] run(ChartBar asset, int offset, int length) {
         if (null == buyStrategy || null == sellStrategy) {
             return null;
         }
-        Action[] actions = new Action[asset.getDatetime().length];
-        Action[] buyActions = buyStrategy.run(asset);
-        Action[] sellActions = sellStrategy.run(asset);
+        Action[] actions = new Action[length];
+        Action[] buyActions, sellActions;
+        // 买卖策略共用指标缓存
+        IndicatorCache cache = IndicatorCache.open();
+        try {
+            if (executor == null) {
+                buyActions = buyStrategy.run(asset, offset, length);
+                sellActions = sellStrategy.run(asset, offset, length);
+            } else {
+                CompletableFuture<Action[]> sell = CompletableFuture.supplyAsync(
+                        () -> StrategyHelper.runIn(cache, sellStrategy, asset, offset, length), executor);
+                try {
+                    buyActions = buyStrategy.run(asset, offset, length);
+                } catch (RuntimeException | Error e) {
+                    sell.cancel(false);
+                    throw e;
+                }
+                sellActions = StrategyHelper.join(sell);
+            }
+        } finally {
+            cache.close();
+        }
 
-        for (int i = 0; i < actions.length; i++) {
+        if (executor == null) {
+            merge(buyActions, sellActions, actions, 0, actions.length);
+        } else {
+            StrategyHelper.forEachChunk(executor, actions.length,
+                    (from, to) -> merge(buyActions, sellActions, actions, from, to));
+        }
+
+        return actions;
+    }
+
+    // Sequentially, the signals of buy and sell are combined 64 bars at a time.
+    @Override
+    public Signals signals(ChartBar asset, int offset, int length) {
+        if (null == buyStrategy || null == sellStrategy) {
+            return null;
+        }
+        if (executor != null) {
+            return Signals.of(run(asset, offset, length));
+        }
+        IndicatorCache cache = IndicatorCache.open();
+        try {
+            return Signals.separate(buyStrategy.signals(asset, offset, length), sellStrategy.signals(asset, offset, length));
+        } finally {
+            cache.close();
+        }
+    }
+
+    private static void merge(Action[] buyActions, Action[] sellActions, Action[] actions, int from, int to) {
+        for (int i = from; i < to; i++) {
             if (buyActions[i] == Action.BUY && sellActions[i] == Action.HOLD) {
                 actions[i] = Action.BUY;
             } else if (sellActions[i] == Action.SELL && buyActions[i] == Action.HOLD) {
@@ -43,7 +113,5 @@ public class SeparateStrategy implements Strategy {
                 actions[i] = Action.HOLD;
             }
         }
-
-        return actions;
     }
 }
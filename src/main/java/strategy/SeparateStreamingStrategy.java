@@ -0,0 +1,52 @@
+package strategy;
+
+import model.Action;
+import model.Bar;
+
+/**
+ * 流式的 {@link SeparateStrategy}，一个买入策略加一个卖出策略
+ * <p>
+ * It returns a BUY action if the buy strategy returns a BUY action and
+ * the the sell strategy returns a HOLD action.
+ * <p>
+ * It returns a SELL action if the sell strategy returns a SELL action
+ * and the buy strategy returns a HOLD action.
+ * <p>
+ * It returns HOLD otherwise.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class SeparateStreamingStrategy implements StreamingStrategy {
+    StreamingStrategy buyStrategy;
+    StreamingStrategy sellStrategy;
+
+    public SeparateStreamingStrategy(StreamingStrategy buyStrategy, StreamingStrategy sellStrategy) {
+        this.buyStrategy = buyStrategy;
+        this.sellStrategy = sellStrategy;
+    }
+
+    @Override
+    public Action onBar(final Bar bar) {
+        if (null == buyStrategy || null == sellStrategy) {
+            return null;
+        }
+        return combine(buyStrategy.onBar(bar), sellStrategy.onBar(bar));
+    }
+
+    @Override
+    public Action preview(final Bar bar) {
+        if (null == buyStrategy || null == sellStrategy) {
+            return null;
+        }
+        return combine(buyStrategy.preview(bar), sellStrategy.preview(bar));
+    }
+
+    private static Action combine(Action buyAction, Action sellAction) {
+        if (buyAction == Action.BUY && sellAction == Action.HOLD) {
+            return Action.BUY;
+        } else if (sellAction == Action.SELL && buyAction == Action.HOLD) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+}
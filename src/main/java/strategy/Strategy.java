@@ -2,13 +2,59 @@ package strategy;
 
 import model.Action;
 import model.ChartBar;
+import model.Signals;
+
+import static indicator.Helper.checkRange;
 
 /**
  * 策略接口 - 这个接口的设计适合回测，但不适合实时交易的时间序列滚动处理
+ * 实时交易使用 {@link StreamingStrategy}
  *
  * @author jinfeng.hu  @Date 2022-10-06
  **/
 public interface Strategy {
     // run strategy
     Action[] run(final ChartBar chartBar);
+
+    // Runs over the bars [offset, offset + length) as if they were a chart
+    // bar of their own, for walk forward windows. The default copies the
+    // bars, the strategies of this package read them in place.
+    default Action[] run(final ChartBar chartBar, int offset, int length) {
+        if (offset == 0 && length == chartBar.size()) {
+            return run(chartBar);
+        }
+        return run(chartBar.copy(offset, length));
+    }
+
+    // The actions as signals, see Signals.
+    default Signals signals(final ChartBar chartBar) {
+        return signals(chartBar, 0, chartBar.size());
+    }
+
+    // The actions of the bars [offset, offset + length) as signals. The
+    // default converts the actions, AllStrategy and SeparateStrategy combine
+    // the signals of their children 64 bars at a time.
+    default Signals signals(final ChartBar chartBar, int offset, int length) {
+        return Signals.of(run(chartBar, offset, length));
+    }
+
+    // A strategy that runs whole chart bars by strategy and windows by ranged.
+    static Strategy of(Strategy strategy, RangedStrategy ranged) {
+        return new Strategy() {
+            @Override
+            public Action[] run(ChartBar chartBar) {
+                return strategy.run(chartBar);
+            }
+
+            @Override
+            public Action[] run(ChartBar chartBar, int offset, int length) {
+                // 整段走原来的版本，指标缓存照常共享
+                if (offset == 0 && length == chartBar.size()) {
+                    return strategy.run(chartBar);
+                }
+                checkRange(offset, length, chartBar.close);
+                return ranged.run(chartBar, offset, length);
+            }
+        };
+    }
 }
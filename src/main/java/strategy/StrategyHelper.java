@@ -1,23 +1,108 @@
 package strategy;
 
+import indicator.IndicatorCache;
 import model.Action;
+import model.Bar;
 import model.ChartBar;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * @author jinfeng.hu  @Date 2022/10/14
  **/
 public class StrategyHelper {
 
-    // takes one or more Strategy and returns the actions for each.
+    // takes one or more Strategy and returns the actions for each,
+    // indicators shared by the strategies are computed once.
     public static List<Action[]> run(final ChartBar chartBar, Strategy... all) {
         List<Action[]> ret = new ArrayList<>(all.length);
-        for (Strategy strategy : all) {
-            ret.add(strategy.run(chartBar));
+        IndicatorCache cache = IndicatorCache.open();
+        try {
+            for (Strategy strategy : all) {
+                ret.add(strategy.run(chartBar));
+            }
+        } finally {
+            cache.close();
         }
         return ret;
     }
 
+    // feeds the bars of the chart bar to the streaming strategy one by one
+    // and returns the action for each.
+    public static Action[] runStreaming(final ChartBar chartBar, StreamingStrategy strategy) {
+        Action[] actions = new Action[chartBar.size()];
+        Bar bar = new Bar();
+        for (int i = 0; i < actions.length; i++) {
+            // 只有时间列时不逐根格式化，见 Bar.datetime()
+            if (chartBar.datetime != null) {
+                bar.datetime = chartBar.datetime[i];
+            }
+            if (chartBar.time != null) {
+                bar.time = chartBar.time[i];
+            }
+            bar.open = chartBar.open[i];
+            bar.high = chartBar.high[i];
+            bar.low = chartBar.low[i];
+            bar.close = chartBar.close[i];
+            bar.volume = chartBar.volume[i];
+            actions[i] = strategy.onBar(bar);
+        }
+        return actions;
+    }
+
+    // 并行合并时每块的长度
+    static final int CHUNK = 1 << 16;
+
+    // A piece of work over [from, to).
+    interface Chunk {
+        void run(int from, int to);
+    }
+
+    // runs the strategy over the window on the current thread inside of the cache.
+    static Action[] runIn(IndicatorCache cache, Strategy strategy, final ChartBar chartBar, int offset, int length) {
+        cache.enter();
+        try {
+            return strategy.run(chartBar, offset, length);
+        } finally {
+            cache.close();
+        }
+    }
+
+    // runs chunk over [0, length) in pieces of CHUNK, the first piece on the
+    // current thread and the others on the executor, and waits for all.
+    static void forEachChunk(Executor executor, int length, Chunk chunk) {
+        if (length <= CHUNK) {
+            chunk.run(0, length);
+            return;
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[(length - 1) / CHUNK];
+        for (int i = 0; i < futures.length; i++) {
+            int from = (i + 1) * CHUNK;
+            int to = Math.min(length, from + CHUNK);
+            futures[i] = CompletableFuture.runAsync(() -> chunk.run(from, to), executor);
+        }
+        chunk.run(0, CHUNK);
+        join(CompletableFuture.allOf(futures));
+    }
+
+    // waits for the future and throws what its task threw.
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
 }
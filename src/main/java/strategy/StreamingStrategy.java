@@ -0,0 +1,44 @@
+package strategy;
+
+import model.Action;
+import model.Bar;
+
+import java.util.function.Function;
+
+/**
+ * 流式策略接口 - 有状态，每来一根K线调用一次，适合实时交易的时间序列滚动处理
+ * <p>
+ * 一个实例对应一个时间序列，K线必须按时间顺序传入。
+ * 第i根K线返回的Action与只用前i根K线跑 {@link Strategy} 得到的最后一个Action一致。
+ * <p>
+ * A bar still forming (the current minute, changing on every trade) goes to
+ * {@link #preview(Bar)}, which returns the action as if the bar were final
+ * and changes no state. Each trade previews again, onBar with the final bar
+ * commits it when the bar closes. Combinations preview all their parts, so
+ * every streaming strategy has a preview, {@link #of} makes one of two lambdas.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public interface StreamingStrategy {
+    // process the next bar, returns the action of the bar
+    Action onBar(final Bar bar);
+
+    // the action of the bar as if it were the final next one, the state does not change
+    Action preview(final Bar bar);
+
+    // A streaming strategy of onBar, with preview for the bars not final yet.
+    // The two share the state, usually a state class with update and preview.
+    static StreamingStrategy of(Function<Bar, Action> onBar, Function<Bar, Action> preview) {
+        return new StreamingStrategy() {
+            @Override
+            public Action onBar(Bar bar) {
+                return onBar.apply(bar);
+            }
+
+            @Override
+            public Action preview(Bar bar) {
+                return preview.apply(bar);
+            }
+        };
+    }
+}
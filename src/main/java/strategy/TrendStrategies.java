@@ -2,9 +2,17 @@ package strategy;
 
 import base.Pair;
 import base.Triple;
+import indicator.KdjState;
+import indicator.LeastSquareState;
+import indicator.MacdState;
+import indicator.MovingLeastSquareState;
+import indicator.SmaState;
+import indicator.SumState;
 import model.Action;
+import model.Bar;
 import model.ChartBar;
 
+import static indicator.Helper.checkRange;
 import static indicator.TrendIndicators.*;
 
 /**
@@ -14,9 +22,20 @@ public class TrendStrategies {
 
     // Chande forecast oscillator strategy.
     public static Action[] ChandeForecastOscillatorStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] cfo = ChandeForecastOscillator(asset.getClose());
+        return cfoActions(cfo, asset.size());
+    }
+
+    // Chande forecast oscillator strategy over the bars [offset, offset + length).
+    public static Action[] ChandeForecastOscillatorStrategy(final ChartBar asset, int offset, int length) {
+        double[] cfo = new double[length];
+        ChandeForecastOscillator(asset.close, offset, length, cfo, 0);
+        return cfoActions(cfo, length);
+    }
+
+    private static Action[] cfoActions(double[] cfo, int length) {
+        Action[] actions = new Action[length];
+
         for (int i = 0; i < actions.length; i++) {
             if (cfo[i] < 0) {
                 actions[i] = Action.BUY;
@@ -32,26 +51,21 @@ public class TrendStrategies {
 
     // Moving chande forecast oscillator strategy function.
     public static Action[] MovingChandeForecastOscillatorStrategy(int period, final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] cfo = MovingChandeForecastOscillator(period, asset.close);
+        return cfoActions(cfo, asset.size());
+    }
 
-        for (int i = 0; i < actions.length; i++) {
-            if (cfo[i] < 0) {
-                actions[i] = Action.BUY;
-            } else if (cfo[i] > 0) {
-                actions[i] = Action.SELL;
-            } else {
-                actions[i] = Action.HOLD;
-            }
-        }
-
-        return actions;
+    // Moving chande forecast oscillator strategy over the bars [offset, offset + length).
+    public static Action[] MovingChandeForecastOscillatorStrategy(int period, final ChartBar asset, int offset, int length) {
+        double[] cfo = new double[length];
+        MovingChandeForecastOscillator(period, asset.close, offset, length, cfo, 0);
+        return cfoActions(cfo, length);
     }
 
     // Make moving chande forecast oscillator strategy.
     public static Strategy MakeMovingChandeForecastOscillatorStrategy(int period) {
-        return asset -> MovingChandeForecastOscillatorStrategy(period, asset);
+        return Strategy.of(asset -> MovingChandeForecastOscillatorStrategy(period, asset),
+                (asset, offset, length) -> MovingChandeForecastOscillatorStrategy(period, asset, offset, length));
     }
 
     // The KdjStrategy function uses the k, d, j values that are generated by
@@ -62,9 +76,19 @@ public class TrendStrategies {
     //
     // Returns actions.
     public static Action[] KdjStrategy(int rPeriod, int kPeriod, int dPeriod, final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
         Triple<double[], double[], double[]> triple = Kdj(rPeriod, kPeriod, dPeriod, asset.high, asset.low, asset.close);
-        double[] k = triple.getLeft(), d = triple.getMiddle(), j = triple.getRight();
+        return kdjActions(triple.getLeft(), triple.getMiddle(), triple.getRight(), asset.size());
+    }
+
+    // KDJ strategy over the bars [offset, offset + length).
+    public static Action[] KdjStrategy(int rPeriod, int kPeriod, int dPeriod, final ChartBar asset, int offset, int length) {
+        double[] k = new double[length], d = new double[length], j = new double[length];
+        Kdj(rPeriod, kPeriod, dPeriod, asset.high, asset.low, asset.close, offset, length, k, d, j, 0);
+        return kdjActions(k, d, j, length);
+    }
+
+    private static Action[] kdjActions(double[] k, double[] d, double[] j, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if ((k[i] > d[i]) && (k[i] > j[i]) && (k[i] <= 20)) {
@@ -81,7 +105,8 @@ public class TrendStrategies {
 
     // Make KDJ strategy function.
     public static Strategy MakeKdjStrategy(int rPeriod, int kPeriod, int dPeriod) {
-        return asset -> KdjStrategy(rPeriod, kPeriod, dPeriod, asset);
+        return Strategy.of(asset -> KdjStrategy(rPeriod, kPeriod, dPeriod, asset),
+                (asset, offset, length) -> KdjStrategy(rPeriod, kPeriod, dPeriod, asset, offset, length));
     }
 
     // Default KDJ strategy function.
@@ -89,12 +114,26 @@ public class TrendStrategies {
         return KdjStrategy(9, 3, 3, asset);
     }
 
+    // Default KDJ strategy over the bars [offset, offset + length).
+    public static Action[] DefaultKdjStrategy(final ChartBar asset, int offset, int length) {
+        return KdjStrategy(9, 3, 3, asset, offset, length);
+    }
+
     // MACD strategy.
     public static Action[] MacdStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
         Pair<double[], double[]> pair = Macd(asset.close);
-        double[] macd = pair.getLeft();
-        double[] signal = pair.getRight();
+        return macdActions(pair.getLeft(), pair.getRight(), asset.size());
+    }
+
+    // MACD strategy over the bars [offset, offset + length).
+    public static Action[] MacdStrategy(final ChartBar asset, int offset, int length) {
+        double[] macd = new double[length], signal = new double[length];
+        Macd(asset.close, offset, length, macd, signal, 0);
+        return macdActions(macd, signal, length);
+    }
+
+    private static Action[] macdActions(double[] macd, double[] signal, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (macd[i] > signal[i]) {
@@ -112,20 +151,26 @@ public class TrendStrategies {
     // Trend strategy. Buy when trending up for count times,
     // sell when trending down for count times.
     public static Action[] TrendStrategy(final ChartBar asset, int count) {
-        Action[] actions = new Action[asset.getDatetime().length];
+        return TrendStrategy(asset, count, 0, asset.size());
+    }
+
+    // Trend strategy over the bars [offset, offset + length).
+    public static Action[] TrendStrategy(final ChartBar asset, int count, int offset, int length) {
+        checkRange(offset, length, asset.close);
+        Action[] actions = new Action[length];
 
         if (actions.length == 0) {
             return actions;
         }
 
-        double lastClosing = asset.close[0];
+        double lastClosing = asset.close[offset];
         int trendCount = 1;
         boolean trendUp = false;
 
         actions[0] = Action.HOLD;
 
         for (int i = 1; i < actions.length; i++) {
-            double closing = asset.close[i];
+            double closing = asset.close[offset + i];
 
             if (trendUp && (lastClosing <= closing)) {
                 trendCount++;
@@ -154,7 +199,8 @@ public class TrendStrategies {
 
     // Make trend strategy function.
     public static Strategy MakeTrendStrategy(int count) {
-        return asset -> TrendStrategy(asset, count);
+        return Strategy.of(asset -> TrendStrategy(asset, count),
+                (asset, offset, length) -> TrendStrategy(asset, count, offset, length));
     }
 
     // The VwmaStrategy function uses SMA and VWMA indicators to provide
@@ -163,10 +209,21 @@ public class TrendStrategies {
     //
     // Returns actions
     public static Action[] VwmaStrategy(final ChartBar asset, int period) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] sma = sma(period, asset.close);
         double[] vwma = Vwma(period, asset.close, asset.volume);
+        return vwmaActions(sma, vwma, asset.size());
+    }
+
+    // VWMA strategy over the bars [offset, offset + length).
+    public static Action[] VwmaStrategy(final ChartBar asset, int period, int offset, int length) {
+        double[] sma = new double[length], vwma = new double[length];
+        sma(period, asset.close, offset, length, sma, 0);
+        Vwma(period, asset.close, asset.volume, offset, length, vwma, 0);
+        return vwmaActions(sma, vwma, length);
+    }
+
+    private static Action[] vwmaActions(double[] sma, double[] vwma, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (vwma[i] > sma[i]) {
@@ -183,11 +240,191 @@ public class TrendStrategies {
 
     // Makes a VWMA strategy for the given period.
     public static Strategy MakeVwmaStrategy(int period) {
-        return asset -> VwmaStrategy(asset, period);
+        return Strategy.of(asset -> VwmaStrategy(asset, period),
+                (asset, offset, length) -> VwmaStrategy(asset, period, offset, length));
     }
 
     // Default VWMA strategy function.
     public static Action[] DefaultVwmaStrategy(final ChartBar asset) {
         return VwmaStrategy(asset, 20);
     }
+
+    // Default VWMA strategy over the bars [offset, offset + length).
+    public static Action[] DefaultVwmaStrategy(final ChartBar asset, int offset, int length) {
+        return VwmaStrategy(asset, 20, offset, length);
+    }
+
+    // Streaming chande forecast oscillator strategy. The regression line is
+    // fitted over all bars received so far.
+    public static StreamingStrategy MakeChandeForecastOscillatorStreamingStrategy() {
+        LeastSquareState ls = new LeastSquareState();
+        return StreamingStrategy.of(
+                bar -> {
+                    double x = ls.count();
+                    double m = ls.update(x, bar.close);
+                    return chandeForecastOscillatorAction(bar.close, (m * x) + ls.b());
+                },
+                bar -> {
+                    double x = ls.count();
+                    double m = ls.preview(x, bar.close);
+                    return chandeForecastOscillatorAction(bar.close, (m * x) + ls.previewB());
+                });
+    }
+
+    private static Action chandeForecastOscillatorAction(double closing, double forecast) {
+        double cfo = ((closing - forecast) / closing) * 100;
+
+        if (cfo < 0) {
+            return Action.BUY;
+        } else if (cfo > 0) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming moving chande forecast oscillator strategy.
+    public static StreamingStrategy MakeMovingChandeForecastOscillatorStreamingStrategy(int period) {
+        MovingLeastSquareState mls = new MovingLeastSquareState(period);
+        return StreamingStrategy.of(
+                bar -> {
+                    double x = mls.count();
+                    double m = mls.update(x, bar.close);
+                    return chandeForecastOscillatorAction(bar.close, (m * x) + mls.b());
+                },
+                bar -> {
+                    double x = mls.count();
+                    double m = mls.preview(x, bar.close);
+                    return chandeForecastOscillatorAction(bar.close, (m * x) + mls.previewB());
+                });
+    }
+
+    // Streaming KDJ strategy.
+    public static StreamingStrategy MakeKdjStreamingStrategy(int rPeriod, int kPeriod, int dPeriod) {
+        KdjState kdj = new KdjState(rPeriod, kPeriod, dPeriod);
+        return StreamingStrategy.of(
+                bar -> kdjAction(kdj.update(bar.high, bar.low, bar.close), kdj.d(), kdj.j()),
+                bar -> kdjAction(kdj.preview(bar.high, bar.low, bar.close), kdj.previewD(), kdj.previewJ()));
+    }
+
+    private static Action kdjAction(double k, double d, double j) {
+        if ((k > d) && (k > j) && (k <= 20)) {
+            return Action.BUY;
+        } else if ((k < d) && (k < j) && (k >= 80)) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Default streaming KDJ strategy.
+    public static StreamingStrategy DefaultKdjStreamingStrategy() {
+        return MakeKdjStreamingStrategy(9, 3, 3);
+    }
+
+    // Streaming MACD strategy.
+    public static StreamingStrategy MakeMacdStreamingStrategy() {
+        MacdState state = new MacdState();
+        return StreamingStrategy.of(
+                bar -> macdAction(state.update(bar.close), state.signal()),
+                bar -> macdAction(state.preview(bar.close), state.previewSignal()));
+    }
+
+    private static Action macdAction(double macd, double signal) {
+        if (macd > signal) {
+            return Action.BUY;
+        } else if (macd < signal) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming trend strategy.
+    public static StreamingStrategy MakeTrendStreamingStrategy(int count) {
+        return new StreamingStrategy() {
+            private double lastClosing;
+            private int trendCount = 1;
+            private boolean trendUp = false;
+            private boolean first = true;
+
+            @Override
+            public Action onBar(Bar bar) {
+                double closing = bar.close;
+                if (first) {
+                    first = false;
+                    lastClosing = closing;
+                    return Action.HOLD;
+                }
+
+                if (trendUp && (lastClosing <= closing)) {
+                    trendCount++;
+                } else if (!trendUp && (lastClosing >= closing)) {
+                    trendCount++;
+                } else {
+                    trendUp = !trendUp;
+                    trendCount = 1;
+                }
+
+                lastClosing = closing;
+
+                if (trendCount >= count) {
+                    return trendUp ? Action.BUY : Action.SELL;
+                }
+                return Action.HOLD;
+            }
+
+            @Override
+            public Action preview(Bar bar) {
+                if (first) {
+                    return Action.HOLD;
+                }
+
+                double closing = bar.close;
+                int nextCount = 1;
+                boolean nextUp = !trendUp;
+                if (trendUp && (lastClosing <= closing)) {
+                    nextCount = trendCount + 1;
+                    nextUp = true;
+                } else if (!trendUp && (lastClosing >= closing)) {
+                    nextCount = trendCount + 1;
+                    nextUp = false;
+                }
+
+                if (nextCount >= count) {
+                    return nextUp ? Action.BUY : Action.SELL;
+                }
+                return Action.HOLD;
+            }
+        };
+    }
+
+    // Streaming VWMA strategy.
+    public static StreamingStrategy MakeVwmaStreamingStrategy(int period) {
+        SmaState sma = new SmaState(period);
+        SumState priceVolume = new SumState(period);
+        SumState volume = new SumState(period);
+        return StreamingStrategy.of(
+                bar -> {
+                    double v = bar.volume;
+                    double s = sma.update(bar.close);
+                    return vwmaAction(priceVolume.update(bar.close * v) / volume.update(v), s);
+                },
+                bar -> {
+                    double v = bar.volume;
+                    double s = sma.preview(bar.close);
+                    return vwmaAction(priceVolume.preview(bar.close * v) / volume.preview(v), s);
+                });
+    }
+
+    private static Action vwmaAction(double vwma, double sma) {
+        if (vwma > sma) {
+            return Action.BUY;
+        } else if (vwma < sma) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Default streaming VWMA strategy.
+    public static StreamingStrategy DefaultVwmaStreamingStrategy() {
+        return MakeVwmaStreamingStrategy(20);
+    }
 }
@@ -1,7 +1,11 @@
 package strategy;
 
+import base.MonotonicDeque;
 import base.Pair;
 import base.Triple;
+import indicator.BollingerState;
+import indicator.EmaState;
+import indicator.MovingLeastSquareState;
 import model.Action;
 import model.ChartBar;
 
@@ -15,15 +19,24 @@ public class VolatilityStrategies {
 
     // Bollinger bands strategy public static Action[]tion.
     public static Action[] BollingerBandsStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
         Triple<double[], double[], double[]> triple = BollingerBands(asset.close);
-        double[] upperBand = triple.getMiddle();
-        double[] lowerBand = triple.getRight();
+        return bollingerBandsActions(asset.close, 0, triple.getMiddle(), triple.getRight(), asset.size());
+    }
+
+    // Bollinger bands strategy over the bars [offset, offset + length).
+    public static Action[] BollingerBandsStrategy(final ChartBar asset, int offset, int length) {
+        double[] middleBand = new double[length], upperBand = new double[length], lowerBand = new double[length];
+        BollingerBands(asset.close, offset, length, middleBand, upperBand, lowerBand, 0);
+        return bollingerBandsActions(asset.close, offset, upperBand, lowerBand, length);
+    }
+
+    private static Action[] bollingerBandsActions(double[] close, int offset, double[] upperBand, double[] lowerBand, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
-            if (asset.close[i] > upperBand[i]) {
+            if (close[offset + i] > upperBand[i]) {
                 actions[i] = Action.SELL;
-            } else if (asset.close[i] < lowerBand[i]) {
+            } else if (close[offset + i] < lowerBand[i]) {
                 actions[i] = Action.BUY;
             } else {
                 actions[i] = Action.HOLD;
@@ -35,16 +48,24 @@ public class VolatilityStrategies {
 
     // Projection oscillator strategy public static Action[]tion.
     public static Action[] ProjectionOscillatorStrategy(int period, int smooth, final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         Pair<double[], double[]> pair = ProjectionOscillator(
                 period,
                 smooth,
                 asset.high,
                 asset.low,
                 asset.close);
-        double[] po = pair.getLeft();
-        double[] spo = pair.getRight();
+        return projectionOscillatorActions(pair.getLeft(), pair.getRight(), asset.size());
+    }
+
+    // Projection oscillator strategy over the bars [offset, offset + length).
+    public static Action[] ProjectionOscillatorStrategy(int period, int smooth, final ChartBar asset, int offset, int length) {
+        double[] po = new double[length], spo = new double[length];
+        ProjectionOscillator(period, smooth, asset.high, asset.low, asset.close, offset, length, po, spo, 0);
+        return projectionOscillatorActions(po, spo, length);
+    }
+
+    private static Action[] projectionOscillatorActions(double[] po, double[] spo, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (po[i] > spo[i]) {
@@ -61,7 +82,69 @@ public class VolatilityStrategies {
 
     // Make projection oscillator strategy.
     public static Strategy MakeProjectionOscillatorStrategy(int period, int smooth) {
-        return asset -> ProjectionOscillatorStrategy(period, smooth, asset);
+        return Strategy.of(asset -> ProjectionOscillatorStrategy(period, smooth, asset),
+                (asset, offset, length) -> ProjectionOscillatorStrategy(period, smooth, asset, offset, length));
+    }
+
+    // Streaming bollinger bands strategy.
+    public static StreamingStrategy MakeBollingerBandsStreamingStrategy() {
+        BollingerState state = new BollingerState(20);
+        return StreamingStrategy.of(
+                bar -> {
+                    state.update(bar.close);
+                    return bollingerBandsAction(bar.close, state.upper(), state.lower());
+                },
+                bar -> {
+                    state.preview(bar.close);
+                    return bollingerBandsAction(bar.close, state.previewUpper(), state.previewLower());
+                });
+    }
+
+    private static Action bollingerBandsAction(double closing, double upper, double lower) {
+        if (closing > upper) {
+            return Action.SELL;
+        } else if (closing < lower) {
+            return Action.BUY;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming projection oscillator strategy.
+    public static StreamingStrategy MakeProjectionOscillatorStreamingStrategy(int period, int smooth) {
+        MovingLeastSquareState mlsHigh = new MovingLeastSquareState(period);
+        MovingLeastSquareState mlsLow = new MovingLeastSquareState(period);
+        MonotonicDeque pu = MonotonicDeque.max(period);
+        MonotonicDeque pl = MonotonicDeque.min(period);
+        EmaState spo = new EmaState(smooth);
+        return StreamingStrategy.of(
+                bar -> {
+                    double x = mlsHigh.count();
+                    double vHigh = bar.high + (mlsHigh.update(x, bar.high) * x);
+                    double vLow = bar.low + (mlsLow.update(x, bar.low) * x);
+
+                    double upper = pu.push(vHigh);
+                    double lower = pl.push(vLow);
+                    double po = ((bar.close - lower) * 100) / (upper - lower);
+                    return projectionOscillatorAction(po, spo.update(po));
+                },
+                bar -> {
+                    double x = mlsHigh.count();
+                    double vHigh = bar.high + (mlsHigh.preview(x, bar.high) * x);
+                    double vLow = bar.low + (mlsLow.preview(x, bar.low) * x);
+
+                    double upper = pu.peek(vHigh);
+                    double lower = pl.peek(vLow);
+                    double po = ((bar.close - lower) * 100) / (upper - lower);
+                    return projectionOscillatorAction(po, spo.preview(po));
+                });
     }
 
+    private static Action projectionOscillatorAction(double po, double spo) {
+        if (po > spo) {
+            return Action.BUY;
+        } else if (po < spo) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
 }
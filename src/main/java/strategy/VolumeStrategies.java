@@ -1,6 +1,12 @@
 package strategy;
 
+import indicator.EmaState;
+import indicator.MoneyFlowIndexState;
+import indicator.NegativeVolumeIndexState;
+import indicator.SmaState;
+import indicator.SumState;
 import model.Action;
+import model.Bar;
 import model.ChartBar;
 
 import static indicator.TrendIndicators.Ema;
@@ -13,13 +19,23 @@ public class VolumeStrategies {
 
     // Money flow index strategy.
     public static Action[] MoneyFlowIndexStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] moneyFlowIndex = DefaultMoneyFlowIndex(
                 asset.high,
                 asset.low,
                 asset.close,
                 asset.volume);
+        return moneyFlowIndexActions(moneyFlowIndex, asset.size());
+    }
+
+    // Money flow index strategy over the bars [offset, offset + length).
+    public static Action[] MoneyFlowIndexStrategy(final ChartBar asset, int offset, int length) {
+        double[] moneyFlowIndex = new double[length];
+        DefaultMoneyFlowIndex(asset.high, asset.low, asset.close, asset.volume, offset, length, moneyFlowIndex, 0);
+        return moneyFlowIndexActions(moneyFlowIndex, length);
+    }
+
+    private static Action[] moneyFlowIndexActions(double[] moneyFlowIndex, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (moneyFlowIndex[i] >= 80) {
@@ -34,14 +50,25 @@ public class VolumeStrategies {
 
     // Force index strategy public static Action[]tion.
     public static Action[] ForceIndexStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] forceIndex = DefaultForceIndex(asset.close, asset.volume);
+        return signActions(forceIndex, asset.size());
+    }
+
+    // Force index strategy over the bars [offset, offset + length).
+    public static Action[] ForceIndexStrategy(final ChartBar asset, int offset, int length) {
+        double[] forceIndex = new double[length];
+        DefaultForceIndex(asset.close, asset.volume, offset, length, forceIndex, 0);
+        return signActions(forceIndex, length);
+    }
+
+    // BUY above 0, SELL below 0.
+    private static Action[] signActions(double[] values, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
-            if (forceIndex[i] > 0) {
+            if (values[i] > 0) {
                 actions[i] = Action.BUY;
-            } else if (forceIndex[i] < 0) {
+            } else if (values[i] < 0) {
                 actions[i] = Action.SELL;
             } else {
                 actions[i] = Action.HOLD;
@@ -53,33 +80,37 @@ public class VolumeStrategies {
 
     // Ease of movement strategy.
     public static Action[] EaseOfMovementStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] emv = DefaultEaseOfMovement(asset.high, asset.low, asset.volume);
+        return signActions(emv, asset.size());
+    }
 
-        for (int i = 0; i < actions.length; i++) {
-            if (emv[i] > 0) {
-                actions[i] = Action.BUY;
-            } else if (emv[i] < 0) {
-                actions[i] = Action.SELL;
-            } else {
-                actions[i] = Action.HOLD;
-            }
-        }
-
-        return actions;
+    // Ease of movement strategy over the bars [offset, offset + length).
+    public static Action[] EaseOfMovementStrategy(final ChartBar asset, int offset, int length) {
+        double[] emv = new double[length];
+        DefaultEaseOfMovement(asset.high, asset.low, asset.volume, offset, length, emv, 0);
+        return signActions(emv, length);
     }
 
     // Volume weighted average price strategy public static Action[]tion.
     public static Action[] VolumeWeightedAveragePriceStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] vwap = DefaultVolumeWeightedAveragePrice(asset.close, asset.volume);
+        return vwapActions(vwap, asset.close, 0, asset.size());
+    }
+
+    // Volume weighted average price strategy over the bars [offset, offset + length).
+    public static Action[] VolumeWeightedAveragePriceStrategy(final ChartBar asset, int offset, int length) {
+        double[] vwap = new double[length];
+        DefaultVolumeWeightedAveragePrice(asset.close, asset.volume, offset, length, vwap, 0);
+        return vwapActions(vwap, asset.close, offset, length);
+    }
+
+    private static Action[] vwapActions(double[] vwap, double[] close, int offset, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
-            if (vwap[i] > asset.close[i]) {
+            if (vwap[i] > close[offset + i]) {
                 actions[i] = Action.BUY;
-            } else if (vwap[i] < asset.close[i]) {
+            } else if (vwap[i] < close[offset + i]) {
                 actions[i] = Action.SELL;
             } else {
                 actions[i] = Action.HOLD;
@@ -91,10 +122,21 @@ public class VolumeStrategies {
 
     // Negative volume index strategy.
     public static Action[] NegativeVolumeIndexStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] nvi = NegativeVolumeIndex(asset.close, asset.volume);
         double[] nvi255 = Ema(255, nvi);
+        return negativeVolumeIndexActions(nvi, nvi255, asset.size());
+    }
+
+    // Negative volume index strategy over the bars [offset, offset + length).
+    public static Action[] NegativeVolumeIndexStrategy(final ChartBar asset, int offset, int length) {
+        double[] nvi = new double[length], nvi255 = new double[length];
+        NegativeVolumeIndex(asset.close, asset.volume, offset, length, nvi, 0);
+        Ema(255, nvi, 0, length, nvi255, 0);
+        return negativeVolumeIndexActions(nvi, nvi255, length);
+    }
+
+    private static Action[] negativeVolumeIndexActions(double[] nvi, double[] nvi255, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (nvi[i] < nvi255[i]) {
@@ -111,13 +153,23 @@ public class VolumeStrategies {
 
     // Chaikin money flow strategy.
     public static Action[] ChaikinMoneyFlowStrategy(final ChartBar asset) {
-        Action[] actions = new Action[asset.getDatetime().length];
-
         double[] cmf = ChaikinMoneyFlow(
                 asset.high,
                 asset.low,
                 asset.close,
                 asset.volume);
+        return chaikinMoneyFlowActions(cmf, asset.size());
+    }
+
+    // Chaikin money flow strategy over the bars [offset, offset + length).
+    public static Action[] ChaikinMoneyFlowStrategy(final ChartBar asset, int offset, int length) {
+        double[] cmf = new double[length];
+        ChaikinMoneyFlow(asset.high, asset.low, asset.close, asset.volume, offset, length, cmf, 0);
+        return chaikinMoneyFlowActions(cmf, length);
+    }
+
+    private static Action[] chaikinMoneyFlowActions(double[] cmf, int length) {
+        Action[] actions = new Action[length];
 
         for (int i = 0; i < actions.length; i++) {
             if (cmf[i] < 0) {
@@ -132,4 +184,139 @@ public class VolumeStrategies {
         return actions;
     }
 
+    // Streaming money flow index strategy.
+    public static StreamingStrategy MakeMoneyFlowIndexStreamingStrategy() {
+        MoneyFlowIndexState state = new MoneyFlowIndexState(14);
+        return StreamingStrategy.of(
+                bar -> state.update(bar.high, bar.low, bar.close, bar.volume) >= 80 ? Action.SELL : Action.BUY,
+                bar -> state.preview(bar.high, bar.low, bar.close, bar.volume) >= 80 ? Action.SELL : Action.BUY);
+    }
+
+    // Streaming force index strategy.
+    public static StreamingStrategy MakeForceIndexStreamingStrategy() {
+        return new StreamingStrategy() {
+            private final EmaState ema = new EmaState(13);
+            private double lastClosing;
+
+            @Override
+            public Action onBar(Bar bar) {
+                double forceIndex = ema.update((bar.close - lastClosing) * (double) bar.volume);
+                lastClosing = bar.close;
+                return signAction(forceIndex);
+            }
+
+            @Override
+            public Action preview(Bar bar) {
+                return signAction(ema.preview((bar.close - lastClosing) * (double) bar.volume));
+            }
+        };
+    }
+
+    // Streaming ease of movement strategy.
+    public static StreamingStrategy MakeEaseOfMovementStreamingStrategy() {
+        return new StreamingStrategy() {
+            private final SmaState sma = new SmaState(14);
+            private double lastMiddle;
+
+            @Override
+            public Action onBar(Bar bar) {
+                double middle = (bar.high + bar.low) * (1 / 2.0);
+                double distanceMoved = middle - lastMiddle;
+                lastMiddle = middle;
+                double boxRatio = ((double) bar.volume * (1 / 100000000.0)) / (bar.high - bar.low);
+                return signAction(sma.update(distanceMoved / boxRatio));
+            }
+
+            @Override
+            public Action preview(Bar bar) {
+                double distanceMoved = (bar.high + bar.low) * (1 / 2.0) - lastMiddle;
+                double boxRatio = ((double) bar.volume * (1 / 100000000.0)) / (bar.high - bar.low);
+                return signAction(sma.preview(distanceMoved / boxRatio));
+            }
+        };
+    }
+
+    // BUY above 0, SELL below 0, HOLD otherwise.
+    private static Action signAction(double value) {
+        if (value > 0) {
+            return Action.BUY;
+        } else if (value < 0) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming volume weighted average price strategy.
+    public static StreamingStrategy MakeVolumeWeightedAveragePriceStreamingStrategy() {
+        SumState priceVolume = new SumState(14);
+        SumState volume = new SumState(14);
+        return StreamingStrategy.of(
+                bar -> {
+                    double v = bar.volume;
+                    return vwapAction(priceVolume.update(bar.close * v) / volume.update(v), bar.close);
+                },
+                bar -> {
+                    double v = bar.volume;
+                    return vwapAction(priceVolume.preview(bar.close * v) / volume.preview(v), bar.close);
+                });
+    }
+
+    private static Action vwapAction(double vwap, double closing) {
+        if (vwap > closing) {
+            return Action.BUY;
+        } else if (vwap < closing) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming negative volume index strategy.
+    public static StreamingStrategy MakeNegativeVolumeIndexStreamingStrategy() {
+        NegativeVolumeIndexState state = new NegativeVolumeIndexState();
+        EmaState nvi255 = new EmaState(255);
+        return StreamingStrategy.of(
+                bar -> {
+                    double nvi = state.update(bar.close, bar.volume);
+                    return negativeVolumeIndexAction(nvi, nvi255.update(nvi));
+                },
+                bar -> {
+                    double nvi = state.preview(bar.close, bar.volume);
+                    return negativeVolumeIndexAction(nvi, nvi255.preview(nvi));
+                });
+    }
+
+    private static Action negativeVolumeIndexAction(double nvi, double ema) {
+        if (nvi < ema) {
+            return Action.BUY;
+        } else if (nvi > ema) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
+
+    // Streaming chaikin money flow strategy.
+    public static StreamingStrategy MakeChaikinMoneyFlowStreamingStrategy() {
+        SumState moneyFlowVolume = new SumState(20);
+        SumState volume = new SumState(20);
+        return StreamingStrategy.of(
+                bar -> {
+                    double v = bar.volume;
+                    double moneyFlowMultiplier = ((bar.close - bar.low) - (bar.high - bar.close)) / (bar.high - bar.low);
+                    return chaikinMoneyFlowAction(moneyFlowVolume.update(moneyFlowMultiplier * v) / volume.update(v));
+                },
+                bar -> {
+                    double v = bar.volume;
+                    double moneyFlowMultiplier = ((bar.close - bar.low) - (bar.high - bar.close)) / (bar.high - bar.low);
+                    return chaikinMoneyFlowAction(moneyFlowVolume.preview(moneyFlowMultiplier * v) / volume.preview(v));
+                });
+    }
+
+    private static Action chaikinMoneyFlowAction(double cmf) {
+        if (cmf < 0) {
+            return Action.BUY;
+        } else if (cmf > 0) {
+            return Action.SELL;
+        }
+        return Action.HOLD;
+    }
 }
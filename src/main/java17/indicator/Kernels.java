@@ -0,0 +1,148 @@
+package indicator;
+
+import java.util.Optional;
+
+/**
+ * 逐元素运算的入口，JDK 17 以上打包进 META-INF/versions/17
+ * <p>
+ * Uses {@link VectorKernels} when jdk.incubator.vector is in the boot layer
+ * (java --add-modules jdk.incubator.vector) and the preferred species has
+ * at least two lanes, {@link ScalarKernels} otherwise. The system property
+ * indicator.scalar=true forces the scalar versions.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class Kernels {
+    private static final boolean VECTORIZED = vectorApi();
+
+    private Kernels() {
+    }
+
+    // Whether the kernels run on SIMD lanes.
+    static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    private static boolean vectorApi() {
+        if (Boolean.getBoolean("indicator.scalar")) {
+            return false;
+        }
+        Optional<Module> module = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        if (!module.isPresent()) {
+            return false;
+        }
+        try {
+            return VectorKernels.lanes() >= 2;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    // a + b
+    static void add(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.add(a, aOffset, b, bOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.add(a, aOffset, b, bOffset, result, outOffset, length);
+        }
+    }
+
+    // a - b
+    static void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.subtract(a, aOffset, b, bOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.subtract(a, aOffset, b, bOffset, result, outOffset, length);
+        }
+    }
+
+    // a * b
+    static void multiply(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.multiply(a, aOffset, b, bOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.multiply(a, aOffset, b, bOffset, result, outOffset, length);
+        }
+    }
+
+    // a / b
+    static void divide(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.divide(a, aOffset, b, bOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.divide(a, aOffset, b, bOffset, result, outOffset, length);
+        }
+    }
+
+    // a + addition
+    static void addBy(double[] a, int aOffset, double addition, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.addBy(a, aOffset, addition, result, outOffset, length);
+        } else {
+            ScalarKernels.addBy(a, aOffset, addition, result, outOffset, length);
+        }
+    }
+
+    // a * multiplier
+    static void multiplyBy(double[] a, int aOffset, double multiplier, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.multiplyBy(a, aOffset, multiplier, result, outOffset, length);
+        } else {
+            ScalarKernels.multiplyBy(a, aOffset, multiplier, result, outOffset, length);
+        }
+    }
+
+    // a / divider, a real division, not a multiplication by 1 / divider.
+    static void divideBy(double[] a, int aOffset, double divider, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.divideBy(a, aOffset, divider, result, outOffset, length);
+        } else {
+            ScalarKernels.divideBy(a, aOffset, divider, result, outOffset, length);
+        }
+    }
+
+    // Math.sqrt(a)
+    static void sqrt(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.sqrt(a, aOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.sqrt(a, aOffset, result, outOffset, length);
+        }
+    }
+
+    // Math.abs(a)
+    static void abs(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.abs(a, aOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.abs(a, aOffset, result, outOffset, length);
+        }
+    }
+
+    // a if a > 0, else 0.
+    static void keepPositives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.keepPositives(a, aOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.keepPositives(a, aOffset, result, outOffset, length);
+        }
+    }
+
+    // a if a < 0, else 0.
+    static void keepNegatives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.keepNegatives(a, aOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.keepNegatives(a, aOffset, result, outOffset, length);
+        }
+    }
+
+    // 1 if a >= 0, else -1.
+    static void extractSign(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        if (VECTORIZED) {
+            VectorKernels.extractSign(a, aOffset, result, outOffset, length);
+        } else {
+            ScalarKernels.extractSign(a, aOffset, result, outOffset, length);
+        }
+    }
+}
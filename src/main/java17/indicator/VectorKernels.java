@@ -0,0 +1,154 @@
+package indicator;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 逐元素运算的 SIMD 实现 (jdk.incubator.vector)
+ * <p>
+ * Each kernel runs whole vectors of the preferred species and finishes the
+ * tail with the scalar loop. Add, subtract, multiply, divide and sqrt are
+ * correctly rounded lane by lane, so the results have the same bits as
+ * {@link ScalarKernels}. Only loaded when the module is present, see
+ * {@link Kernels}.
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+final class VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    // Lanes of a vector, 4 with AVX2, 8 with AVX-512.
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    // a + b
+    static void add(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            x.add(y).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.add(a, aOffset + i, b, bOffset + i, result, outOffset + i, length - i);
+    }
+
+    // a - b
+    static void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            x.sub(y).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.subtract(a, aOffset + i, b, bOffset + i, result, outOffset + i, length - i);
+    }
+
+    // a * b
+    static void multiply(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            x.mul(y).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.multiply(a, aOffset + i, b, bOffset + i, result, outOffset + i, length - i);
+    }
+
+    // a / b
+    static void divide(double[] a, int aOffset, double[] b, int bOffset, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            x.div(y).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.divide(a, aOffset + i, b, bOffset + i, result, outOffset + i, length - i);
+    }
+
+    // a + addition
+    static void addBy(double[] a, int aOffset, double addition, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, aOffset + i).add(addition).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.addBy(a, aOffset + i, addition, result, outOffset + i, length - i);
+    }
+
+    // a * multiplier
+    static void multiplyBy(double[] a, int aOffset, double multiplier, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, aOffset + i).mul(multiplier).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.multiplyBy(a, aOffset + i, multiplier, result, outOffset + i, length - i);
+    }
+
+    // a / divider, a real division, not a multiplication by 1 / divider.
+    static void divideBy(double[] a, int aOffset, double divider, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, aOffset + i).div(divider).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.divideBy(a, aOffset + i, divider, result, outOffset + i, length - i);
+    }
+
+    // Math.sqrt(a)
+    static void sqrt(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, aOffset + i).lanewise(VectorOperators.SQRT).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.sqrt(a, aOffset + i, result, outOffset + i, length - i);
+    }
+
+    // Math.abs(a)
+    static void abs(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, aOffset + i).abs().intoArray(result, outOffset + i);
+        }
+        ScalarKernels.abs(a, aOffset + i, result, outOffset + i, length - i);
+    }
+
+    // a if a > 0, else 0. NaN and -0.0 give 0 like the scalar branch.
+    static void keepPositives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            VectorMask<Double> positive = x.compare(VectorOperators.GT, 0);
+            zero.blend(x, positive).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.keepPositives(a, aOffset + i, result, outOffset + i, length - i);
+    }
+
+    // a if a < 0, else 0.
+    static void keepNegatives(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            VectorMask<Double> negative = x.compare(VectorOperators.LT, 0);
+            zero.blend(x, negative).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.keepNegatives(a, aOffset + i, result, outOffset + i, length - i);
+    }
+
+    // 1 if a >= 0, else -1. NaN gives -1 like the scalar branch.
+    static void extractSign(double[] a, int aOffset, double[] result, int outOffset, int length) {
+        DoubleVector minusOne = DoubleVector.broadcast(SPECIES, -1);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            VectorMask<Double> nonNegative = x.compare(VectorOperators.GE, 0);
+            minusOne.blend(1, nonNegative).intoArray(result, outOffset + i);
+        }
+        ScalarKernels.extractSign(a, aOffset + i, result, outOffset + i, length - i);
+    }
+}
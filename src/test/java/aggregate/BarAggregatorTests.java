@@ -0,0 +1,137 @@
+package aggregate;
+
+import model.ChartBar;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class BarAggregatorTests {
+    private static final long MINUTE = 60_000;
+
+    private final long[] time = new long[20000];
+    private final double[] price = new double[time.length];
+    private final long[] size = new long[time.length];
+
+    public BarAggregatorTests() {
+        Random random = new Random(20221008);
+        long t = 1_665_000_000_000L + 12_345;
+        double p = 100;
+        for (int i = 0; i < time.length; i++) {
+            // 偶尔跳过几分钟没有成交
+            t += random.nextInt(10) == 0 ? random.nextInt(5 * (int) MINUTE) : random.nextInt(1000);
+            p += random.nextGaussian() * 0.05;
+            time[i] = t;
+            price[i] = p;
+            size[i] = 1 + random.nextInt(500);
+        }
+    }
+
+    private static void assertSameBars(ChartBar expected, ChartBar actual) {
+        assertArrayEquals(expected.time, actual.time);
+        assertArrayEquals(expected.open, actual.open, 0);
+        assertArrayEquals(expected.high, actual.high, 0);
+        assertArrayEquals(expected.low, actual.low, 0);
+        assertArrayEquals(expected.close, actual.close, 0);
+        assertArrayEquals(expected.volume, actual.volume);
+    }
+
+    @Test
+    public void testCascade() {
+        BarAggregator minute = BarAggregator.time(MINUTE);
+        BarAggregator fiveMinutes = BarAggregator.time(5 * MINUTE);
+        BarAggregator hour = BarAggregator.time(60 * MINUTE);
+        ChartBarCollector minutes = new ChartBarCollector(4);
+        ChartBarCollector cascaded = new ChartBarCollector();
+        ChartBarCollector hours = new ChartBarCollector();
+        minute.addListener(minutes).addListener(fiveMinutes);
+        fiveMinutes.addListener(cascaded).addListener(hour);
+        hour.addListener(hours);
+        minute.onTrades(time, price, size, 0, time.length);
+        minute.flush();
+
+        BarAggregator direct = BarAggregator.time(5 * MINUTE);
+        ChartBarCollector expected = new ChartBarCollector();
+        direct.addListener(expected);
+        direct.onTrades(time, price, size, 0, time.length);
+        direct.flush();
+        assertSameBars(expected.toChartBar(), cascaded.toChartBar());
+
+        ChartBar bars = minutes.toChartBar();
+        long total = 0;
+        for (int i = 0; i < bars.size(); i++) {
+            assertEquals(0, bars.time[i] % MINUTE);
+            assertTrue(i == 0 || bars.time[i] > bars.time[i - 1]);
+            total += bars.volume[i];
+        }
+        assertEquals(bars.open[0], price[0], 0);
+        assertEquals(bars.close[bars.size() - 1], price[price.length - 1], 0);
+        assertEquals(total, sum(hours.toChartBar().volume));
+        assertFalse(hour.isOpen());
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testVolumeAndTicks() {
+        ChartBarCollector byVolume = new ChartBarCollector();
+        ChartBarCollector byTicks = new ChartBarCollector();
+        BarAggregator volume = BarAggregator.volume(10_000).addListener(byVolume);
+        BarAggregator ticks = BarAggregator.ticks(7).addListener(byTicks);
+        for (int i = 0; i < time.length; i++) {
+            volume.onTrade(time[i], price[i], size[i]);
+            ticks.onTrade(time[i], price[i], size[i]);
+        }
+        volume.flush();
+        ticks.flush();
+
+        ChartBar bars = byVolume.toChartBar();
+        int trade = 0;
+        for (int i = 0; i < bars.size(); i++) {
+            assertEquals(time[trade], bars.time[i]);
+            long sum = 0;
+            while (sum < 10_000 && trade < time.length) {
+                sum += size[trade++];
+            }
+            assertEquals(sum, bars.volume[i]);
+            assertEquals(price[trade - 1], bars.close[i], 0);
+        }
+        assertEquals(time.length, trade);
+
+        bars = byTicks.toChartBar();
+        assertEquals((time.length + 6) / 7, bars.size());
+        assertEquals(time[7], bars.time[1]);
+        assertEquals(price[13], bars.close[1], 0);
+        assertEquals(size[7] + size[8] + size[9] + size[10] + size[11] + size[12] + size[13], bars.volume[1]);
+    }
+
+    @Test
+    public void testAdvanceTo() {
+        ChartBarCollector bars = new ChartBarCollector();
+        BarAggregator minute = BarAggregator.time(MINUTE).addListener(bars);
+        minute.onTrade(MINUTE + 10, 5, 1);
+        minute.onTrade(MINUTE + 20, 7, 2);
+        minute.advanceTo(2 * MINUTE - 1);
+        assertEquals(0, bars.size());
+        minute.advanceTo(2 * MINUTE);
+        assertEquals(1, bars.size());
+        ChartBar chartBar = bars.toChartBar();
+        assertEquals(MINUTE, chartBar.time[0]);
+        assertEquals(7, chartBar.high[0], 0);
+        assertEquals(3, chartBar.volume[0]);
+        assertEquals("1970-01-01 00:01:00", chartBar.datetime(0));
+    }
+}
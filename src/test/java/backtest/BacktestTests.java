@@ -0,0 +1,88 @@
+package backtest;
+
+import model.Action;
+import model.ChartBar;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class BacktestTests {
+    private static final double DELTA = 1e-12;
+
+    private static ChartBar chartBar(double... close) {
+        ChartBar chartBar = new ChartBar(close.length);
+        for (int i = 0; i < close.length; i++) {
+            chartBar.datetime[i] = "2022-10-" + (10 + i);
+            chartBar.open[i] = close[i];
+            chartBar.high[i] = close[i];
+            chartBar.low[i] = close[i];
+            chartBar.close[i] = close[i];
+        }
+        return chartBar;
+    }
+
+    @Test
+    public void testLongOnly() {
+        ChartBar chartBar = chartBar(10, 11, 12, 6);
+        Action[] actions = {Action.BUY, Action.HOLD, Action.SELL, Action.HOLD};
+        Backtest backtest = new Backtest();
+        backtest.setFeeRate(0.001);
+        backtest.setSlippage(0.002);
+
+        BacktestResult result = backtest.run(chartBar, actions);
+        double e0 = 1 - 0.003;
+        double e1 = e0 * 1.1;
+        double e2 = e1 * (1 + (12 / 11.0 - 1) - 0.003);
+        assertArrayEquals(new double[]{1, 1, 0, 0}, result.position, 0);
+        assertArrayEquals(new double[]{e0, e1, e2, e2}, result.equity, DELTA);
+        assertEquals(e2 - 1, result.totalReturn, DELTA);
+        assertEquals(e0 - 1, result.maxDrawdown, DELTA);
+        assertEquals(2, result.turnover, 0);
+        assertEquals(2, result.tradeCount);
+        assertEquals(0.006, result.costs, DELTA);
+
+        assertEquals(2, result.trades.size());
+        assertEquals("2022-10-10", result.trades.get(0).getDatetime());
+        assertEquals(Action.BUY, result.trades.get(0).getAction());
+        assertEquals(10 * 1.002, result.trades.get(0).getPrice(), DELTA);
+        assertEquals(Action.SELL, result.trades.get(1).getAction());
+        assertEquals(12 * 0.998, result.trades.get(1).getPrice(), DELTA);
+    }
+
+    @Test
+    public void testShort() {
+        ChartBar chartBar = chartBar(10, 11, 12, 6);
+        Action[] actions = {Action.BUY, Action.HOLD, Action.SELL, Action.HOLD};
+        Backtest backtest = new Backtest();
+        backtest.setAllowShort(true);
+
+        BacktestResult result = backtest.run(chartBar, actions);
+        assertArrayEquals(new double[]{1, 1, -1, -1}, result.position, 0);
+        assertEquals(1.2 * 1.5 - 1, result.totalReturn, DELTA);
+        assertEquals(3, result.turnover, 0);
+    }
+
+    @Test
+    public void testMetricsOnly() {
+        ChartBar chartBar = chartBar(10, 11, 9, 12, 13, 11, 14);
+        Action[] actions = {Action.HOLD, Action.BUY, Action.HOLD, Action.SELL, Action.BUY, Action.HOLD, Action.SELL};
+        Backtest backtest = new Backtest();
+        backtest.setFeeRate(0.0005);
+        BacktestResult full = backtest.run(chartBar, actions);
+
+        // 只要指标，不分配序列
+        BacktestResult metrics = new BacktestResult();
+        backtest.run(chartBar.close, null, actions, 0, actions.length, metrics);
+        assertNull(metrics.equity);
+        assertEquals(full.totalReturn, metrics.totalReturn, 0);
+        assertEquals(full.maxDrawdown, metrics.maxDrawdown, 0);
+        assertEquals(full.sharpe, metrics.sharpe, 0);
+        assertEquals(full.turnover, metrics.turnover, 0);
+        assertEquals(full.equity[actions.length - 1], 1 + metrics.totalReturn, DELTA);
+    }
+}
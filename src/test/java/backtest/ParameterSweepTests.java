@@ -0,0 +1,165 @@
+package backtest;
+
+import base.Pair;
+import indicator.Helper;
+import indicator.IndicatorCache;
+import indicator.TrendIndicators;
+import model.Action;
+import model.ChartBar;
+import org.junit.Test;
+import strategy.Strategy;
+import strategy.TrendStrategies;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class ParameterSweepTests {
+    private static ChartBar chartBar(int size) {
+        ChartBar chartBar = new ChartBar(size);
+        Random random = new Random(20221008);
+        double price = 100;
+        for (int i = 0; i < size; i++) {
+            price *= 1 + random.nextGaussian() * 0.01;
+            chartBar.datetime[i] = String.valueOf(i);
+            chartBar.open[i] = price;
+            chartBar.high[i] = price * (1 + random.nextDouble() * 0.01);
+            chartBar.low[i] = price * (1 - random.nextDouble() * 0.01);
+            chartBar.close[i] = price;
+            chartBar.volume[i] = 1000 + random.nextInt(100000);
+        }
+        return chartBar;
+    }
+
+    // 不用缓存逐个回测，按目标值排序
+    private static List<SweepResult> sequential(ChartBar chartBar, Backtest backtest, Function<int[], Strategy> factory,
+                                                ToDoubleFunction<BacktestResult> objective, int[]... grid) {
+        List<SweepResult> all = new ArrayList<>();
+        for (long i = 0; i < ParameterSweep.size(grid); i++) {
+            int[] params = ParameterSweep.params(i, grid);
+            SweepResult result = new SweepResult();
+            result.index = i;
+            result.params = params;
+            result.score = objective.applyAsDouble(backtest.run(chartBar, factory.apply(params).run(chartBar)));
+            all.add(result);
+        }
+        all.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Long.compare(a.index, b.index));
+        return all;
+    }
+
+    private static void checkTop(ChartBar chartBar, Function<int[], Strategy> factory, int k, int[]... grid) {
+        Backtest backtest = new Backtest();
+        backtest.setFeeRate(0.001);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<SweepResult> top;
+        try {
+            top = new ParameterSweep(executor, backtest).run(chartBar, factory, r -> r.totalReturn, k, grid);
+        } finally {
+            executor.shutdown();
+        }
+
+        List<SweepResult> all = sequential(chartBar, backtest, factory, r -> r.totalReturn, grid);
+        assertEquals(k, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(all.get(i).index, top.get(i).index);
+            assertArrayEquals(all.get(i).params, top.get(i).params);
+            assertEquals(all.get(i).score, top.get(i).score, 0);
+            assertEquals(top.get(i).score, top.get(i).metrics.totalReturn, 0);
+        }
+    }
+
+    @Test
+    public void testTopK() {
+        int[][] grid = {ParameterSweep.range(5, 20, 3), ParameterSweep.range(2, 5, 1), ParameterSweep.range(2, 5, 1)};
+        checkTop(chartBar(2000), p -> TrendStrategies.MakeKdjStrategy(p[0], p[1], p[2]), 5, grid);
+    }
+
+    // 快线在慢线上方买入，两条均线都从共用的前缀和计算
+    private static Strategy crossStrategy(int fast, int slow) {
+        return chartBar -> {
+            double[] fastSma = TrendIndicators.smaFromPrefix(fast, chartBar.close);
+            double[] slowSma = TrendIndicators.smaFromPrefix(slow, chartBar.close);
+            Action[] actions = new Action[chartBar.size()];
+            for (int i = 0; i < actions.length; i++) {
+                actions[i] = fastSma[i] > slowSma[i] ? Action.BUY : fastSma[i] < slowSma[i] ? Action.SELL : Action.HOLD;
+            }
+            return actions;
+        };
+    }
+
+    // 扫描里的结果与扫描外逐个回测完全相同
+    @Test
+    public void testTopKFromPrefix() {
+        checkTop(chartBar(2000), p -> crossStrategy(p[0], p[1]), 5, ParameterSweep.range(2, 20, 2), ParameterSweep.range(10, 60, 5));
+    }
+
+    @Test
+    public void testSharedPrefixSums() {
+        double[] close = chartBar(1000).close;
+        int[] periods = {1, 5, 20, 200, 1005};
+        List<double[]> expected = new ArrayList<>();
+        for (int period : periods) {
+            expected.add(TrendIndicators.sma(period, close));
+        }
+        IndicatorCache cache = IndicatorCache.create().keepOnly("PrefixSum").enter();
+        try {
+            Pair<double[], double[]> prefix = Helper.prefixSum(close);
+            for (int i = 0; i < periods.length; i++) {
+                // sma 在缓存里外逐位相同，前缀和只用于 smaFromPrefix、SumFromPrefix
+                assertArrayEquals(expected.get(i), TrendIndicators.sma(periods[i], close), 0);
+                double[] sma = TrendIndicators.smaFromPrefix(periods[i], close);
+                double[] sum = TrendIndicators.SumFromPrefix(periods[i], close);
+                assertArrayEquals(expected.get(i), sma, 1e-9);
+                for (int j = 0; j < close.length; j++) {
+                    int from = Math.max(0, j + 1 - periods[i]);
+                    double window = (prefix.getLeft()[j + 1] - prefix.getLeft()[from]) + (prefix.getRight()[j + 1] - prefix.getRight()[from]);
+                    assertEquals(Double.doubleToRawLongBits(window), Double.doubleToRawLongBits(sum[j]));
+                    assertEquals(Double.doubleToRawLongBits(window / (j + 1 - from)), Double.doubleToRawLongBits(sma[j]));
+                }
+            }
+        } finally {
+            cache.close();
+        }
+        assertEquals(1, cache.getMisses("PrefixSum"));
+        assertEquals(periods.length * 2 - 1, cache.getHits("PrefixSum"));
+    }
+
+    // 500 万根K线，不补偿的前缀和相减误差在 1e-7 以上，补偿后与精确的窗口和相差不到 1 ulp
+    @Test
+    public void testLongSeries() {
+        int size = 5_000_000;
+        double[] close = new double[size];
+        Random random = new Random(20221008);
+        double price = 100;
+        for (int i = 0; i < size; i++) {
+            price += 0.001 * (100 - price) + random.nextGaussian() * 0.5;
+            close[i] = price;
+        }
+        for (int period : new int[]{5, 200}) {
+            double[] sum = TrendIndicators.SumFromPrefix(period, close);
+            double[] sma = TrendIndicators.smaFromPrefix(period, close);
+            for (int i = period; i < size; i += 997) {
+                BigDecimal exact = BigDecimal.ZERO;
+                for (int j = i + 1 - period; j <= i; j++) {
+                    exact = exact.add(new BigDecimal(close[j]));
+                }
+                double window = exact.doubleValue();
+                assertEquals("sum " + period + " index " + i, window, sum[i], Math.ulp(window));
+                double average = exact.divide(BigDecimal.valueOf(period), MathContext.DECIMAL128).doubleValue();
+                assertEquals("sma " + period + " index " + i, average, sma[i], 2 * Math.ulp(average));
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package base;
+
+import indicator.TrendIndicators;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 单调队列的移动极值与 Tree 的插入、删除、取极值逐位比较，索引与逐个扫描比较
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class MonotonicDequeTests {
+    private static final int SIZE = 600;
+    private static final int[] PERIODS = {1, 2, 3, 14, 50, SIZE, SIZE + 7};
+
+    // 小范围整数，窗口里大量相同的值；连续价格；夹着 NaN、0.0 和 -0.0
+    private static double[][] series() {
+        Random random = new Random(20261018);
+        double[] ties = new double[SIZE], prices = new double[SIZE], special = new double[SIZE];
+        double price = 100;
+        for (int i = 0; i < SIZE; i++) {
+            ties[i] = random.nextInt(4);
+            price += random.nextGaussian();
+            prices[i] = price;
+            special[i] = random.nextInt(3) - 1;
+        }
+        special[5] = Double.NaN;
+        special[200] = Double.NaN;
+        special[201] = Double.NaN;
+        for (int i = 300; i < 340; i += 3) {
+            special[i] = -0.0;
+        }
+        return new double[][]{ties, prices, special};
+    }
+
+    // 原来的做法：每根K线插入 Tree，删掉出窗口的值，取 max/min
+    private static double[] treeMoving(int period, boolean max, double[] values) {
+        double[] result = new double[values.length];
+        Tree tree = new Tree();
+        for (int i = 0; i < values.length; i++) {
+            tree.insert(values[i]);
+            if (i >= period) {
+                tree.remove(values[i - period]);
+            }
+            result[i] = max ? tree.max() : tree.min();
+        }
+        return result;
+    }
+
+    // 逐个扫描窗口，相同时取最新的索引
+    private static int[] scanIndex(int period, boolean max, double[] values) {
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            int best = i;
+            for (int j = Math.max(0, i - period + 1); j <= i; j++) {
+                int c = Double.compare(values[j], values[best]);
+                if (max ? c >= 0 : c <= 0) {
+                    best = j;
+                }
+            }
+            result[i] = best;
+        }
+        return result;
+    }
+
+    private static long[] scanLong(int period, boolean max, long[] values) {
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            long best = values[i];
+            for (int j = Math.max(0, i - period + 1); j <= i; j++) {
+                best = max ? Math.max(best, values[j]) : Math.min(best, values[j]);
+            }
+            result[i] = best;
+        }
+        return result;
+    }
+
+    private static void assertBits(String message, double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(message + " index " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+        }
+    }
+
+    @Test
+    public void testSameAsTree() {
+        for (double[] values : series()) {
+            for (int period : PERIODS) {
+                assertBits("max " + period, treeMoving(period, true, values), TrendIndicators.Max(period, values));
+                assertBits("min " + period, treeMoving(period, false, values), TrendIndicators.Min(period, values));
+                assertArrayEquals("max index " + period, scanIndex(period, true, values), TrendIndicators.MaxIndex(period, values));
+                assertArrayEquals("min index " + period, scanIndex(period, false, values), TrendIndicators.MinIndex(period, values));
+            }
+        }
+    }
+
+    @Test
+    public void testLong() {
+        Random random = new Random(20261019);
+        long[] volume = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // 相同的值很多，另有超过 2^53 的值，转成 double 会丢精度
+            volume[i] = i % 50 < 25 ? 1000 + random.nextInt(5) : Long.MAX_VALUE - random.nextInt(5);
+        }
+        for (int period : PERIODS) {
+            assertArrayEquals(scanLong(period, true, volume), TrendIndicators.Max(period, volume));
+            assertArrayEquals(scanLong(period, false, volume), TrendIndicators.Min(period, volume));
+        }
+    }
+
+    // 按范围写到输出里，与整段计算 values[offset, offset + length) 一样，窗口从 offset 开始
+    @Test
+    public void testRange() {
+        double[] values = series()[0];
+        int offset = 100, length = 250;
+        double[] slice = Arrays.copyOfRange(values, offset, offset + length);
+        double[] out = new double[length + 3];
+        TrendIndicators.Max(14, values, offset, length, out, 3);
+        assertBits("range", treeMoving(14, true, slice), Arrays.copyOfRange(out, 3, length + 3));
+        int[] index = new int[length];
+        TrendIndicators.MinIndex(14, values, offset, length, index, 0);
+        assertArrayEquals(scanIndex(14, false, slice), index);
+    }
+
+    // 窗口边界：正好满 period 时第一个值还在，再推一个就出窗口；相同的值保留最新的索引
+    @Test
+    public void testWindowEdge() {
+        MonotonicDeque max = MonotonicDeque.max(3);
+        assertEquals(5, max.push(5), 0);
+        assertEquals(5, max.push(1), 0);
+        assertEquals(5, max.push(2), 0);
+        assertEquals(0, max.index());
+        assertEquals(2, max.push(0), 0);
+        assertEquals(2, max.index());
+        assertEquals(2, max.push(2), 0);
+        assertEquals(4, max.index());
+        assertEquals(3, max.peek(3), 0);
+        assertEquals(2, max.peek(-1), 0);
+        assertEquals(4, max.index());
+
+        LongMonotonicDeque min = LongMonotonicDeque.min(2);
+        assertEquals(7, min.push(7));
+        assertEquals(7, min.push(7));
+        assertEquals(1, min.index());
+        assertEquals(7, min.push(9));
+        assertEquals(9, min.push(10));
+
+        max.reset(5, false);
+        assertEquals(4, max.push(4), 0);
+        assertEquals(0, max.index());
+    }
+}
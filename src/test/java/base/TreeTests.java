@@ -0,0 +1,168 @@
+package base;
+
+import indicator.TrendIndicators;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * AVL 树与有序列表比较，移动中位数、百分位、百分位排名与排序后的窗口逐位比较
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class TreeTests {
+    private static final int SIZE = 600;
+    private static final int[] PERIODS = {1, 2, 3, 10, 51, SIZE + 3};
+
+    // 有序列表的位置，按 Double.compare
+    private static int rank(List<Double> sorted, double value) {
+        int rank = 0;
+        while (rank < sorted.size() && Double.compare(sorted.get(rank), value) < 0) {
+            rank++;
+        }
+        return rank;
+    }
+
+    private static void assertSame(List<Double> sorted, Tree tree) {
+        assertEquals(sorted.size(), tree.size());
+        assertEquals(sorted.isEmpty(), tree.isEmpty());
+        for (int k = 0; k < sorted.size(); k++) {
+            assertEquals(sorted.get(k), tree.select(k), 0);
+        }
+        if (!sorted.isEmpty()) {
+            assertEquals(sorted.get(0), tree.min(), 0);
+            assertEquals(sorted.get(sorted.size() - 1), tree.max(), 0);
+        }
+    }
+
+    @Test
+    public void testSameAsSortedList() {
+        Random random = new Random(20261018);
+        Tree tree = new Tree(4);
+        List<Double> sorted = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            // 只有 20 个不同的值，重复很多
+            double value = random.nextInt(20) / 2.0;
+            if (random.nextInt(3) > 0 || sorted.isEmpty()) {
+                tree.insert(value);
+                sorted.add(rank(sorted, value), value);
+            } else {
+                assertEquals(sorted.remove(Double.valueOf(value)), tree.remove(value));
+            }
+            assertEquals(rank(sorted, value), tree.rank(value));
+            assertEquals(Collections.frequency(sorted, value), tree.count(value));
+            if (step % 100 == 0) {
+                assertSame(sorted, tree);
+            }
+        }
+        assertSame(sorted, tree);
+
+        tree.clear();
+        assertTrue(tree.isEmpty());
+        assertTrue(Double.isNaN(tree.max()));
+        assertFalse(tree.remove(1));
+        assertEquals(0, tree.rank(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSelectOutOfRange() {
+        Tree tree = new Tree();
+        tree.insert(1);
+        tree.insert(1);
+        tree.select(2);
+    }
+
+    // 滚动窗口删一个插一个，删掉的节点被复用，数组不再增长；有序插入也保持平衡
+    @Test
+    public void testReuseAndBalance() {
+        Random random = new Random(20261019);
+        Tree tree = new Tree(64);
+        double[] window = new double[64];
+        for (int i = 0; i < window.length; i++) {
+            window[i] = random.nextDouble();
+            tree.insert(window[i]);
+        }
+        int capacity = tree.capacity();
+        for (int i = 0; i < 100000; i++) {
+            int j = i % window.length;
+            assertTrue(tree.remove(window[j]));
+            window[j] = random.nextDouble();
+            tree.insert(window[j]);
+        }
+        assertEquals(capacity, tree.capacity());
+        assertEquals(64, tree.size());
+
+        Tree ordered = new Tree();
+        for (int i = 0; i < 100000; i++) {
+            ordered.insert(i);
+        }
+        // AVL 的高度不超过 1.44 * log2(n + 2)
+        assertTrue(ordered.height() <= 1.44 * Math.log(100002) / Math.log(2));
+        assertEquals(49999, ordered.select(49999), 0);
+        assertEquals(50000, ordered.rank(50000));
+    }
+
+    // 每根K线把窗口排序后直接算
+    private static double[] sortedWindow(int period, double[] values, int i) {
+        double[] window = Arrays.copyOfRange(values, Math.max(0, i - period + 1), i + 1);
+        Arrays.sort(window);
+        return window;
+    }
+
+    private static double[] values() {
+        Random random = new Random(20261020);
+        double[] values = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = i % 3 == 0 ? random.nextInt(5) : random.nextGaussian() * 3;
+        }
+        return values;
+    }
+
+    @Test
+    public void testMedianPercentile() {
+        double[] values = values();
+        for (int period : PERIODS) {
+            double[] median = TrendIndicators.Median(period, values);
+            double[] p25 = TrendIndicators.Percentile(period, 25, values);
+            double[] p90 = TrendIndicators.Percentile(period, 90, values);
+            double[] rank = TrendIndicators.PercentRank(period, values);
+            for (int i = 0; i < SIZE; i++) {
+                double[] s = sortedWindow(period, values, i);
+                int n = s.length;
+                double m = n % 2 == 1 ? s[n / 2] : (s[n / 2 - 1] + s[n / 2]) / 2;
+                assertEquals("median " + period + " index " + i, m, median[i], 0);
+                assertEquals("p25 " + period + " index " + i, percentile(s, 25), p25[i], 0);
+                assertEquals("p90 " + period + " index " + i, percentile(s, 90), p90[i], 0);
+
+                int less = 0;
+                while (less < n && s[less] < values[i]) {
+                    less++;
+                }
+                assertEquals("rank " + period + " index " + i, n > 1 ? less * 100.0 / (n - 1) : 0, rank[i], 0);
+            }
+        }
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        double position = percentile / 100 * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        double p = sorted[lower];
+        if (lower + 1 < sorted.length) {
+            p += (sorted[lower + 1] - p) * (position - lower);
+        }
+        return p;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileOutOfRange() {
+        TrendIndicators.Percentile(5, 101, new double[10]);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import backtest.Backtest;
+import backtest.BacktestResult;
+import model.Action;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import strategy.TrendStrategies;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 回测的耗时，完整结果和只要指标两种
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BacktestBenchmark {
+    private final Backtest backtest = new Backtest();
+    private final BacktestResult metrics = new BacktestResult();
+    private Action[] actions;
+
+    @Setup(Level.Trial)
+    public void setup(Bars bars) {
+        backtest.setFeeRate(0.0005);
+        backtest.setSlippage(0.0002);
+        actions = TrendStrategies.MacdStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public BacktestResult full(Bars bars) {
+        return backtest.run(bars.chartBar, actions);
+    }
+
+    @Benchmark
+    public BacktestResult metricsOnly(Bars bars) {
+        backtest.run(bars.closing, null, actions, 0, actions.length, metrics);
+        return metrics;
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark;
+
+import aggregate.BarAggregator;
+import aggregate.ChartBarCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 成交聚合成 K 线的吞吐，每次调用一百万笔成交，结果是每秒的成交笔数
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BarAggregatorBenchmark {
+    private static final int TRADES = 1_000_000;
+
+    private final long[] time = new long[TRADES];
+    private final double[] price = new double[TRADES];
+    private final long[] size = new long[TRADES];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(20221008);
+        long t = 1_665_000_000_000L;
+        double p = 100;
+        for (int i = 0; i < TRADES; i++) {
+            t += random.nextInt(20);
+            p += random.nextGaussian() * 0.01;
+            time[i] = t;
+            price[i] = p;
+            size[i] = 1 + random.nextInt(500);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRADES)
+    public ChartBarCollector minute() {
+        ChartBarCollector bars = new ChartBarCollector();
+        BarAggregator minute = BarAggregator.time(60_000).addListener(bars);
+        minute.onTrades(time, price, size, 0, TRADES);
+        minute.flush();
+        return bars;
+    }
+
+    // 1s -> 1m -> 5m -> 1h 级联，每一级都收集
+    @Benchmark
+    @OperationsPerInvocation(TRADES)
+    public ChartBarCollector cascade() {
+        long[] intervals = {1_000, 60_000, 300_000, 3_600_000};
+        BarAggregator first = null, previous = null;
+        ChartBarCollector bars = null;
+        for (long interval : intervals) {
+            BarAggregator aggregator = BarAggregator.time(interval);
+            bars = new ChartBarCollector();
+            aggregator.addListener(bars);
+            if (previous == null) {
+                first = aggregator;
+            } else {
+                previous.addListener(aggregator);
+            }
+            previous = aggregator;
+        }
+        first.onTrades(time, price, size, 0, TRADES);
+        first.flush();
+        return bars;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRADES)
+    public ChartBarCollector volume() {
+        ChartBarCollector bars = new ChartBarCollector();
+        BarAggregator volume = BarAggregator.volume(100_000).addListener(bars);
+        volume.onTrades(time, price, size, 0, TRADES);
+        volume.flush();
+        return bars;
+    }
+}
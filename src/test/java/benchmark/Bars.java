@@ -0,0 +1,56 @@
+package benchmark;
+
+import indicator.Helper;
+import model.ChartBar;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 基准测试的行情数据 - 固定种子的随机游走，每个长度生成一次
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@State(Scope.Benchmark)
+public class Bars {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int length;
+
+    public double[] opening;
+    public double[] high;
+    public double[] low;
+    public double[] closing;
+    public long[] volume;
+    // 0, 1, 2 ... as the x of the regressions
+    public double[] x;
+    public ChartBar chartBar;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(20221006);
+        chartBar = new ChartBar(length);
+        // 所有bar共用一个时间字符串，10M长度时不占额外内存
+        Arrays.fill(chartBar.datetime, "2022-10-06");
+        double price = 100;
+        for (int i = 0; i < length; i++) {
+            // 几何随机游走，价格一直是正的
+            price *= Math.exp(random.nextGaussian() * 0.01);
+            chartBar.open[i] = price;
+            chartBar.high[i] = price * (1 + random.nextDouble() * 0.02);
+            chartBar.low[i] = price * (1 - random.nextDouble() * 0.02);
+            chartBar.close[i] = chartBar.low[i] + (chartBar.high[i] - chartBar.low[i]) * random.nextDouble();
+            chartBar.volume[i] = 100000 + random.nextInt(3000000);
+        }
+        opening = chartBar.open;
+        high = chartBar.high;
+        low = chartBar.low;
+        closing = chartBar.close;
+        volume = chartBar.volume;
+        x = Helper.generateNumbers(0, length, 1);
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import model.ChartBar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import storage.CsvLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV 解析的耗时，数据是 Bars 按 ChartBar.toString() 的格式写出的文本
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvLoaderBenchmark {
+    private ByteBuffer csv;
+
+    @Setup(Level.Trial)
+    public void setup(Bars bars) {
+        ChartBar chartBar = bars.chartBar;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < bars.length; i++) {
+            sb.append(chartBar.datetime[i]).append(',').append(chartBar.open[i]).append(',')
+                    .append(chartBar.high[i]).append(',').append(chartBar.low[i]).append(',')
+                    .append(chartBar.close[i]).append(',').append(chartBar.volume[i]).append('\n');
+            if (sb.length() > 1 << 16) {
+                byte[] bytes = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+                out.write(bytes, 0, bytes.length);
+                sb.setLength(0);
+            }
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes, 0, bytes.length);
+        csv = ByteBuffer.allocateDirect(out.size());
+        csv.put(out.toByteArray()).flip();
+    }
+
+    @Benchmark
+    public ChartBar parse() {
+        return CsvLoader.parse(csv);
+    }
+
+    @Benchmark
+    public ChartBar parseParallel() {
+        return CsvLoader.parse(csv, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism() * 4);
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import base.Pair;
+import base.Quintuple;
+import base.Triple;
+import indicator.MomentumIndicators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MomentumIndicators 每个指标的耗时
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MomentumIndicatorBenchmark {
+
+    @Benchmark
+    public double[] awesomeOscillator(Bars bars) {
+        return MomentumIndicators.AwesomeOscillator(bars.low, bars.high);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> chaikinOscillator(Bars bars, Period period) {
+        return MomentumIndicators.ChaikinOscillator(period.period, period.period * 2, bars.low, bars.high, bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public Quintuple<double[], double[], double[], double[], double[]> ichimokuCloud(Bars bars) {
+        return MomentumIndicators.IchimokuCloud(bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public Triple<double[], double[], double[]> percentagePriceOscillator(Bars bars, Period period) {
+        return MomentumIndicators.PercentagePriceOscillator(period.period, period.period * 2, 9, bars.closing);
+    }
+
+    @Benchmark
+    public Triple<double[], double[], double[]> percentageVolumeOscillator(Bars bars, Period period) {
+        return MomentumIndicators.PercentageVolumeOscillator(period.period, period.period * 2, 9, bars.volume);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> rsi(Bars bars) {
+        return MomentumIndicators.Rsi(bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> rsi2(Bars bars) {
+        return MomentumIndicators.Rsi2(bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> rsiPeriod(Bars bars, Period period) {
+        return MomentumIndicators.RsiPeriod(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> stochasticOscillator(Bars bars) {
+        return MomentumIndicators.StochasticOscillator(bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] williamsR(Bars bars) {
+        return MomentumIndicators.WilliamsR(bars.low, bars.high, bars.closing);
+    }
+}
@@ -0,0 +1,16 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 指标周期 - 只有带周期参数的基准测试才会按它展开
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@State(Scope.Benchmark)
+public class Period {
+    @Param({"14", "50", "200"})
+    public int period;
+}
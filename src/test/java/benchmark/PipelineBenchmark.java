@@ -0,0 +1,80 @@
+package benchmark;
+
+import indicator.MomentumIndicators;
+import indicator.TrendIndicators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pipeline.Expr;
+import pipeline.Pipeline;
+import pipeline.Plan;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共用 Ema 和 Max/Min 窗口的十个指标：逐个调用指标函数，与编译后的流水线比较
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PipelineBenchmark {
+    private static final Plan PLAN = plan();
+
+    private static Plan plan() {
+        Expr high = Expr.HIGH, low = Expr.LOW, close = Expr.CLOSE;
+        Expr[] macd = Pipeline.Macd(close);
+        Expr[] ppo = Pipeline.PercentagePriceOscillator(12, 26, 9, close);
+        Expr[] stochastic = Pipeline.StochasticOscillator(high, low, close);
+        Expr[] kdj = Pipeline.Kdj(14, 3, 3, high, low, close);
+        Expr[] cloud = Pipeline.IchimokuCloud(high, low, close);
+        return new Pipeline()
+                .output("macd", macd[0]).output("signal", macd[1])
+                .output("apo", Pipeline.AbsolutePriceOscillator(12, 26, close))
+                .output("ppo", ppo[0]).output("ppoSignal", ppo[1]).output("ppoHistogram", ppo[2])
+                .output("dema", Pipeline.Dema(12, close))
+                .output("tema", Pipeline.Tema(12, close))
+                .output("trix", Pipeline.Trix(12, close))
+                .output("stochasticK", stochastic[0]).output("stochasticD", stochastic[1])
+                .output("williamsR", Pipeline.WilliamsR(low, high, close))
+                .output("kdjK", kdj[0]).output("kdjD", kdj[1]).output("kdjJ", kdj[2])
+                .output("conversion", cloud[0]).output("base", cloud[1]).output("spanA", cloud[2])
+                .output("spanB", cloud[3]).output("lagging", cloud[4])
+                .compile();
+    }
+
+    @Benchmark
+    public void separate(Bars bars, Blackhole blackhole) {
+        double[] high = bars.high, low = bars.low, closing = bars.closing;
+        blackhole.consume(TrendIndicators.Macd(closing));
+        blackhole.consume(TrendIndicators.AbsolutePriceOscillator(12, 26, closing));
+        blackhole.consume(MomentumIndicators.PercentagePriceOscillator(12, 26, 9, closing));
+        blackhole.consume(TrendIndicators.Dema(12, closing));
+        blackhole.consume(TrendIndicators.Tema(12, closing));
+        blackhole.consume(TrendIndicators.Trix(12, closing));
+        blackhole.consume(MomentumIndicators.StochasticOscillator(high, low, closing));
+        blackhole.consume(MomentumIndicators.WilliamsR(low, high, closing));
+        blackhole.consume(TrendIndicators.Kdj(14, 3, 3, high, low, closing));
+        blackhole.consume(MomentumIndicators.IchimokuCloud(high, low, closing));
+    }
+
+    @Benchmark
+    public Map<String, double[]> plan(Bars bars) {
+        return PLAN.run(bars.chartBar);
+    }
+
+    @Benchmark
+    public Map<String, double[]> planParallel(Bars bars) {
+        return PLAN.run(bars.chartBar, ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,46 @@
+package benchmark;
+
+import base.Pair;
+import indicator.Regression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression 每个函数的耗时，x 为 0, 1, 2 ...，y 为收盘价
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RegressionBenchmark {
+
+    @Benchmark
+    public Pair<Double, Double> leastSquare(Bars bars) {
+        return Regression.LeastSquare(bars.x, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> movingLeastSquare(Bars bars, Period period) {
+        return Regression.MovingLeastSquare(period.period, bars.x, bars.closing);
+    }
+
+    @Benchmark
+    public double[] linearRegressionUsingLeastSquare(Bars bars) {
+        return Regression.LinearRegressionUsingLeastSquare(bars.x, bars.closing);
+    }
+
+    @Benchmark
+    public double[] movingLinearRegressionUsingLeastSquare(Bars bars, Period period) {
+        return Regression.MovingLinearRegressionUsingLeastSquare(period.period, bars.x, bars.closing);
+    }
+}
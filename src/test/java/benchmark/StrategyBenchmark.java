@@ -0,0 +1,155 @@
+package benchmark;
+
+import model.Action;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import strategy.AllStrategy;
+import strategy.MomentumStrategies;
+import strategy.SeparateStrategy;
+import strategy.Strategy;
+import strategy.TrendStrategies;
+import strategy.VolatilityStrategies;
+import strategy.VolumeStrategies;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个批量策略在整段行情上的耗时，以及 AllStrategy / SeparateStrategy 的组合
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StrategyBenchmark {
+    private static final Strategy ALL = AllStrategy.create(
+            TrendStrategies::ChandeForecastOscillatorStrategy,
+            TrendStrategies::MacdStrategy,
+            TrendStrategies.MakeKdjStrategy(9, 3, 3),
+            MomentumStrategies::DefaultRsiStrategy,
+            VolatilityStrategies::BollingerBandsStrategy);
+
+    private static final Strategy ALL_PARALLEL = AllStrategy.parallel(ForkJoinPool.commonPool(),
+            TrendStrategies::ChandeForecastOscillatorStrategy,
+            TrendStrategies::MacdStrategy,
+            TrendStrategies.MakeKdjStrategy(9, 3, 3),
+            MomentumStrategies::DefaultRsiStrategy,
+            VolatilityStrategies::BollingerBandsStrategy);
+
+    private static final Strategy SEPARATE = new SeparateStrategy(
+            AllStrategy.create(TrendStrategies::MacdStrategy, TrendStrategies::DefaultVwmaStrategy),
+            AllStrategy.create(MomentumStrategies::DefaultRsiStrategy, VolumeStrategies::MoneyFlowIndexStrategy));
+
+    @Benchmark
+    public Action[] allStrategy(Bars bars) {
+        return ALL.run(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] allStrategyParallel(Bars bars) {
+        return ALL_PARALLEL.run(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] separateStrategy(Bars bars) {
+        return SEPARATE.run(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] chandeForecastOscillatorStrategy(Bars bars) {
+        return TrendStrategies.ChandeForecastOscillatorStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] movingChandeForecastOscillatorStrategy(Bars bars, Period period) {
+        return TrendStrategies.MovingChandeForecastOscillatorStrategy(period.period, bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] kdjStrategy(Bars bars, Period period) {
+        return TrendStrategies.KdjStrategy(period.period, 3, 3, bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] macdStrategy(Bars bars) {
+        return TrendStrategies.MacdStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] trendStrategy(Bars bars) {
+        return TrendStrategies.TrendStrategy(bars.chartBar, 3);
+    }
+
+    @Benchmark
+    public Action[] vwmaStrategy(Bars bars, Period period) {
+        return TrendStrategies.VwmaStrategy(bars.chartBar, period.period);
+    }
+
+    @Benchmark
+    public Action[] awesomeOscillatorStrategy(Bars bars) {
+        return MomentumStrategies.AwesomeOscillatorStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] rsiStrategy(Bars bars) {
+        return MomentumStrategies.RsiStrategy(bars.chartBar, 70, 30);
+    }
+
+    @Benchmark
+    public Action[] rsi2Strategy(Bars bars) {
+        return MomentumStrategies.Rsi2Strategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] williamsRStrategy(Bars bars) {
+        return MomentumStrategies.WilliamsRStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] bollingerBandsStrategy(Bars bars) {
+        return VolatilityStrategies.BollingerBandsStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] projectionOscillatorStrategy(Bars bars, Period period) {
+        return VolatilityStrategies.ProjectionOscillatorStrategy(period.period, 3, bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] moneyFlowIndexStrategy(Bars bars) {
+        return VolumeStrategies.MoneyFlowIndexStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] forceIndexStrategy(Bars bars) {
+        return VolumeStrategies.ForceIndexStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] easeOfMovementStrategy(Bars bars) {
+        return VolumeStrategies.EaseOfMovementStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] volumeWeightedAveragePriceStrategy(Bars bars) {
+        return VolumeStrategies.VolumeWeightedAveragePriceStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] negativeVolumeIndexStrategy(Bars bars) {
+        return VolumeStrategies.NegativeVolumeIndexStrategy(bars.chartBar);
+    }
+
+    @Benchmark
+    public Action[] chaikinMoneyFlowStrategy(Bars bars) {
+        return VolumeStrategies.ChaikinMoneyFlowStrategy(bars.chartBar);
+    }
+}
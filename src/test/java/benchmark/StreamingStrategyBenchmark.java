@@ -0,0 +1,120 @@
+package benchmark;
+
+import model.Action;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import strategy.MomentumStrategies;
+import strategy.StrategyHelper;
+import strategy.TrendStrategies;
+import strategy.VolatilityStrategies;
+import strategy.VolumeStrategies;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式策略逐根喂完整段行情的耗时，每次调用新建策略，因为策略带状态
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StreamingStrategyBenchmark {
+
+    @Benchmark
+    public Action[] chandeForecastOscillatorStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, TrendStrategies.MakeChandeForecastOscillatorStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] movingChandeForecastOscillatorStrategy(Bars bars, Period period) {
+        return StrategyHelper.runStreaming(bars.chartBar, TrendStrategies.MakeMovingChandeForecastOscillatorStreamingStrategy(period.period));
+    }
+
+    @Benchmark
+    public Action[] kdjStrategy(Bars bars, Period period) {
+        return StrategyHelper.runStreaming(bars.chartBar, TrendStrategies.MakeKdjStreamingStrategy(period.period, 3, 3));
+    }
+
+    @Benchmark
+    public Action[] macdStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, TrendStrategies.MakeMacdStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] trendStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, TrendStrategies.MakeTrendStreamingStrategy(3));
+    }
+
+    @Benchmark
+    public Action[] vwmaStrategy(Bars bars, Period period) {
+        return StrategyHelper.runStreaming(bars.chartBar, TrendStrategies.MakeVwmaStreamingStrategy(period.period));
+    }
+
+    @Benchmark
+    public Action[] awesomeOscillatorStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, MomentumStrategies.MakeAwesomeOscillatorStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] rsiStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, MomentumStrategies.MakeRsiStreamingStrategy(70, 30));
+    }
+
+    @Benchmark
+    public Action[] rsi2Strategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, MomentumStrategies.MakeRsi2StreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] williamsRStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, MomentumStrategies.MakeWilliamsRStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] bollingerBandsStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolatilityStrategies.MakeBollingerBandsStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] projectionOscillatorStrategy(Bars bars, Period period) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolatilityStrategies.MakeProjectionOscillatorStreamingStrategy(period.period, 3));
+    }
+
+    @Benchmark
+    public Action[] moneyFlowIndexStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolumeStrategies.MakeMoneyFlowIndexStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] forceIndexStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolumeStrategies.MakeForceIndexStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] easeOfMovementStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolumeStrategies.MakeEaseOfMovementStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] volumeWeightedAveragePriceStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolumeStrategies.MakeVolumeWeightedAveragePriceStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] negativeVolumeIndexStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolumeStrategies.MakeNegativeVolumeIndexStreamingStrategy());
+    }
+
+    @Benchmark
+    public Action[] chaikinMoneyFlowStrategy(Bars bars) {
+        return StrategyHelper.runStreaming(bars.chartBar, VolumeStrategies.MakeChaikinMoneyFlowStreamingStrategy());
+    }
+}
@@ -0,0 +1,188 @@
+package benchmark;
+
+import base.Pair;
+import base.Triple;
+import indicator.TrendEnum;
+import indicator.TrendIndicators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TrendIndicators 每个指标的耗时
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TrendIndicatorBenchmark {
+
+    @Benchmark
+    public double[] absolutePriceOscillator(Bars bars, Period period) {
+        return TrendIndicators.AbsolutePriceOscillator(period.period, period.period * 2, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> aroon(Bars bars) {
+        return TrendIndicators.Aroon(bars.high, bars.low);
+    }
+
+    @Benchmark
+    public double[] balanceOfPower(Bars bars) {
+        return TrendIndicators.BalanceOfPower(bars.opening, bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] chandeForecastOscillator(Bars bars) {
+        return TrendIndicators.ChandeForecastOscillator(bars.closing);
+    }
+
+    @Benchmark
+    public double[] communityChannelIndex(Bars bars, Period period) {
+        return TrendIndicators.CommunityChannelIndex(period.period, bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] dema(Bars bars, Period period) {
+        return TrendIndicators.Dema(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] ema(Bars bars, Period period) {
+        return TrendIndicators.Ema(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> macd(Bars bars) {
+        return TrendIndicators.Macd(bars.closing);
+    }
+
+    @Benchmark
+    public double[] massIndex(Bars bars) {
+        return TrendIndicators.MassIndex(bars.high, bars.low);
+    }
+
+    @Benchmark
+    public double[] movingChandeForecastOscillator(Bars bars, Period period) {
+        return TrendIndicators.MovingChandeForecastOscillator(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] max(Bars bars, Period period) {
+        return TrendIndicators.Max(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public long[] maxLong(Bars bars, Period period) {
+        return TrendIndicators.Max(period.period, bars.volume);
+    }
+
+    @Benchmark
+    public int[] maxIndex(Bars bars, Period period) {
+        return TrendIndicators.MaxIndex(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] min(Bars bars, Period period) {
+        return TrendIndicators.Min(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public long[] minLong(Bars bars, Period period) {
+        return TrendIndicators.Min(period.period, bars.volume);
+    }
+
+    @Benchmark
+    public int[] minIndex(Bars bars, Period period) {
+        return TrendIndicators.MinIndex(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] median(Bars bars, Period period) {
+        return TrendIndicators.Median(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] percentile(Bars bars, Period period) {
+        return TrendIndicators.Percentile(period.period, 0.9, bars.closing);
+    }
+
+    @Benchmark
+    public double[] percentRank(Bars bars, Period period) {
+        return TrendIndicators.PercentRank(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], TrendEnum[]> parabolicSar(Bars bars) {
+        return TrendIndicators.ParabolicSar(bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] qstick(Bars bars, Period period) {
+        return TrendIndicators.Qstick(period.period, bars.opening, bars.closing);
+    }
+
+    @Benchmark
+    public Triple<double[], double[], double[]> kdj(Bars bars, Period period) {
+        return TrendIndicators.Kdj(period.period, 3, 3, bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] rma(Bars bars, Period period) {
+        return TrendIndicators.Rma(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] sma(Bars bars, Period period) {
+        return TrendIndicators.sma(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public int[] since(Bars bars) {
+        return TrendIndicators.Since(bars.closing);
+    }
+
+    @Benchmark
+    public double[] sum(Bars bars, Period period) {
+        return TrendIndicators.Sum(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] tema(Bars bars, Period period) {
+        return TrendIndicators.Tema(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] trima(Bars bars, Period period) {
+        return TrendIndicators.Trima(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public double[] trix(Bars bars, Period period) {
+        return TrendIndicators.Trix(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> typicalPrice(Bars bars) {
+        return TrendIndicators.TypicalPrice(bars.low, bars.high, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> vortex(Bars bars) {
+        return TrendIndicators.Vortex(bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] vwma(Bars bars, Period period) {
+        return TrendIndicators.Vwma(period.period, bars.closing, bars.volume);
+    }
+}
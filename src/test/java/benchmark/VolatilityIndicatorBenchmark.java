@@ -0,0 +1,79 @@
+package benchmark;
+
+import base.Pair;
+import base.Triple;
+import indicator.VolatilityIndicators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VolatilityIndicators 每个指标的耗时
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VolatilityIndicatorBenchmark {
+
+    @Benchmark
+    public Triple<double[], double[], double[]> accelerationBands(Bars bars) {
+        return VolatilityIndicators.AccelerationBands(bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> atr(Bars bars, Period period) {
+        return VolatilityIndicators.Atr(period.period, bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> bollingerBandWidth(Bars bars) {
+        // 带宽只是带的后处理，两者一起计时
+        Triple<double[], double[], double[]> bands = VolatilityIndicators.BollingerBands(bars.closing);
+        return VolatilityIndicators.BollingerBandWidth(bands.getLeft(), bands.getMiddle(), bands.getRight());
+    }
+
+    @Benchmark
+    public Triple<double[], double[], double[]> bollingerBands(Bars bars) {
+        return VolatilityIndicators.BollingerBands(bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> chandelierExit(Bars bars) {
+        return VolatilityIndicators.ChandelierExit(bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] std(Bars bars, Period period) {
+        return VolatilityIndicators.Std(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public Pair<double[], double[]> projectionOscillator(Bars bars, Period period) {
+        return VolatilityIndicators.ProjectionOscillator(period.period, 3, bars.high, bars.low, bars.closing);
+    }
+
+    @Benchmark
+    public double[] ulcerIndex(Bars bars, Period period) {
+        return VolatilityIndicators.UlcerIndex(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public Triple<double[], double[], double[]> donchianChannel(Bars bars, Period period) {
+        return VolatilityIndicators.DonchianChannel(period.period, bars.closing);
+    }
+
+    @Benchmark
+    public Triple<double[], double[], double[]> keltnerChannel(Bars bars, Period period) {
+        return VolatilityIndicators.KeltnerChannel(period.period, bars.high, bars.low, bars.closing);
+    }
+}
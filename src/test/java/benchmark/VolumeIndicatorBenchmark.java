@@ -0,0 +1,70 @@
+package benchmark;
+
+import indicator.VolumeIndicators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VolumeIndicators 每个指标的耗时
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VolumeIndicatorBenchmark {
+
+    @Benchmark
+    public double[] accumulationDistribution(Bars bars) {
+        return VolumeIndicators.AccumulationDistribution(bars.high, bars.low, bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public long[] obv(Bars bars) {
+        return VolumeIndicators.Obv(bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public double[] moneyFlowIndex(Bars bars, Period period) {
+        return VolumeIndicators.MoneyFlowIndex(period.period, bars.high, bars.low, bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public double[] forceIndex(Bars bars, Period period) {
+        return VolumeIndicators.ForceIndex(period.period, bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public double[] easeOfMovement(Bars bars, Period period) {
+        return VolumeIndicators.EaseOfMovement(period.period, bars.high, bars.low, bars.volume);
+    }
+
+    @Benchmark
+    public double[] volumePriceTrend(Bars bars) {
+        return VolumeIndicators.VolumePriceTrend(bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public double[] volumeWeightedAveragePrice(Bars bars, Period period) {
+        return VolumeIndicators.VolumeWeightedAveragePrice(period.period, bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public double[] negativeVolumeIndex(Bars bars) {
+        return VolumeIndicators.NegativeVolumeIndex(bars.closing, bars.volume);
+    }
+
+    @Benchmark
+    public double[] chaikinMoneyFlow(Bars bars) {
+        return VolumeIndicators.ChaikinMoneyFlow(bars.high, bars.low, bars.closing, bars.volume);
+    }
+}
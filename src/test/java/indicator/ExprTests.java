@@ -0,0 +1,103 @@
+package indicator;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 融合表达式与逐个调用 Helper 的结果逐位比较，长度跨过多个块
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class ExprTests {
+    private static final int SIZE = Expr.BLOCK * 3 + 17;
+
+    private final double[] a = new double[SIZE];
+    private final double[] b = new double[SIZE];
+    private final long[] volume = new long[SIZE];
+
+    public ExprTests() {
+        Random random = new Random(20221010);
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextGaussian() * 100;
+            b[i] = random.nextInt(5) == 0 ? 0 : random.nextGaussian() * 10;
+            volume[i] = random.nextInt(1000000);
+        }
+        a[7] = Double.NaN;
+        a[Expr.BLOCK] = -0.0;
+    }
+
+    private static void assertBits(double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("index " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+        }
+    }
+
+    @Test
+    public void testSameAsHelper() {
+        assertBits(Helper.add(a, b), Expr.of(a).add(b).eval());
+        assertBits(Helper.subtract(a, b), Expr.of(a).subtract(b).eval());
+        assertBits(Helper.multiply(a, b), Expr.of(a).multiply(b).eval());
+        assertBits(Helper.divide(a, b), Expr.of(a).divide(b).eval());
+        assertBits(Helper.addBy(a, 3.5), Expr.of(a).addBy(3.5).eval());
+        assertBits(Helper.multiplyBy(a, 0.1), Expr.of(a).multiplyBy(0.1).eval());
+        assertBits(Helper.divideBy(a, 3), Expr.of(a).divideBy(3).eval());
+        assertBits(Helper.pow(a, 2), Expr.of(a).pow(2).eval());
+        assertBits(Helper.abs(a), Expr.of(a).abs().eval());
+        assertBits(Helper.sqrt(a), Expr.of(a).sqrt().eval());
+        assertBits(Helper.keepPositives(a), Expr.of(a).keepPositives().eval());
+        assertBits(Helper.keepNegatives(a), Expr.of(a).keepNegatives().eval());
+        assertBits(Helper.extractSign(a), Expr.of(a).extractSign().eval());
+        assertBits(Helper.asDouble(volume), Expr.of(volume).eval());
+        // 移位跨过块的边界
+        for (int period : new int[]{0, 1, 5, Expr.BLOCK, Expr.BLOCK + 3, SIZE + 1}) {
+            assertBits(Helper.shiftRightAndFillBy(period, -1, a), Expr.of(a).shiftRightAndFillBy(period, -1).eval());
+            assertBits(Helper.diff(a, period), Expr.of(a).diff(period).eval());
+        }
+    }
+
+    @Test
+    public void testFormulas() {
+        // ((Closing - R) / Closing) * 100
+        assertBits(Helper.multiplyBy(Helper.divide(Helper.subtract(a, b), a), 100),
+                Expr.of(a).subtract(b).divide(a).multiplyBy(100).eval());
+
+        // Tema = (3 * EMA1) - (3 * EMA2) + EMA3
+        double[] ema1 = TrendIndicators.Ema(10, a);
+        double[] ema2 = TrendIndicators.Ema(10, ema1);
+        double[] ema3 = TrendIndicators.Ema(10, ema2);
+        assertBits(Helper.add(Helper.subtract(Helper.multiplyBy(ema1, 3), Helper.multiplyBy(ema2, 3)), ema3),
+                Expr.of(ema1).multiplyBy(3).subtract(Expr.of(ema2).multiplyBy(3)).add(ema3).eval());
+
+        // 两边都是表达式，同一个子表达式用两次
+        Expr money = Expr.of(a).multiply(Expr.of(volume));
+        double[] m = Helper.multiply(a, Helper.asDouble(volume));
+        assertBits(Helper.divide(Helper.add(m, Helper.shiftRight(3, m)), Helper.addBy(Helper.abs(m), 1)),
+                money.add(money.shiftRight(3)).divide(money.abs().addBy(1)).eval());
+    }
+
+    @Test
+    public void testEvalInto() {
+        double[] result = new double[SIZE + 2];
+        result[SIZE + 1] = 9;
+        assertSame(result, Expr.of(a).addBy(1).eval(result));
+        assertEquals(9, result[SIZE + 1], 0);
+        assertEquals(Double.doubleToRawLongBits(a[SIZE - 1] + 1), Double.doubleToRawLongBits(result[SIZE - 1]));
+
+        assertEquals(0, Expr.of(new double[0]).abs().eval().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResultTooShort() {
+        Expr.of(a).eval(new double[SIZE - 1]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNotSameSize() {
+        Expr.of(a).add(new double[SIZE - 1]);
+    }
+}
@@ -0,0 +1,169 @@
+package indicator;
+
+import model.ChartBar;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 追加计算与整段重算逐位比较
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class IncrementalTests {
+    private static final int SIZE = 500;
+    private static final int[] STEPS = {1, 2, 100, 101, 102, 150, 400, SIZE};
+
+    private final ChartBar chartBar = ChartBar.withTime(SIZE);
+
+    public IncrementalTests() {
+        Random random = new Random(20221021);
+        double price = 100;
+        for (int i = 0; i < SIZE; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            chartBar.time[i] = i;
+            chartBar.open[i] = price;
+            chartBar.high[i] = price + random.nextDouble() * 3;
+            chartBar.low[i] = price - random.nextDouble() * 3;
+            chartBar.close[i] = chartBar.low[i] + (chartBar.high[i] - chartBar.low[i]) * random.nextDouble();
+            chartBar.volume[i] = 1000 + random.nextInt(100000);
+        }
+    }
+
+    private void check(Incremental<double[]> incremental, Function<ChartBar, double[]> batch) {
+        for (int size : STEPS) {
+            ChartBar bars = chartBar.copy(0, size);
+            double[] actual = incremental.update(bars);
+            double[] expected = batch.apply(bars);
+            assertEquals(expected.length, actual.length);
+            for (int i = 0; i < size; i++) {
+                assertEquals("size " + size + " index " + i,
+                        Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(actual[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsBatch() {
+        check(Incremental.Ema(12, ChartBar::getClose), c -> TrendIndicators.Ema(12, c.close));
+        check(Incremental.Dema(10, ChartBar::getClose), c -> TrendIndicators.Dema(10, c.close));
+        check(Incremental.Tema(10, ChartBar::getHigh), c -> TrendIndicators.Tema(10, c.high));
+        check(Incremental.Rma(14, ChartBar::getClose), c -> TrendIndicators.Rma(14, c.close));
+        check(Incremental.sma(20, ChartBar::getClose), c -> TrendIndicators.sma(20, c.close));
+        check(Incremental.Sum(20, ChartBar::getLow), c -> TrendIndicators.Sum(20, c.low));
+        check(Incremental.Max(30, ChartBar::getHigh), c -> TrendIndicators.Max(30, c.high));
+        check(Incremental.Min(30, ChartBar::getLow), c -> TrendIndicators.Min(30, c.low));
+        check(Incremental.AccumulationDistribution(),
+                c -> VolumeIndicators.AccumulationDistribution(c.high, c.low, c.close, c.volume));
+        check(Incremental.NegativeVolumeIndex(), c -> VolumeIndicators.NegativeVolumeIndex(c.close, c.volume));
+
+        Incremental<long[]> obv = Incremental.Obv();
+        for (int size : STEPS) {
+            ChartBar bars = chartBar.copy(0, size);
+            assertArrayEquals(VolumeIndicators.Obv(bars.close, bars.volume), obv.update(bars));
+        }
+    }
+
+    @Test
+    public void testSameSizeAndReset() {
+        Incremental<double[]> ema = Incremental.Ema(5, ChartBar::getClose);
+        double[] first = ema.update(chartBar.copy(0, 100));
+        assertSame(first, ema.update(chartBar.copy(0, 100)));
+        double[] longer = ema.update(chartBar.copy(0, 120));
+        assertEquals(100, first.length);
+        assertEquals(120, longer.length);
+
+        ema.reset();
+        assertArrayEquals(TrendIndicators.Ema(5, chartBar.copy(0, 50).close), ema.update(chartBar.copy(0, 50)), 0);
+    }
+
+    // 修正 [300, 303) 的K线并追加 20 根，与修正后整段重算比较
+    private void checkRecompute(Incremental<double[]> incremental, Function<ChartBar, double[]> batch) {
+        ChartBar bars = chartBar.copy(0, 480);
+        incremental.update(bars);
+        ChartBar corrected = chartBar.copy(0, SIZE);
+        for (int i = 300; i < 303; i++) {
+            corrected.close[i] *= 1.01;
+            corrected.high[i] = Math.max(corrected.high[i], corrected.close[i]);
+            corrected.volume[i] += 5000;
+        }
+        double[] expected = batch.apply(corrected);
+        double[] actual = incremental.recomputeFrom(corrected, 300, 3);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("index " + i, Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(actual[i]));
+        }
+        actual = incremental.recomputeFrom(chartBar, 250);
+        assertArrayEquals(batch.apply(chartBar), actual, 0);
+    }
+
+    @Test
+    public void testRecompute() {
+        checkRecompute(Incremental.Ema(12, ChartBar::getClose).checkpointEvery(50), c -> TrendIndicators.Ema(12, c.close));
+        checkRecompute(Incremental.Tema(5, ChartBar::getClose).checkpointEvery(7), c -> TrendIndicators.Tema(5, c.close));
+        checkRecompute(Incremental.Rma(14, ChartBar::getClose).checkpointEvery(64), c -> TrendIndicators.Rma(14, c.close));
+        checkRecompute(Incremental.sma(20, ChartBar::getClose).checkpointEvery(64), c -> TrendIndicators.sma(20, c.close));
+        checkRecompute(Incremental.Rsi(14, ChartBar::getClose).checkpointEvery(32),
+                c -> MomentumIndicators.RsiPeriod(14, c.close).getRight());
+        checkRecompute(Incremental.ParabolicSar().checkpointEvery(32),
+                c -> TrendIndicators.ParabolicSar(c.high, c.low, c.close).getLeft());
+        checkRecompute(Incremental.VolumePriceTrend().checkpointEvery(32), c -> VolumeIndicators.VolumePriceTrend(c.close, c.volume));
+        checkRecompute(Incremental.NegativeVolumeIndex().checkpointEvery(32), c -> VolumeIndicators.NegativeVolumeIndex(c.close, c.volume));
+        checkRecompute(Incremental.Max(30, ChartBar::getHigh), c -> TrendIndicators.Max(30, c.high));
+        // 没有检查点时从头算
+        checkRecompute(Incremental.Ema(12, ChartBar::getClose), c -> TrendIndicators.Ema(12, c.close));
+
+        Incremental<long[]> obv = Incremental.Obv().checkpointEvery(40);
+        obv.update(chartBar);
+        ChartBar corrected = chartBar.copy(0, SIZE);
+        corrected.volume[410] += 1;
+        assertArrayEquals(VolumeIndicators.Obv(corrected.close, corrected.volume), obv.recomputeFrom(corrected, 410, 1));
+    }
+
+    @Test
+    public void testCorrectedBeforeCheckpoint() {
+        // 第 39 根成交量为 0，改它的收盘价不改变第 40 根检查点的累计和，但第 40 根要读它
+        ChartBar bars = chartBar.copy(0, SIZE);
+        bars.volume[39] = 0;
+        ChartBar corrected = bars.copy(0, SIZE);
+        corrected.close[39] = bars.close[39] * 1.05;
+
+        Incremental<long[]> obv = Incremental.Obv().checkpointEvery(10);
+        obv.update(bars);
+        assertArrayEquals(VolumeIndicators.Obv(corrected.close, corrected.volume), obv.recomputeFrom(corrected, 39, 1));
+
+        Incremental<double[]> vpt = Incremental.VolumePriceTrend().checkpointEvery(10);
+        vpt.update(bars);
+        assertArrayEquals(VolumeIndicators.VolumePriceTrend(corrected.close, corrected.volume),
+                vpt.recomputeFrom(corrected, 39, 1), 0);
+    }
+
+    @Test
+    public void testConverged() {
+        // 改一根K线，Ema 在几个检查点之后逐位收敛，后面不再计算
+        int[] segments = {0};
+        Incremental<double[]> ema = Incremental.Ema(3, c -> {
+            segments[0]++;
+            return c.close;
+        }).checkpointEvery(10);
+        ema.update(chartBar);
+        ChartBar corrected = chartBar.copy(0, SIZE);
+        corrected.close[100] += 0.5;
+        segments[0] = 0;
+        double[] actual = ema.recomputeFrom(corrected, 100, 1);
+        assertTrue("segments " + segments[0], segments[0] < 30);
+        assertArrayEquals(TrendIndicators.Ema(3, corrected.close), actual, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBarsRemoved() {
+        Incremental<double[]> sma = Incremental.sma(5, ChartBar::getClose);
+        sma.update(chartBar.copy(0, 100));
+        sma.update(chartBar.copy(0, 99));
+    }
+}
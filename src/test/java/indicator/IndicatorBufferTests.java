@@ -0,0 +1,122 @@
+package indicator;
+
+import base.Pair;
+import base.Quintuple;
+import base.Triple;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 写入调用方数组的重载与分配结果的版本逐位比较
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class IndicatorBufferTests {
+    private static final int SIZE = 600;
+    private static final int OFFSET = 40;
+    private static final int LENGTH = 500;
+    private static final int OUT_OFFSET = 7;
+
+    private final double[] high = new double[SIZE];
+    private final double[] low = new double[SIZE];
+    private final double[] closing = new double[SIZE];
+    private final long[] volume = new long[SIZE];
+
+    public IndicatorBufferTests() {
+        Random random = new Random(20221008);
+        double price = 100;
+        for (int i = 0; i < SIZE; i++) {
+            price += random.nextGaussian();
+            high[i] = price + random.nextDouble() * 3;
+            low[i] = price - random.nextDouble() * 3;
+            closing[i] = low[i] + (high[i] - low[i]) * random.nextDouble();
+            volume[i] = 1000 + random.nextInt(100000);
+        }
+    }
+
+    private static double[] slice(double[] values) {
+        return Arrays.copyOfRange(values, OFFSET, OFFSET + LENGTH);
+    }
+
+    private static long[] slice(long[] values) {
+        return Arrays.copyOfRange(values, OFFSET, OFFSET + LENGTH);
+    }
+
+    // 脏数据的输出数组，检查每个位置都被写过
+    private static double[] out() {
+        double[] out = new double[OUT_OFFSET + LENGTH + 3];
+        Arrays.fill(out, Double.NaN);
+        return out;
+    }
+
+    private static void assertSlice(double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("index " + i, Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(actual[OUT_OFFSET + i]));
+        }
+        assertEquals(Double.NaN, actual[OUT_OFFSET + expected.length], 0);
+    }
+
+    @Test
+    public void testSingleOutput() {
+        double[] ema = out();
+        TrendIndicators.Ema(12, closing, OFFSET, LENGTH, ema, OUT_OFFSET);
+        assertSlice(TrendIndicators.Ema(12, slice(closing)), ema);
+
+        double[] cci = out();
+        TrendIndicators.CommunityChannelIndex(20, high, low, closing, OFFSET, LENGTH, cci, OUT_OFFSET);
+        assertSlice(TrendIndicators.CommunityChannelIndex(20, slice(high), slice(low), slice(closing)), cci);
+
+        double[] mfi = out();
+        VolumeIndicators.MoneyFlowIndex(14, high, low, closing, volume, OFFSET, LENGTH, mfi, OUT_OFFSET);
+        assertSlice(VolumeIndicators.MoneyFlowIndex(14, slice(high), slice(low), slice(closing), slice(volume)), mfi);
+    }
+
+    @Test
+    public void testMultipleOutputs() {
+        double[] macd = out();
+        double[] signal = out();
+        TrendIndicators.Macd(closing, OFFSET, LENGTH, macd, signal, OUT_OFFSET);
+        Pair<double[], double[]> expectedMacd = TrendIndicators.Macd(slice(closing));
+        assertSlice(expectedMacd.getLeft(), macd);
+        assertSlice(expectedMacd.getRight(), signal);
+
+        double[] middle = out();
+        double[] upper = out();
+        double[] lower = out();
+        VolatilityIndicators.BollingerBands(closing, OFFSET, LENGTH, middle, upper, lower, OUT_OFFSET);
+        Triple<double[], double[], double[]> expectedBands = VolatilityIndicators.BollingerBands(slice(closing));
+        assertSlice(expectedBands.getLeft(), middle);
+        assertSlice(expectedBands.getMiddle(), upper);
+        assertSlice(expectedBands.getRight(), lower);
+
+        double[][] lines = {out(), out(), out(), out(), out()};
+        MomentumIndicators.IchimokuCloud(high, low, closing, OFFSET, LENGTH,
+                lines[0], lines[1], lines[2], lines[3], lines[4], OUT_OFFSET);
+        Quintuple<double[], double[], double[], double[], double[]> cloud =
+                MomentumIndicators.IchimokuCloud(slice(high), slice(low), slice(closing));
+        assertSlice(cloud.first(), lines[0]);
+        assertSlice(cloud.second(), lines[1]);
+        assertSlice(cloud.third(), lines[2]);
+        assertSlice(cloud.forth(), lines[3]);
+        assertSlice(cloud.fifth(), lines[4]);
+    }
+
+    @Test
+    public void testInPlace() {
+        double[] values = closing.clone();
+        Helper.diff(values, 1, OFFSET, LENGTH, values, OFFSET);
+        double[] expected = Helper.diff(slice(closing), 1);
+        for (int i = 0; i < LENGTH; i++) {
+            assertEquals(Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(values[OFFSET + i]));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfRange() {
+        TrendIndicators.sma(10, closing, OFFSET, SIZE, new double[SIZE], 0);
+    }
+}
@@ -0,0 +1,125 @@
+package indicator;
+
+import base.Pair;
+import base.Triple;
+import model.Action;
+import model.ChartBar;
+import org.junit.Test;
+import strategy.AllStrategy;
+import strategy.Strategy;
+import strategy.TrendStrategies;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 指标缓存 - 结果与不缓存时逐位相同，命中次数正确
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class IndicatorCacheTests {
+    private static final int SIZE = 300;
+
+    private final double[] high = new double[SIZE];
+    private final double[] low = new double[SIZE];
+    private final double[] closing = new double[SIZE];
+
+    public IndicatorCacheTests() {
+        Random random = new Random(20221006);
+        double price = 100;
+        for (int i = 0; i < SIZE; i++) {
+            price += random.nextGaussian();
+            high[i] = price + random.nextDouble() * 3;
+            low[i] = price - random.nextDouble() * 3;
+            closing[i] = low[i] + (high[i] - low[i]) * random.nextDouble();
+        }
+    }
+
+    @Test
+    public void testSameResults() {
+        Triple<double[], double[], double[]> kdj = TrendIndicators.Kdj(14, 3, 3, high, low, closing);
+        Pair<double[], double[]> stochastic = MomentumIndicators.StochasticOscillator(high, low, closing);
+        double[] wr = MomentumIndicators.WilliamsR(low, high, closing);
+
+        IndicatorCache cache = IndicatorCache.open();
+        try {
+            Triple<double[], double[], double[]> cachedKdj = TrendIndicators.Kdj(14, 3, 3, high, low, closing);
+            assertArrayEquals(kdj.getLeft(), cachedKdj.getLeft(), 0);
+            assertArrayEquals(kdj.getMiddle(), cachedKdj.getMiddle(), 0);
+            assertArrayEquals(kdj.getRight(), cachedKdj.getRight(), 0);
+
+            Pair<double[], double[]> cachedStochastic = MomentumIndicators.StochasticOscillator(high, low, closing);
+            assertArrayEquals(stochastic.getLeft(), cachedStochastic.getLeft(), 0);
+            assertArrayEquals(stochastic.getRight(), cachedStochastic.getRight(), 0);
+            assertArrayEquals(wr, MomentumIndicators.WilliamsR(low, high, closing), 0);
+
+            // 三个指标共用 Max(14, high) 和 Min(14, low)
+            assertEquals(2, cache.getMisses("Max") + cache.getMisses("Min"));
+            assertEquals(4, cache.getHits("Max") + cache.getHits("Min"));
+
+            // 命中时返回副本，改它不影响缓存
+            Triple<double[], double[], double[]> again = TrendIndicators.Kdj(14, 3, 3, high, low, closing);
+            assertNotSame(cachedKdj.getLeft(), again.getLeft());
+            cachedKdj.getLeft()[0] = Double.NaN;
+            assertArrayEquals(kdj.getLeft(), TrendIndicators.Kdj(14, 3, 3, high, low, closing).getLeft(), 0);
+            assertEquals(2, cache.getHits("Kdj"));
+            // 不同参数、不同输入不命中
+            TrendIndicators.Ema(12, closing);
+            TrendIndicators.Ema(26, closing);
+            TrendIndicators.Ema(12, closing.clone());
+            assertEquals(3, cache.getMisses("Ema"));
+            assertEquals(0, cache.getHits("Ema"));
+        } finally {
+            cache.close();
+        }
+        assertNull(IndicatorCache.current());
+    }
+
+    @Test
+    public void testAllStrategy() {
+        ChartBar chartBar = new ChartBar(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            chartBar.datetime[i] = String.valueOf(i);
+            chartBar.open[i] = closing[i];
+            chartBar.high[i] = high[i];
+            chartBar.low[i] = low[i];
+            chartBar.close[i] = closing[i];
+            chartBar.volume[i] = 1000;
+        }
+
+        AllStrategy strategy = new AllStrategy(TrendStrategies::MacdStrategy, TrendStrategies::MacdStrategy);
+        Action[] actions = strategy.run(chartBar);
+        assertArrayEquals(TrendStrategies.MacdStrategy(chartBar), actions);
+        assertEquals(1, strategy.getLastCache().getMisses("Macd"));
+        assertEquals(1, strategy.getLastCache().getHits("Macd"));
+        assertNull(IndicatorCache.current());
+    }
+
+    // 一个子策略改了取到的 Macd，另一个子策略仍然取到原来的值
+    @Test
+    public void testChildModifiesResult() {
+        ChartBar chartBar = new ChartBar(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            chartBar.datetime[i] = String.valueOf(i);
+            chartBar.close[i] = closing[i];
+        }
+        Strategy modifying = c -> {
+            Pair<double[], double[]> macd = TrendIndicators.Macd(c.close);
+            Arrays.fill(macd.getLeft(), 0);
+            Arrays.fill(macd.getRight(), 0);
+            Action[] actions = new Action[c.size()];
+            Arrays.fill(actions, Action.BUY);
+            return actions;
+        };
+        Action[][] sibling = new Action[1][];
+        AllStrategy strategy = new AllStrategy(modifying, c -> sibling[0] = TrendStrategies.MacdStrategy(c));
+        strategy.run(chartBar);
+        assertEquals(1, strategy.getLastCache().getHits("Macd"));
+        assertArrayEquals(TrendStrategies.MacdStrategy(chartBar), sibling[0]);
+    }
+}
@@ -0,0 +1,201 @@
+package indicator;
+
+import base.Pair;
+import base.Triple;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 流式指标与批量指标逐位比较
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class IndicatorStateTests {
+    private static final int SIZE = 500;
+
+    private final double[] high = new double[SIZE];
+    private final double[] low = new double[SIZE];
+    private final double[] closing = new double[SIZE];
+
+    public IndicatorStateTests() {
+        Random random = new Random(20221008);
+        double price = 100;
+        for (int i = 0; i < SIZE; i++) {
+            price += random.nextGaussian();
+            high[i] = price + random.nextDouble() * 3;
+            low[i] = price - random.nextDouble() * 3;
+            closing[i] = low[i] + (high[i] - low[i]) * random.nextDouble();
+        }
+    }
+
+    private static void assertSame(double expected, double actual, int i) {
+        assertEquals("index " + i, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    @Test
+    public void testEmaSmaRmaSum() {
+        double[] ema = TrendIndicators.Ema(12, closing);
+        double[] sma = TrendIndicators.sma(20, closing);
+        double[] rma = TrendIndicators.Rma(14, closing);
+        double[] sum = TrendIndicators.Sum(25, closing);
+        EmaState emaState = new EmaState(12);
+        SmaState smaState = new SmaState(20);
+        RmaState rmaState = new RmaState(14);
+        SumState sumState = new SumState(25);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertSame(ema[i], emaState.update(closing[i]), i);
+            assertSame(sma[i], smaState.update(closing[i]), i);
+            assertSame(rma[i], rmaState.update(closing[i]), i);
+            assertSame(sum[i], sumState.update(closing[i]), i);
+        }
+    }
+
+    @Test
+    public void testRsiMacdBollinger() {
+        Pair<double[], double[]> rsi = MomentumIndicators.Rsi(closing);
+        Pair<double[], double[]> macd = TrendIndicators.Macd(closing);
+        Triple<double[], double[], double[]> bb = VolatilityIndicators.BollingerBands(closing);
+        RsiState rsiState = new RsiState();
+        MacdState macdState = new MacdState();
+        BollingerState bbState = new BollingerState();
+
+        for (int i = 0; i < SIZE; i++) {
+            assertSame(rsi.getRight()[i], rsiState.update(closing[i]), i);
+            assertSame(rsi.getLeft()[i], rsiState.rs(), i);
+            assertSame(macd.getLeft()[i], macdState.update(closing[i]), i);
+            assertSame(macd.getRight()[i], macdState.signal(), i);
+            assertSame(bb.getLeft()[i], bbState.update(closing[i]), i);
+            assertSame(bb.getMiddle()[i], bbState.upper(), i);
+            assertSame(bb.getRight()[i], bbState.lower(), i);
+        }
+    }
+
+    @Test
+    public void testBarStates() {
+        Pair<double[], double[]> atr = VolatilityIndicators.Atr(14, high, low, closing);
+        Pair<double[], TrendEnum[]> psar = TrendIndicators.ParabolicSar(high, low, closing);
+        Triple<double[], double[], double[]> kdj = TrendIndicators.Kdj(9, 3, 3, high, low, closing);
+        Pair<double[], double[]> vortex = TrendIndicators.Vortex(high, low, closing);
+        AtrState atrState = new AtrState(14);
+        ParabolicSarState psarState = new ParabolicSarState();
+        KdjState kdjState = new KdjState();
+        VortexState vortexState = new VortexState();
+
+        for (int i = 0; i < SIZE; i++) {
+            assertSame(atr.getRight()[i], atrState.update(high[i], low[i], closing[i]), i);
+            assertSame(atr.getLeft()[i], atrState.tr(), i);
+            assertSame(psar.getLeft()[i], psarState.update(high[i], low[i], closing[i]), i);
+            assertEquals(psar.getRight()[i], psarState.trend());
+            assertSame(kdj.getLeft()[i], kdjState.update(high[i], low[i], closing[i]), i);
+            assertSame(kdj.getMiddle()[i], kdjState.d(), i);
+            assertSame(kdj.getRight()[i], kdjState.j(), i);
+            assertSame(vortex.getLeft()[i], vortexState.update(high[i], low[i], closing[i]), i);
+            assertSame(vortex.getRight()[i], vortexState.minusVi(), i);
+        }
+    }
+
+    // 每根K线先用几个盘中价格预览，再用收盘价提交，预览值与提交值逐位相同且不影响状态
+    @Test
+    public void testPreview() {
+        Random random = new Random(20221022);
+        double[] ema = TrendIndicators.Ema(12, closing);
+        double[] rsi = MomentumIndicators.RsiPeriod(14, closing).getRight();
+        EmaState emaState = new EmaState(12);
+        SmaState smaState = new SmaState(5);
+        RsiState rsiState = new RsiState(14);
+        MacdState macdState = new MacdState();
+        MacdState macdCheck = new MacdState();
+        KdjState kdjState = new KdjState();
+        KdjState kdjCheck = new KdjState();
+
+        for (int i = 0; i < SIZE; i++) {
+            for (int t = 0; t < 3; t++) {
+                double c = low[i] + (high[i] - low[i]) * random.nextDouble();
+                emaState.preview(c);
+                rsiState.preview(c);
+                macdState.preview(c);
+                kdjState.preview(high[i], c, c);
+            }
+            assertSame(emaState.preview(closing[i]), emaState.update(closing[i]), i);
+            assertSame(ema[i], emaState.value(), i);
+            assertSame(smaState.preview(closing[i]), smaState.update(closing[i]), i);
+            assertSame(rsiState.preview(closing[i]), rsiState.update(closing[i]), i);
+            assertSame(rsi[i], rsiState.rsi(), i);
+
+            double macd = macdState.preview(closing[i]);
+            double signal = macdState.previewSignal();
+            assertSame(macdCheck.update(closing[i]), macd, i);
+            assertSame(macdCheck.signal(), signal, i);
+            assertSame(macd, macdState.update(closing[i]), i);
+
+            double k = kdjState.preview(high[i], low[i], closing[i]);
+            double d = kdjState.previewD(), j = kdjState.previewJ();
+            assertSame(kdjCheck.update(high[i], low[i], closing[i]), k, i);
+            assertSame(kdjCheck.d(), d, i);
+            assertSame(kdjCheck.j(), j, i);
+            assertSame(k, kdjState.update(high[i], low[i], closing[i]), i);
+        }
+    }
+
+    // 其余状态的预览同样逐位等于随后的提交
+    @Test
+    public void testBarStatePreview() {
+        Random random = new Random(20221024);
+        long[] volume = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            volume[i] = 1000 + random.nextInt(100000);
+        }
+        AtrState atr = new AtrState(14);
+        BollingerState bb = new BollingerState();
+        VortexState vortex = new VortexState();
+        ParabolicSarState psar = new ParabolicSarState();
+        MoneyFlowIndexState mfi = new MoneyFlowIndexState();
+        NegativeVolumeIndexState nvi = new NegativeVolumeIndexState();
+        LeastSquareState ls = new LeastSquareState();
+        MovingLeastSquareState mls = new MovingLeastSquareState(10);
+
+        for (int i = 0; i < SIZE; i++) {
+            for (int t = 0; t < 3; t++) {
+                double c = low[i] + (high[i] - low[i]) * random.nextDouble();
+                long v = random.nextInt(100000);
+                atr.preview(high[i], c, c);
+                bb.preview(c);
+                vortex.preview(high[i], c, c);
+                psar.preview(c, low[i], c);
+                mfi.preview(high[i], low[i], c, v);
+                nvi.preview(c, v);
+                ls.preview(i, c);
+                mls.preview(i, c);
+            }
+            assertSame(atr.preview(high[i], low[i], closing[i]), atr.update(high[i], low[i], closing[i]), i);
+
+            double middle = bb.preview(closing[i]);
+            double upper = bb.previewUpper(), lower = bb.previewLower();
+            assertSame(middle, bb.update(closing[i]), i);
+            assertSame(upper, bb.upper(), i);
+            assertSame(lower, bb.lower(), i);
+
+            double plusVi = vortex.preview(high[i], low[i], closing[i]);
+            double minusVi = vortex.previewMinusVi();
+            assertSame(plusVi, vortex.update(high[i], low[i], closing[i]), i);
+            assertSame(minusVi, vortex.minusVi(), i);
+
+            assertSame(psar.preview(high[i], low[i], closing[i]), psar.update(high[i], low[i], closing[i]), i);
+            assertSame(mfi.preview(high[i], low[i], closing[i], volume[i]),
+                    mfi.update(high[i], low[i], closing[i], volume[i]), i);
+            assertSame(nvi.preview(closing[i], volume[i]), nvi.update(closing[i], volume[i]), i);
+
+            double m = ls.preview(i, closing[i]), b = ls.previewB();
+            assertSame(m, ls.update(i, closing[i]), i);
+            assertSame(b, ls.b(), i);
+            m = mls.preview(i, closing[i]);
+            b = mls.previewB();
+            assertSame(m, mls.update(i, closing[i]), i);
+            assertSame(b, mls.b(), i);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package indicator;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * SIMD 内核与标量内核逐位比较，没有 jdk.incubator.vector 时跳过
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class KernelsTests {
+    private static final int SIZE = 1037;
+    private static final int OFFSET = 3;
+    private static final int LENGTH = 1021;
+    private static final int OUT_OFFSET = 5;
+
+    private final double[] a = new double[SIZE];
+    private final double[] b = new double[SIZE];
+
+    public KernelsTests() {
+        Random random = new Random(20221008);
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextGaussian() * 100;
+            b[i] = random.nextGaussian() * 100;
+        }
+        double[] special = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE};
+        for (int i = 0; i < special.length; i++) {
+            a[OFFSET + 7 * i] = special[i];
+            b[OFFSET + 11 * i + 1] = special[special.length - 1 - i];
+        }
+    }
+
+    // 反射加载 META-INF/versions/17 里的实现
+    private static Class<?> vectorKernels() {
+        try {
+            Class<?> type = Class.forName("indicator.VectorKernels");
+            Method lanes = type.getDeclaredMethod("lanes");
+            lanes.setAccessible(true);
+            Assume.assumeTrue((Integer) lanes.invoke(null) >= 2);
+            return type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            Assume.assumeNoException(e);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+        return null;
+    }
+
+    private static double[] invoke(Class<?> type, String name, Object... inputs) throws ReflectiveOperationException {
+        double[] result = new double[SIZE];
+        Object[] args;
+        Class<?>[] types;
+        if (inputs.length == 2 && inputs[1] instanceof double[]) {
+            args = new Object[]{inputs[0], OFFSET, inputs[1], OFFSET + 1, result, OUT_OFFSET, LENGTH};
+            types = new Class<?>[]{double[].class, int.class, double[].class, int.class, double[].class, int.class, int.class};
+        } else if (inputs.length == 2) {
+            args = new Object[]{inputs[0], OFFSET, inputs[1], result, OUT_OFFSET, LENGTH};
+            types = new Class<?>[]{double[].class, int.class, double.class, double[].class, int.class, int.class};
+        } else {
+            args = new Object[]{inputs[0], OFFSET, result, OUT_OFFSET, LENGTH};
+            types = new Class<?>[]{double[].class, int.class, double[].class, int.class, int.class};
+        }
+        Method method = type.getDeclaredMethod(name, types);
+        method.setAccessible(true);
+        method.invoke(null, args);
+        return result;
+    }
+
+    private static void assertSame(String name, double[] expected, double[] actual) {
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(name + " index " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+        }
+    }
+
+    @Test
+    public void testSameBits() throws ReflectiveOperationException {
+        Class<?> vector = vectorKernels();
+        for (String name : new String[]{"add", "subtract", "multiply", "divide"}) {
+            assertSame(name, invoke(ScalarKernels.class, name, a, b), invoke(vector, name, a, b));
+        }
+        for (String name : new String[]{"addBy", "multiplyBy", "divideBy"}) {
+            assertSame(name, invoke(ScalarKernels.class, name, a, 3.7), invoke(vector, name, a, 3.7));
+        }
+        for (String name : new String[]{"sqrt", "abs", "keepPositives", "keepNegatives", "extractSign"}) {
+            assertSame(name, invoke(ScalarKernels.class, name, a), invoke(vector, name, a));
+        }
+    }
+}
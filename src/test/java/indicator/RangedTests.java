@@ -0,0 +1,164 @@
+package indicator;
+
+import base.Quintuple;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 按范围计算的结果与全量计算比较，范围之外的输入填 NaN，检查没有多读
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class RangedTests {
+    private static final int SIZE = 1500;
+    private static final int FROM = 1200;
+    private static final int TO = 1300;
+
+    private final double[] high = new double[SIZE];
+    private final double[] low = new double[SIZE];
+    private final double[] closing = new double[SIZE];
+    private final long[] volume = new long[SIZE];
+
+    public RangedTests() {
+        Random random = new Random(20261018);
+        double price = 100;
+        for (int i = 0; i < SIZE; i++) {
+            price += random.nextGaussian();
+            high[i] = price + random.nextDouble() * 3;
+            low[i] = price - random.nextDouble() * 3;
+            closing[i] = low[i] + (high[i] - low[i]) * random.nextDouble();
+            volume[i] = 1000 + random.nextInt(100000);
+        }
+    }
+
+    // values with NaN outside of [lookback.start(FROM), TO)
+    private static double[] poison(double[] values, int start) {
+        double[] poisoned = new double[values.length];
+        Arrays.fill(poisoned, Double.NaN);
+        System.arraycopy(values, start, poisoned, start, TO - start);
+        return poisoned;
+    }
+
+    private static void assertRange(double[] expected, double[] actual, Lookback lookback) {
+        assertEquals(TO - FROM, actual.length);
+        for (int i = 0; i < actual.length; i++) {
+            double e = expected[FROM + i];
+            double delta = lookback.isExact() ? 1e-9 * Math.max(1, Math.abs(e)) : 1e-6;
+            assertEquals(lookback + " index " + i, e, actual[i], delta);
+        }
+    }
+
+    @Test
+    public void testComposed() {
+        assertEquals(12, Lookback.Kdj(9, 3, 3).getBars());
+        assertTrue(Lookback.Kdj(9, 3, 3).isExact());
+        assertEquals(51, Lookback.IchimokuCloud().getBars());
+        assertEquals(38, Lookback.CommunityChannelIndex(20).getBars());
+        assertEquals(Lookback.bars(14), Lookback.MoneyFlowIndex(14).then(Lookback.NONE).max(Lookback.bars(3)));
+        assertFalse(Lookback.Trix(10).isExact());
+        assertTrue(Lookback.Trix(10).getBars() > Lookback.Tema(10).getBars());
+        assertFalse(Lookback.MassIndex().isExact());
+        assertEquals(Lookback.Dema(9).getBars() + 24, Lookback.MassIndex().getBars());
+        assertTrue(Lookback.ChaikinOscillator(3, 10).isAll());
+        assertEquals(0, Lookback.ParabolicSar().start(FROM));
+        assertEquals("Lookback(all)", Lookback.Obv().toString());
+        // (11 / 13) ^ bars < 1e-10
+        assertEquals(138, Lookback.Ema(12).getBars());
+    }
+
+    @Test
+    public void testExact() {
+        Lookback lookback = Lookback.Kdj(9, 3, 3);
+        int start = lookback.start(FROM);
+        double[] h = poison(high, start), l = poison(low, start), c = poison(closing, start);
+        double[][] kdj = Ranged.compute(lookback, FROM, TO, 3, (offset, length, outs, outOffset) ->
+                TrendIndicators.Kdj(9, 3, 3, h, l, c, offset, length, outs[0], outs[1], outs[2], outOffset));
+        assertRange(TrendIndicators.Kdj(9, 3, 3, high, low, closing).getLeft(), kdj[0], lookback);
+        assertRange(TrendIndicators.Kdj(9, 3, 3, high, low, closing).getMiddle(), kdj[1], lookback);
+        assertRange(TrendIndicators.Kdj(9, 3, 3, high, low, closing).getRight(), kdj[2], lookback);
+
+        lookback = Lookback.IchimokuCloud();
+        start = lookback.start(FROM);
+        double[] h2 = poison(high, start), l2 = poison(low, start), c2 = poison(closing, start);
+        double[][] lines = Ranged.compute(lookback, FROM, TO, 5, (offset, length, outs, outOffset) ->
+                MomentumIndicators.IchimokuCloud(h2, l2, c2, offset, length,
+                        outs[0], outs[1], outs[2], outs[3], outs[4], outOffset));
+        Quintuple<double[], double[], double[], double[], double[]> cloud = MomentumIndicators.IchimokuCloud(high, low, closing);
+        assertRange(cloud.first(), lines[0], lookback);
+        assertRange(cloud.third(), lines[2], lookback);
+        assertRange(cloud.forth(), lines[3], lookback);
+        assertRange(cloud.fifth(), lines[4], lookback);
+
+        lookback = Lookback.MoneyFlowIndex(14);
+        start = lookback.start(FROM);
+        double[] h4 = poison(high, start), l4 = poison(low, start), c4 = poison(closing, start);
+        double[] mfi = Ranged.compute(lookback, FROM, TO, (offset, length, outs, outOffset) ->
+                VolumeIndicators.MoneyFlowIndex(14, h4, l4, c4, volume, offset, length, outs[0], outOffset));
+        assertRange(VolumeIndicators.MoneyFlowIndex(14, high, low, closing, volume), mfi, lookback);
+    }
+
+    @Test
+    public void testAroonTies() {
+        // 整数价格在小范围里来回，最高最低价反复相同，距离上次变化的根数跑出任何窗口
+        Random random = new Random(20261019);
+        double[] h = new double[SIZE], l = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            h[i] = 10 + random.nextInt(3);
+            l[i] = h[i] - 1 - random.nextInt(3);
+        }
+        Lookback lookback = Lookback.Aroon();
+        assertTrue(lookback.isAll());
+        double[][] aroon = Ranged.compute(lookback, FROM, TO, 2, (offset, length, outs, outOffset) ->
+                TrendIndicators.Aroon(h, l, offset, length, outs[0], outs[1], outOffset));
+        assertRange(TrendIndicators.Aroon(h, l).getLeft(), aroon[0], lookback);
+        assertRange(TrendIndicators.Aroon(h, l).getRight(), aroon[1], lookback);
+    }
+
+    @Test
+    public void testWarmUp() {
+        Lookback lookback = Lookback.Macd();
+        double[] c = poison(closing, lookback.start(FROM));
+        double[][] macd = Ranged.compute(lookback, FROM, TO, 2, (offset, length, outs, outOffset) ->
+                TrendIndicators.Macd(c, offset, length, outs[0], outs[1], outOffset));
+        assertRange(TrendIndicators.Macd(closing).getLeft(), macd[0], lookback);
+        assertRange(TrendIndicators.Macd(closing).getRight(), macd[1], lookback);
+
+        lookback = Lookback.Rsi();
+        double[] c2 = poison(closing, lookback.start(FROM));
+        double[] rsi = Ranged.compute(lookback, FROM, TO, 2, (offset, length, outs, outOffset) ->
+                MomentumIndicators.Rsi(c2, offset, length, outs[0], outs[1], outOffset))[1];
+        assertRange(MomentumIndicators.Rsi(closing).getRight(), rsi, lookback);
+
+        lookback = Lookback.MassIndex();
+        double[] h = poison(high, lookback.start(FROM)), l = poison(low, lookback.start(FROM));
+        double[] mi = Ranged.compute(lookback, FROM, TO, (offset, length, outs, outOffset) ->
+                TrendIndicators.MassIndex(h, l, offset, length, outs[0], outOffset));
+        assertRange(TrendIndicators.MassIndex(high, low), mi, lookback);
+    }
+
+    @Test
+    public void testOutOffset() {
+        Lookback lookback = Lookback.sma(20);
+        double[] out = new double[TO - FROM + 10];
+        Arrays.fill(out, Double.NaN);
+        Ranged.compute(lookback, FROM, TO, (offset, length, outs, outOffset) ->
+                TrendIndicators.sma(20, closing, offset, length, outs[0], outOffset), 5, out);
+        assertTrue(Double.isNaN(out[4]));
+        assertTrue(Double.isNaN(out[5 + TO - FROM]));
+        double[] expected = TrendIndicators.sma(20, closing);
+        for (int i = 0; i < TO - FROM; i++) {
+            assertEquals(expected[FROM + i], out[5 + i], 1e-9 * expected[FROM + i]);
+        }
+
+        // 从头开始的范围不用预热，直接写到输出里
+        double[] head = Ranged.compute(lookback, 0, 50, (offset, length, outs, outOffset) ->
+                TrendIndicators.sma(20, closing, offset, length, outs[0], outOffset));
+        assertEquals(expected[49], head[49], 0);
+    }
+}
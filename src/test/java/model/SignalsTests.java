@@ -0,0 +1,64 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class SignalsTests {
+    private static Action[] randomActions(Random random, int length) {
+        Action[] actions = new Action[length];
+        for (int i = 0; i < length; i++) {
+            actions[i] = Action.values()[random.nextInt(3)];
+        }
+        return actions;
+    }
+
+    @Test
+    public void testConvert() {
+        Random random = new Random(17);
+        for (int length : new int[]{0, 1, 63, 64, 65, 1000}) {
+            Action[] actions = randomActions(random, length);
+            Signals signals = Signals.of(actions);
+            assertArrayEquals(actions, signals.toActions());
+            assertEquals(signals, Signals.of(signals.toValues()));
+            for (int i = 0; i < length; i++) {
+                assertEquals(actions[i], signals.get(i));
+                assertEquals(actions[i].value(), signals.toValues()[i]);
+            }
+        }
+        Signals signals = new Signals(100);
+        assertTrue(signals.isAllHold());
+        signals.set(70, Action.SELL);
+        signals.set(70, Action.BUY);
+        assertEquals(Action.BUY, signals.get(70));
+        assertEquals(1, signals.countBuy());
+        assertEquals(0, signals.countSell());
+    }
+
+    @Test
+    public void testCombinators() {
+        Random random = new Random(18);
+        int length = 1000;
+        Action[] a = randomActions(random, length), b = randomActions(random, length), c = randomActions(random, length);
+        Action[] all = new Action[length], separate = new Action[length];
+        for (int i = 0; i < length; i++) {
+            all[i] = a[i] == b[i] && b[i] == c[i] ? a[i] : Action.HOLD;
+            if (a[i] == Action.BUY && b[i] == Action.HOLD) {
+                separate[i] = Action.BUY;
+            } else if (b[i] == Action.SELL && a[i] == Action.HOLD) {
+                separate[i] = Action.SELL;
+            } else {
+                separate[i] = Action.HOLD;
+            }
+        }
+        assertArrayEquals(all, Signals.all(Signals.of(a), Signals.of(b), Signals.of(c)).toActions());
+        assertArrayEquals(separate, Signals.separate(Signals.of(a), Signals.of(b)).toActions());
+    }
+}
@@ -0,0 +1,190 @@
+package pipeline;
+
+import base.Pair;
+import base.Quintuple;
+import base.Triple;
+import indicator.Helper;
+import indicator.MomentumIndicators;
+import indicator.TrendIndicators;
+import model.Action;
+import model.ChartBar;
+import org.junit.Test;
+import strategy.TrendStrategies;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 流水线的输出与指标函数逐位比较，检查重复子表达式只算一次
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class PipelineTests {
+    private static final int SIZE = 800;
+
+    private final ChartBar chartBar = ChartBar.withTime(SIZE);
+
+    public PipelineTests() {
+        Random random = new Random(20261018);
+        double price = 100;
+        for (int i = 0; i < SIZE; i++) {
+            price += random.nextGaussian();
+            chartBar.time[i] = i * 60_000L;
+            chartBar.high[i] = price + random.nextDouble() * 3;
+            chartBar.low[i] = price - random.nextDouble() * 3;
+            chartBar.open[i] = price;
+            chartBar.close[i] = chartBar.low[i] + (chartBar.high[i] - chartBar.low[i]) * random.nextDouble();
+            chartBar.volume[i] = 1000 + random.nextInt(100000);
+        }
+    }
+
+    private static void assertBits(double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("index " + i, Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(actual[i]));
+        }
+    }
+
+    private Pipeline overlapping() {
+        Expr high = Expr.HIGH, low = Expr.LOW, close = Expr.CLOSE;
+        Expr[] macd = Pipeline.Macd(close);
+        Expr[] ppo = Pipeline.PercentagePriceOscillator(12, 26, 9, close);
+        Expr[] stochastic = Pipeline.StochasticOscillator(high, low, close);
+        Expr[] kdj = Pipeline.Kdj(14, 3, 3, high, low, close);
+        Expr[] cloud = Pipeline.IchimokuCloud(high, low, close);
+        return new Pipeline()
+                .output("macd", macd[0]).output("signal", macd[1])
+                .output("apo", Pipeline.AbsolutePriceOscillator(12, 26, close))
+                .output("ppo", ppo[0]).output("ppoSignal", ppo[1]).output("ppoHistogram", ppo[2])
+                .output("dema", Pipeline.Dema(12, close))
+                .output("tema", Pipeline.Tema(12, close))
+                .output("trix", Pipeline.Trix(12, close))
+                .output("stochasticK", stochastic[0]).output("stochasticD", stochastic[1])
+                .output("williamsR", Pipeline.WilliamsR(low, high, close))
+                .output("kdjK", kdj[0]).output("kdjD", kdj[1]).output("kdjJ", kdj[2])
+                .output("conversion", cloud[0]).output("base", cloud[1]).output("spanA", cloud[2])
+                .output("spanB", cloud[3]).output("lagging", cloud[4]);
+    }
+
+    private void assertOverlapping(Map<String, double[]> results) {
+        double[] high = chartBar.high, low = chartBar.low, close = chartBar.close;
+        Pair<double[], double[]> macd = TrendIndicators.Macd(close);
+        assertBits(macd.getLeft(), results.get("macd"));
+        assertBits(macd.getRight(), results.get("signal"));
+        assertBits(TrendIndicators.AbsolutePriceOscillator(12, 26, close), results.get("apo"));
+        Triple<double[], double[], double[]> ppo = MomentumIndicators.PercentagePriceOscillator(12, 26, 9, close);
+        assertBits(ppo.getLeft(), results.get("ppo"));
+        assertBits(ppo.getMiddle(), results.get("ppoSignal"));
+        assertBits(ppo.getRight(), results.get("ppoHistogram"));
+        assertBits(TrendIndicators.Dema(12, close), results.get("dema"));
+        assertBits(TrendIndicators.Tema(12, close), results.get("tema"));
+        assertBits(TrendIndicators.Trix(12, close), results.get("trix"));
+        Pair<double[], double[]> stochastic = MomentumIndicators.StochasticOscillator(high, low, close);
+        assertBits(stochastic.getLeft(), results.get("stochasticK"));
+        assertBits(stochastic.getRight(), results.get("stochasticD"));
+        assertBits(MomentumIndicators.WilliamsR(low, high, close), results.get("williamsR"));
+        Triple<double[], double[], double[]> kdj = TrendIndicators.Kdj(14, 3, 3, high, low, close);
+        assertBits(kdj.getLeft(), results.get("kdjK"));
+        assertBits(kdj.getMiddle(), results.get("kdjD"));
+        assertBits(kdj.getRight(), results.get("kdjJ"));
+        Quintuple<double[], double[], double[], double[], double[]> cloud = MomentumIndicators.IchimokuCloud(high, low, close);
+        assertBits(cloud.first(), results.get("conversion"));
+        assertBits(cloud.second(), results.get("base"));
+        assertBits(cloud.third(), results.get("spanA"));
+        assertBits(cloud.forth(), results.get("spanB"));
+        assertBits(cloud.fifth(), results.get("lagging"));
+    }
+
+    @Test
+    public void testSameBits() {
+        Plan plan = overlapping().compile();
+        assertOverlapping(plan.run(chartBar));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertOverlapping(plan.run(chartBar, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSharing() {
+        Plan plan = overlapping().compile();
+        // Macd、APO、PPO、Dema/Tema/Trix 共用 Ema(12)、Ema(26)，随机指标、WilliamsR、Kdj 共用 Max(14)/Min(14)，
+        // 随机指标的 k 就是 Kdj 的 rsv，d 就是 Kdj 的 k
+        int unshared = 0;
+        for (Map.Entry<String, Expr> entry : overlapping().getOutputs().entrySet()) {
+            unshared += new Pipeline().output(entry.getKey(), entry.getValue()).compile().getNodeCount();
+        }
+        assertTrue(plan.getNodeCount() * 2 < unshared);
+        assertTrue(plan.getBufferCount() < plan.getNodeCount());
+
+        Map<String, double[]> results = plan.run(chartBar);
+        assertSame(results.get("stochasticD"), results.get("kdjK"));
+
+        // a + b 与 b + a 是同一个节点
+        Expr a = Expr.CLOSE.ema(5), b = Expr.OPEN.sma(5);
+        assertEquals(5, new Pipeline().output("x", a.add(b)).output("y", b.add(a)).compile().getNodeCount());
+        assertEquals(6, new Pipeline().output("x", a.subtract(b)).output("y", b.subtract(a)).compile().getNodeCount());
+    }
+
+    @Test
+    public void testBufferReuse() {
+        // 一条长链只需要两个缓冲区轮流用，加上输出自己的
+        Expr expr = Expr.CLOSE;
+        for (int i = 0; i < 50; i++) {
+            expr = expr.ema(3).addBy(1);
+        }
+        Plan plan = new Pipeline().output("chain", expr).compile();
+        assertEquals(101, plan.getNodeCount());
+        assertEquals(3, plan.getBufferCount());
+
+        double[] expected = chartBar.close;
+        for (int i = 0; i < 50; i++) {
+            expected = Helper.addBy(TrendIndicators.Ema(3, expected), 1);
+        }
+        assertBits(expected, plan.run(chartBar).get("chain"));
+    }
+
+    @Test
+    public void testJson() {
+        String json = "{\"outputs\": {\n"
+                + "  \"signal\": {\"op\": \"Macd\", \"output\": 1},\n"
+                + "  \"k\": {\"op\": \"Kdj\", \"params\": [9, 3, 3]},\n"
+                + "  \"ema12\": {\"op\": \"Ema\", \"params\": [12], \"inputs\": [\"close\"]},\n"
+                + "  \"spread\": {\"op\": \"subtract\", \"inputs\": [\"ema12\", {\"op\": \"Ema\", \"params\": [26]}]},\n"
+                + "  \"volume\": {\"op\": \"sma\", \"params\": [20], \"inputs\": [\"volume\"]},\n"
+                + "  \"cross\": {\"op\": \"compare\", \"inputs\": [\"spread\", \"signal\"]}\n"
+                + "}}";
+        Plan plan = Pipeline.fromJson(json).compile();
+        Map<String, double[]> results = plan.run(chartBar);
+        Pair<double[], double[]> macd = TrendIndicators.Macd(chartBar.close);
+        assertBits(macd.getRight(), results.get("signal"));
+        assertBits(macd.getLeft(), results.get("spread"));
+        assertBits(TrendIndicators.Kdj(9, 3, 3, chartBar.high, chartBar.low, chartBar.close).getLeft(), results.get("k"));
+        assertBits(TrendIndicators.sma(20, Helper.asDouble(chartBar.volume)), results.get("volume"));
+
+        // compare 的输出就是 MACD 策略的动作
+        assertArrayEquals(TrendStrategies.MacdStrategy(chartBar), plan.strategy("cross").run(chartBar));
+        assertEquals(Action.HOLD, Plan.toActions(new double[]{0})[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJsonCycle() {
+        Pipeline.fromJson("{\"outputs\": {\"a\": {\"op\": \"Ema\", \"params\": [3], \"inputs\": [\"b\"]},"
+                + " \"b\": {\"op\": \"abs\", \"inputs\": [\"a\"]}}}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJsonUnknownOp() {
+        Pipeline.fromJson("{\"outputs\": {\"a\": {\"op\": \"Nope\"}}}");
+    }
+}
@@ -0,0 +1,124 @@
+package ring;
+
+import model.Action;
+import model.ChartBar;
+import org.junit.Test;
+import strategy.StrategyHelper;
+import strategy.StreamingStrategyTests;
+import strategy.TrendStrategies;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 小容量反复绕圈，检查顺序、不丢不重，以及流式策略的结果
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class RingBufferTests {
+    private static final int EVENTS = 200_000;
+
+    @Test
+    public void testSingleProducer() throws InterruptedException {
+        RingBuffer ring = RingBuffer.singleProducer(64, WaitStrategy.yielding()).setLatency(new LatencyRecorder());
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < EVENTS; i++) {
+                ring.publishTrade(0, i, i * 0.5, i);
+            }
+        });
+        producer.start();
+
+        long[] expected = {0};
+        int consumed = 0;
+        while (consumed < EVENTS) {
+            consumed += ring.take((event, sequence, endOfBatch) -> {
+                assertEquals(expected[0], sequence);
+                assertEquals(expected[0], event.time);
+                assertEquals(expected[0] * 0.5, event.close, 0);
+                expected[0]++;
+            }, 32);
+        }
+        producer.join();
+        assertEquals(0, ring.backlog());
+        assertEquals(EVENTS, ring.getLatency().count());
+        assertTrue(ring.getLatency().percentile(0.5) <= ring.getLatency().max());
+    }
+
+    @Test
+    public void testMultiProducer() throws InterruptedException {
+        int producers = 3;
+        RingBuffer ring = RingBuffer.multiProducer(16, WaitStrategy.parking(1000));
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int symbol = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < EVENTS; i++) {
+                    long sequence = ring.next();
+                    ring.get(sequence).setTrade(symbol, i, 1, 1);
+                    ring.publish(sequence);
+                }
+            });
+            threads[p].start();
+        }
+
+        // 每个生产者内部有序
+        long[] next = new long[producers];
+        int consumed = 0;
+        while (consumed < EVENTS * producers) {
+            consumed += ring.take((event, sequence, endOfBatch) -> {
+                assertEquals(next[event.symbol]++, event.time);
+            }, 100);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int p = 0; p < producers; p++) {
+            assertEquals(EVENTS, next[p]);
+        }
+        assertEquals(0, ring.poll((event, sequence, endOfBatch) -> {
+        }, 100));
+    }
+
+    @Test
+    public void testStrategy() throws InterruptedException {
+        ChartBar chartBar = StreamingStrategyTests.randomChartBar(20221020, 2000, true);
+        Action[] expected = StrategyHelper.runStreaming(chartBar, TrendStrategies.MakeMacdStreamingStrategy());
+
+        RingBuffer ring = RingBuffer.singleProducer(8, WaitStrategy.yielding());
+        Action[] actions = new Action[chartBar.size()];
+        int[] index = {0};
+        StrategyHandler handler = new StrategyHandler((event, action, endOfBatch) -> actions[index[0]++] = action,
+                TrendStrategies.MakeMacdStreamingStrategy());
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < chartBar.size(); i++) {
+                ring.publishBar(0, i, chartBar.open[i], chartBar.high[i], chartBar.low[i], chartBar.close[i], chartBar.volume[i]);
+            }
+        });
+        producer.start();
+        while (index[0] < actions.length) {
+            ring.take(handler, 16);
+        }
+        producer.join();
+        assertArrayEquals(expected, actions);
+    }
+
+    @Test
+    public void testTryNextAndBuckets() {
+        RingBuffer ring = RingBuffer.singleProducer(4, WaitStrategy.busySpin());
+        for (int i = 0; i < 4; i++) {
+            ring.publish(ring.tryNext());
+        }
+        assertEquals(-1, ring.tryNext());
+        assertEquals(4, ring.backlog());
+        assertEquals(2, ring.poll((event, sequence, endOfBatch) -> {
+        }, 2));
+        assertEquals(4, ring.tryNext());
+
+        for (long nanos : new long[]{0, 7, 8, 15, 16, 1000, 123456789, Long.MAX_VALUE}) {
+            int bucket = LatencyRecorder.bucket(nanos);
+            assertTrue(nanos <= LatencyRecorder.upperBound(bucket));
+            assertTrue(bucket == 0 || nanos > LatencyRecorder.upperBound(bucket - 1));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package storage;
+
+import model.Bar;
+import model.ChartBar;
+import model.TimeIndex;
+import model.Timestamps;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class ChartBarStoreTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ChartBar chartBar(int size) {
+        ChartBar chartBar = new ChartBar(size);
+        for (int i = 0; i < size; i++) {
+            chartBar.datetime[i] = Timestamps.format(Timestamps.parse("2016-01-04 09:30") + i * 60_000L);
+            chartBar.open[i] = 100 + i;
+            chartBar.high[i] = 101 + i;
+            chartBar.low[i] = 99 + i;
+            chartBar.close[i] = 100.5 + i;
+            chartBar.volume[i] = 1000L * i;
+        }
+        return chartBar;
+    }
+
+    @Test
+    public void testTimestamps() {
+        assertEquals(0, Timestamps.parse("1970-01-01"));
+        assertEquals(1665360000000L, Timestamps.parse("2022-10-10"));
+        assertEquals(1665401400000L, Timestamps.parse("2022-10-10 11:30"));
+        assertEquals("2022-10-10", Timestamps.format(1665360000000L));
+        assertEquals("2022-10-10 11:30:00", Timestamps.format(Timestamps.parse("2022-10-10T11:30")));
+        assertEquals("1969-12-31 23:59:59.999", Timestamps.format(-1));
+        assertEquals("2024-02-29 00:00:01", Timestamps.format(Timestamps.parse("2024-02-29 00:00:01")));
+        assertEquals("2000-02-29 23:59:59.999", Timestamps.format(Timestamps.parse("2000-02-29 23:59:59.999")));
+    }
+
+    // 超出范围的字段不会折算成别的时间
+    @Test
+    public void testTimestampRange() {
+        String[] bad = {"2022-13-01", "2022-00-10", "2022-10-32", "2022-10-00", "2022-04-31", "2023-02-29",
+                "1900-02-29", "2022-10-10 24:00", "2022-10-10 12:60", "2022-10-10 12:30:60"};
+        for (String datetime : bad) {
+            try {
+                Timestamps.parse(datetime);
+                fail(datetime);
+            } catch (IllegalArgumentException e) {
+                assertEquals("datetime: " + datetime, e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testWriteAppendReopen() throws Exception {
+        Path dir = folder.getRoot().toPath().resolve("AAPL");
+        ChartBar all = chartBar(3000);
+        try (ChartBarStore store = ChartBarStore.create(dir, 10)) {
+            store.append(all, 0, 1000);
+            // 逐根追加，超过容量后重新映射
+            for (int i = 1000; i < 2999; i++) {
+                store.append(Timestamps.parse(all.datetime[i]), all.open[i], all.high[i], all.low[i], all.close[i], all.volume[i]);
+            }
+        }
+
+        try (ChartBarStore reader = ChartBarStore.openReadOnly(dir);
+             ChartBarStore writer = ChartBarStore.open(dir)) {
+            assertEquals(2999, reader.size());
+            Bar bar = new Bar();
+            bar.datetime = all.datetime[2999];
+            bar.open = all.open[2999];
+            bar.high = all.high[2999];
+            bar.low = all.low[2999];
+            bar.close = all.close[2999];
+            bar.volume = all.volume[2999];
+            writer.append(bar);
+            assertEquals(3000, reader.size());
+
+            ChartBar read = reader.read(0, 3000);
+            for (int i = 0; i < 3000; i++) {
+                assertEquals(all.datetime[i], read.datetime(i));
+            }
+            assertArrayEquals(all.times(), read.time);
+            assertArrayEquals(all.open, read.open, 0);
+            assertArrayEquals(all.high, read.high, 0);
+            assertArrayEquals(all.low, read.low, 0);
+            assertArrayEquals(all.close, read.close, 0);
+            assertArrayEquals(all.volume, read.volume);
+
+            DoubleBuffer close = reader.doubles(Column.CLOSE);
+            assertEquals(3000, close.remaining());
+            assertEquals(all.close[2500], close.get(2500), 0);
+            assertEquals(Timestamps.parse(all.datetime[42]), reader.getTime(42));
+            assertEquals(all.volume[7], reader.longs(Column.VOLUME).get(7));
+            assertArrayEquals(new double[]{all.high[10], all.high[11]}, reader.read(10, 12).high, 0);
+        }
+    }
+
+    @Test
+    public void testTimeIndex() {
+        ChartBar chartBar = chartBar(100);
+        TimeIndex index = new TimeIndex(chartBar);
+        assertEquals(3, index.indexOf(chartBar.datetime[3]));
+        assertEquals(-1, index.indexOf(Timestamps.parse(chartBar.datetime[3]) + 1));
+        assertArrayEquals(new int[]{10, 20}, index.range(chartBar.datetime[10], chartBar.datetime[20]));
+        assertArrayEquals(new int[]{0, 0}, index.range("2000-01-01", "2001-01-01"));
+        assertArrayEquals(new int[]{95, 100}, index.range(chartBar.time(95), Long.MAX_VALUE));
+        // 字符串只在输出时格式化
+        ChartBar timed = ChartBar.withTime(1);
+        timed.time[0] = chartBar.time[42];
+        assertEquals(chartBar.datetime[42], timed.datetime(0));
+        assertEquals(chartBar.row(42).substring(0, 16), timed.row(0).substring(0, 16));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadOnly() {
+        Path dir = folder.getRoot().toPath();
+        ChartBarStore.write(dir, chartBar(3)).close();
+        ChartBarStore.openReadOnly(dir).append(0, 1, 1, 1, 1, 1);
+    }
+}
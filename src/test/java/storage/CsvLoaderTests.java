@@ -0,0 +1,114 @@
+package storage;
+
+import model.ChartBar;
+import model.Timestamps;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class CsvLoaderTests {
+    private static ChartBar chartBar(int size) {
+        Random random = new Random(20221010);
+        ChartBar chartBar = new ChartBar(size);
+        double price = 100;
+        for (int i = 0; i < size; i++) {
+            price *= Math.exp(random.nextGaussian() * 0.01);
+            chartBar.datetime[i] = "2022-10-" + (10 + i % 20) + " 09:" + (10 + i % 50);
+            chartBar.open[i] = price;
+            chartBar.high[i] = price * 1.01;
+            chartBar.low[i] = -price * 1e-7;
+            chartBar.close[i] = i % 7 == 0 ? random.nextDouble() * 1e30 : price * 0.99;
+            chartBar.volume[i] = random.nextInt(1000000) - 1000;
+        }
+        return chartBar;
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static void assertSame(ChartBar expected, ChartBar actual) {
+        assertNull(actual.datetime);
+        assertArrayEquals(expected.times(), actual.time);
+        assertArrayEquals(expected.open, actual.open, 0);
+        assertArrayEquals(expected.high, actual.high, 0);
+        assertArrayEquals(expected.low, actual.low, 0);
+        assertArrayEquals(expected.close, actual.close, 0);
+        assertArrayEquals(expected.volume, actual.volume);
+    }
+
+    @Test
+    public void testParse() {
+        ChartBar chartBar = chartBar(5000);
+        // toString() 用 Double.toString，逐位还原
+        assertSame(chartBar, CsvLoader.parse(bytes(chartBar.title() + "\r\n" + chartBar)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            assertSame(chartBar, CsvLoader.parse(bytes(chartBar.toString()), executor, 7));
+            assertSame(CsvLoader.parse(bytes("")), CsvLoader.parse(bytes(""), executor, 3));
+        } finally {
+            executor.shutdown();
+        }
+
+        StringBuilder rows = new StringBuilder(chartBar.title()).append('\n');
+        for (int i = 0; i < 3; i++) {
+            rows.append(chartBar.row(i)).append("\n\n");
+        }
+        ChartBar parsed = CsvLoader.parse(bytes(rows.toString()));
+        assertEquals(3, parsed.close.length);
+        assertEquals(Double.parseDouble(String.format("%.3f", chartBar.high[2])), parsed.high[2], 0);
+    }
+
+    @Test
+    public void testNumbers() {
+        Random random = new Random(7);
+        String[] texts = {"0", "-0.0", "1e5", "1.5E-4", "123456789012345678901", "0.1000000000000000000000001",
+                "4.9E-324", "1.7976931348623157E308", "NaN", "-Infinity", "+3.25", "00012.50",
+                "9007199254740993", "9007199254740993e3", "2.2250738585072014E-308", "1e-400", "1e400", "1234567890123456789e-300"};
+        for (String text : texts) {
+            byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+            assertEquals(text, Double.doubleToLongBits(Double.parseDouble(text)),
+                    Double.doubleToLongBits(CsvLoader.parseDouble(bytes, 0, bytes.length)));
+        }
+        for (int i = 0; i < 100000; i++) {
+            double value = i % 3 == 2 ? Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE)
+                    : random.nextDouble() * Math.pow(10, random.nextInt(20) - 10);
+            String text = i % 3 == 1 ? String.format("%.4f", value) : Double.toString(value);
+            byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+            assertEquals(text, Double.doubleToLongBits(Double.parseDouble(text)),
+                    Double.doubleToLongBits(CsvLoader.parseDouble(bytes, 0, bytes.length)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadRow() {
+        CsvLoader.parse(bytes("2022-10-10,1,2,3\n"));
+    }
+
+    // 日期解析成 epoch 毫秒，和 Timestamps.parse 一样
+    @Test
+    public void testTime() {
+        ChartBar parsed = CsvLoader.parse(bytes("datetime,open,high,low,close,volume\n"
+                + "2022-10-10,1,2,0.5,1.5,100\n"
+                + "2022-10-10T09:30:15.250,1,2,0.5,1.5,100\n"));
+        assertArrayEquals(new long[]{Timestamps.parse("2022-10-10"), Timestamps.parse("2022-10-10 09:30:15.250")}, parsed.time);
+        assertEquals("2022-10-10 09:30:15.250", parsed.datetime(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadDatetime() {
+        CsvLoader.parse(bytes("2022/10/10,1,2,0.5,1.5,100\n"));
+    }
+}
@@ -0,0 +1,125 @@
+package strategy;
+
+import base.Pair;
+import model.Action;
+import model.ChartBar;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 批量引擎 - 结果与逐个运行相同，失败的品种不影响其它品种，同时加载的品种数有上限
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class BatchEngineTests {
+    private static final int SYMBOLS = 40;
+    private static final int MAX_IN_FLIGHT = 3;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static final Strategy[] STRATEGIES = {
+            TrendStrategies::MacdStrategy,
+            AllStrategy.create(MomentumStrategies::DefaultRsiStrategy, TrendStrategies::DefaultVwmaStrategy)};
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static ChartBar load(String symbol) {
+        int i = Integer.parseInt(symbol.substring(1));
+        if (i == 7) {
+            // 数据不全
+            return new ChartBar();
+        }
+        return StreamingStrategyTests.randomChartBar(i, 300 + i);
+    }
+
+    private static class Collect implements ResultSink {
+        final Map<String, List<Action[]>> results = new ConcurrentHashMap<>();
+        final Map<String, Exception> failures = new ConcurrentHashMap<>();
+
+        @Override
+        public void onResult(String symbol, List<Action[]> actions) {
+            results.put(symbol, actions);
+        }
+
+        @Override
+        public void onFailure(String symbol, Exception e) {
+            failures.put(symbol, e);
+        }
+    }
+
+    @Test
+    public void testLoader() {
+        List<String> symbols = IntStream.range(0, SYMBOLS).mapToObj(i -> "S" + i).collect(Collectors.toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        Collect collect = new Collect() {
+            @Override
+            public void onResult(String symbol, List<Action[]> actions) {
+                super.onResult(symbol, actions);
+                inFlight.decrementAndGet();
+            }
+
+            @Override
+            public void onFailure(String symbol, Exception e) {
+                super.onFailure(symbol, e);
+                inFlight.decrementAndGet();
+            }
+        };
+
+        BatchEngine.Summary summary = new BatchEngine(POOL, MAX_IN_FLIGHT).run(symbols, symbol -> {
+            maxSeen.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return load(symbol);
+        }, collect, STRATEGIES);
+
+        assertEquals(SYMBOLS - 1, summary.getSucceeded());
+        assertEquals(1, summary.getFailed());
+        assertTrue(collect.failures.containsKey("S7"));
+        assertTrue(maxSeen.get() <= MAX_IN_FLIGHT);
+        for (String symbol : symbols) {
+            if (!symbol.equals("S7")) {
+                List<Action[]> expected = StrategyHelper.run(load(symbol), STRATEGIES);
+                List<Action[]> actual = collect.results.get(symbol);
+                for (int i = 0; i < STRATEGIES.length; i++) {
+                    assertArrayEquals(expected.get(i), actual.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStream() {
+        Collect collect = new Collect();
+        BatchEngine.Summary summary = new BatchEngine(POOL, MAX_IN_FLIGHT).run(
+                IntStream.range(0, SYMBOLS).mapToObj(i -> Pair.of("S" + i, load("S" + i))), collect, STRATEGIES);
+
+        assertEquals(SYMBOLS - 1, summary.getSucceeded());
+        assertEquals(SYMBOLS - 1, collect.results.size());
+        assertEquals(1, collect.failures.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSinkFailure() {
+        ResultSink sink = new Collect() {
+            @Override
+            public void onResult(String symbol, List<Action[]> actions) {
+                throw new IllegalStateException("disk full");
+            }
+        };
+        new BatchEngine(POOL, MAX_IN_FLIGHT).run(IntStream.range(0, SYMBOLS).mapToObj(i -> "S" + i)
+                .collect(Collectors.toList()), BatchEngineTests::load, sink, STRATEGIES);
+    }
+}
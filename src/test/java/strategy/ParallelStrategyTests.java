@@ -0,0 +1,71 @@
+package strategy;
+
+import model.Action;
+import model.ChartBar;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 并行的 AllStrategy / SeparateStrategy 与逐个运行的结果相同
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class ParallelStrategyTests {
+    // 超过一块，合并也会并行
+    private static final int SIZE = StrategyHelper.CHUNK * 2 + 123;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testAllStrategy() {
+        ChartBar chartBar = StreamingStrategyTests.randomChartBar(20221018, SIZE);
+        Strategy[] children = {
+                TrendStrategies::MacdStrategy,
+                TrendStrategies.MakeTrendStrategy(2),
+                TrendStrategies::DefaultVwmaStrategy,
+                MomentumStrategies::AwesomeOscillatorStrategy};
+
+        assertArrayEquals(new AllStrategy(children).run(chartBar), AllStrategy.parallel(POOL, children).run(chartBar));
+
+        // 嵌套的并行策略
+        Strategy nested = AllStrategy.parallel(POOL, AllStrategy.parallel(POOL, children), TrendStrategies::MacdStrategy);
+        assertArrayEquals(new AllStrategy(children).run(chartBar), nested.run(chartBar));
+    }
+
+    @Test
+    public void testAllHold() {
+        ChartBar chartBar = StreamingStrategyTests.randomChartBar(20221018, SIZE);
+        Strategy hold = asset -> {
+            Action[] actions = new Action[asset.getDatetime().length];
+            Arrays.fill(actions, Action.HOLD);
+            return actions;
+        };
+
+        Action[] actions = AllStrategy.parallel(POOL, TrendStrategies::MacdStrategy, hold, MomentumStrategies::Rsi2Strategy)
+                .run(chartBar);
+        assertEquals(SIZE, actions.length);
+        for (Action action : actions) {
+            assertEquals(Action.HOLD, action);
+        }
+    }
+
+    @Test
+    public void testSeparateStrategy() {
+        ChartBar chartBar = StreamingStrategyTests.randomChartBar(20221018, SIZE);
+        Strategy buy = AllStrategy.create(TrendStrategies::MacdStrategy, MomentumStrategies::Rsi2Strategy);
+        Strategy sell = AllStrategy.create(TrendStrategies::DefaultVwmaStrategy, TrendStrategies.MakeTrendStrategy(2));
+
+        assertArrayEquals(new SeparateStrategy(buy, sell).run(chartBar),
+                SeparateStrategy.parallel(POOL, buy, sell).run(chartBar));
+    }
+}
@@ -0,0 +1,160 @@
+package strategy;
+
+import model.Action;
+import model.Bar;
+import model.ChartBar;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 流式策略与批量策略比较
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class StreamingStrategyTests {
+    private static final int SIZE = 400;
+
+    static ChartBar randomChartBar(long seed, int size) {
+        return randomChartBar(seed, size, false);
+    }
+
+    // withTime 时K线时间放在 time 列，否则放在 datetime 列
+    public static ChartBar randomChartBar(long seed, int size, boolean withTime) {
+        Random random = new Random(seed);
+        ChartBar chartBar = withTime ? ChartBar.withTime(size) : new ChartBar(size);
+        double price = 100;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(1, price + random.nextGaussian() * 2);
+            if (withTime) {
+                chartBar.time[i] = i;
+            } else {
+                chartBar.datetime[i] = String.valueOf(i);
+            }
+            chartBar.open[i] = price;
+            chartBar.high[i] = price + random.nextDouble() * 4;
+            chartBar.low[i] = price - random.nextDouble() * 4;
+            chartBar.close[i] = chartBar.low[i] + (chartBar.high[i] - chartBar.low[i]) * random.nextDouble();
+            chartBar.volume[i] = 100000 + random.nextInt(3000000);
+        }
+        return chartBar;
+    }
+
+    private static void check(ChartBar chartBar, Strategy strategy, Supplier<StreamingStrategy> streaming) {
+        assertArrayEquals(strategy.run(chartBar), StrategyHelper.runStreaming(chartBar, streaming.get()));
+    }
+
+    @Test
+    public void testSameAsBatch() {
+        ChartBar chartBar = randomChartBar(20221014, SIZE);
+
+        check(chartBar, TrendStrategies.MakeMovingChandeForecastOscillatorStrategy(10),
+                () -> TrendStrategies.MakeMovingChandeForecastOscillatorStreamingStrategy(10));
+        check(chartBar, TrendStrategies.MakeKdjStrategy(9, 3, 3), TrendStrategies::DefaultKdjStreamingStrategy);
+        check(chartBar, TrendStrategies::MacdStrategy, TrendStrategies::MakeMacdStreamingStrategy);
+        check(chartBar, TrendStrategies.MakeTrendStrategy(3), () -> TrendStrategies.MakeTrendStreamingStrategy(3));
+        check(chartBar, TrendStrategies::DefaultVwmaStrategy, TrendStrategies::DefaultVwmaStreamingStrategy);
+
+        check(chartBar, MomentumStrategies::AwesomeOscillatorStrategy, MomentumStrategies::MakeAwesomeOscillatorStreamingStrategy);
+        check(chartBar, MomentumStrategies::DefaultRsiStrategy, MomentumStrategies::DefaultRsiStreamingStrategy);
+        check(chartBar, MomentumStrategies::Rsi2Strategy, MomentumStrategies::MakeRsi2StreamingStrategy);
+        check(chartBar, MomentumStrategies::WilliamsRStrategy, MomentumStrategies::MakeWilliamsRStreamingStrategy);
+
+        check(chartBar, VolatilityStrategies::BollingerBandsStrategy, VolatilityStrategies::MakeBollingerBandsStreamingStrategy);
+        check(chartBar, VolatilityStrategies.MakeProjectionOscillatorStrategy(14, 3),
+                () -> VolatilityStrategies.MakeProjectionOscillatorStreamingStrategy(14, 3));
+
+        check(chartBar, VolumeStrategies::MoneyFlowIndexStrategy, VolumeStrategies::MakeMoneyFlowIndexStreamingStrategy);
+        check(chartBar, VolumeStrategies::ForceIndexStrategy, VolumeStrategies::MakeForceIndexStreamingStrategy);
+        check(chartBar, VolumeStrategies::EaseOfMovementStrategy, VolumeStrategies::MakeEaseOfMovementStreamingStrategy);
+        check(chartBar, VolumeStrategies::VolumeWeightedAveragePriceStrategy, VolumeStrategies::MakeVolumeWeightedAveragePriceStreamingStrategy);
+        check(chartBar, VolumeStrategies::NegativeVolumeIndexStrategy, VolumeStrategies::MakeNegativeVolumeIndexStreamingStrategy);
+        check(chartBar, VolumeStrategies::ChaikinMoneyFlowStrategy, VolumeStrategies::MakeChaikinMoneyFlowStreamingStrategy);
+
+        check(chartBar,
+                AllStrategy.create(TrendStrategies::MacdStrategy, MomentumStrategies::DefaultRsiStrategy),
+                () -> AllStreamingStrategy.create(TrendStrategies.MakeMacdStreamingStrategy(), MomentumStrategies.DefaultRsiStreamingStrategy()));
+        check(chartBar,
+                new SeparateStrategy(MomentumStrategies::WilliamsRStrategy, TrendStrategies::MacdStrategy),
+                () -> new SeparateStreamingStrategy(MomentumStrategies.MakeWilliamsRStreamingStrategy(), TrendStrategies.MakeMacdStreamingStrategy()));
+    }
+
+    // 全量回归每来一根K线都会变化，流式结果等于只用之前K线跑批量策略的最后一个值
+    @Test
+    public void testChandeForecastOscillator() {
+        ChartBar chartBar = randomChartBar(20221015, SIZE);
+        Action[] actions = StrategyHelper.runStreaming(chartBar, TrendStrategies.MakeChandeForecastOscillatorStreamingStrategy());
+
+        for (int n = 1; n <= SIZE; n += 37) {
+            ChartBar prefix = new ChartBar();
+            prefix.datetime = Arrays.copyOf(chartBar.datetime, n);
+            prefix.open = Arrays.copyOf(chartBar.open, n);
+            prefix.high = Arrays.copyOf(chartBar.high, n);
+            prefix.low = Arrays.copyOf(chartBar.low, n);
+            prefix.close = Arrays.copyOf(chartBar.close, n);
+            prefix.volume = Arrays.copyOf(chartBar.volume, n);
+            assertEquals(TrendStrategies.ChandeForecastOscillatorStrategy(prefix)[n - 1], actions[n - 1]);
+        }
+    }
+
+    // 盘中预览的 Action 等于把这根K线当作收盘提交的 Action，预览不改变状态
+    @Test
+    public void testPreview() {
+        ChartBar chartBar = randomChartBar(20221022, SIZE);
+        checkPreview(chartBar, MomentumStrategies::DefaultRsiStreamingStrategy);
+        checkPreview(chartBar, MomentumStrategies::MakeRsi2StreamingStrategy);
+        checkPreview(chartBar, TrendStrategies::MakeMacdStreamingStrategy);
+        checkPreview(chartBar, TrendStrategies::DefaultKdjStreamingStrategy);
+        checkPreview(chartBar, TrendStrategies::MakeChandeForecastOscillatorStreamingStrategy);
+        checkPreview(chartBar, () -> TrendStrategies.MakeMovingChandeForecastOscillatorStreamingStrategy(10));
+        checkPreview(chartBar, () -> TrendStrategies.MakeTrendStreamingStrategy(3));
+        checkPreview(chartBar, TrendStrategies::DefaultVwmaStreamingStrategy);
+        checkPreview(chartBar, MomentumStrategies::MakeAwesomeOscillatorStreamingStrategy);
+        checkPreview(chartBar, MomentumStrategies::MakeWilliamsRStreamingStrategy);
+        checkPreview(chartBar, VolatilityStrategies::MakeBollingerBandsStreamingStrategy);
+        checkPreview(chartBar, () -> VolatilityStrategies.MakeProjectionOscillatorStreamingStrategy(14, 3));
+        checkPreview(chartBar, VolumeStrategies::MakeMoneyFlowIndexStreamingStrategy);
+        checkPreview(chartBar, VolumeStrategies::MakeForceIndexStreamingStrategy);
+        checkPreview(chartBar, VolumeStrategies::MakeEaseOfMovementStreamingStrategy);
+        checkPreview(chartBar, VolumeStrategies::MakeVolumeWeightedAveragePriceStreamingStrategy);
+        checkPreview(chartBar, VolumeStrategies::MakeNegativeVolumeIndexStreamingStrategy);
+        checkPreview(chartBar, VolumeStrategies::MakeChaikinMoneyFlowStreamingStrategy);
+        checkPreview(chartBar, () -> AllStreamingStrategy.create(
+                TrendStrategies.MakeMacdStreamingStrategy(), MomentumStrategies.DefaultRsiStreamingStrategy()));
+        checkPreview(chartBar, () -> new SeparateStreamingStrategy(
+                TrendStrategies.DefaultKdjStreamingStrategy(), TrendStrategies.MakeMacdStreamingStrategy()));
+        checkPreview(chartBar, () -> AllStreamingStrategy.create(VolatilityStrategies.MakeBollingerBandsStreamingStrategy(),
+                VolumeStrategies.MakeMoneyFlowIndexStreamingStrategy(), TrendStrategies.MakeTrendStreamingStrategy(2)));
+    }
+
+    private static void checkPreview(ChartBar chartBar, Supplier<StreamingStrategy> factory) {
+        Action[] expected = StrategyHelper.runStreaming(chartBar, factory.get());
+        StreamingStrategy strategy = factory.get();
+        Random random = new Random(20221023);
+        for (int i = 0; i < chartBar.size(); i++) {
+            Bar bar = bar(chartBar, i);
+            Bar forming = bar(chartBar, i);
+            for (int t = 0; t < 3; t++) {
+                forming.close = bar.low + (bar.high - bar.low) * random.nextDouble();
+                strategy.preview(forming);
+            }
+            assertEquals("index " + i, expected[i], strategy.preview(bar));
+            assertEquals("index " + i, expected[i], strategy.onBar(bar));
+        }
+    }
+
+    private static Bar bar(ChartBar chartBar, int i) {
+        Bar bar = new Bar();
+        bar.open = chartBar.open[i];
+        bar.high = chartBar.high[i];
+        bar.low = chartBar.low[i];
+        bar.close = chartBar.close[i];
+        bar.volume = chartBar.volume[i];
+        return bar;
+    }
+}
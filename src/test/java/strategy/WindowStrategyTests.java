@@ -0,0 +1,72 @@
+package strategy;
+
+import model.Action;
+import model.ChartBar;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * 对 ChartBar 一段运行的策略与复制出这一段再运行的结果相同
+ *
+ * @author jinfeng.hu  @Date 2026/10/18
+ **/
+public class WindowStrategyTests {
+    private static final int SIZE = 2000;
+    private static final int WINDOW = 700;
+    private static final int STEP = 300;
+
+    private static void assertWindows(ChartBar chartBar, Strategy strategy) {
+        for (int offset = 0; offset + WINDOW <= SIZE; offset += STEP) {
+            Action[] expected = strategy.run(chartBar.copy(offset, WINDOW));
+            assertArrayEquals("offset " + offset, expected, strategy.run(chartBar, offset, WINDOW));
+        }
+    }
+
+    @Test
+    public void testStrategies() {
+        ChartBar chartBar = StreamingStrategyTests.randomChartBar(20221018, SIZE);
+        Strategy[] strategies = {
+                Strategy.of(TrendStrategies::ChandeForecastOscillatorStrategy, TrendStrategies::ChandeForecastOscillatorStrategy),
+                TrendStrategies.MakeMovingChandeForecastOscillatorStrategy(20),
+                TrendStrategies.MakeKdjStrategy(9, 3, 3),
+                Strategy.of(TrendStrategies::MacdStrategy, TrendStrategies::MacdStrategy),
+                TrendStrategies.MakeTrendStrategy(3),
+                TrendStrategies.MakeVwmaStrategy(20),
+                Strategy.of(MomentumStrategies::AwesomeOscillatorStrategy, MomentumStrategies::AwesomeOscillatorStrategy),
+                MomentumStrategies.MakeRsiStrategy(70, 30),
+                Strategy.of(MomentumStrategies::Rsi2Strategy, MomentumStrategies::Rsi2Strategy),
+                Strategy.of(MomentumStrategies::WilliamsRStrategy, MomentumStrategies::WilliamsRStrategy),
+                Strategy.of(VolatilityStrategies::BollingerBandsStrategy, VolatilityStrategies::BollingerBandsStrategy),
+                VolatilityStrategies.MakeProjectionOscillatorStrategy(14, 3),
+                Strategy.of(VolumeStrategies::MoneyFlowIndexStrategy, VolumeStrategies::MoneyFlowIndexStrategy),
+                Strategy.of(VolumeStrategies::ForceIndexStrategy, VolumeStrategies::ForceIndexStrategy),
+                Strategy.of(VolumeStrategies::EaseOfMovementStrategy, VolumeStrategies::EaseOfMovementStrategy),
+                Strategy.of(VolumeStrategies::VolumeWeightedAveragePriceStrategy, VolumeStrategies::VolumeWeightedAveragePriceStrategy),
+                Strategy.of(VolumeStrategies::NegativeVolumeIndexStrategy, VolumeStrategies::NegativeVolumeIndexStrategy),
+                Strategy.of(VolumeStrategies::ChaikinMoneyFlowStrategy, VolumeStrategies::ChaikinMoneyFlowStrategy)};
+        for (Strategy strategy : strategies) {
+            assertWindows(chartBar, strategy);
+        }
+
+        // 组合策略把区间传给子策略，没有区间版本的子策略复制这一段
+        assertWindows(chartBar, AllStrategy.create(strategies[3], strategies[4], TrendStrategies::DefaultVwmaStrategy));
+        assertWindows(chartBar, new SeparateStrategy(strategies[2], strategies[7]));
+    }
+
+    @Test
+    public void testSignals() {
+        ChartBar chartBar = StreamingStrategyTests.randomChartBar(20221018, SIZE);
+        Strategy all = AllStrategy.create(TrendStrategies::MacdStrategy, TrendStrategies.MakeTrendStrategy(2));
+        Strategy separate = new SeparateStrategy(all, MomentumStrategies.MakeRsiStrategy(60, 40));
+        assertArrayEquals(all.run(chartBar), all.signals(chartBar).toActions());
+        assertArrayEquals(separate.run(chartBar), separate.signals(chartBar).toActions());
+        assertArrayEquals(separate.run(chartBar, 100, WINDOW), separate.signals(chartBar, 100, WINDOW).toActions());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfRange() {
+        ChartBar chartBar = StreamingStrategyTests.randomChartBar(20221018, SIZE);
+        TrendStrategies.MakeKdjStrategy(9, 3, 3).run(chartBar, SIZE - 10, 11);
+    }
+}